@@ -0,0 +1,110 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import benchmarks.FrameApi;
+
+/**
+ * Gives the benchmarks access to the library, see {@link FrameApi}.
+ */
+public class FrameApiImpl implements FrameApi {
+
+    @Override
+    public Object readCsvScanner(String path, String delimiter) {
+        return new DataFrame(new CSVReader(path, delimiter).allLines());
+    }
+
+    @Override
+    public Object readCsvMapped(String path, String delimiter) {
+        return new MappedCSVReader(path, delimiter).read();
+    }
+
+    @Override
+    public Object readCsvParallel(String path, String delimiter) {
+        return new ParallelCSVReader(path, delimiter).read();
+    }
+
+    @Override
+    public Object[][] allLines(String path, String delimiter) {
+        return new CSVReader(path, delimiter).allLines();
+    }
+
+    @Override
+    public Object fromCsv(String path, String delimiter) {
+        return new DataFrame(path, delimiter);
+    }
+
+    @Override
+    public Object fromRows(String[] labels, Object[][] rows) {
+        return new DataFrame(labels, rows);
+    }
+
+    @Override
+    public Object filter(Object frame, String label, Object value) {
+        return ((DataFrame) frame).filter(new ArrayList<>(List.of(label)), new ArrayList<>(List.of(value)));
+    }
+
+    @Override
+    public Object loc(Object frame, String[] labels) {
+        return ((DataFrame) frame).loc(labels);
+    }
+
+    @Override
+    public Object iloc(Object frame, int[] indices) {
+        return ((DataFrame) frame).iloc(indices);
+    }
+
+    @Override
+    public Object[] moyenne(Object frame) {
+        return ((DataFrame) frame).moyenne();
+    }
+
+    @Override
+    public Object[] sd(Object frame, Object[] mean) {
+        return ((DataFrame) frame).sd(mean);
+    }
+
+    @Override
+    public Object[][] minEtMax(Object frame) {
+        return ((DataFrame) frame).minEtMax();
+    }
+
+    @Override
+    public boolean equals(Object frame, Object other) {
+        return frame.equals(other);
+    }
+
+    @Override
+    public Object randomFrame(int rows, int keys, long seed) {
+        Random random = new Random(seed);
+        int[] key = new int[rows];
+        int[] qty = new int[rows];
+        double[] price = new double[rows];
+        String[] names = new String[keys];
+        for (int k = 0; k < keys; k++) {
+            names[k] = "key" + k;
+        }
+        ColumnBuilder name = new ColumnBuilder(rows);
+        for (int i = 0; i < rows; i++) {
+            key[i] = random.nextInt(keys);
+            qty[i] = random.nextInt(100);
+            price[i] = random.nextDouble() * 1000;
+            name.append(names[key[i]]);
+        }
+        ArrayList<String> labels = new ArrayList<>(List.of("key", "name", "qty", "price"));
+        return new DataFrame(labels, new Column[]{
+                new IntColumn(key, rows, null), name.build(), new IntColumn(qty, rows, null), new DoubleColumn(price, rows, null)
+        });
+    }
+
+    @Override
+    public Object groupby(Object frame, String label, String option) {
+        return ((DataFrame) frame).groupby(label, option);
+    }
+
+    @Override
+    public Object parallelGroupby(Object frame, String label, String option, ForkJoinPool pool) {
+        return new ParallelGroupBy(pool).groupby((DataFrame) frame, label, option);
+    }
+}
@@ -0,0 +1,132 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares the results of a benchmark run with a stored baseline, both written by JMH in CSV format
+ * ({@code -rf csv -rff file.csv}). A benchmark is identified by its name, mode and parameters.
+ * A result is reported as a regression when it is slower than the baseline by more than the tolerance:
+ * a higher score for the time modes (avgt, sample, ss), a lower one for throughput (thrpt).
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar benchmarks.CompareBaseline baseline.csv results.csv [tolerance]},
+ * the tolerance being a fraction, 0.10 by default. The exit status is 1 if any benchmark regressed.
+ */
+public final class CompareBaseline {
+
+    private CompareBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: CompareBaseline baseline.csv results.csv [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length == 3 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-70s %12s %12.3f %s%n", entry.getKey(), "-", now.score, now.unit);
+                continue;
+            }
+            // The slowdown is the factor by which the benchmark got slower, below 1 when it got faster
+            double slowdown = now.mode.equals("thrpt") ? before.score / now.score : now.score / before.score;
+            boolean regressed = slowdown > 1 + tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-70s %12.3f %12.3f %s %+7.1f%%%s%n", entry.getKey(), before.score,
+                    now.score, now.unit, (slowdown - 1) * 100, regressed ? "  REGRESSION" : "");
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf(Locale.ROOT, "%-70s missing from the results%n", key);
+            }
+        }
+        System.out.printf(Locale.ROOT, "%d regression(s) beyond %.0f%%%n", regressions, tolerance * 100);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static final class Result {
+        final String mode;
+        final double score;
+        final String unit;
+
+        Result(String mode, double score, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+    }
+
+    /**
+     * Reads a JMH CSV result file.
+     *
+     * @param file The file.
+     * @return The results, by benchmark name, mode and parameters.
+     * @throws IOException if the file cannot be read.
+     */
+    static Map<String, Result> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException("Empty result file: " + file);
+        }
+        List<String> header = split(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+        if (benchmark < 0 || mode < 0 || score < 0 || unit < 0) {
+            throw new IllegalArgumentException("Not a JMH CSV result file: " + file);
+        }
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = split(line);
+            StringBuilder key = new StringBuilder(fields.get(benchmark)).append(' ').append(fields.get(mode));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < fields.size() && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(fields.get(i));
+                }
+            }
+            // JMH writes the scores with the decimal separator of the default locale
+            double value = Double.parseDouble(fields.get(score).replace(',', '.'));
+            results.put(key.toString(), new Result(fields.get(mode), value, fields.get(unit)));
+        }
+        return results;
+    }
+
+    /**
+     * Splits a CSV line, removing the quotes around the fields.
+     */
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '"') {
+                quoted = !quoted;
+            } else if (ch == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads the same synthetic CSV file, written by {@link DataGenerator}, with CSVReader.allLines, the Scanner-based
+ * CSVReader followed by the DataFrame(Object[][]) constructor, the DataFrame(String, String) constructor,
+ * and the memory-mapped MappedCSVReader and ParallelCSVReader on their own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CsvReadBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"5", "20"})
+    public int columns;
+
+    @Param({"1000"})
+    public int cardinality;
+
+    @Param({"mixed"})
+    public String types;
+
+    private final FrameApi api = FrameApi.get();
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = DataGenerator.writeCsv(DataGenerator.labels(columns),
+                DataGenerator.rows(rows, columns, cardinality, types, 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Object allLines() {
+        return api.allLines(file.toString(), ",");
+    }
+
+    @Benchmark
+    public Object scanner() {
+        return api.readCsvScanner(file.toString(), ",");
+    }
+
+    @Benchmark
+    public Object constructor() {
+        return api.fromCsv(file.toString(), ",");
+    }
+
+    @Benchmark
+    public Object mapped() {
+        return api.readCsvMapped(file.toString(), ",");
+    }
+
+    @Benchmark
+    public Object parallel() {
+        return api.readCsvParallel(file.toString(), ",");
+    }
+}
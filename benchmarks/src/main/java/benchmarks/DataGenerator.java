@@ -0,0 +1,106 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates the synthetic data of the benchmarks, so that they need no external file.
+ * Column c is labelled "c" + c. Each column draws its values among a fixed number of distinct values,
+ * the cardinality, with a type given by the type mix:
+ * <ul>
+ *     <li>"int": int values 0 to cardinality - 1;</li>
+ *     <li>"double": the same values plus 0.5;</li>
+ *     <li>"string": the strings "v0" to "v" + (cardinality - 1);</li>
+ *     <li>"mixed": int, double and string columns in turn, starting with an int column.</li>
+ * </ul>
+ * The same arguments always give the same data.
+ */
+public final class DataGenerator {
+
+    private DataGenerator() {
+    }
+
+    /**
+     * Returns the labels of the generated columns.
+     *
+     * @param columns The number of columns.
+     * @return The labels "c0" to "c" + (columns - 1).
+     */
+    public static String[] labels(int columns) {
+        String[] labels = new String[columns];
+        for (int c = 0; c < columns; c++) {
+            labels[c] = "c" + c;
+        }
+        return labels;
+    }
+
+    /**
+     * Generates random rows.
+     *
+     * @param rows        The number of rows.
+     * @param columns     The number of columns.
+     * @param cardinality The number of distinct values of each column.
+     * @param types       The type mix: "int", "double", "string" or "mixed".
+     * @param seed        The seed of the random values.
+     * @return The rows, each holding one Integer, Double or String per column.
+     * @throws IllegalArgumentException if the type mix is unknown.
+     */
+    public static Object[][] rows(int rows, int columns, int cardinality, String types, long seed) {
+        String[] columnTypes = new String[columns];
+        for (int c = 0; c < columns; c++) {
+            columnTypes[c] = switch (types) {
+                case "int", "double", "string" -> types;
+                case "mixed" -> new String[]{"int", "double", "string"}[c % 3];
+                default -> throw new IllegalArgumentException("Unknown type mix: " + types);
+            };
+        }
+        // The rows share the values of each column, which keeps the generated data small
+        Object[][] values = new Object[columns][cardinality];
+        for (int c = 0; c < columns; c++) {
+            for (int k = 0; k < cardinality; k++) {
+                values[c][k] = switch (columnTypes[c]) {
+                    case "int" -> k;
+                    case "double" -> k + 0.5;
+                    default -> "v" + k;
+                };
+            }
+        }
+        Random random = new Random(seed);
+        Object[][] data = new Object[rows][columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                data[r][c] = values[c][random.nextInt(cardinality)];
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Writes rows to a new temporary CSV file, with a header line and the default delimiter.
+     *
+     * @param labels The column labels.
+     * @param rows   The rows.
+     * @return The path of the file, to be deleted by the caller.
+     * @throws IOException if the file cannot be written.
+     */
+    public static Path writeCsv(String[] labels, Object[][] rows) throws IOException {
+        Path file = Files.createTempFile("benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write(String.join(",", labels));
+            writer.write('\n');
+            for (Object[] row : rows) {
+                for (int c = 0; c < row.length; c++) {
+                    if (c > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(String.valueOf(row[c]));
+                }
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,173 @@
+package benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The operations of the library exercised by the benchmarks.
+ * JMH only accepts benchmarks in a named package, and the library lives in the unnamed package,
+ * which named packages cannot import. The implementation, {@code FrameApiImpl}, therefore lives in
+ * the unnamed package and is loaded once by name; the benchmarks only ever see DataFrames as Objects.
+ */
+public interface FrameApi {
+
+    /**
+     * Reads a CSV file line by line with CSVReader and builds a DataFrame from the rows.
+     *
+     * @param path      The CSV file.
+     * @param delimiter The field delimiter.
+     * @return The DataFrame.
+     */
+    Object readCsvScanner(String path, String delimiter);
+
+    /**
+     * Reads a CSV file with MappedCSVReader.
+     *
+     * @param path      The CSV file.
+     * @param delimiter The field delimiter.
+     * @return The DataFrame.
+     */
+    Object readCsvMapped(String path, String delimiter);
+
+    /**
+     * Reads a CSV file with ParallelCSVReader on the common ForkJoinPool.
+     *
+     * @param path      The CSV file.
+     * @param delimiter The field delimiter.
+     * @return The DataFrame.
+     */
+    Object readCsvParallel(String path, String delimiter);
+
+    /**
+     * Reads all the lines of a CSV file with CSVReader.allLines.
+     *
+     * @param path      The CSV file.
+     * @param delimiter The field delimiter.
+     * @return The lines, the first holding the labels.
+     */
+    Object[][] allLines(String path, String delimiter);
+
+    /**
+     * Builds a DataFrame with the DataFrame(String, String) constructor.
+     *
+     * @param path      The CSV file.
+     * @param delimiter The field delimiter.
+     * @return The DataFrame.
+     */
+    Object fromCsv(String path, String delimiter);
+
+    /**
+     * Builds a DataFrame with the DataFrame(String[], Object[][]) constructor.
+     *
+     * @param labels The column labels.
+     * @param rows   The rows.
+     * @return The DataFrame.
+     */
+    Object fromRows(String[] labels, Object[][] rows);
+
+    /**
+     * Filters a DataFrame with DataFrame.filter(ArrayList, ArrayList) on a single column.
+     *
+     * @param frame The DataFrame.
+     * @param label The column to filter on.
+     * @param value The value to keep.
+     * @return The filtered DataFrame.
+     */
+    Object filter(Object frame, String label, Object value);
+
+    /**
+     * Selects columns with DataFrame.loc.
+     *
+     * @param frame  The DataFrame.
+     * @param labels The labels of the columns.
+     * @return The selected columns.
+     */
+    Object loc(Object frame, String[] labels);
+
+    /**
+     * Selects rows with DataFrame.iloc.
+     *
+     * @param frame   The DataFrame.
+     * @param indices The indices of the rows.
+     * @return The selected rows.
+     */
+    Object iloc(Object frame, int[] indices);
+
+    /**
+     * Computes the mean of every column with DataFrame.moyenne.
+     *
+     * @param frame The DataFrame.
+     * @return The means.
+     */
+    Object[] moyenne(Object frame);
+
+    /**
+     * Computes the standard deviation of every column with DataFrame.sd.
+     *
+     * @param frame The DataFrame.
+     * @param mean  The means, as returned by {@link #moyenne(Object)}.
+     * @return The standard deviations.
+     */
+    Object[] sd(Object frame, Object[] mean);
+
+    /**
+     * Computes the minimum and maximum of every column with DataFrame.minEtMax.
+     *
+     * @param frame The DataFrame.
+     * @return The minimums and maximums.
+     */
+    Object[][] minEtMax(Object frame);
+
+    /**
+     * Compares two DataFrames with DataFrame.equals.
+     *
+     * @param frame The DataFrame.
+     * @param other The other DataFrame.
+     * @return true if they are equal.
+     */
+    boolean equals(Object frame, Object other);
+
+    /**
+     * Builds a DataFrame of random rows: an int key column "key" holding the given number of distinct keys,
+     * the same keys as strings in "name", and an int column "qty" and a double column "price".
+     *
+     * @param rows The number of rows.
+     * @param keys The number of distinct keys.
+     * @param seed The seed of the random values.
+     * @return The DataFrame.
+     */
+    Object randomFrame(int rows, int keys, long seed);
+
+    /**
+     * Groups a DataFrame with DataFrame.groupby.
+     *
+     * @param frame  The DataFrame.
+     * @param label  The key column.
+     * @param option The aggregation.
+     * @return The grouped DataFrame.
+     */
+    Object groupby(Object frame, String label, String option);
+
+    /**
+     * Groups a DataFrame with ParallelGroupBy on the given pool.
+     *
+     * @param frame  The DataFrame.
+     * @param label  The key column.
+     * @param option The aggregation.
+     * @param pool   The pool running the groupby.
+     * @return The grouped DataFrame.
+     */
+    Object parallelGroupby(Object frame, String label, String option, ForkJoinPool pool);
+
+    /**
+     * Loads the implementation living in the unnamed package.
+     *
+     * @return The library operations.
+     */
+    static FrameApi get() {
+        try {
+            return (FrameApi) Class.forName("FrameApiImpl").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
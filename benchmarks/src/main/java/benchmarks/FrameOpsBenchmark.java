@@ -0,0 +1,128 @@
+package benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the in-memory operations of DataFrame on the synthetic data of {@link DataGenerator}:
+ * the DataFrame(String[], Object[][]) constructor, filter, groupby, loc, iloc, moyenne, sd, minEtMax and equals.
+ * Filters and groupings are made on the first column, c0.
+ * DataFrame keeps the statistics of moyenne and minEtMax from one call to the next, so these two are measured on a
+ * {@link FreshFrame} built before every invocation, outside of the timing, and time the scans rather than the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FrameOpsBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"4", "16"})
+    public int columns;
+
+    @Param({"10", "10000"})
+    public int cardinality;
+
+    @Param({"int", "double", "string", "mixed"})
+    public String types;
+
+    private final FrameApi api = FrameApi.get();
+    private String[] labels;
+    private Object[][] data;
+    private Object frame;
+    private Object copy;
+    private Object value;
+    private String[] half;
+    private int[] evenRows;
+    private Object[] mean;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        labels = DataGenerator.labels(columns);
+        data = DataGenerator.rows(rows, columns, cardinality, types, 42);
+        frame = api.fromRows(labels, data);
+        copy = api.fromRows(labels, data);
+        value = data[0][0];
+        half = Arrays.copyOf(labels, Math.max(1, columns / 2));
+        evenRows = new int[(rows + 1) / 2];
+        for (int i = 0; i < evenRows.length; i++) {
+            evenRows[i] = 2 * i;
+        }
+        mean = api.moyenne(frame);
+    }
+
+    @Benchmark
+    public Object constructor() {
+        return api.fromRows(labels, data);
+    }
+
+    @Benchmark
+    public Object filter() {
+        return api.filter(frame, "c0", value);
+    }
+
+    @Benchmark
+    public Object groupby() {
+        return api.groupby(frame, "c0", "mean");
+    }
+
+    @Benchmark
+    public Object loc() {
+        return api.loc(frame, half);
+    }
+
+    @Benchmark
+    public Object iloc() {
+        return api.iloc(frame, evenRows);
+    }
+
+    /**
+     * A DataFrame built anew before each invocation, whose statistics are not cached yet.
+     */
+    @State(Scope.Thread)
+    public static class FreshFrame {
+        private Object frame;
+
+        @Setup(Level.Invocation)
+        public void setUp(FrameOpsBenchmark benchmark) {
+            frame = benchmark.api.fromRows(benchmark.labels, benchmark.data);
+        }
+    }
+
+    @Benchmark
+    public Object moyenne(FreshFrame fresh) {
+        return api.moyenne(fresh.frame);
+    }
+
+    @Benchmark
+    public Object sd() {
+        return api.sd(frame, mean);
+    }
+
+    @Benchmark
+    public Object minEtMax(FreshFrame fresh) {
+        return api.minEtMax(fresh.frame);
+    }
+
+    @Benchmark
+    public boolean equalFrames() {
+        return api.equals(frame, copy);
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how ParallelGroupBy scales with the number of threads, against the sequential DataFrame.groupby.
+ * A low key count exercises the merged per-range tables, a high one the partitioning by group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GroupByBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"100", "100000"})
+    public int keys;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"key", "name"})
+    public String label;
+
+    private final FrameApi api = FrameApi.get();
+    private Object frame;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frame = api.randomFrame(rows, keys, 42);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object sequential() {
+        return api.groupby(frame, label, "mean");
+    }
+
+    @Benchmark
+    public Object parallel() {
+        return api.parallelGroupby(frame, label, "mean", pool);
+    }
+}
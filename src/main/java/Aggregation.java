@@ -0,0 +1,228 @@
+import java.util.BitSet;
+
+/**
+ * The built-in aggregators. Each one fills primitive accumulators indexed by group id in a single pass over the
+ * column. Null cells are skipped; a group without any value gets a null result, except for SUM (0) and COUNT (0).
+ * VAR and STD are the population variance and standard deviation, as {@link DataFrame#sd(Object[])} computes them.
+ * The accumulators of disjoint row ranges can be merged, which lets {@link ParallelGroupBy} aggregate
+ * each range on its own thread.
+ */
+public enum Aggregation implements Aggregator {
+    SUM,
+    MEAN,
+    MIN,
+    MAX,
+    COUNT,
+    VAR,
+    STD,
+    FIRST,
+    LAST;
+
+    /**
+     * Returns the aggregation with the given name, in lower case, as passed to {@link DataFrame#groupby(String, String)}.
+     *
+     * @param option The name of the aggregation, such as "sum" or "mean".
+     * @return The aggregation.
+     * @throws IllegalArgumentException if no aggregation has this name.
+     */
+    public static Aggregation of(String option) {
+        for (Aggregation aggregation : values()) {
+            if (aggregation.name().toLowerCase().equals(option)) {
+                return aggregation;
+            }
+        }
+        throw new IllegalArgumentException("L'option choisie en second parametre doit etre \"sum\", \"mean\", \"min\", "
+                + "\"max\", \"count\", \"var\", \"std\", \"first\" ou \"last\".");
+    }
+
+    /**
+     * COUNT, FIRST and LAST apply to every column, the other aggregations to numeric columns only.
+     *
+     * @param column The column to aggregate.
+     * @return true if the column can be aggregated.
+     */
+    @Override
+    public boolean accepts(Column column) {
+        return this == COUNT || this == FIRST || this == LAST || column.isNumeric();
+    }
+
+    @Override
+    public Column aggregate(Column column, int[] groupOf, int groups) {
+        Partial partial = new Partial(groups);
+        accumulate(partial, column, groupOf, 0, groupOf.length);
+        return finish(column, partial);
+    }
+
+    /**
+     * The accumulators of each group over a range of rows.
+     */
+    static final class Partial {
+        final int[] counts;
+        /**
+         * The sum, minimum, maximum or running mean, depending on the aggregation.
+         */
+        final double[] values;
+        /**
+         * The sum of squared deviations from the mean, for VAR and STD.
+         */
+        final double[] m2;
+        /**
+         * The row holding the first or last value, for FIRST and LAST.
+         */
+        final int[] rows;
+
+        Partial(int groups) {
+            counts = new int[groups];
+            values = new double[groups];
+            m2 = new double[groups];
+            rows = new int[groups];
+        }
+    }
+
+    /**
+     * Adds the rows [from, to) of a column to the accumulators of their groups.
+     *
+     * @param partial The accumulators.
+     * @param column  The column to aggregate.
+     * @param groupOf The group id of each row of the column.
+     * @param from    The first row to add.
+     * @param to      The row following the last row to add.
+     */
+    void accumulate(Partial partial, Column column, int[] groupOf, int from, int to) {
+        int[] counts = partial.counts;
+        double[] values = partial.values;
+        switch (this) {
+            case COUNT, FIRST, LAST -> {
+                for (int row = from; row < to; row++) {
+                    if (column.isNull(row)) {
+                        continue;
+                    }
+                    int g = groupOf[row];
+                    if (counts[g]++ == 0 || this == LAST) {
+                        partial.rows[g] = row;
+                    }
+                }
+            }
+            case MIN, MAX -> {
+                int sign = this == MIN ? -1 : 1;
+                for (int row = from; row < to; row++) {
+                    if (column.isNull(row)) {
+                        continue;
+                    }
+                    int g = groupOf[row];
+                    double value = column.getDouble(row);
+                    if (counts[g]++ == 0 || Double.compare(value, values[g]) * sign > 0) {
+                        values[g] = value;
+                    }
+                }
+            }
+            case VAR, STD -> {
+                // Welford's update, per group
+                double[] m2 = partial.m2;
+                for (int row = from; row < to; row++) {
+                    if (column.isNull(row)) {
+                        continue;
+                    }
+                    int g = groupOf[row];
+                    double value = column.getDouble(row);
+                    double delta = value - values[g];
+                    values[g] += delta / (++counts[g]);
+                    m2[g] += delta * (value - values[g]);
+                }
+            }
+            default -> {
+                for (int row = from; row < to; row++) {
+                    if (!column.isNull(row)) {
+                        int g = groupOf[row];
+                        values[g] += column.getDouble(row);
+                        counts[g]++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the accumulators of a range of rows into those of the range preceding it.
+     *
+     * @param into  The accumulators of the preceding rows, updated.
+     * @param later The accumulators of the following rows.
+     */
+    void merge(Partial into, Partial later) {
+        for (int g = 0; g < into.counts.length; g++) {
+            int n = later.counts[g];
+            if (n == 0) {
+                continue;
+            }
+            int m = into.counts[g];
+            if (m == 0) {
+                into.values[g] = later.values[g];
+                into.m2[g] = later.m2[g];
+                into.rows[g] = later.rows[g];
+            } else {
+                switch (this) {
+                    case MIN -> into.values[g] = Double.compare(later.values[g], into.values[g]) < 0
+                            ? later.values[g] : into.values[g];
+                    case MAX -> into.values[g] = Double.compare(later.values[g], into.values[g]) > 0
+                            ? later.values[g] : into.values[g];
+                    case VAR, STD -> {
+                        // Chan et al.'s pairwise combination of two running variances
+                        double delta = later.values[g] - into.values[g];
+                        into.values[g] += delta * n / (m + n);
+                        into.m2[g] += later.m2[g] + delta * delta * ((double) m * n / (m + n));
+                    }
+                    case LAST -> into.rows[g] = later.rows[g];
+                    case FIRST, COUNT -> {
+                    }
+                    default -> into.values[g] += later.values[g];
+                }
+            }
+            into.counts[g] = m + n;
+        }
+    }
+
+    /**
+     * Turns the accumulators into the aggregated column.
+     *
+     * @param column  The aggregated column.
+     * @param partial The accumulators of all the rows.
+     * @return A column holding one value per group, by group id.
+     */
+    Column finish(Column column, Partial partial) {
+        int groups = partial.counts.length;
+        int[] counts = partial.counts;
+        switch (this) {
+            case COUNT -> {
+                return new IntColumn(counts, groups, null);
+            }
+            case FIRST, LAST -> {
+                int[] rows = partial.rows;
+                ColumnBuilder builder = new ColumnBuilder(column.getType(), groups);
+                for (int g = 0; g < groups; g++) {
+                    builder.append(counts[g] == 0 ? null : column.get(rows[g]));
+                }
+                return builder.build();
+            }
+            case SUM -> {
+                return new DoubleColumn(partial.values, groups, null);
+            }
+            default -> {
+                double[] res = this == VAR || this == STD ? partial.m2 : partial.values;
+                BitSet empty = new BitSet();
+                for (int g = 0; g < groups; g++) {
+                    if (counts[g] == 0) {
+                        empty.set(g);
+                        res[g] = 0;
+                        continue;
+                    }
+                    res[g] = switch (this) {
+                        case MEAN, VAR -> res[g] / counts[g];
+                        case STD -> Math.sqrt(res[g] / counts[g]);
+                        default -> res[g];
+                    };
+                }
+                return new DoubleColumn(res, groups, empty);
+            }
+        }
+    }
+}
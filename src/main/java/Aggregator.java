@@ -0,0 +1,26 @@
+/**
+ * Reduces the values of a column to one value per group, for {@link DataFrame#groupby(String, Aggregator)}.
+ * The built-in aggregators are the constants of {@link Aggregation}.
+ */
+public interface Aggregator {
+
+    /**
+     * Indicates whether this aggregator applies to a column. Columns it does not apply to are left out of the result.
+     *
+     * @param column The column to aggregate.
+     * @return true if the column can be aggregated, by default if it is numeric.
+     */
+    default boolean accepts(Column column) {
+        return column.isNumeric();
+    }
+
+    /**
+     * Aggregates the values of a column by group.
+     *
+     * @param column  The column to aggregate.
+     * @param groupOf The group id of each row of the column, between 0 and groups - 1.
+     * @param groups  The number of groups.
+     * @return A column holding one value per group, by group id.
+     */
+    Column aggregate(Column column, int[] groupOf, int groups);
+}
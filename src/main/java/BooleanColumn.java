@@ -0,0 +1,52 @@
+import java.util.BitSet;
+
+/**
+ * A column of booleans backed by a primitive array.
+ */
+public class BooleanColumn extends Column {
+    boolean[] values;
+
+    /**
+     * Constructs a boolean column.
+     *
+     * @param values The values of the column. Missing cells should hold false.
+     * @param size   The number of cells in use.
+     * @param nulls  The bitmap of missing cells, or null if no cell is missing.
+     */
+    public BooleanColumn(boolean[] values, int size, BitSet nulls) {
+        super(size, nulls);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.BOOLEAN;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return values.length + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        boolean[] res = new boolean[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                res[i] = values[row];
+            }
+        }
+        return new BooleanColumn(res, rows.length, takeNulls(rows));
+    }
+}
@@ -1,7 +1,7 @@
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Scanner;
 
 public class CSVReader {
@@ -9,6 +9,11 @@ public class CSVReader {
     private Scanner sc;
     private String delimiter = ",";
 
+    private final FieldParser parser = new FieldParser();
+    private final ArrayDeque<String> sampled = new ArrayDeque<>();
+    private boolean headerRead;
+    private ColumnType[] schema;
+
     /**
      * Constructs a CSVReader object to read from the specified file with the default delimiter.
      *
@@ -37,35 +42,179 @@ public class CSVReader {
 
     /**
      * Reads the next line from the CSV file and splits it into fields.
+     * Without a schema, each field becomes an Integer if it is an int, otherwise a Double if it is a number,
+     * otherwise it stays a String. With a schema (see {@link #setSchema(ColumnType...)} and
+     * {@link #inferSchema(int)}), the first line is read as the header and every following line is parsed
+     * with the type of its columns.
      *
      * @return An array of Objects representing the fields on the next line.
      */
     public Object[] nextLine() {
-        if (!this.sc.hasNext())
+        String line = nextRawLine();
+        if (line == null)
             return new Object[]{};
-        String[] str = sc.next().split(this.delimiter);
-        Object[] res = new Object[str.length];
+        String[] str = line.split(this.delimiter);
+        boolean typed = schema != null && headerRead;
+        headerRead = true;
+        Object[] res = new Object[typed ? Math.max(str.length, schema.length) : str.length];
 
         // Iterate over the split array
-        for (int i = 0; i < str.length; i++) {
-            // Check if the value is an integer and convert if so
-            try {
-                Integer intValue = Integer.parseInt((str[i]));
-                res[i] = intValue;
-            } catch (NumberFormatException e1) {
-                // Check if the value is a double and convert if so
-                try {
-                    Double doubleValue = Double.parseDouble((String) str[i]);
-                    res[i] = doubleValue;
-                } catch (NumberFormatException e2) {
-                    res[i] = str[i];
-                }
+        for (int i = 0; i < res.length; i++) {
+            if (typed && i < schema.length) {
+                res[i] = parseTyped(i, i < str.length ? str[i] : "");
+            } else {
+                res[i] = parse(str[i]);
             }
-            // In case it is a string, nothing will be done, as it is already read as strings from the file
         }
         return res;
     }
 
+    /**
+     * Types a field without a schema: the parser recognizes ints and doubles without throwing any exception.
+     */
+    private Object parse(String field) {
+        return switch (parser.classify(field)) {
+            case INT -> parser.intValue;
+            case DOUBLE -> parser.doubleValue;
+            default -> field;
+        };
+    }
+
+    /**
+     * Parses a field with the type of column i. Empty fields are null. A field that does not fit the type
+     * widens the column, and the following lines are parsed with the wider type.
+     */
+    private Object parseTyped(int i, String field) {
+        if (field.isEmpty()) {
+            return null;
+        }
+        while (true) {
+            switch (schema[i]) {
+                case INT -> {
+                    if (parser.parseInt(field)) {
+                        return parser.intValue;
+                    }
+                }
+                case LONG -> {
+                    if (parser.parseLong(field)) {
+                        return parser.longValue;
+                    }
+                }
+                case DOUBLE -> {
+                    if (parser.parseDouble(field)) {
+                        return parser.doubleValue;
+                    }
+                }
+                case BOOLEAN -> {
+                    if (isBoolean(field)) {
+                        return Boolean.parseBoolean(field);
+                    }
+                }
+                case STRING -> {
+                    return field;
+                }
+                default -> {
+                    return parse(field);
+                }
+            }
+            ColumnType widened = schema[i].widen(typeOf(field));
+            // Unicode digits make an int but not a double: only a string holds them in a DOUBLE column
+            schema[i] = widened == schema[i] ? ColumnType.STRING : widened;
+        }
+    }
+
+    /**
+     * Returns the narrowest type able to hold a non-empty field.
+     */
+    private ColumnType typeOf(String field) {
+        if (parser.parseInt(field)) {
+            return ColumnType.INT;
+        }
+        if (parser.parseLong(field)) {
+            return ColumnType.LONG;
+        }
+        if (parser.parseDouble(field)) {
+            return ColumnType.DOUBLE;
+        }
+        if (isBoolean(field)) {
+            return ColumnType.BOOLEAN;
+        }
+        return ColumnType.STRING;
+    }
+
+    private static boolean isBoolean(String field) {
+        return field.equalsIgnoreCase("true") || field.equalsIgnoreCase("false");
+    }
+
+    /**
+     * Samples up to the given number of rows following the header and locks one type per column:
+     * INT, LONG, DOUBLE, BOOLEAN or STRING, the narrowest type holding every non-empty sampled field.
+     * The sampled lines are still returned by the following calls to {@link #nextLine()}.
+     *
+     * @param sampleRows The number of rows to sample.
+     * @return The inferred schema, one type per column of the header.
+     */
+    public ColumnType[] inferSchema(int sampleRows) {
+        ArrayList<String> lines = new ArrayList<>();
+        while (lines.size() < sampleRows + (headerRead ? 0 : 1) && sc.hasNext()) {
+            lines.add(sc.next());
+        }
+        sampled.addAll(lines);
+
+        ColumnType[] types = null;
+        for (int l = 0; l < lines.size(); l++) {
+            String[] str = lines.get(l).split(this.delimiter);
+            if (types == null) {
+                types = new ColumnType[str.length];
+                if (!headerRead) {
+                    continue;
+                }
+            }
+            for (int i = 0; i < Math.min(str.length, types.length); i++) {
+                if (!str[i].isEmpty()) {
+                    ColumnType type = typeOf(str[i]);
+                    types[i] = types[i] == null ? type : types[i].widen(type);
+                }
+            }
+        }
+        if (types == null) {
+            types = new ColumnType[0];
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == null) {
+                types[i] = ColumnType.STRING;
+            }
+        }
+        this.schema = types;
+        return getSchema();
+    }
+
+    /**
+     * Sets the type of each column explicitly, overriding any inferred schema.
+     * Columns typed OBJECT, and the columns past the end of the schema, are typed field by field.
+     *
+     * @param types The type of each column.
+     */
+    public void setSchema(ColumnType... types) {
+        this.schema = types.clone();
+    }
+
+    /**
+     * Returns the current schema, including the widenings caused by the lines read so far.
+     *
+     * @return The type of each column, or null if the reader has no schema.
+     */
+    public ColumnType[] getSchema() {
+        return schema == null ? null : schema.clone();
+    }
+
+    private String nextRawLine() {
+        if (!sampled.isEmpty()) {
+            return sampled.poll();
+        }
+        return this.sc.hasNext() ? sc.next() : null;
+    }
+
     /**
      * Reads all lines from the CSV file and returns them as a list of arrays of Objects.
      *
@@ -73,7 +222,7 @@ public class CSVReader {
      */
     public Object[][] allLines() {
         ArrayList<Object[]> list = new ArrayList<>();
-        while (this.sc.hasNext()) {
+        while (!this.EOF()) {
             list.add(this.nextLine());
         }
 
@@ -90,6 +239,6 @@ public class CSVReader {
      * @return true if the end of the file has been reached, otherwise false.
      */
     public boolean EOF() {
-        return !sc.hasNext();
+        return sampled.isEmpty() && !sc.hasNext();
     }
 }
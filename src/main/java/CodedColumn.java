@@ -0,0 +1,71 @@
+import java.util.BitSet;
+
+/**
+ * An encoded column whose cells are codes into a small column of values, its domain: the dictionary of a
+ * {@link DictionaryColumn}, the runs of a {@link RunLengthColumn} or the range of a {@link PackedColumn}.
+ * A test on the cells is run once per value of the domain, then the rows are kept by code, and
+ * {@link GroupIndex} groups the rows by code.
+ */
+public abstract class CodedColumn extends EncodedColumn {
+
+    /**
+     * Constructs a coded column of the given size.
+     *
+     * @param size  The number of cells in the column.
+     * @param nulls The bitmap of missing cells, or null if no cell is missing.
+     */
+    protected CodedColumn(int size, BitSet nulls) {
+        super(size, nulls);
+    }
+
+    /**
+     * Returns the code of the cell at the given row, its position in the domain.
+     *
+     * @param row The row index.
+     * @return The code of the cell.
+     */
+    abstract int code(int row);
+
+    /**
+     * Fills an array with the codes of consecutive rows.
+     *
+     * @param from The first row.
+     * @param to   The row following the last one.
+     * @param out  The array receiving the code of row from + i at index i.
+     */
+    void codes(int from, int to, int[] out) {
+        for (int row = from; row < to; row++) {
+            out[row - from] = code(row);
+        }
+    }
+
+    /**
+     * Returns the values the codes refer to, in a plain column.
+     *
+     * @return The domain, or null if it is too large to build.
+     */
+    abstract Column domain();
+
+    @Override
+    int retain(CellFilter filter, int[] selected, int count) {
+        Column domain = domain();
+        if (domain == null || domain.size() > count) {
+            return super.retain(filter, selected, count);
+        }
+        int[] codes = identity(domain.size());
+        int matches = filter.retain(domain, codes, codes.length);
+        boolean[] matching = new boolean[domain.size()];
+        for (int i = 0; i < matches; i++) {
+            matching[codes[i]] = true;
+        }
+        boolean nulls = nullCount() > 0;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = selected[i];
+            if (matching[code(row)] && (!nulls || !isNull(row))) {
+                selected[kept++] = row;
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.BitSet;
+
+/**
+ * A single typed column of a DataFrame.
+ * Values are kept in primitive storage by the subclasses, and missing cells are tracked in a null bitmap,
+ * so the boxed accessor {@link #get(int)} is only a view over that storage.
+ */
+public abstract class Column {
+    protected int size;
+    protected BitSet nulls;
+
+    /**
+     * Constructs a column of the given size.
+     *
+     * @param size  The number of cells in the column.
+     * @param nulls The bitmap of missing cells, or null if no cell is missing.
+     */
+    protected Column(int size, BitSet nulls) {
+        this.size = size;
+        this.nulls = nulls == null ? new BitSet() : nulls;
+    }
+
+    /**
+     * Returns the storage type of the column.
+     *
+     * @return The column type.
+     */
+    public abstract ColumnType getType();
+
+    /**
+     * Returns the boxed value of the cell at the given row.
+     *
+     * @param row The row index.
+     * @return The value, or null if the cell is missing.
+     */
+    public abstract Object get(int row);
+
+    /**
+     * Returns a new column holding the cells at the given rows, in the given order.
+     * A negative index gives a null cell.
+     *
+     * @param rows The row indices to gather, or -1 for a missing cell.
+     * @return The gathered column.
+     */
+    public abstract Column take(int[] rows);
+
+    /**
+     * Estimates the heap memory held by the column.
+     *
+     * @return The size of its storage and of its null bitmap, in bytes.
+     */
+    public abstract long getMemoryBytes();
+
+    /**
+     * Returns the size of the null bitmap.
+     *
+     * @return The size of the bitmap, in bytes.
+     */
+    protected long nullBytes() {
+        return nulls.size() / 8;
+    }
+
+    /**
+     * Returns the number of cells in the column.
+     *
+     * @return The column size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indicates whether the cell at the given row is missing.
+     *
+     * @param row The row index.
+     * @return true if the cell is null, otherwise false.
+     */
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * Returns the number of missing cells in the column.
+     *
+     * @return The null count.
+     */
+    public int nullCount() {
+        return nulls.cardinality();
+    }
+
+    /**
+     * Indicates whether the non-null cells of this column are all numbers.
+     *
+     * @return true if numerical operations apply to this column.
+     */
+    public boolean isNumeric() {
+        return getType().isNumeric();
+    }
+
+    /**
+     * Returns the cell at the given row as an int.
+     *
+     * @param row The row index.
+     * @return The value of the cell.
+     * @throws UnsupportedOperationException if the column does not hold ints.
+     */
+    public int getInt(int row) {
+        throw new UnsupportedOperationException("Column of type " + getType() + " does not hold ints.");
+    }
+
+    /**
+     * Returns the cell at the given row as a long.
+     *
+     * @param row The row index.
+     * @return The value of the cell.
+     * @throws UnsupportedOperationException if the column does not hold integral numbers.
+     */
+    public long getLong(int row) {
+        throw new UnsupportedOperationException("Column of type " + getType() + " does not hold longs.");
+    }
+
+    /**
+     * Returns the cell at the given row as a double.
+     *
+     * @param row The row index.
+     * @return The value of the cell.
+     * @throws UnsupportedOperationException if the column is not numeric.
+     */
+    public double getDouble(int row) {
+        throw new UnsupportedOperationException("Column of type " + getType() + " is not numeric.");
+    }
+
+    /**
+     * Returns the cell at the given row as a boolean.
+     *
+     * @param row The row index.
+     * @return The value of the cell.
+     * @throws UnsupportedOperationException if the column does not hold booleans.
+     */
+    public boolean getBoolean(int row) {
+        throw new UnsupportedOperationException("Column of type " + getType() + " does not hold booleans.");
+    }
+
+    /**
+     * Returns a copy of the null bitmap restricted to the given rows.
+     *
+     * @param rows The row indices to gather.
+     * @return A bitmap where bit i is set if rows[i] is null or negative.
+     */
+    protected BitSet takeNulls(int[] rows) {
+        BitSet res = new BitSet();
+        boolean none = nulls.isEmpty();
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] < 0 || !none && nulls.get(rows[i])) {
+                res.set(i);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Builds a column from boxed values, choosing the narrowest storage that keeps every value unchanged.
+     *
+     * @param values The values of the column.
+     * @return A typed column holding the values.
+     */
+    public static Column of(Object[] values) {
+        ColumnBuilder builder = new ColumnBuilder(values.length);
+        for (Object value : values) {
+            builder.append(value);
+        }
+        return builder.build();
+    }
+}
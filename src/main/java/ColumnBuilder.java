@@ -0,0 +1,387 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Accumulates the cells of a column one at a time and builds the matching typed {@link Column}.
+ * By default the storage type is taken from the first non-null value; if a later value does not fit that type,
+ * the builder falls back to an {@link ObjectColumn} so every value keeps its original boxed type.
+ * A builder created for a given type instead widens its storage with {@link ColumnType#widen(ColumnType)}
+ * when a value does not fit, converting the cells appended so far.
+ */
+public class ColumnBuilder {
+    private ColumnType type;
+    private final boolean widening;
+    private int size;
+    private final BitSet nulls = new BitSet();
+
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+    private boolean[] booleans;
+    private Object[] objects;
+    private HashMap<String, Integer> dictionary;
+    private String[] strings;
+
+    /**
+     * Constructs a builder with a default initial capacity.
+     */
+    public ColumnBuilder() {
+        this(16);
+    }
+
+    /**
+     * Constructs a builder expecting about the given number of cells.
+     *
+     * @param capacity The initial capacity of the builder.
+     */
+    public ColumnBuilder(int capacity) {
+        this.objects = new Object[Math.max(capacity, 1)];
+        this.widening = false;
+    }
+
+    /**
+     * Constructs a builder storing its cells with the given type, widened as needed.
+     *
+     * @param type     The initial storage type.
+     * @param capacity The initial capacity of the builder.
+     */
+    public ColumnBuilder(ColumnType type, int capacity) {
+        this.objects = new Object[Math.max(capacity, 1)];
+        this.widening = true;
+        start(type);
+    }
+
+    /**
+     * Constructs a builder holding a copy of the cells of a column, to append more cells to it.
+     * The builder takes the storage type of the column, unless it holds no value, and never writes into the
+     * storage of the column.
+     *
+     * @param column   The column to copy.
+     * @param capacity The initial capacity of the builder, raised to the size of the column if smaller.
+     * @return The builder.
+     */
+    static ColumnBuilder of(Column column, int capacity) {
+        ColumnBuilder builder = new ColumnBuilder(Math.max(capacity, column.size()));
+        builder.appendColumn(column);
+        return builder;
+    }
+
+    /**
+     * Returns the number of cells appended so far.
+     *
+     * @return The builder size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a missing cell.
+     */
+    public void appendNull() {
+        ensureCapacity(size + 1);
+        nulls.set(size);
+        size++;
+    }
+
+    /**
+     * Appends a boxed value, or a missing cell if the value is null.
+     *
+     * @param value The value to append.
+     */
+    public void append(Object value) {
+        if (value == null) {
+            appendNull();
+            return;
+        }
+        if (type == null) {
+            start(typeOf(value));
+        } else if (type != ColumnType.OBJECT && type != typeOf(value)) {
+            if (widening) {
+                // A narrower value is only converted: widening copies every cell appended so far
+                ColumnType widened = type.widen(typeOf(value));
+                if (widened != type) {
+                    widen(widened);
+                }
+                value = convert(value, type);
+            } else {
+                toObjects();
+            }
+        }
+        ensureCapacity(size + 1);
+        switch (type) {
+            case INT -> ints[size] = (Integer) value;
+            case LONG -> longs[size] = (Long) value;
+            case DOUBLE -> doubles[size] = (Double) value;
+            case BOOLEAN -> booleans[size] = (Boolean) value;
+            case STRING -> ints[size] = encode((String) value);
+            default -> objects[size] = value;
+        }
+        size++;
+    }
+
+    /**
+     * Appends an int without boxing it when the column stores ints.
+     *
+     * @param value The value to append.
+     */
+    public void appendInt(int value) {
+        if (type == ColumnType.INT) {
+            ensureCapacity(size + 1);
+            ints[size++] = value;
+        } else {
+            append(value);
+        }
+    }
+
+    /**
+     * Appends a long without boxing it when the column stores longs.
+     *
+     * @param value The value to append.
+     */
+    public void appendLong(long value) {
+        if (type == ColumnType.LONG) {
+            ensureCapacity(size + 1);
+            longs[size++] = value;
+        } else {
+            append(value);
+        }
+    }
+
+    /**
+     * Appends a double without boxing it when the column stores doubles.
+     *
+     * @param value The value to append.
+     */
+    public void appendDouble(double value) {
+        if (type == ColumnType.DOUBLE) {
+            ensureCapacity(size + 1);
+            doubles[size++] = value;
+        } else {
+            append(value);
+        }
+    }
+
+    /**
+     * Appends every cell of a column. The cells of a plain column of the storage type of the builder are copied
+     * in bulk, the numbers of a narrower numeric column are converted by a builder created for a given type, and
+     * the strings of a string column are encoded once per code; other cells are appended one by one.
+     *
+     * @param column The column to append.
+     */
+    public void appendColumn(Column column) {
+        Column plain = Compression.plain(column);
+        int n = plain.size();
+        if (type == null && plain.nullCount() < n && plain.getType() != ColumnType.OBJECT) {
+            start(plain.getType());
+        }
+        if (widening && plain.getType().isNumeric() && type != plain.getType() && type.widen(plain.getType()) == type) {
+            appendNumbers(plain);
+            return;
+        }
+        if (type != plain.getType() || plain instanceof ObjectColumn) {
+            for (int row = 0; row < n; row++) {
+                append(plain.get(row));
+            }
+            return;
+        }
+        ensureCapacity(size + n);
+        if (plain instanceof IntColumn typed) {
+            System.arraycopy(typed.values, 0, ints, size, n);
+        } else if (plain instanceof LongColumn typed) {
+            System.arraycopy(typed.values, 0, longs, size, n);
+        } else if (plain instanceof DoubleColumn typed) {
+            System.arraycopy(typed.values, 0, doubles, size, n);
+        } else if (plain instanceof BooleanColumn typed) {
+            System.arraycopy(typed.values, 0, booleans, size, n);
+        } else {
+            StringColumn strings = (StringColumn) plain;
+            int[] codes = new int[strings.dictionary.length];
+            Arrays.fill(codes, -1);
+            for (int row = 0; row < n; row++) {
+                if (!strings.isNull(row)) {
+                    int code = strings.codes[row];
+                    if (codes[code] < 0) {
+                        codes[code] = encode(strings.dictionary[code]);
+                    }
+                    ints[size + row] = codes[code];
+                }
+            }
+        }
+        for (int row = plain.nulls.nextSetBit(0); row >= 0 && row < n; row = plain.nulls.nextSetBit(row + 1)) {
+            nulls.set(size + row);
+        }
+        size += n;
+    }
+
+    /**
+     * Appends the cells of a plain numeric column of a type narrower than the numeric storage type of the
+     * builder, converting them without boxing.
+     */
+    private void appendNumbers(Column plain) {
+        int n = plain.size();
+        ensureCapacity(size + n);
+        for (int row = 0; row < n; row++) {
+            if (plain.isNull(row)) {
+                nulls.set(size + row);
+            } else if (type == ColumnType.LONG) {
+                longs[size + row] = plain.getLong(row);
+            } else {
+                doubles[size + row] = plain.getDouble(row);
+            }
+        }
+        size += n;
+    }
+
+    /**
+     * Builds the column holding every appended cell. The builder can keep appending cells afterwards, to build
+     * a longer column: the column gets its own null bitmap and dictionary, and only shares the part of the
+     * storage arrays it holds, which the builder never writes again.
+     *
+     * @return The typed column.
+     */
+    public Column build() {
+        if (type == null) {
+            return new ObjectColumn(new Object[size], size);
+        }
+        BitSet cellNulls = (BitSet) nulls.clone();
+        return switch (type) {
+            case INT -> new IntColumn(ints, size, cellNulls);
+            case LONG -> new LongColumn(longs, size, cellNulls);
+            case DOUBLE -> new DoubleColumn(doubles, size, cellNulls);
+            case BOOLEAN -> new BooleanColumn(booleans, size, cellNulls);
+            case STRING -> new StringColumn(ints, size, Arrays.copyOf(strings, dictionary.size()), cellNulls);
+            default -> new ObjectColumn(objects, size, cellNulls);
+        };
+    }
+
+    private static ColumnType typeOf(Object value) {
+        if (value instanceof Integer) {
+            return ColumnType.INT;
+        }
+        if (value instanceof Long) {
+            return ColumnType.LONG;
+        }
+        if (value instanceof Double) {
+            return ColumnType.DOUBLE;
+        }
+        if (value instanceof Boolean) {
+            return ColumnType.BOOLEAN;
+        }
+        if (value instanceof String) {
+            return ColumnType.STRING;
+        }
+        return ColumnType.OBJECT;
+    }
+
+    private void start(ColumnType newType) {
+        type = newType;
+        int capacity = objects.length;
+        switch (type) {
+            case INT -> ints = new int[capacity];
+            case LONG -> longs = new long[capacity];
+            case DOUBLE -> doubles = new double[capacity];
+            case BOOLEAN -> booleans = new boolean[capacity];
+            case STRING -> {
+                ints = new int[capacity];
+                dictionary = new HashMap<>();
+                strings = new String[16];
+            }
+            default -> {
+                return;
+            }
+        }
+        objects = null;
+    }
+
+    private int encode(String value) {
+        Integer code = dictionary.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.put(value, code);
+            if (code == strings.length) {
+                strings = Arrays.copyOf(strings, code * 2);
+            }
+            strings[code] = value;
+        }
+        return code;
+    }
+
+    /**
+     * Converts the cells appended so far to a wider storage type.
+     */
+    private void widen(ColumnType newType) {
+        if (newType == ColumnType.OBJECT) {
+            toObjects();
+            return;
+        }
+        Column current = build();
+        int count = size;
+        BitSet currentNulls = (BitSet) nulls.clone();
+        int capacity = capacity();
+        type = null;
+        objects = new Object[capacity];
+        size = 0;
+        nulls.clear();
+        start(newType);
+        for (int i = 0; i < count; i++) {
+            append(currentNulls.get(i) ? null : convert(current.get(i), newType));
+        }
+    }
+
+    private static Object convert(Object value, ColumnType newType) {
+        return switch (newType) {
+            case LONG -> ((Number) value).longValue();
+            case DOUBLE -> ((Number) value).doubleValue();
+            case STRING -> value.toString();
+            default -> value;
+        };
+    }
+
+    private void toObjects() {
+        Column current = build();
+        Object[] boxed = new Object[capacity()];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = current.get(i);
+        }
+        ints = null;
+        longs = null;
+        doubles = null;
+        booleans = null;
+        dictionary = null;
+        strings = null;
+        objects = boxed;
+        type = ColumnType.OBJECT;
+    }
+
+    private int capacity() {
+        if (type == null || type == ColumnType.OBJECT) {
+            return objects.length;
+        }
+        return switch (type) {
+            case INT, STRING -> ints.length;
+            case LONG -> longs.length;
+            case DOUBLE -> doubles.length;
+            default -> booleans.length;
+        };
+    }
+
+    private void ensureCapacity(int needed) {
+        int capacity = capacity();
+        if (needed <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(needed, capacity + (capacity >> 1) + 1);
+        if (type == null || type == ColumnType.OBJECT) {
+            objects = Arrays.copyOf(objects, newCapacity);
+            return;
+        }
+        switch (type) {
+            case INT, STRING -> ints = Arrays.copyOf(ints, newCapacity);
+            case LONG -> longs = Arrays.copyOf(longs, newCapacity);
+            case DOUBLE -> doubles = Arrays.copyOf(doubles, newCapacity);
+            default -> booleans = Arrays.copyOf(booleans, newCapacity);
+        }
+    }
+}
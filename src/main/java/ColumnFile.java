@@ -0,0 +1,522 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+
+/**
+ * A DataFrame stored in a binary columnar file, written by {@link DataFrame#save(Path)}.
+ * All numbers are little-endian. The file starts with a header: a magic number, the format version, the row count,
+ * the column count, then the type and UTF-8 label of each column. Each column follows in its own block, starting
+ * on an 8-byte boundary: the words of its null bitmap, then its values, as primitive arrays for int, long and double
+ * columns, as a bitmap for boolean columns, as the dictionary and the codes for string columns, and with Java
+ * serialization for object columns, whose cells are restricted to strings, booleans, characters and JDK numbers.
+ * The file ends with the offset and the length of each block, then the offset of that directory.
+ * Opening a file only reads its header and maps each block in memory. The laziness is per column, not per page:
+ * the first use of a column decodes its whole block from the mapped pages, which the system reads on demand, into
+ * heap arrays, and releases the mapping. Opening a wide file and reading a few of its columns thus only reads and
+ * allocates those columns, but reading a single cell of a column costs as much as reading all of it.
+ */
+final class ColumnFile {
+    private static final int MAGIC = 0x314A4644;
+    private static final int VERSION = 1;
+    /**
+     * The largest mapping; longer blocks are mapped in several segments.
+     */
+    private static final int SEGMENT_BYTES = 1 << 30;
+    /**
+     * The largest write buffer; smaller files, such as the spills of {@link DataFrameStream}, get a buffer of
+     * about their size.
+     */
+    private static final int BUFFER_BYTES = 1 << 20;
+    /**
+     * Only lets the deserialization of an object column create the array of its cells and the JDK value types
+     * a cell may hold, so that a crafted file cannot instantiate any other serializable class.
+     */
+    private static final ObjectInputFilter OBJECT_FILTER = info -> {
+        Class<?> type = info.serialClass();
+        if (type == null) {
+            return ObjectInputFilter.Status.UNDECIDED;
+        }
+        boolean primitiveArray = type.isArray() && type.getComponentType().isPrimitive();
+        return type == Object[].class || primitiveArray || isValueType(type)
+                ? ObjectInputFilter.Status.ALLOWED : ObjectInputFilter.Status.REJECTED;
+    };
+
+    private final ArrayList<String> labels;
+    private final ColumnType[] types;
+    private final int rowCount;
+    private final ByteBuffer[][] blocks;
+    private final Column[] decoded;
+
+    private ColumnFile(ArrayList<String> labels, ColumnType[] types, int rowCount, ByteBuffer[][] blocks) {
+        this.labels = labels;
+        this.types = types;
+        this.rowCount = rowCount;
+        this.blocks = blocks;
+        this.decoded = new Column[types.length];
+    }
+
+    ArrayList<String> labels() {
+        return labels;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns a column of the file, decoding its whole block into heap arrays the first time.
+     *
+     * @param i The position of the column.
+     * @return The column.
+     */
+    synchronized Column column(int i) {
+        if (decoded[i] == null) {
+            decoded[i] = decode(types[i], new Input(blocks[i]), rowCount);
+            // The mapping is released once nothing refers to it
+            blocks[i] = null;
+        }
+        return decoded[i];
+    }
+
+    /**
+     * Writes columns to a file, replacing it if it exists.
+     *
+     * @param path    The file.
+     * @param labels  The labels of the columns.
+     * @param columns The columns, all of the same size.
+     * @param rows    The number of rows.
+     */
+    static void write(Path path, ArrayList<String> labels, Column[] columns, int rows) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Output out = new Output(channel, bufferBytes(labels, columns))) {
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(rows);
+            out.putInt(columns.length);
+            for (int i = 0; i < columns.length; i++) {
+                out.putByte((byte) columns[i].getType().ordinal());
+                out.putBytes(labels.get(i).getBytes(StandardCharsets.UTF_8));
+            }
+            long[] directory = new long[2 * columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                out.align();
+                directory[2 * i] = out.position();
+                encode(columns[i], rows, out);
+                directory[2 * i + 1] = out.position() - directory[2 * i];
+            }
+            out.align();
+            long start = out.position();
+            out.putLongs(directory, directory.length);
+            out.putLong(start);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Opens a file written by {@link #write(Path, ArrayList, Column[], int)}, without decoding its columns.
+     *
+     * @param path The file.
+     * @return The opened file.
+     * @throws IllegalArgumentException if the file is not a DataFrame file.
+     */
+    static ColumnFile open(Path path) {
+        return open(path, SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens a file, mapping it in segments of at most the given number of bytes.
+     *
+     * @param path         The file.
+     * @param segmentBytes The largest mapping.
+     * @return The opened file.
+     * @throws IllegalArgumentException if the file is not a DataFrame file.
+     */
+    static ColumnFile open(Path path, int segmentBytes) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 24) {
+                throw new IllegalArgumentException(path + " is not a DataFrame file.");
+            }
+            Input header = new Input(map(channel, 0, size - 8, segmentBytes));
+            if (header.getInt() != MAGIC) {
+                throw new IllegalArgumentException(path + " is not a DataFrame file.");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported DataFrame file version " + version + ".");
+            }
+            int rows = header.getInt();
+            int count = header.getInt();
+            ArrayList<String> labels = new ArrayList<>(count);
+            ColumnType[] types = new ColumnType[count];
+            for (int i = 0; i < count; i++) {
+                types[i] = ColumnType.values()[header.getByte()];
+                labels.add(new String(header.getBytes(), StandardCharsets.UTF_8));
+            }
+
+            long start = new Input(map(channel, size - 8, 8, segmentBytes)).getLong();
+            Input directory = new Input(map(channel, start, 16L * count, segmentBytes));
+            ByteBuffer[][] blocks = new ByteBuffer[count][];
+            for (int i = 0; i < count; i++) {
+                long offset = directory.getLong();
+                blocks[i] = map(channel, offset, directory.getLong(), segmentBytes);
+            }
+            return new ColumnFile(labels, types, rows, blocks);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Maps a region of a file in segments of at most the given number of bytes. The mappings stay valid once the
+     * channel is closed, and their pages are only read when they are accessed.
+     */
+    private static ByteBuffer[] map(FileChannel channel, long offset, long length, int segmentBytes)
+            throws IOException {
+        int segments = (int) Math.max(1, (length + segmentBytes - 1) / segmentBytes);
+        ByteBuffer[] res = new ByteBuffer[segments];
+        for (int s = 0; s < segments; s++) {
+            long from = (long) s * segmentBytes;
+            long to = Math.min(length, from + segmentBytes);
+            res[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + from, to - from)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return res;
+    }
+
+    private static void encode(Column encoded, int rows, Output out) throws IOException {
+        Column column = Compression.plain(encoded);
+        long[] nulls = column.nulls.toLongArray();
+        out.putInt(nulls.length);
+        out.putInt(0);
+        out.putLongs(nulls, nulls.length);
+        if (column instanceof IntColumn ints) {
+            out.putInts(ints.values, rows);
+        } else if (column instanceof LongColumn longs) {
+            out.putLongs(longs.values, rows);
+        } else if (column instanceof DoubleColumn doubles) {
+            out.putDoubles(doubles.values, rows);
+        } else if (column instanceof BooleanColumn booleans) {
+            BitSet values = new BitSet(rows);
+            for (int i = 0; i < rows; i++) {
+                values.set(i, booleans.values[i]);
+            }
+            long[] words = values.toLongArray();
+            out.putInt(words.length);
+            out.putInt(0);
+            out.putLongs(words, words.length);
+        } else if (column instanceof StringColumn strings) {
+            out.putInt(strings.dictionary.length);
+            for (String s : strings.dictionary) {
+                out.putBytes(s.getBytes(StandardCharsets.UTF_8));
+            }
+            out.putInts(strings.codes, rows);
+        } else {
+            Object[] values = new Object[rows];
+            for (int i = 0; i < rows; i++) {
+                values[i] = column.get(i);
+                if (values[i] != null && !isValueType(values[i].getClass())) {
+                    throw new IllegalArgumentException("Cells of type " + values[i].getClass().getName()
+                            + " cannot be saved.");
+                }
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+                objects.writeObject(values);
+            }
+            out.putBytes(bytes.toByteArray());
+        }
+    }
+
+    private static Column decode(ColumnType type, Input in, int rows) {
+        long[] words = new long[in.getInt()];
+        in.getInt();
+        in.getLongs(words);
+        BitSet nulls = BitSet.valueOf(words);
+        switch (type) {
+            case INT: {
+                int[] values = new int[rows];
+                in.getInts(values);
+                return new IntColumn(values, rows, nulls);
+            }
+            case LONG: {
+                long[] values = new long[rows];
+                in.getLongs(values);
+                return new LongColumn(values, rows, nulls);
+            }
+            case DOUBLE: {
+                double[] values = new double[rows];
+                in.getDoubles(values);
+                return new DoubleColumn(values, rows, nulls);
+            }
+            case BOOLEAN: {
+                long[] trueWords = new long[in.getInt()];
+                in.getInt();
+                in.getLongs(trueWords);
+                BitSet trues = BitSet.valueOf(trueWords);
+                boolean[] values = new boolean[rows];
+                for (int i = trues.nextSetBit(0); i >= 0; i = trues.nextSetBit(i + 1)) {
+                    values[i] = true;
+                }
+                return new BooleanColumn(values, rows, nulls);
+            }
+            case STRING: {
+                String[] dictionary = new String[in.getInt()];
+                for (int code = 0; code < dictionary.length; code++) {
+                    dictionary[code] = new String(in.getBytes(), StandardCharsets.UTF_8);
+                }
+                int[] codes = new int[rows];
+                in.getInts(codes);
+                return new StringColumn(codes, rows, dictionary, nulls);
+            }
+            default: {
+                try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(in.getBytes()))) {
+                    objects.setObjectInputFilter(OBJECT_FILTER);
+                    return new ObjectColumn((Object[]) objects.readObject(), rows);
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indicates whether an object column may hold cells of a type: strings, booleans, characters and the numbers
+     * of java.lang and java.math, along with their superclasses, which their serialized form describes.
+     */
+    private static boolean isValueType(Class<?> type) {
+        String packageName = type.getPackageName();
+        return type == String.class || type == Boolean.class || type == Character.class
+                || Number.class.isAssignableFrom(type) && (packageName.equals("java.lang") || packageName.equals("java.math"));
+    }
+
+    /**
+     * Estimates the size of the file from the memory of the columns, to size the write buffer.
+     */
+    private static int bufferBytes(ArrayList<String> labels, Column[] columns) {
+        long bytes = 4096;
+        for (int i = 0; i < columns.length; i++) {
+            bytes += 64 + 4L * labels.get(i).length() + columns[i].getMemoryBytes();
+        }
+        return (int) Math.min(BUFFER_BYTES, bytes);
+    }
+
+    /**
+     * Writes little-endian values to a file channel through a direct buffer.
+     */
+    private static final class Output implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long written;
+
+        Output(FileChannel channel, int capacity) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long position() {
+            return written + buffer.position();
+        }
+
+        void putByte(byte value) throws IOException {
+            room(1);
+            buffer.put(value);
+        }
+
+        void putInt(int value) throws IOException {
+            room(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            room(8);
+            buffer.putLong(value);
+        }
+
+        /**
+         * Writes the length of an array, then its bytes.
+         */
+        void putBytes(byte[] values) throws IOException {
+            putInt(values.length);
+            for (int i = 0; i < values.length; ) {
+                room(1);
+                int n = Math.min(values.length - i, buffer.remaining());
+                buffer.put(values, i, n);
+                i += n;
+            }
+        }
+
+        void putInts(int[] values, int count) throws IOException {
+            for (int i = 0; i < count; ) {
+                room(4);
+                int n = Math.min(count - i, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(values, i, n);
+                buffer.position(buffer.position() + 4 * n);
+                i += n;
+            }
+        }
+
+        void putLongs(long[] values, int count) throws IOException {
+            for (int i = 0; i < count; ) {
+                room(8);
+                int n = Math.min(count - i, buffer.remaining() / 8);
+                buffer.asLongBuffer().put(values, i, n);
+                buffer.position(buffer.position() + 8 * n);
+                i += n;
+            }
+        }
+
+        void putDoubles(double[] values, int count) throws IOException {
+            for (int i = 0; i < count; ) {
+                room(8);
+                int n = Math.min(count - i, buffer.remaining() / 8);
+                buffer.asDoubleBuffer().put(values, i, n);
+                buffer.position(buffer.position() + 8 * n);
+                i += n;
+            }
+        }
+
+        /**
+         * Pads the file to the next 8-byte boundary.
+         */
+        void align() throws IOException {
+            while (position() % 8 != 0) {
+                putByte((byte) 0);
+            }
+        }
+
+        private void room(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Reads little-endian values from the consecutive segments of a mapped region.
+     */
+    private static final class Input {
+        private final ByteBuffer[] segments;
+        private int current;
+
+        Input(ByteBuffer[] segments) {
+            this.segments = segments;
+        }
+
+        /**
+         * Returns the segment holding the next byte.
+         */
+        private ByteBuffer segment() {
+            while (!segments[current].hasRemaining()) {
+                current++;
+            }
+            return segments[current];
+        }
+
+        byte getByte() {
+            return segment().get();
+        }
+
+        int getInt() {
+            ByteBuffer segment = segment();
+            if (segment.remaining() >= 4) {
+                return segment.getInt();
+            }
+            int value = 0;
+            for (int b = 0; b < 4; b++) {
+                value |= (getByte() & 0xFF) << (8 * b);
+            }
+            return value;
+        }
+
+        long getLong() {
+            ByteBuffer segment = segment();
+            if (segment.remaining() >= 8) {
+                return segment.getLong();
+            }
+            return getInt() & 0xFFFFFFFFL | (long) getInt() << 32;
+        }
+
+        /**
+         * Reads the length of an array, then its bytes.
+         */
+        byte[] getBytes() {
+            byte[] values = new byte[getInt()];
+            for (int i = 0; i < values.length; ) {
+                ByteBuffer segment = segment();
+                int n = Math.min(values.length - i, segment.remaining());
+                segment.get(values, i, n);
+                i += n;
+            }
+            return values;
+        }
+
+        void getInts(int[] values) {
+            for (int i = 0; i < values.length; ) {
+                ByteBuffer segment = segment();
+                int n = Math.min(values.length - i, segment.remaining() / 4);
+                if (n == 0) {
+                    values[i++] = getInt();
+                    continue;
+                }
+                segment.asIntBuffer().get(values, i, n);
+                segment.position(segment.position() + 4 * n);
+                i += n;
+            }
+        }
+
+        void getLongs(long[] values) {
+            for (int i = 0; i < values.length; ) {
+                ByteBuffer segment = segment();
+                int n = Math.min(values.length - i, segment.remaining() / 8);
+                if (n == 0) {
+                    values[i++] = getLong();
+                    continue;
+                }
+                segment.asLongBuffer().get(values, i, n);
+                segment.position(segment.position() + 8 * n);
+                i += n;
+            }
+        }
+
+        void getDoubles(double[] values) {
+            for (int i = 0; i < values.length; ) {
+                ByteBuffer segment = segment();
+                int n = Math.min(values.length - i, segment.remaining() / 8);
+                if (n == 0) {
+                    values[i++] = Double.longBitsToDouble(getLong());
+                    continue;
+                }
+                segment.asDoubleBuffer().get(values, i, n);
+                segment.position(segment.position() + 8 * n);
+                i += n;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A secondary index on a column of a DataFrame, created by {@link DataFrame#createIndex(String, IndexType)}.
+ * {@link DataFrame#where(Predicate)} uses it to find the matching rows without scanning the column; the rows
+ * found are exactly those the scan would find, in increasing order.
+ */
+public abstract class ColumnIndex {
+    private final String label;
+    private final IndexType type;
+    /**
+     * The indexed rows, [from, to).
+     */
+    final int from;
+    final int to;
+    long buildNanos;
+
+    ColumnIndex(String label, IndexType type, int from, int to) {
+        this.label = label;
+        this.type = type;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Indexes the rows [from, to) of a column.
+     *
+     * @param label  The label of the column.
+     * @param type   The kind of index.
+     * @param column The column.
+     * @param from   The first row to index.
+     * @param to     The row following the last row to index.
+     * @return The index.
+     * @throws IllegalArgumentException if a sorted index is requested on a column that does not hold numbers or
+     *                                  strings.
+     */
+    static ColumnIndex of(String label, IndexType type, Column column, int from, int to) {
+        return type == IndexType.HASH ? new HashIndex(label, column, from, to) : new SortedIndex(label, column, from, to);
+    }
+
+    /**
+     * Extends the index to the rows appended to its column, which must keep the type it had. The new rows get an
+     * index of their own, a segment, and the segments are rebuilt together whenever the last one is at least
+     * half as large as the one before, so an index holds a logarithmic number of segments and each row is
+     * indexed again a logarithmic number of times as the column grows. A lookup probes every segment.
+     *
+     * @param column The column, holding the indexed rows followed by the appended ones.
+     * @return The index of all the rows of the column.
+     */
+    ColumnIndex append(Column column) {
+        long start = System.nanoTime();
+        ArrayList<ColumnIndex> segments = new ArrayList<>(segments());
+        segments.add(of(label, type, column, to, column.size()));
+        int n = segments.size();
+        while (n > 1 && segments.get(n - 2).rows() <= 2L * segments.get(n - 1).rows()) {
+            ColumnIndex merged = of(label, type, column, segments.get(n - 2).from, segments.get(n - 1).to);
+            segments.remove(--n);
+            segments.set(n - 1, merged);
+        }
+        ColumnIndex res = n == 1 ? segments.get(0) : new SegmentedIndex(segments.toArray(new ColumnIndex[0]));
+        res.buildNanos = buildNanos + System.nanoTime() - start;
+        return res;
+    }
+
+    /**
+     * Returns the segments of the index, as built by {@link #append(Column)}.
+     *
+     * @return The indexes of consecutive ranges of rows, from the first one.
+     */
+    List<ColumnIndex> segments() {
+        return List.of(this);
+    }
+
+    /**
+     * Returns the number of indexed rows.
+     *
+     * @return The size of the range of rows.
+     */
+    int rows() {
+        return to - from;
+    }
+
+    /**
+     * Returns the label of the indexed column.
+     *
+     * @return The column label.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the kind of the index.
+     *
+     * @return The index type.
+     */
+    public IndexType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the time taken to build the index.
+     *
+     * @return The build time, in nanoseconds.
+     */
+    public long getBuildTimeNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Estimates the memory held by the index, not counting the column itself.
+     *
+     * @return The size of the index, in bytes.
+     */
+    public abstract long getMemoryBytes();
+
+    /**
+     * Finds the rows equal to a value, as {@link Predicate#eq(String, Object)} selects them.
+     *
+     * @param value The value.
+     * @return The matching rows in increasing order, or null if the index cannot answer.
+     */
+    abstract int[] equal(Object value);
+
+    /**
+     * Finds the rows compared to a value as a range predicate selects them.
+     *
+     * @param value   The value.
+     * @param lower   Whether the cells lower than the value match.
+     * @param equal   Whether the cells equal to the value match.
+     * @param greater Whether the cells greater than the value match.
+     * @return The matching rows in increasing order, or null if the index cannot answer.
+     */
+    int[] range(Object value, boolean lower, boolean equal, boolean greater) {
+        return null;
+    }
+
+    /**
+     * Finds the rows equal to any of the values, as {@link Predicate#in(String, Object...)} selects them.
+     *
+     * @param values The values.
+     * @return The matching rows in increasing order, or null if the index cannot answer.
+     */
+    int[] in(Object[] values) {
+        ArrayList<int[]> parts = new ArrayList<>();
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+            int[] rows = equal(value);
+            if (rows == null) {
+                return null;
+            }
+            parts.add(rows);
+        }
+        return union(parts);
+    }
+
+    /**
+     * Merges sets of rows.
+     *
+     * @param parts The sets of rows.
+     * @return The rows present in at least one set, in increasing order and without duplicates.
+     */
+    static int[] union(ArrayList<int[]> parts) {
+        int total = 0;
+        for (int[] part : parts) {
+            total += part.length;
+        }
+        int[] rows = new int[total];
+        int k = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, rows, k, part.length);
+            k += part.length;
+        }
+        if (parts.size() > 1) {
+            Arrays.sort(rows);
+        }
+        int distinct = 0;
+        for (int i = 0; i < rows.length; i++) {
+            if (i == 0 || rows[i] != rows[i - 1]) {
+                rows[distinct++] = rows[i];
+            }
+        }
+        return Arrays.copyOf(rows, distinct);
+    }
+
+    @Override
+    public String toString() {
+        return type + " index on " + label + ": " + getMemoryBytes() + " bytes, built in "
+                + buildNanos / 1_000_000.0 + " ms";
+    }
+}
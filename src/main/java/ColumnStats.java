@@ -0,0 +1,111 @@
+/**
+ * The statistics of a column of a DataFrame, kept from one call to the next and brought up to date by
+ * {@link #update(Column)} with the rows appended since, instead of being computed again from the first row.
+ * The cells are added in the order of the rows, so the mean, minimum and maximum are exactly those of
+ * {@link DataFrame#meanOf(Column)} and {@link DataFrame#minMaxOf(Column)}, and the {@link RunningStats} those of
+ * {@link RunningStats#of(Column)}. The statistics are those of a column of a single type: object columns, whose
+ * values may stop being numbers, are not kept.
+ */
+final class ColumnStats {
+    private final ColumnType type;
+    private int rows;
+    private int nulls;
+    private double sum;
+    /**
+     * Whether a value other than null and NaN was added, which the minimum and maximum then hold.
+     */
+    private boolean found;
+    private double min;
+    private double max;
+    /**
+     * The statistics of {@link DataFrame#summary()}, only kept once it has been called.
+     */
+    private RunningStats running;
+
+    /**
+     * Constructs the statistics of an empty column.
+     *
+     * @param type The type of the column, which must not be OBJECT.
+     */
+    ColumnStats(ColumnType type) {
+        this.type = type;
+    }
+
+    /**
+     * Returns the type of the column.
+     *
+     * @return The type the statistics were computed for.
+     */
+    ColumnType type() {
+        return type;
+    }
+
+    /**
+     * Adds the rows of the column that follow the rows already added.
+     *
+     * @param column The column, whose first rows must be those already added.
+     */
+    void update(Column column) {
+        boolean numeric = type.isNumeric();
+        for (int row = rows; row < column.size(); row++) {
+            if (column.isNull(row)) {
+                nulls++;
+            } else if (numeric) {
+                double value = column.getDouble(row);
+                sum = sum + value;
+                if (!Double.isNaN(value)) {
+                    if (!found || value > max)
+                        max = value;
+                    if (!found || value < min)
+                        min = value;
+                    found = true;
+                }
+                if (running != null) {
+                    running.add(value);
+                }
+            }
+        }
+        rows = column.size();
+    }
+
+    /**
+     * Returns the number of non-null cells.
+     *
+     * @return The count.
+     */
+    int count() {
+        return rows - nulls;
+    }
+
+    /**
+     * Returns the mean, as {@link DataFrame#meanOf(Column)} computes it.
+     *
+     * @return The mean of the non-null cells, or null if the column is empty or not numeric.
+     */
+    Object mean() {
+        return rows > 0 && type.isNumeric() ? sum / (rows - nulls) : null;
+    }
+
+    /**
+     * Returns the minimum and the maximum, as {@link DataFrame#minMaxOf(Column)} computes them.
+     *
+     * @return The minimum and the maximum, both null if the column is not numeric or holds no value other than
+     *         null and NaN.
+     */
+    Object[] minMax() {
+        return found ? new Object[]{min, max} : new Object[2];
+    }
+
+    /**
+     * Returns the statistics of the summary, computing them the first time.
+     *
+     * @param column The column, whose rows must all have been added.
+     * @return The statistics of the column.
+     */
+    RunningStats running(Column column) {
+        if (running == null) {
+            running = RunningStats.of(column);
+        }
+        return running;
+    }
+}
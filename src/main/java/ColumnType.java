@@ -0,0 +1,40 @@
+/**
+ * The physical storage types a {@link Column} can have.
+ */
+public enum ColumnType {
+    INT,
+    LONG,
+    DOUBLE,
+    BOOLEAN,
+    STRING,
+    OBJECT;
+
+    /**
+     * Indicates whether columns of this type hold primitive numbers.
+     *
+     * @return true for INT, LONG and DOUBLE, otherwise false.
+     */
+    public boolean isNumeric() {
+        return this == INT || this == LONG || this == DOUBLE;
+    }
+
+    /**
+     * Returns the narrowest type able to hold the values of both types: two numeric types widen to LONG
+     * or DOUBLE, any other mix widens to STRING, and OBJECT absorbs everything.
+     *
+     * @param other The other type.
+     * @return The widened type.
+     */
+    public ColumnType widen(ColumnType other) {
+        if (this == other) {
+            return this;
+        }
+        if (this == OBJECT || other == OBJECT) {
+            return OBJECT;
+        }
+        if (isNumeric() && other.isNumeric()) {
+            return this == DOUBLE || other == DOUBLE ? DOUBLE : LONG;
+        }
+        return STRING;
+    }
+}
@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+/**
+ * Chooses the encoding of a column from estimates of the memory each one would take: run-length encoding for any
+ * column, a dictionary of its distinct values for any column, bit packing and delta encoding for int and long
+ * columns. The smallest encoding is kept when it takes at most half the memory of the plain column, as reading an
+ * encoded cell costs more than reading an array.
+ */
+final class Compression {
+    /**
+     * The memory each cell takes in a plain column, besides a shared string dictionary.
+     */
+    private static final int[] CELL_BYTES = {4, 8, 8, 1, 4, 24};
+
+    private Compression() {
+    }
+
+    /**
+     * Compresses a column if an encoding makes it at least twice smaller.
+     *
+     * @param column The column.
+     * @return The encoded column, or the column itself.
+     */
+    static Column compress(Column column) {
+        int n = column.size();
+        if (n == 0 || column instanceof EncodedColumn) {
+            return column;
+        }
+        long plain = column.getMemoryBytes();
+        long cell = CELL_BYTES[column.getType().ordinal()];
+        // The strings of a dictionary are kept by every encoding
+        long shared = plain - cell * n - column.nullBytes();
+
+        int[] ends = runEnds(column);
+        long best = ends.length * (4 + cell) + shared + column.nullBytes();
+        int choice = 0;
+        ColumnType type = column.getType();
+        if (type == ColumnType.INT || type == ColumnType.LONG) {
+            long packed = PackedColumn.packedBytes(column);
+            if (packed < best) {
+                best = packed;
+                choice = 2;
+            }
+            long delta = DeltaColumn.deltaBytes(column);
+            if (delta < best) {
+                best = delta;
+                choice = 3;
+            }
+        }
+
+        // Counting the distinct values stops once the dictionary alone would not beat the best encoding
+        long target = Math.min(best, plain / 2) - shared - column.nullBytes();
+        GroupIndex groups = GroupIndex.of(column, (int) Math.min(Integer.MAX_VALUE, Math.max(0, target / cell + 1)));
+        int distinct = 0;
+        if (groups != null) {
+            distinct = groups.groups() - (column.nullCount() > 0 ? 1 : 0);
+            long dictionary = ((long) n * PackedColumn.width(Math.max(0, distinct - 1)) + 63) / 64 * 8
+                    + distinct * cell + shared + column.nullBytes();
+            if (dictionary < best) {
+                best = dictionary;
+                choice = 1;
+            }
+        }
+        if (best * 2 > plain) {
+            return column;
+        }
+        switch (choice) {
+            case 0:
+                return runLength(column, ends);
+            case 1:
+                return dictionary(column, groups, distinct);
+            case 2:
+                return PackedColumn.of(column);
+            default:
+                return DeltaColumn.of(column);
+        }
+    }
+
+    /**
+     * Returns a plain typed column holding the cells of a column.
+     *
+     * @param column The column.
+     * @return The decoded column, or the column itself if it is not encoded.
+     */
+    static Column plain(Column column) {
+        return column instanceof EncodedColumn encoded ? encoded.decompress() : column;
+    }
+
+    /**
+     * Run-length encodes a column.
+     *
+     * @param column A plain column.
+     * @return The encoded column.
+     */
+    static RunLengthColumn runLength(Column column) {
+        return runLength(column, runEnds(column));
+    }
+
+    /**
+     * Dictionary-encodes a column.
+     *
+     * @param column A plain column.
+     * @return The encoded column.
+     */
+    static DictionaryColumn dictionary(Column column) {
+        GroupIndex groups = GroupIndex.of(column);
+        return dictionary(column, groups, groups.groups() - (column.nullCount() > 0 ? 1 : 0));
+    }
+
+    /**
+     * Finds the row following the last row of each run of equal cells.
+     */
+    private static int[] runEnds(Column column) {
+        int n = column.size();
+        int[] ends = new int[16];
+        int runs = 0;
+        for (int row = 1; row <= n; row++) {
+            if (row == n || !sameCell(column, row - 1, row)) {
+                if (runs == ends.length) {
+                    ends = Arrays.copyOf(ends, runs * 2);
+                }
+                ends[runs++] = row;
+            }
+        }
+        return Arrays.copyOf(ends, runs);
+    }
+
+    private static boolean sameCell(Column column, int a, int b) {
+        boolean isNull = column.isNull(a);
+        if (isNull || column.isNull(b)) {
+            return isNull == column.isNull(b);
+        }
+        if (column instanceof IntColumn ints) {
+            return ints.values[a] == ints.values[b];
+        }
+        if (column instanceof LongColumn longs) {
+            return longs.values[a] == longs.values[b];
+        }
+        if (column instanceof DoubleColumn doubles) {
+            return Double.doubleToLongBits(doubles.values[a]) == Double.doubleToLongBits(doubles.values[b]);
+        }
+        if (column instanceof BooleanColumn booleans) {
+            return booleans.values[a] == booleans.values[b];
+        }
+        if (column instanceof StringColumn strings) {
+            return strings.codes[a] == strings.codes[b];
+        }
+        return column.get(a).equals(column.get(b));
+    }
+
+    private static RunLengthColumn runLength(Column column, int[] ends) {
+        int[] starts = new int[ends.length];
+        for (int run = 1; run < ends.length; run++) {
+            starts[run] = ends[run - 1];
+        }
+        return new RunLengthColumn(compact(column.take(starts)), ends, column.nulls);
+    }
+
+    private static DictionaryColumn dictionary(Column column, GroupIndex groups, int distinct) {
+        // The groups are numbered by first appearance; the null group, if any, gets no code
+        int[] firstRows = groups.firstRows();
+        int[] codeOfGroup = new int[firstRows.length];
+        int[] values = new int[distinct];
+        int next = 0;
+        for (int g = 0; g < firstRows.length; g++) {
+            if (column.isNull(firstRows[g])) {
+                codeOfGroup[g] = 0;
+            } else {
+                values[next] = firstRows[g];
+                codeOfGroup[g] = next++;
+            }
+        }
+        int n = column.size();
+        int[] codes = new int[n];
+        for (int row = 0; row < n; row++) {
+            codes[row] = codeOfGroup[groups.groupOf[row]];
+        }
+        return new DictionaryColumn(compact(column.take(values)), PackedColumn.codes(codes, n, distinct),
+                column.nulls);
+    }
+
+    /**
+     * Rebuilds the dictionary of a string column with the strings it uses only.
+     */
+    private static Column compact(Column column) {
+        if (!(column instanceof StringColumn strings)) {
+            return column;
+        }
+        int[] newCode = new int[strings.dictionary.length];
+        Arrays.fill(newCode, -1);
+        String[] dictionary = new String[strings.dictionary.length];
+        int[] codes = new int[strings.size()];
+        int used = 0;
+        for (int row = 0; row < codes.length; row++) {
+            if (strings.isNull(row)) {
+                continue;
+            }
+            int code = strings.codes[row];
+            if (newCode[code] < 0) {
+                dictionary[used] = strings.dictionary[code];
+                newCode[code] = used++;
+            }
+            codes[row] = newCode[code];
+        }
+        return new StringColumn(codes, codes.length, Arrays.copyOf(dictionary, used), strings.nulls);
+    }
+}
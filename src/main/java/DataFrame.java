@@ -1,10 +1,31 @@
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
-public class DataFrame {
+public class DataFrame implements AutoCloseable {
+    private static final boolean FOREIGN_MODULE = ModuleLayer.boot().findModule("jdk.incubator.foreign").isPresent();
 
-    private final Hashtable<String, Object[]> columns;
-    private final ArrayList<Object[]> rows;
+    private final Column[] columns;
+    private final HashMap<String, Integer> positions;
     private final ArrayList<String> labels;
+    private int rowCount;
+    private volatile ColumnIndex[] indexes = new ColumnIndex[0];
+    /**
+     * The builders of the columns, holding a copy of their cells, once rows have been appended.
+     */
+    private ColumnBuilder[] appenders;
+    /**
+     * The statistics of each column, computed on first use and kept up to date with the appended rows.
+     */
+    private ColumnStats[] stats;
+    /**
+     * The file the columns are decoded from on first use, or null if they are all in memory.
+     */
+    private final ColumnFile source;
+    /**
+     * The native memory of the off-heap columns, or null if the columns are all on the heap.
+     */
+    private final NativeMemory memory;
 
     /**
      * Constructs a DataFrame from a 2D array of Objects.
@@ -17,26 +38,25 @@ public class DataFrame {
             throw new IllegalArgumentException("Incorrect input data format.");
         }
 
-        columns = new Hashtable<>();
-        rows = new ArrayList<>();
-        labels = new ArrayList<>();
-
         String[] columnLabels = new String[data[0].length];
         for (int i = 0; i < data[0].length; i++) {
             columnLabels[i] = data[0][i].toString();
-            labels.add(columnLabels[i]);
         }
 
+        ColumnBuilder[] builders = new ColumnBuilder[columnLabels.length];
         for (int i = 0; i < columnLabels.length; i++) {
-            String columnLabel = columnLabels[i];
-            Object[] columnData = new Object[data.length - 1];
+            builders[i] = new ColumnBuilder(data.length - 1);
             for (int j = 1; j < data.length; j++) {
-                columnData[j - 1] = data[j][i];
+                builders[i].append(data[j][i]);
             }
-            columns.put(columnLabel, columnData);
         }
 
-        rows.addAll(Arrays.asList(data).subList(1, data.length));
+        this.labels = new ArrayList<>(Arrays.asList(columnLabels));
+        this.columns = build(builders);
+        this.source = null;
+        this.memory = null;
+        this.positions = positionsOf(labels);
+        this.rowCount = data.length - 1;
     }
 
     /**
@@ -53,21 +73,48 @@ public class DataFrame {
             throw new IllegalArgumentException("Incorrect input data format.");
         }
 
-        columns = new Hashtable<>();
-        rows = new ArrayList<>();
-        labels = new ArrayList<>();
-
-        rows.addAll(Arrays.asList(rows_values));
-
+        ColumnBuilder[] builders = new ColumnBuilder[columns_labels.length];
         for (int i = 0; i < columns_labels.length; i++) {
-            String columnLabel = columns_labels[i];
-            labels.add(columnLabel);
-            Object[] columnData = new Object[rows_values.length];
-            for (int j = 0; j < rows_values.length; j++) {
-                columnData[j] = rows_values[j][i];
+            builders[i] = new ColumnBuilder(rows_values.length);
+            for (Object[] row : rows_values) {
+                builders[i].append(row[i]);
             }
-            columns.put(columnLabel, columnData);
         }
+
+        this.labels = new ArrayList<>(Arrays.asList(columns_labels));
+        this.columns = build(builders);
+        this.source = null;
+        this.memory = null;
+        this.positions = positionsOf(labels);
+        this.rowCount = rows_values.length;
+    }
+
+    /**
+     * Constructs a DataFrame directly from typed columns, without copying them.
+     *
+     * @param labels  The labels of the columns.
+     * @param columns The columns, in the same order as the labels. They must all have the same size.
+     */
+    DataFrame(ArrayList<String> labels, Column[] columns) {
+        this(labels, columns, null);
+    }
+
+    private DataFrame(ArrayList<String> labels, Column[] columns, NativeMemory memory) {
+        this.labels = labels;
+        this.columns = columns;
+        this.positions = positionsOf(labels);
+        this.rowCount = columns.length == 0 ? 0 : columns[0].size();
+        this.source = null;
+        this.memory = memory;
+    }
+
+    private DataFrame(ColumnFile source) {
+        this.labels = source.labels();
+        this.columns = new Column[labels.size()];
+        this.positions = positionsOf(labels);
+        this.rowCount = source.rowCount();
+        this.source = source;
+        this.memory = null;
     }
 
     /**
@@ -76,17 +123,83 @@ public class DataFrame {
      * @param filepath The path to the csv file.
      */
     public DataFrame(String filepath) {
-        this(new CSVReader(filepath).allLines());
+        this(filepath, ",");
     }
 
     /**
      * Constructs a DataFrame from a csv file and a delimiter.
+     * The file is memory-mapped and parsed in parallel by {@link ParallelCSVReader}, unless the delimiter contains
+     * regular expression metacharacters, in which case it is read line by line by {@link CSVReader}.
      *
      * @param filepath The path to the csv file.
      * @param delimiter The Delimiter to split the csv columns.
      */
     public DataFrame(String filepath, String delimiter) {
-        this(new CSVReader(filepath, delimiter).allLines());
+        this(readCsv(filepath, delimiter));
+    }
+
+    /**
+     * Constructs a DataFrame from the remaining lines of a CSVReader, the first of which holds the column labels.
+     * If the reader has a schema, each column is stored with the type of the schema and widened as the lines
+     * are read, otherwise each value keeps the type given by {@link CSVReader#nextLine()}.
+     * The columns are then compressed as {@link #compress()} does.
+     *
+     * @param reader The reader to consume.
+     * @throws IllegalArgumentException if the reader has no line left.
+     */
+    public DataFrame(CSVReader reader) {
+        this(readCsv(reader).compress());
+    }
+
+    private DataFrame(DataFrame source) {
+        this(source.labels, source.columns());
+    }
+
+    private static DataFrame readCsv(String filepath, String delimiter) {
+        if (MappedCSVReader.supports(delimiter)) {
+            return new ParallelCSVReader(filepath, delimiter).read();
+        }
+        return new DataFrame(new CSVReader(filepath, delimiter).allLines());
+    }
+
+    private static DataFrame readCsv(CSVReader reader) {
+        Object[] header = reader.nextLine();
+        if (header.length == 0) {
+            throw new IllegalArgumentException("Incorrect input data format.");
+        }
+        ArrayList<String> columnLabels = new ArrayList<>(header.length);
+        for (Object label : header) {
+            columnLabels.add(label.toString());
+        }
+        return readRows(reader, columnLabels, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads at most maxRows lines from a CSVReader whose header has already been read.
+     * If the reader has a schema, each column is stored with the type of the schema and widened as needed,
+     * otherwise each value keeps the type given by {@link CSVReader#nextLine()}.
+     *
+     * @param reader  The reader to consume.
+     * @param labels  The labels of the columns.
+     * @param maxRows The maximum number of lines to read.
+     * @return A DataFrame holding the lines read, possibly none.
+     */
+    static DataFrame readRows(CSVReader reader, ArrayList<String> labels, int maxRows) {
+        ColumnType[] schema = reader.getSchema();
+        ColumnBuilder[] builders = new ColumnBuilder[labels.size()];
+        int capacity = Math.min(maxRows, 1024);
+        for (int i = 0; i < builders.length; i++) {
+            builders[i] = schema != null && i < schema.length
+                    ? new ColumnBuilder(schema[i], capacity)
+                    : new ColumnBuilder(capacity);
+        }
+        for (int row = 0; row < maxRows && !reader.EOF(); row++) {
+            Object[] line = reader.nextLine();
+            for (int i = 0; i < builders.length; i++) {
+                builders[i].append(i < line.length ? line[i] : null);
+            }
+        }
+        return new DataFrame(labels, build(builders));
     }
 
     /**
@@ -99,12 +212,16 @@ public class DataFrame {
     }
 
     /**
-     * Retrieves the rows stored in this ArrayList.
-     * Each row is represented as an array of Objects.
+     * Retrieves the rows of the DataFrame.
+     * Each row is represented as an array of Objects, built on demand from the columns.
      *
      * @return an ArrayList containing arrays of Objects representing rows.
      */
     public ArrayList<Object[]> getRows() {
+        ArrayList<Object[]> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(rowAt(i));
+        }
         return rows;
     }
 
@@ -116,18 +233,42 @@ public class DataFrame {
      * @throws IllegalArgumentException if the column with the given label does not exist.
      */
     public ArrayList<Object> getColumnValues(String columnName) {
-        if (!columns.containsKey(columnName)) {
+        if (!positions.containsKey(columnName)) {
             throw new IllegalArgumentException("Column with label " + columnName + " does not exist.");
         }
 
-        Object[] columnData = columns.get(columnName);
-        ArrayList<Object> columnValues = new ArrayList<>();
-
-        Collections.addAll(columnValues, columnData);
+        Column column = column(positions.get(columnName));
+        ArrayList<Object> columnValues = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            columnValues.add(column.get(i));
+        }
 
         return columnValues;
     }
 
+    /**
+     * Returns the typed storage of the column with the given label.
+     *
+     * @param columnName The label of the column.
+     * @return The column.
+     * @throws IllegalArgumentException if the column with the given label does not exist.
+     */
+    public Column getColumn(String columnName) {
+        if (!positions.containsKey(columnName)) {
+            throw new IllegalArgumentException("Column with label " + columnName + " does not exist.");
+        }
+        return column(positions.get(columnName));
+    }
+
+    /**
+     * Returns the number of rows in the DataFrame.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
     /**
      * Returns an ArrayList containing the values of the row at the specified index.
      *
@@ -136,14 +277,14 @@ public class DataFrame {
      * @throws IndexOutOfBoundsException if the index is out of range.
      */
     public ArrayList<Object> getRowValues(int index) {
-        if (index < 0 || index >= rows.size()) {
+        if (index < 0 || index >= rowCount) {
             throw new IndexOutOfBoundsException("Index is out of range.");
         }
 
-        Object[] rowData = rows.get(index);
-        ArrayList<Object> rowValues = new ArrayList<>();
-
-        Collections.addAll(rowValues, rowData);
+        ArrayList<Object> rowValues = new ArrayList<>(columns.length);
+        for (Column column : columns()) {
+            rowValues.add(column.get(index));
+        }
 
         return rowValues;
     }
@@ -156,7 +297,7 @@ public class DataFrame {
      * @throws IndexOutOfBoundsException if the index is out of range.
      */
     public String getLabel(int index) {
-        if (index < 0 || index >= rows.size()) {
+        if (index < 0 || index >= rowCount) {
             throw new IndexOutOfBoundsException("Index is out of range.");
         }
         return labels.get(index);
@@ -182,24 +323,10 @@ public class DataFrame {
      * The DataFrame is printed in a tabular format with column labels and corresponding row values.
      */
     public void printDataFrame() {
+        printHeader();
 
-        System.out.print(" |");
-        for (String column : labels) {
-            System.out.print(" " + column + " |");
-        }
-        System.out.println();
-
-        for (int i = 0; i <= columns.size(); i++) {
-            System.out.print("------");
-        }
-        System.out.println();
-
-        for (Object[] row : rows) {
-            System.out.print(" |");
-            for (Object value : row) {
-                System.out.print(" " + value + " |");
-            }
-            System.out.println();
+        for (int i = 0; i < rowCount; i++) {
+            printRow(i);
         }
     }
 
@@ -210,25 +337,12 @@ public class DataFrame {
      * @param numberOfRows The number of rows to display from the beginning of the data structure.
      */
     public void head(int numberOfRows) {
-        System.out.print(" |");
-        for (String column : labels) {
-            System.out.print(" " + column + " |");
-        }
-        System.out.println();
+        printHeader();
 
-        for (int i = 0; i <= columns.size(); i++) {
-            System.out.print("------");
-        }
-        System.out.println();
-
-        numberOfRows = Math.min(numberOfRows, rows.size());
+        numberOfRows = Math.min(numberOfRows, rowCount);
 
         for (int i = 0; i < numberOfRows; i++) {
-            System.out.print(" |");
-            for (Object value : rows.get(i)) {
-                System.out.print(" " + value + " |");
-            }
-            System.out.println();
+            printRow(i);
         }
     }
 
@@ -239,30 +353,21 @@ public class DataFrame {
      * @param numberOfRows The number of rows to display from the end of the data structure.
      */
     public void tail(int numberOfRows) {
-        System.out.print(" |");
-        for (String column : labels) {
-            System.out.print(" " + column + " |");
-        }
-        System.out.println();
-
-        for (int i = 0; i <= columns.size(); i++) {
-            System.out.print("------");
-        }
-        System.out.println();
+        printHeader();
 
-        int startIndex = Math.max(rows.size() - numberOfRows, 0);
+        int startIndex = Math.max(rowCount - numberOfRows, 0);
 
-        for (int i = startIndex; i < rows.size(); i++) {
-            System.out.print(" |");
-            for (Object value : rows.get(i)) {
-                System.out.print(" " + value + " |");
-            }
-            System.out.println();
+        for (int i = startIndex; i < rowCount; i++) {
+            printRow(i);
         }
     }
 
     /**
      * Returns a new DataFrame containing rows specified by the given array of indices.
+     * The rows are not copied: each column of the new DataFrame is a {@link ViewColumn} reading the cells of this
+     * one through a copy of the indices, and selecting rows or columns of it again still reads this DataFrame.
+     * The view keeps the columns of this DataFrame in memory; {@code lazy().iloc(indices).collect()} copies the
+     * rows instead.
      *
      * @param indices An array of indices indicating which rows to select.
      * @return A new DataFrame containing selected rows.
@@ -272,18 +377,18 @@ public class DataFrame {
         if(indices.length == 0){
             throw new IllegalArgumentException();
         }
-        Object[][] lines = new Object[indices.length][] ;
-        int i = 0;
         for(int idx : indices){
-            lines[i] = rows.get(idx);
-            i++;
+            if(idx < 0 || idx >= rowCount){
+                throw new IndexOutOfBoundsException("Index " + idx + " is out of range.");
+            }
         }
-        return new DataFrame((String[]) getLabels(), lines);
+        return new DataFrame(new ArrayList<>(labels), ViewColumn.of(columns(), indices.clone()));
     }
 
 
     /**
      * Returns a new DataFrame containing columns specified by the given array of labels.
+     * The selected columns are shared with this DataFrame rather than copied.
      *
      * @param lab An array of labels indicating which columns to select.
      * @return A new DataFrame containing selected columns.
@@ -293,22 +398,16 @@ public class DataFrame {
         if(lab.length == 0) {
             throw new IllegalArgumentException("Input data is empty");
         }
-        Object[][] res = new Object[rows.size()][lab.length];
+        Column[] res = new Column[lab.length];
         int i = 0;
-        int j;
         for(String l : lab){
-            if(!labels.contains(l)){
+            if(!positions.containsKey(l)){
                 throw new IllegalArgumentException("Invalid input data : column "+l+" is not in DataFrame");
             }
-            Object[] col = columns.get(l);
-            j=0;
-            for(Object o : col){
-                res[j][i]= o;
-                j++;
-            }
+            res[i] = column(positions.get(l));
             i++;
         }
-        return new DataFrame(lab, res);
+        return new DataFrame(new ArrayList<>(Arrays.asList(lab)), res);
     }
 
     /**
@@ -320,44 +419,453 @@ public class DataFrame {
      * @throws IllegalArgumentException if the number of column names and filter values don't match.
      */
     public DataFrame filter(ArrayList<String> columnNames, ArrayList<Object> filterValues) {
+        int[] rows = matchingRows(columnNames, filterValues);
+        if (rows.length == 0) {
+            Column[] nullRow = new Column[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                nullRow[i] = new ObjectColumn(new Object[1], 1);
+            }
+            return new DataFrame(new ArrayList<>(labels), nullRow);
+        } else {
+            return rows(rows);
+        }
+    }
+
+    /**
+     * Finds the rows matching every filter, as {@link #filter(ArrayList, ArrayList)} selects them.
+     *
+     * @param columnNames The list of column names to filter on.
+     * @param filterValues The list of filter values corresponding to each column.
+     * @return The indices of the matching rows, in increasing order.
+     * @throws IllegalArgumentException if the number of column names and filter values don't match.
+     */
+    int[] matchingRows(ArrayList<String> columnNames, ArrayList<Object> filterValues) {
         if (columnNames.size() != filterValues.size()) {
             throw new IllegalArgumentException("Number of column names and filter values must be the same.");
         }
+        Predicate[] equalities = new Predicate[columnNames.size()];
+        for (int i = 0; i < equalities.length; i++) {
+            equalities[i] = Predicate.eq(columnNames.get(i), filterValues.get(i));
+        }
+        return where(Predicate.and(equalities)).getRows();
+    }
 
-        ArrayList<Object[]> filteredRows = new ArrayList<>();
+    /**
+     * Selects the rows matching a predicate, without copying any column.
+     * The selection can be refined with further predicates, and only materialized once.
+     * When an index created by {@link #createIndex(String, IndexType)} answers the predicate, or one operand of
+     * an "and", the matching rows are found in the index instead of scanning the column.
+     *
+     * @param predicate The condition the rows must match.
+     * @return The selection of the matching rows.
+     * @throws IllegalArgumentException if the predicate uses a column that does not exist.
+     */
+    public Selection where(Predicate predicate) {
+        if (indexes.length > 0) {
+            int[] indexed = predicate.indexed(this);
+            if (indexed != null) {
+                return new Selection(this, indexed);
+            }
+        }
+        int[] selected = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            selected[i] = i;
+        }
+        int count = predicate.retain(this, selected, rowCount);
+        return new Selection(this, Arrays.copyOf(selected, count));
+    }
 
-        for (Object[] row : rows) {
-            boolean match = true;
+    /**
+     * Creates a hash index on a column, as {@link #createIndex(String, IndexType)}.
+     *
+     * @param label The label of the column.
+     * @return The index.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public ColumnIndex createIndex(String label) {
+        return createIndex(label, IndexType.HASH);
+    }
 
-            for (int i = 0; i < columnNames.size(); i++) {
-                String columnName = columnNames.get(i);
-                Object filterValue = filterValues.get(i);
-                if (!columns.containsKey(columnName)) {
-                    throw new IllegalArgumentException("Column " + columnName + " does not exist.");
-                }
+    /**
+     * Creates an index on a column, which {@link #where(Predicate)} and the filters then use automatically instead
+     * of scanning the column: a hash index for the equality predicates, a sorted index for the range predicates too.
+     * The index returned reports its build time and memory. Creating an index that already exists returns it.
+     * The index belongs to this DataFrame only; the DataFrames derived from it are not indexed. The rows appended
+     * later by {@link #appendRows(Object[][])} are indexed as they come.
+     *
+     * @param label The label of the column.
+     * @param type The kind of index.
+     * @return The index.
+     * @throws IllegalArgumentException if the column does not exist, or a sorted index is requested on a column
+     * that does not hold numbers or strings.
+     */
+    public synchronized ColumnIndex createIndex(String label, IndexType type) {
+        Column column = getColumn(label);
+        ColumnIndex existing = index(label, type);
+        if (existing != null) {
+            return existing;
+        }
+        long start = System.nanoTime();
+        ColumnIndex index = type == IndexType.HASH ? new HashIndex(label, column) : new SortedIndex(label, column);
+        index.buildNanos = System.nanoTime() - start;
+        ColumnIndex[] res = Arrays.copyOf(indexes, indexes.length + 1);
+        res[indexes.length] = index;
+        indexes = res;
+        return index;
+    }
 
-                Object cellValue = row[labels.indexOf(columnName)];
+    /**
+     * Drops the indexes of a column.
+     *
+     * @param label The label of the column.
+     */
+    public synchronized void dropIndex(String label) {
+        indexes = Arrays.stream(indexes).filter(index -> !index.getLabel().equals(label)).toArray(ColumnIndex[]::new);
+    }
 
-                if (!filterValue.equals(cellValue)) {
-                    match = false;
-                    break;
-                }
+    /**
+     * Returns the indexes of the DataFrame.
+     *
+     * @return The indexes, in the order they were created.
+     */
+    public List<ColumnIndex> getIndexes() {
+        return List.of(indexes);
+    }
+
+    /**
+     * Returns the index of the given kind on a column.
+     *
+     * @param label The label of the column.
+     * @param type The kind of index.
+     * @return The index, or null if there is none.
+     */
+    ColumnIndex index(String label, IndexType type) {
+        for (ColumnIndex index : indexes) {
+            if (index.getType() == type && index.getLabel().equals(label)) {
+                return index;
             }
+        }
+        return null;
+    }
 
-            if (match) {
-                filteredRows.add(row);
+    /**
+     * Filters the DataFrame with a predicate.
+     *
+     * @param predicate The condition the rows must match.
+     * @return A new DataFrame containing only the matching rows, possibly none.
+     * @throws IllegalArgumentException if the predicate uses a column that does not exist.
+     */
+    public DataFrame filter(Predicate predicate) {
+        return where(predicate).toDataFrame();
+    }
+
+    /**
+     * Sorts the rows of the DataFrame in ascending order of the given columns, as
+     * {@link #sortBy(String[], boolean[])}.
+     *
+     * @param labels The columns to sort by, from the most significant to the least significant.
+     * @return The selection of all the rows, in sorted order.
+     * @throws IllegalArgumentException if no label is given or a column does not exist.
+     */
+    public Selection sortBy(String... labels) {
+        boolean[] ascending = new boolean[labels.length];
+        Arrays.fill(ascending, true);
+        return sortBy(labels, ascending);
+    }
+
+    /**
+     * Sorts the rows of the DataFrame by the given columns. The sort only computes the permutation of the rows:
+     * the returned selection holds the rows in sorted order, and no column is reordered until
+     * {@link Selection#toDataFrame()} is called. Rows with equal keys keep their order, and null cells come last.
+     * Numeric and boolean columns are sorted with a parallel radix sort, strings by the rank of their dictionary
+     * code, and other values in the order of numbers, booleans, then strings.
+     *
+     * @param labels The columns to sort by, from the most significant to the least significant.
+     * @param ascending For each column, true for ascending order, false for descending order.
+     * @return The selection of all the rows, in sorted order.
+     * @throws IllegalArgumentException if no label is given, a column does not exist, or the arrays differ in length.
+     */
+    public Selection sortBy(String[] labels, boolean[] ascending) {
+        if (labels.length == 0 || labels.length != ascending.length) {
+            throw new IllegalArgumentException("Each sort column needs a direction.");
+        }
+        Column[] keys = new Column[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            keys[i] = getColumn(labels[i]);
+        }
+        if (rowCount == 0) {
+            return new Selection(this, new int[0]);
+        }
+        return new Selection(this, new RowSorter(ForkJoinPool.commonPool()).sort(keys, ascending));
+    }
+
+    /**
+     * Selects the k rows with the greatest values in a column, without sorting the whole DataFrame: each range of
+     * rows keeps its k best rows in a bounded heap, in parallel, and the heaps are merged at the end.
+     * The rows are those of {@link #sortBy(String[], boolean[])} in descending order: rows with equal values keep
+     * their order, and null cells are ignored.
+     *
+     * @param k The number of rows to select; fewer rows are returned if the column has fewer non-null cells.
+     * @param label The column to rank the rows by.
+     * @return The selection of the rows, from the greatest value.
+     * @throws IllegalArgumentException if k is negative or the column does not exist.
+     */
+    public Selection nlargest(int k, String label) {
+        return top(k, label, false);
+    }
+
+    /**
+     * Selects the k rows with the lowest values in a column, as {@link #nlargest(int, String)}.
+     *
+     * @param k The number of rows to select; fewer rows are returned if the column has fewer non-null cells.
+     * @param label The column to rank the rows by.
+     * @return The selection of the rows, from the lowest value.
+     * @throws IllegalArgumentException if k is negative or the column does not exist.
+     */
+    public Selection nsmallest(int k, String label) {
+        return top(k, label, true);
+    }
+
+    private Selection top(int k, String label, boolean ascending) {
+        Column key = getColumn(label);
+        if (k < 0) {
+            throw new IllegalArgumentException("The number of rows must not be negative.");
+        }
+        return new Selection(this, new RowSorter(ForkJoinPool.commonPool()).top(key, k, ascending));
+    }
+
+    /**
+     * Returns a DataFrame holding the same cells in compressed columns, sharing the columns that stay as they are.
+     * Each column gets the smallest of a run-length encoding ({@link RunLengthColumn}), a dictionary of its
+     * distinct values ({@link DictionaryColumn}), and for ints and longs bit packing ({@link PackedColumn}) or
+     * delta encoding ({@link DeltaColumn}), if it takes at most half the memory of the plain column.
+     * The compressed DataFrame is equal to this one; predicates and groupby work on the codes of the encoded
+     * columns, while sorts and sorted indexes decode them first.
+     *
+     * @return The compressed DataFrame.
+     */
+    public DataFrame compress() {
+        Column[] res = new Column[columns.length];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = Compression.compress(column(i));
+        }
+        return new DataFrame(new ArrayList<>(labels), res);
+    }
+
+    /**
+     * Saves the DataFrame to a binary columnar file, replacing it if it exists. The file holds the labels and the
+     * types of the columns, then each column in its own block with its null bitmap, strings being stored as their
+     * dictionary and codes. Indexes are not saved.
+     *
+     * @param path The file to write.
+     * @throws IllegalArgumentException if an object column holds cells other than strings, booleans, characters
+     *                                  and the numbers of java.lang and java.math, which {@link #load(Path)} rejects.
+     * @throws RuntimeException if the file cannot be written.
+     */
+    public void save(Path path) {
+        ColumnFile.write(path, labels, columns(), rowCount);
+    }
+
+    /**
+     * Loads a DataFrame saved by {@link #save(Path)}, equal to the saved one.
+     * Only the header is read: the blocks of the columns are memory-mapped, and each column is decoded from the
+     * mapped pages the first time it is used, so a query only reads the columns it needs. Object columns are
+     * deserialized with Java serialization, filtered to only create strings, booleans, characters and the
+     * numbers of java.lang and java.math.
+     *
+     * @param path The file to read.
+     * @return The loaded DataFrame.
+     * @throws IllegalArgumentException if the file is not a DataFrame file.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public static DataFrame load(Path path) {
+        return new DataFrame(ColumnFile.open(path));
+    }
+
+    /**
+     * Returns a DataFrame holding the same cells with its int, long, double, boolean and string columns stored
+     * outside the Java heap, in native memory allocated with the incubating Foreign Memory API: the values, or the
+     * dictionary codes of the strings, are copied to native segments, while the null bitmaps and the string
+     * dictionaries stay on the heap. Object columns and compressed columns, which are already small, are shared.
+     * Every operation works on the returned DataFrame, and the DataFrames it returns hold their own columns on
+     * the heap, except those sharing its columns, such as the ones returned by {@link #loc(String[])}.
+     * The native memory is only released by {@link #close()}, after which reading the off-heap columns throws an
+     * IllegalStateException, so the DataFrame should be used in a try-with-resources statement.
+     *
+     * The off-heap columns are only compiled on JDK 17, whose Foreign Memory API later JDKs replaced, by the
+     * jdk17 profile of the pom.
+     *
+     * @return The off-heap DataFrame.
+     * @throws UnsupportedOperationException if the JVM runs without {@code --add-modules jdk.incubator.foreign},
+     *                                       or the library was built without the off-heap columns.
+     */
+    public DataFrame offHeap() {
+        if (!FOREIGN_MODULE) {
+            throw new UnsupportedOperationException(
+                    "Off-heap storage needs the jdk.incubator.foreign module (--add-modules jdk.incubator.foreign).");
+        }
+        NativeMemory memory = newNativeMemory();
+        try {
+            Column[] res = new Column[columns.length];
+            for (int i = 0; i < res.length; i++) {
+                res[i] = memory.store(column(i));
             }
+            return new DataFrame(new ArrayList<>(labels), res, memory);
+        } catch (RuntimeException | Error e) {
+            memory.close();
+            throw e;
         }
+    }
 
-        if (filteredRows.isEmpty()) {
-            Object[][] nullRow = new Object[1][labels.size()];
-            Arrays.fill(nullRow[0], null);
-            return new DataFrame((String[]) getLabels(), nullRow);
-        } else {
-            Object[][] filteredData = new Object[filteredRows.size()][];
-            filteredData = filteredRows.toArray(filteredData);
-            return new DataFrame((String[]) getLabels(), filteredData);
+    /**
+     * Creates the native memory of the off-heap columns, loaded by name since they are only compiled on JDK 17.
+     */
+    private static NativeMemory newNativeMemory() {
+        try {
+            return (NativeMemory) Class.forName("OffHeapMemory").getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedOperationException("Off-heap storage is only built on JDK 17 (jdk17 profile).", e);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Releases the native memory of the columns stored off heap by {@link #offHeap()}.
+     * It does nothing for a DataFrame held on the heap, or if the memory is already released.
+     *
+     * @throws IllegalStateException if another thread is reading an off-heap column.
+     */
+    @Override
+    public void close() {
+        if (memory != null) {
+            memory.close();
+        }
+    }
+
+    /**
+     * Appends rows at the end of the DataFrame, which then equals the DataFrame constructed from all its rows by
+     * {@link #DataFrame(String[], Object[][])}: a column receiving a value of another type becomes an object
+     * column. The first append copies the columns to growable buffers owned by this DataFrame, which grow
+     * geometrically, so appending costs amortized constant time per cell and never changes the DataFrames
+     * sharing the columns, such as the views returned by {@link #iloc(int[])}. The cached statistics and the
+     * indexes are updated with the new rows only; an index on a column whose type changes is built again, or
+     * dropped if it is a sorted index and the column no longer holds numbers or strings.
+     * Appending must not run while another thread reads the DataFrame.
+     *
+     * @param rows The rows to append, each holding one value per column, in the order of the labels.
+     * @throws IllegalArgumentException if a row does not have one value per column.
+     */
+    public synchronized void appendRows(Object[][] rows) {
+        for (Object[] row : rows) {
+            if (row.length != columns.length) {
+                throw new IllegalArgumentException("Each row must hold one value per column.");
+            }
+        }
+        if (rows.length == 0) {
+            return;
+        }
+        ColumnBuilder[] builders = appenders(rows.length);
+        for (int i = 0; i < builders.length; i++) {
+            for (Object[] row : rows) {
+                builders[i].append(row[i]);
+            }
+        }
+        grow();
+    }
+
+    /**
+     * Appends the rows of another DataFrame with the same labels, as {@link #appendRows(Object[][])} does.
+     * The columns are matched by label, and the cells of a column of the same type are copied in bulk.
+     *
+     * @param other The DataFrame whose rows to append. It may be this DataFrame.
+     * @throws IllegalArgumentException if the other DataFrame does not have the same labels.
+     */
+    public synchronized void appendFrame(DataFrame other) {
+        if (other.labels.size() != labels.size() || !positions.keySet().containsAll(other.labels)) {
+            throw new IllegalArgumentException("The DataFrames do not have the same labels.");
+        }
+        Column[] appended = new Column[columns.length];
+        for (int i = 0; i < appended.length; i++) {
+            appended[i] = other.getColumn(labels.get(i));
+        }
+        if (other.getRowCount() == 0) {
+            return;
+        }
+        ColumnBuilder[] builders = appenders(other.getRowCount());
+        for (int i = 0; i < builders.length; i++) {
+            builders[i].appendColumn(appended[i]);
+        }
+        grow();
+    }
+
+    /**
+     * Returns the builders of the columns, copying the columns the first time.
+     *
+     * @param extra The number of rows about to be appended.
+     */
+    private ColumnBuilder[] appenders(int extra) {
+        if (appenders == null) {
+            ColumnBuilder[] res = new ColumnBuilder[columns.length];
+            for (int i = 0; i < res.length; i++) {
+                res[i] = ColumnBuilder.of(column(i), rowCount + Math.max(extra, rowCount / 2));
+            }
+            appenders = res;
         }
+        return appenders;
+    }
+
+    /**
+     * Replaces the columns by those of the builders, and extends the indexes to the appended rows.
+     */
+    private void grow() {
+        ColumnType[] types = new ColumnType[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            types[i] = column(i).getType();
+            columns[i] = appenders[i].build();
+        }
+        rowCount = appenders[0].size();
+        ArrayList<ColumnIndex> res = new ArrayList<>();
+        for (ColumnIndex index : indexes) {
+            int i = positions.get(index.getLabel());
+            if (columns[i].getType() == types[i]) {
+                res.add(index.append(columns[i]));
+                continue;
+            }
+            try {
+                long start = System.nanoTime();
+                ColumnIndex rebuilt = ColumnIndex.of(index.getLabel(), index.getType(), columns[i], 0, rowCount);
+                rebuilt.buildNanos = System.nanoTime() - start;
+                res.add(rebuilt);
+            } catch (IllegalArgumentException e) {
+                // The column can no longer be sorted: the index is dropped
+            }
+        }
+        indexes = res.toArray(new ColumnIndex[0]);
+    }
+
+    /**
+     * Starts a lazy query on the DataFrame: the following calls are recorded, then run at once by
+     * {@link LazyFrame#collect()}, which copies the selected data only once.
+     *
+     * @return A LazyFrame querying this DataFrame.
+     */
+    public LazyFrame lazy() {
+        return new LazyFrame(this);
+    }
+
+    /**
+     * Copies the given rows into a new DataFrame, without checking them.
+     *
+     * @param rows The rows to copy, in the order they should appear.
+     * @return A new DataFrame holding the rows.
+     */
+    DataFrame rows(int[] rows) {
+        Column[] res = new Column[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            res[i] = column(i).take(rows);
+        }
+        return new DataFrame(new ArrayList<>(labels), res);
     }
 
     /**
@@ -377,13 +885,39 @@ public class DataFrame {
             return false;
         }
         DataFrame other = (DataFrame) obj;
-        if (rows.size() != other.rows.size() || columns.size() != other.columns.size()) {
+        if (rowCount != other.rowCount || columns.length != other.columns.length) {
             return false;
         }
-        for (int i = 0; i < rows.size(); i++) {
-            Object[] thisRow = rows.get(i);
-            Object[] otherRow = other.rows.get(i);
-            if (!Arrays.deepEquals(thisRow, otherRow)) {
+        for (int i = 0; i < columns.length; i++) {
+            if (!sameCells(column(i), other.column(i), rowCount)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameCells(Column a, Column b, int size) {
+        if (a instanceof IntColumn x && b instanceof IntColumn y) {
+            for (int i = 0; i < size; i++) {
+                boolean isNull = x.isNull(i);
+                if (isNull != y.isNull(i) || (!isNull && x.values[i] != y.values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a instanceof DoubleColumn x && b instanceof DoubleColumn y) {
+            for (int i = 0; i < size; i++) {
+                boolean isNull = x.isNull(i);
+                if (isNull != y.isNull(i) ||
+                        (!isNull && Double.doubleToLongBits(x.values[i]) != Double.doubleToLongBits(y.values[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!Objects.deepEquals(a.get(i), b.get(i))) {
                 return false;
             }
         }
@@ -393,30 +927,39 @@ public class DataFrame {
      /**
      * Calculates the mean (average) of numerical values in each column of the DataFrame.
      * If a column contains non-numerical values or is empty, the mean value for that column is considered null.
+     * The sums, counts, minimums and maximums of the typed columns are computed once and then only updated with
+     * the appended rows, which {@link #count()} and {@link #minEtMax()} share.
      * @return An array containing the mean values for each column in the DataFrame.
      **/
     public Object[] moyenne() {
-        int i = 0;
-        Object[] tab = new Object[labels.size()];
-        for (String s : this.labels) {
-            Object[] row = this.columns.get(s);
-            if (row.length > 0 && row[0] instanceof Number) {
-                double sum = 0.0;
-                int compteur = 0;
-                for(Object n : row) {
-                    if(n != null) {
-                        sum = sum + ((Number) n).doubleValue();
-                    }
-                    else
-                        compteur ++;
+        Object[] tab = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnStats columnStats = stats(i);
+            tab[i] = columnStats == null ? meanOf(column(i)) : columnStats.mean();
+        }
+        return tab;
+    }
+
+    /**
+     * Computes the mean of a column, as {@link #moyenne()} does.
+     *
+     * @param column The column.
+     * @return The mean of the non-null cells, or null if the column is empty or not numeric.
+     */
+    static Object meanOf(Column column) {
+        if (column.size() > 0 && column.isNumeric()) {
+            double sum = 0.0;
+            int compteur = 0;
+            for (int j = 0; j < column.size(); j++) {
+                if (!column.isNull(j)) {
+                    sum = sum + column.getDouble(j);
                 }
-                tab[i] = sum / (row.length - compteur);
-            } else {
-                tab[i] = null;
+                else
+                    compteur ++;
             }
-            i++;
+            return sum / (column.size() - compteur);
         }
-        return tab;
+        return null;
     }
 
     /**
@@ -424,49 +967,28 @@ public class DataFrame {
      * @return An array containing the count of non-null elements for each column in the DataFrame.
      **/
     public Integer[] count() {
-        Integer[] tab = new Integer[labels.size()];
-        int i = 0 ;
-        for(String l : labels){
-            int compteur = columns.get(l).length;
-            for(Object c : columns.get(l)){
-                if(c == null){
-                    compteur--;
-                }
-            }
-            tab[i]=compteur;
-            i++;
+        Integer[] tab = new Integer[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnStats columnStats = stats(i);
+            tab[i] = columnStats == null ? column(i).size() - column(i).nullCount() : columnStats.count();
         }
         return tab;
     }
 
     /**
      * Finds the minimum and maximum values in each numerical column of the DataFrame.
-     * If a column contains non-numerical values, the minimum and maximum values for that column are considered null.$
+     * If a column contains non-numerical values, the minimum and maximum values for that column are considered null.
+     * Null cells are skipped.
      * @return A 2D array where the first row contains the minimum values and the second row contains the maximum values
      **/
     public Object[][] minEtMax() {
-        Object[] min = new Object[labels.size()];
-        Object[] max = new Object[labels.size()];
-        int i = 0 ;
-        for(String l : labels){
-            if(columns.get(l)[0] instanceof Number) {
-                double maxVal = Integer.MIN_VALUE;
-                double minVal = Integer.MAX_VALUE;
-                for(int j = 0; j < columns.get(l).length; j++){
-                    if (((Number) columns.get(l)[j]).doubleValue() > maxVal)
-                        maxVal = ((Number) columns.get(l)[j]).doubleValue();
-                    if (((Number) columns.get(l)[j]).doubleValue() < minVal)
-                        minVal = ((Number) columns.get(l)[j]).doubleValue();
-
-                }
-                min[i]=minVal;
-                max[i]=maxVal;
-            }
-            else{
-                min[i]=null;
-                max[i]=null;
-            }
-            i++;
+        Object[] min = new Object[columns.length];
+        Object[] max = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnStats columnStats = stats(i);
+            Object[] minMax = columnStats == null ? minMaxOf(column(i)) : columnStats.minMax();
+            min[i] = minMax[0];
+            max[i] = minMax[1];
         }
         return new Object[][]{
                 min,
@@ -474,146 +996,520 @@ public class DataFrame {
         };
     }
 
+    /**
+     * Finds the minimum and maximum of a column, as {@link #minEtMax()} does.
+     *
+     * @param column The column.
+     * @return The minimum and the maximum, both null if the column is not numeric or holds no value other than
+     *         null and NaN.
+     */
+    static Object[] minMaxOf(Column column) {
+        if (column.isNumeric()) {
+            boolean found = false;
+            double maxVal = 0;
+            double minVal = 0;
+            for (int j = 0; j < column.size(); j++) {
+                if (column.isNull(j)) {
+                    continue;
+                }
+                double value = column.getDouble(j);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                if (!found || value > maxVal)
+                    maxVal = value;
+                if (!found || value < minVal)
+                    minVal = value;
+                found = true;
+            }
+            return found ? new Object[]{minVal, maxVal} : new Object[2];
+        }
+        return new Object[2];
+    }
+
     /**
      * Calculates the standard deviation of numerical values in each column of the DataFrame based on the provided means.
      * If a column contains non-numerical values, the standard deviation for that column is considered null.
+     * Null cells are skipped.
      * @param mean An array containing the mean values for each column in the DataFrame.
      * @return An array containing the standard deviation values for each column in the DataFrame.
      */
     public Object[] sd(Object[] mean) {
-        Object[] sd = new Object[labels.size()];
-        int i = 0;
-        for(String l : labels){
-            double res=0;
-            if(columns.get(l)[0] instanceof Number) {
-                for(int j = 0; j < columns.get(l).length; j++) {
-                    double cal = (((Number) columns.get(l)[j]).doubleValue() - ((Number) mean[i]).doubleValue());
-                    res = res + cal * cal;
-                }
-                sd[i] = Math.sqrt((double) 1 / columns.get(l).length * res);
-            }
-            else{
-                sd[i] = null;
-            }
-            i++;
+        Object[] sd = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            sd[i] = sdOf(column(i), mean[i]);
         }
         return sd;
     }
 
     /**
-     * Generates a summary of the DataFrame, including count, mean, minimum, maximum, and standard deviation for each column.
-     **/
-    public void describe() {
-        Object[] moy = moyenne();
-        Integer[] count = count();
-        Object[][] minmax = minEtMax();
-        Object[] sd = sd(moy);
-
-        System.out.printf("%-12s", "");
-        for (String label : labels) {
-            System.out.printf("%-10s", label);
-            System.out.printf("%-2s", "");
-        }
-        System.out.println();
-        System.out.printf("%-10s", "Count");
-        System.out.print("| ");
-        for(int i : count){
-            System.out.printf("%-10s", i);
-            System.out.printf("%-2s", "");
+     * Calculates the standard deviation of a column, as {@link #sd(Object[])} does.
+     *
+     * @param column The column.
+     * @param mean   The mean of the column.
+     * @return The standard deviation of the non-null cells, or null if the column is not numeric.
+     */
+    static Object sdOf(Column column, Object mean) {
+        if (column.isNumeric()) {
+            double m = ((Number) mean).doubleValue();
+            double res = 0;
+            int n = 0;
+            for (int j = 0; j < column.size(); j++) {
+                if (column.isNull(j)) {
+                    continue;
+                }
+                double cal = column.getDouble(j) - m;
+                res = res + cal * cal;
+                n++;
+            }
+            return Math.sqrt((double) 1 / n * res);
         }
-        System.out.println();
-        System.out.printf("%-10s", "Mean");
-        System.out.print("| ");
-        for(Object m : moy){
-            System.out.printf("%-10s", m);
-            System.out.printf("%-2s", "");
+        return null;
+    }
+
+    /**
+     * Computes the summary statistics of every column in a single pass over its values: the count of non-null cells,
+     * and for numeric columns the mean, minimum, quartiles, maximum, standard deviation and variance.
+     * Null cells are skipped. The statistics of the typed columns are kept, so that calling it again, after
+     * {@link #appendRows(Object[][])} for instance, only reads the new rows.
+     *
+     * @return The statistics of the columns.
+     */
+    public synchronized Description summary() {
+        RunningStats[] running = new RunningStats[columns.length];
+        int[] counts = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnStats columnStats = stats(i);
+            if (columnStats == null) {
+                counts[i] = column(i).size() - column(i).nullCount();
+                running[i] = column(i).isNumeric() ? RunningStats.of(column(i)) : null;
+            } else {
+                counts[i] = columnStats.count();
+                running[i] = columnStats.type().isNumeric() ? columnStats.running(column(i)) : null;
+            }
         }
-        System.out.println();
-        System.out.printf("%-10s", "Min");
-        System.out.print("| ");
-        for(Object min : minmax[0]){
-            System.out.printf("%-10s", min);
-            System.out.printf("%-2s", "");
+        // The Description copies the statistics, which the next appends update
+        return new Description(labels, running, counts);
+    }
+
+    /**
+     * Returns the statistics of a column, computing them the first time and adding the rows appended since the
+     * last call.
+     *
+     * @param i The position of the column.
+     * @return The statistics, or null for an object column.
+     */
+    synchronized ColumnStats stats(int i) {
+        Column column = column(i);
+        if (column.getType() == ColumnType.OBJECT) {
+            return null;
         }
-        System.out.println();
-        System.out.printf("%-10s", "Max");
-        System.out.print("| ");
-        for(Object max : minmax[1]){
-            System.out.printf("%-10s", max);
-            System.out.printf("%-2s", "");
+        if (stats == null) {
+            stats = new ColumnStats[columns.length];
         }
-        System.out.println();
-        System.out.printf("%-10s", "Ecart-Type");
-        System.out.print("| ");
-        for(Object e : sd){
-            System.out.printf("%-10s", e);
-            System.out.printf("%-2s", "");
+        if (stats[i] == null || stats[i].type() != column.getType()) {
+            stats[i] = new ColumnStats(column.getType());
         }
+        stats[i].update(column);
+        return stats[i];
+    }
 
+    /**
+     * Prints a summary of the DataFrame, including count, mean, minimum, quartiles, maximum, and standard deviation
+     * for each column, as computed by {@link #summary()}.
+     **/
+    public void describe() {
+        summary().print();
     }
 
     /**
      * Groups the DataFrame by the specified label column and aggregates the other columns based on the given option.
      *
      * @param label The label column to group by.
-     * @param option The aggregation option. Should be either "mean" or "sum".
+     * @param option The aggregation option: "mean", "sum", "min", "max", "count", "var", "std", "first" or "last".
      * @return A new DataFrame with the aggregated values based on the grouping and aggregation option.
-     * @throws IllegalArgumentException If the option provided is neither "mean" nor "sum".
+     * @throws IllegalArgumentException If the option provided is not one of the above.
      */
     public DataFrame groupby(String label, String option) {
-        ArrayList<Object> ordre = new ArrayList<>();
-        Hashtable<Object, ArrayList<Integer>> group = new Hashtable<>();
-        //Rempli la hashtable avec Object du groupe et les index a regrouper pour les autres colonnes
-        int i = 0;
-        for(Object o: columns.get(label)){
-            ArrayList<Integer> idx;
-            if(ordre.contains(o)){
-                idx = group.get(o);
-                idx.add(i);
-            }
-            else{
-                ordre.add(o);
-                idx = new ArrayList<>();
-                idx.add(i);
+        return groupby(label, Aggregation.of(option));
+    }
+
+    /**
+     * Groups the DataFrame by the specified label column and aggregates each other column the aggregator accepts.
+     * The groups appear in the order their key first appears. Keys are looked up in a hash table, so grouping
+     * takes a single pass over the rows whatever the number of groups.
+     *
+     * @param label The label column to group by.
+     * @param aggregator The aggregator applied to the other columns, such as {@link Aggregation#SUM}.
+     * @return A new DataFrame holding the keys followed by the aggregated columns.
+     * @throws IllegalArgumentException If the label does not exist.
+     */
+    public DataFrame groupby(String label, Aggregator aggregator) {
+        Column key = getColumn(label);
+        GroupIndex index = GroupIndex.of(key);
+
+        ArrayList<String> newlabels = new ArrayList<>();
+        ArrayList<Column> res = new ArrayList<>();
+        newlabels.add(label);
+        res.add(key.take(index.firstRows()));
+        for(int k = 0; k < columns.length; k++){
+            String lab = labels.get(k);
+            if(lab.equals(label) || !aggregator.accepts(column(k))){
+                continue;
             }
-            group.put(o, idx);
-            i++;
+            newlabels.add(lab);
+            res.add(aggregator.aggregate(column(k), index.groupOf, index.groups()));
         }
-        
-        Object[][] res = new Object[ordre.size()][];
-        String[] newlabels = new String[labels.size()];
-        int z = 0;
-        for(Object o: ordre){
-            Object[] ligne = new Object[labels.size()];
-            ligne[0] = o;
-            newlabels[0] = label;
-            int k = 1;
-            for(String lab : labels){
-                if(!lab.equals(label) && (columns.get(lab)[0] instanceof Number)){
-                    Object[] actualCol = new Object[group.get(o).size()];
-                    int j = 0;
-                    for(int idx : group.get(o)){
-                        actualCol[j] = columns.get(lab)[idx];
-                        j++;
-                    }
-
-                    if(Objects.equals(option, "mean")){
-                        ligne[k] = meanForGroupBy(actualCol);
-                    }
-                    else if(Objects.equals(option, "sum")){
-                        ligne[k] = sumForGroupBy(actualCol);
-                    }
-                    else{
-                        throw new IllegalArgumentException("L'option choisie en second parametre doit etre soit \"mean\" soit \"sum\".");
-                    }
-                    newlabels[k] = lab;
-                    k++;
-                }
+        return new DataFrame(newlabels, res.toArray(new Column[0]));
+    }
+
+    /**
+     * Aggregates a numeric column over a window of rows sliding along the DataFrame, as
+     * {@link #rolling(String[], int)}.
+     *
+     * @param label  The label of the column.
+     * @param window The number of rows of the window, ending at each row.
+     * @return The windows, whose aggregations return a DataFrame of the same number of rows.
+     * @throws IllegalArgumentException if the column does not exist or is not numeric, or the window is empty.
+     */
+    public Rolling rolling(String label, int window) {
+        return rolling(new String[]{label}, window);
+    }
+
+    /**
+     * Aggregates numeric columns over a window of rows sliding along the DataFrame, such as a moving average:
+     * the cell of each row aggregates the non-null cells of the window of the given number of rows ending at that
+     * row, and is null until the window is full, see {@link Rolling#minPeriods(int)}. The rows should be in time
+     * order. Each column is read once from its primitive storage, each row costing constant amortized time
+     * whatever the size of the window, and the columns are aggregated in parallel, on the common ForkJoinPool
+     * unless {@link Rolling#pool(ForkJoinPool)} gives another one.
+     *
+     * @param labels The labels of the columns.
+     * @param window The number of rows of the window, ending at each row.
+     * @return The windows, whose aggregations return a DataFrame of the same number of rows.
+     * @throws IllegalArgumentException if a column does not exist or is not numeric, or the window is empty.
+     */
+    public Rolling rolling(String[] labels, int window) {
+        return new Rolling(labels.clone(), columnsOf(labels), window, Math.max(window, 1), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Aggregates numeric columns over a window growing from the first row, such as a running total: the cell of
+     * each row aggregates the non-null cells of all the rows up to it, as {@link #rolling(String[], int)} does.
+     *
+     * @param labels The labels of the columns.
+     * @return The windows, whose aggregations return a DataFrame of the same number of rows.
+     * @throws IllegalArgumentException if a column does not exist or is not numeric.
+     */
+    public Rolling expanding(String... labels) {
+        return new Rolling(labels.clone(), columnsOf(labels), Integer.MAX_VALUE, 1, ForkJoinPool.commonPool());
+    }
+
+    private Column[] columnsOf(String[] labels) {
+        Column[] res = new Column[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            res[i] = getColumn(labels[i]);
+        }
+        return res;
+    }
+
+    /**
+     * Opens window functions over the partitions of the rows sharing a key, taken in ascending order of another
+     * column, as {@link #over(String, String, boolean)} does.
+     *
+     * @param partitionBy The label of the partition column.
+     * @param orderBy     The label of the order column.
+     * @return The window, to which functions add columns.
+     * @throws IllegalArgumentException if a column does not exist.
+     */
+    public Window over(String partitionBy, String orderBy) {
+        return over(partitionBy, orderBy, true);
+    }
+
+    /**
+     * Opens window functions, such as row numbers, ranks, lags or cumulative sums, over the partitions of the
+     * rows sharing a key of the partition column, each taken in order of the order column, ties in the order of
+     * the rows and null order keys last. Each function gives a new column, with a value for every row.
+     *
+     * @param partitionBy The label of the partition column.
+     * @param orderBy     The label of the order column.
+     * @param ascending   True for ascending order, false for descending order.
+     * @return The window, to which functions add columns.
+     * @throws IllegalArgumentException if a column does not exist.
+     */
+    public Window over(String partitionBy, String orderBy, boolean ascending) {
+        return over(partitionBy, orderBy, ascending, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Opens window functions over partitions as {@link #over(String, String, boolean)} does, sorting the rows on
+     * the workers of the given pool instead of the common ForkJoinPool.
+     *
+     * @param partitionBy The label of the partition column.
+     * @param orderBy     The label of the order column.
+     * @param ascending   True for ascending order, false for descending order.
+     * @param pool        The pool whose workers sort the rows.
+     * @return The window, to which functions add columns.
+     * @throws IllegalArgumentException if a column does not exist.
+     */
+    public Window over(String partitionBy, String orderBy, boolean ascending, ForkJoinPool pool) {
+        return new Window(this, partitionBy, orderBy, ascending, pool);
+    }
+
+    /**
+     * Reshapes the DataFrame from long to wide format: each distinct key of the index column gives a row, each
+     * distinct key of the columns column a column, labelled by the key, and each cell aggregates the values of
+     * the rows holding both keys with the aggregator, as {@link #groupby(String, Aggregator)} would. A cell no row
+     * holds is null. Rows and columns appear in the order their key first appears, and null keys form their own
+     * row or column. Both key columns are hashed by a {@link GroupIndex}, the pair of keys of each row gives its
+     * cell, and the aggregator fills the cells of all the columns at once in a single pass over the values.
+     *
+     * @param index      The label of the column whose keys give the rows.
+     * @param columns    The label of the column whose keys give the columns.
+     * @param values     The label of the column to aggregate.
+     * @param aggregator The aggregator, such as {@link Aggregation#SUM}.
+     * @return A new DataFrame holding the keys of the index followed by a column per key of the columns column.
+     * @throws IllegalArgumentException if a column does not exist, the aggregator does not accept the values,
+     *                                  two columns would have the same label or the table would be too large.
+     */
+    public DataFrame pivot(String index, String columns, String values, Aggregator aggregator) {
+        Column rowKeys = getColumn(index);
+        Column columnKeys = getColumn(columns);
+        Column cells = getColumn(values);
+        if (!aggregator.accepts(cells)) {
+            throw new IllegalArgumentException("The aggregator does not apply to the column " + values + ".");
+        }
+        GroupIndex rowGroups = GroupIndex.of(rowKeys);
+        GroupIndex columnGroups = GroupIndex.of(columnKeys);
+        int width = columnGroups.groups();
+        long size = (long) rowGroups.groups() * width;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The pivot table would hold more than " + Integer.MAX_VALUE + " cells.");
+        }
+        int[] cellOf = new int[rowCount];
+        BitSet filled = new BitSet((int) size);
+        for (int row = 0; row < rowCount; row++) {
+            cellOf[row] = rowGroups.groupOf[row] * width + columnGroups.groupOf[row];
+            filled.set(cellOf[row]);
+        }
+        Column aggregated = aggregator.aggregate(cells, cellOf, (int) size);
+
+        ArrayList<String> newlabels = new ArrayList<>();
+        ArrayList<Column> res = new ArrayList<>();
+        newlabels.add(index);
+        res.add(rowKeys.take(rowGroups.firstRows()));
+        Column keys = columnKeys.take(columnGroups.firstRows());
+        for (int c = 0; c < width; c++) {
+            String label = String.valueOf(keys.get(c));
+            if (newlabels.contains(label)) {
+                throw new IllegalArgumentException("Column with label " + label + " already exists.");
+            }
+            int[] taken = new int[rowGroups.groups()];
+            for (int r = 0; r < taken.length; r++) {
+                int cell = r * width + c;
+                taken[r] = filled.get(cell) ? cell : -1;
             }
-            res[z] = ligne ;
-            z++;
+            newlabels.add(label);
+            res.add(aggregated.take(taken));
         }
-        return new DataFrame(newlabels,res);
+        return new DataFrame(newlabels, res.toArray(new Column[0]));
+    }
+
+    /**
+     * Reshapes the DataFrame from wide to long format (unpivot): each row gives one row per value column, holding
+     * its identifier columns, the label of the value column in a "variable" column and its cell in a "value"
+     * column, the rows of the first value column coming first. The identifier cells are taken by row index, the
+     * labels are codes of a string column, and the value columns are copied one after the other into a column of
+     * their common numeric type, or else of their type if they share one, or else an object column.
+     *
+     * @param idVars    The labels of the identifier columns, repeated for each value column.
+     * @param valueVars The labels of the value columns, stacked into the value column.
+     * @return A new DataFrame holding the identifier columns, "variable" and "value".
+     * @throws IllegalArgumentException if a column does not exist, a value column is repeated, an identifier
+     *                                  column is labelled "variable" or "value", or the result would be too large.
+     */
+    public DataFrame melt(String[] idVars, String[] valueVars) {
+        Column[] ids = columnsOf(idVars);
+        Column[] stacked = columnsOf(valueVars);
+        ArrayList<String> newlabels = new ArrayList<>(Arrays.asList(idVars));
+        if (newlabels.contains("variable") || newlabels.contains("value")) {
+            throw new IllegalArgumentException("The identifier columns must not be labelled variable or value.");
+        }
+        if (new HashSet<>(Arrays.asList(valueVars)).size() < valueVars.length) {
+            throw new IllegalArgumentException("A value column is melted more than once.");
+        }
+        long rows = (long) rowCount * valueVars.length;
+        if (rows > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The melted DataFrame would hold more than " + Integer.MAX_VALUE
+                    + " rows.");
+        }
+        int size = (int) rows;
+        int[] taken = new int[size];
+        int[] codes = new int[size];
+        for (int i = 0; i < size; i++) {
+            taken[i] = i % rowCount;
+            codes[i] = i / rowCount;
+        }
+        ArrayList<Column> res = new ArrayList<>();
+        for (Column id : ids) {
+            res.add(id.take(taken));
+        }
+        ColumnType type = stacked.length == 0 ? ColumnType.OBJECT : stacked[0].getType();
+        for (Column column : stacked) {
+            type = type.widen(column.getType());
+        }
+        ColumnBuilder builder = type.isNumeric() ? new ColumnBuilder(type, size) : new ColumnBuilder(size);
+        for (Column column : stacked) {
+            builder.appendColumn(column);
+        }
+        newlabels.add("variable");
+        res.add(new StringColumn(codes, size, valueVars.clone(), new BitSet()));
+        newlabels.add("value");
+        res.add(builder.build());
+        return new DataFrame(newlabels, res.toArray(new Column[0]));
+    }
+
+    /**
+     * Joins the DataFrame with another one on a key column of each.
+     *
+     * @param other The right DataFrame.
+     * @param leftKey The key column of this DataFrame.
+     * @param rightKey The key column of the other DataFrame.
+     * @param type The join type: "inner", "left", "right", "outer", "semi" or "anti".
+     * @return The joined DataFrame.
+     * @throws IllegalArgumentException If a key column does not exist or the type is not one of the above.
+     */
+    public DataFrame join(DataFrame other, String leftKey, String rightKey, String type) {
+        return join(other, leftKey, rightKey, JoinType.of(type));
+    }
+
+    /**
+     * Joins the DataFrame with another one on a key column of each, with a hash join: the keys of the smaller
+     * DataFrame are indexed in a hash table, which the rows of the other one probe, so the join takes a single
+     * pass over each DataFrame. Keys match when they are equal; null keys match nothing.
+     * The result holds the columns of this DataFrame followed by those of the other one, the labels already used
+     * getting the suffix "_right"; when both keys have the same label, it appears only once.
+     * Its rows follow the order of this DataFrame, each one repeated for its matches in the order of the other
+     * DataFrame, except for a right join, which follows the order of the other DataFrame; an outer join lists
+     * the unmatched rows of the other DataFrame last. Semi and anti joins only return rows and columns of this
+     * DataFrame.
+     *
+     * @param other The right DataFrame.
+     * @param leftKey The key column of this DataFrame.
+     * @param rightKey The key column of the other DataFrame.
+     * @param type The join type.
+     * @return The joined DataFrame.
+     * @throws IllegalArgumentException If a key column does not exist.
+     */
+    public DataFrame join(DataFrame other, String leftKey, String rightKey, JoinType type) {
+        return Join.hash(this, other, leftKey, rightKey, type);
+    }
+
+    /**
+     * Joins the DataFrame with another one, both sorted by key, as {@link #join(DataFrame, String, String, String)}.
+     *
+     * @param other The right DataFrame.
+     * @param leftKey The key column of this DataFrame.
+     * @param rightKey The key column of the other DataFrame.
+     * @param type The join type: "inner", "left", "right", "outer", "semi" or "anti".
+     * @return The joined DataFrame.
+     * @throws IllegalArgumentException If a key column does not exist, is not sorted, or the type is not one of the above.
+     */
+    public DataFrame mergeJoin(DataFrame other, String leftKey, String rightKey, String type) {
+        return mergeJoin(other, leftKey, rightKey, JoinType.of(type));
+    }
+
+    /**
+     * Joins the DataFrame with another one with a sort-merge join, which walks both key columns side by side
+     * without building a hash table. Both DataFrames must already be sorted by key in ascending order (numbers,
+     * then booleans, then strings), null keys being allowed anywhere. The result is the same as that of
+     * {@link #join(DataFrame, String, String, JoinType)}.
+     *
+     * @param other The right DataFrame.
+     * @param leftKey The key column of this DataFrame.
+     * @param rightKey The key column of the other DataFrame.
+     * @param type The join type.
+     * @return The joined DataFrame.
+     * @throws IllegalArgumentException If a key column does not exist or is not sorted.
+     */
+    public DataFrame mergeJoin(DataFrame other, String leftKey, String rightKey, JoinType type) {
+        return Join.merge(this, other, leftKey, rightKey, type);
+    }
+
+    /**
+     * Returns the column at the given position, decoding it from the source file the first time.
+     */
+    private Column column(int i) {
+        Column column = columns[i];
+        return column != null ? column : source.column(i);
+    }
+
+    private Column[] columns() {
+        if (source == null) {
+            return columns;
+        }
+        Column[] res = new Column[columns.length];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = column(i);
+        }
+        return res;
+    }
+
+    private Object[] rowAt(int index) {
+        Object[] row = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = column(i).get(index);
+        }
+        return row;
+    }
+
+    /**
+     * Prints the column labels and the given rows, in the given order.
+     *
+     * @param rows The rows to print.
+     */
+    void printRows(int[] rows) {
+        printHeader();
+        for (int row : rows) {
+            printRow(row);
+        }
+    }
+
+    private void printHeader() {
+        System.out.print(" |");
+        for (String column : labels) {
+            System.out.print(" " + column + " |");
+        }
+        System.out.println();
+
+        for (int i = 0; i <= columns.length; i++) {
+            System.out.print("------");
+        }
+        System.out.println();
+    }
+
+    private void printRow(int index) {
+        System.out.print(" |");
+        for (Column column : columns()) {
+            System.out.print(" " + column.get(index) + " |");
+        }
+        System.out.println();
+    }
+
+    private static Column[] build(ColumnBuilder[] builders) {
+        Column[] res = new Column[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            res[i] = builders[i].build();
+        }
+        return res;
+    }
+
+    private static HashMap<String, Integer> positionsOf(ArrayList<String> labels) {
+        HashMap<String, Integer> res = new HashMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            res.put(labels.get(i), i);
+        }
+        return res;
     }
 
     /**
@@ -636,9 +1532,8 @@ public class DataFrame {
     public static double sumForGroupBy(Object[] nb){
         double res = 0;
         for(Object n : nb){
-            if(n instanceof Integer){
-                double d = (Integer) n;
-                res = res + d;
+            if(n instanceof Number){
+                res = res + ((Number) n).doubleValue();
             }
         }
         return res;
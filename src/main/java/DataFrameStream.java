@@ -0,0 +1,1009 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reads a CSV file as a sequence of DataFrames of at most a fixed number of rows, so that files larger
+ * than the heap can be processed: only the current batch is held in memory.
+ * The statistics ({@link #count()}, {@link #moyenne()}, {@link #minEtMax()}, {@link #sd()}) and
+ * {@link #groupby(String, String)} consume the remaining batches and give the same results as the methods of
+ * {@link DataFrame} would on the whole file, keeping only one accumulator per column (and per group).
+ * {@link #sortBy(String[], boolean[])} sorts the remaining batches into a new stream.
+ * With a {@link #memoryLimit(long) memory limit}, the groups of groupby and the runs of the sort that exceed it are
+ * spilled to temporary files and merged back at the end, and each spill is reported to a {@link SpillListener}.
+ * A stream can only be consumed once.
+ */
+public class DataFrameStream implements Iterator<DataFrame> {
+    /**
+     * The number of partitions the groups of groupby are spilled to, by the hash of their key.
+     */
+    private static final int PARTITION_BITS = 4;
+    private static final int PARTITIONS = 1 << PARTITION_BITS;
+
+    private final Iterator<DataFrame> batches;
+    private final ArrayList<String> labels;
+    private final int batchSize;
+    private final ArrayList<String> filterColumns = new ArrayList<>();
+    private final ArrayList<Object> filterValues = new ArrayList<>();
+    private DataFrame next;
+    private long memoryLimit;
+    private SpillListener spillListener;
+    private int spillCount;
+    private long spilledBytes;
+
+    /**
+     * Constructs a stream over a csv file.
+     *
+     * @param filepath  The path to the csv file.
+     * @param delimiter The Delimiter to split the csv columns.
+     * @param batchSize The maximum number of rows of each batch.
+     */
+    public DataFrameStream(String filepath, String delimiter, int batchSize) {
+        this(new CSVReader(filepath, delimiter), batchSize);
+    }
+
+    /**
+     * Constructs a stream over the remaining lines of a CSVReader, the first of which holds the column labels.
+     * If the reader has a schema, every batch is typed with it.
+     *
+     * @param reader    The reader to consume.
+     * @param batchSize The maximum number of rows of each batch.
+     * @throws IllegalArgumentException if the batch size is not positive or the reader has no line left.
+     */
+    public DataFrameStream(CSVReader reader, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        Object[] header = reader.nextLine();
+        if (header.length == 0) {
+            throw new IllegalArgumentException("Incorrect input data format.");
+        }
+        this.batchSize = batchSize;
+        this.labels = new ArrayList<>(header.length);
+        for (Object label : header) {
+            labels.add(label.toString());
+        }
+        this.batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !reader.EOF();
+            }
+
+            @Override
+            public DataFrame next() {
+                return DataFrame.readRows(reader, labels, batchSize);
+            }
+        };
+    }
+
+    /**
+     * Constructs a stream over batches, with the memory limit and the listener of another stream.
+     */
+    private DataFrameStream(DataFrameStream source, Iterator<DataFrame> batches) {
+        this.batches = batches;
+        this.labels = source.labels;
+        this.batchSize = source.batchSize;
+        this.memoryLimit = source.memoryLimit;
+        this.spillListener = source.spillListener;
+    }
+
+    /**
+     * Returns the labels of the columns.
+     *
+     * @return An ArrayList containing the column labels.
+     */
+    public ArrayList<String> getColumnLabels() {
+        return labels;
+    }
+
+    /**
+     * Keeps only the rows matching the filters, as {@link DataFrame#filter(ArrayList, ArrayList)} does.
+     * The filters apply to the batches not read yet, which may then hold fewer rows than the batch size;
+     * batches without any matching row are skipped.
+     *
+     * @param columnNames  The list of column names to filter on.
+     * @param filterValues The list of filter values corresponding to each column.
+     * @return This stream.
+     * @throws IllegalArgumentException if the number of column names and filter values don't match,
+     *                                  or a column does not exist.
+     */
+    public DataFrameStream filter(ArrayList<String> columnNames, ArrayList<Object> filterValues) {
+        if (columnNames.size() != filterValues.size()) {
+            throw new IllegalArgumentException("Number of column names and filter values must be the same.");
+        }
+        for (String columnName : columnNames) {
+            if (!labels.contains(columnName)) {
+                throw new IllegalArgumentException("Column " + columnName + " does not exist.");
+            }
+        }
+        this.filterColumns.addAll(columnNames);
+        this.filterValues.addAll(filterValues);
+        return this;
+    }
+
+    /**
+     * Bounds the memory of {@link #groupby(String, String)} and {@link #sortBy(String[], boolean[])}. Once the
+     * groups of groupby are estimated to take more than the limit, they are written to temporary files, partitioned
+     * by the hash of their key, and their accumulators are merged back one partition at a time at the end. Once the
+     * batches of a sort run take more than the limit, the run is sorted and written to temporary files, and the runs
+     * are merged as the sorted stream is read. The batches themselves are bounded by the batch size, and the result
+     * of groupby, which is a DataFrame, is held in memory.
+     *
+     * @param bytes The memory limit in bytes, or 0 for no limit, the default.
+     * @return This stream.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    public DataFrameStream memoryLimit(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("The memory limit must not be negative.");
+        }
+        this.memoryLimit = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the listener told of each spill to temporary files.
+     *
+     * @param listener The listener, or null for none.
+     * @return This stream.
+     */
+    public DataFrameStream onSpill(SpillListener listener) {
+        this.spillListener = listener;
+        return this;
+    }
+
+    /**
+     * Returns the number of times the operations of this stream spilled to temporary files.
+     *
+     * @return The number of spills.
+     */
+    public int getSpillCount() {
+        return spillCount;
+    }
+
+    /**
+     * Returns the number of bytes the operations of this stream wrote to temporary files.
+     *
+     * @return The number of bytes spilled.
+     */
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && batches.hasNext()) {
+            DataFrame batch = batches.next();
+            if (!filterColumns.isEmpty()) {
+                int[] rows = batch.matchingRows(filterColumns, filterValues);
+                if (rows.length == 0) {
+                    continue;
+                }
+                if (rows.length < batch.getRowCount()) {
+                    batch = batch.rows(rows);
+                }
+            }
+            if (batch.getRowCount() > 0) {
+                next = batch;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public DataFrame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        DataFrame batch = next;
+        next = null;
+        return batch;
+    }
+
+    /**
+     * Counts the non-null elements in each column over the remaining batches.
+     *
+     * @return An array containing the count of non-null elements for each column.
+     */
+    public Integer[] count() {
+        Integer[] tab = new Integer[labels.size()];
+        Stats[] stats = consume();
+        for (int i = 0; i < tab.length; i++) {
+            tab[i] = stats[i].count;
+        }
+        return tab;
+    }
+
+    /**
+     * Calculates the mean of each numerical column over the remaining batches.
+     * The mean of a column holding non-numerical values is null.
+     *
+     * @return An array containing the mean values for each column.
+     */
+    public Object[] moyenne() {
+        Object[] tab = new Object[labels.size()];
+        Stats[] stats = consume();
+        for (int i = 0; i < tab.length; i++) {
+            tab[i] = stats[i].isNumeric() ? stats[i].sum / stats[i].count : null;
+        }
+        return tab;
+    }
+
+    /**
+     * Finds the minimum and maximum values of each numerical column over the remaining batches.
+     * The minimum and maximum of a column holding non-numerical values are null.
+     *
+     * @return A 2D array where the first row contains the minimum values and the second row contains the maximum values.
+     */
+    public Object[][] minEtMax() {
+        Object[] min = new Object[labels.size()];
+        Object[] max = new Object[labels.size()];
+        Stats[] stats = consume();
+        for (int i = 0; i < min.length; i++) {
+            if (stats[i].isNumeric() && stats[i].found) {
+                min[i] = stats[i].min;
+                max[i] = stats[i].max;
+            }
+        }
+        return new Object[][]{
+                min,
+                max
+        };
+    }
+
+    /**
+     * Calculates the standard deviation of each numerical column over the remaining batches, in a single pass.
+     * The standard deviation of a column holding non-numerical values is null.
+     *
+     * @return An array containing the standard deviation values for each column.
+     */
+    public Object[] sd() {
+        Object[] tab = new Object[labels.size()];
+        Stats[] stats = consume();
+        for (int i = 0; i < tab.length; i++) {
+            tab[i] = stats[i].isNumeric() ? Math.sqrt(stats[i].m2 / stats[i].n) : null;
+        }
+        return tab;
+    }
+
+    /**
+     * Groups the remaining batches by the specified label column, as {@link DataFrame#groupby(String, String)} does.
+     * Only the accumulators of the aggregation, one per group and per column, are kept in memory, and with a
+     * {@link #memoryLimit(long) memory limit} they are spilled to temporary files when there are too many groups.
+     *
+     * @param label  The label column to group by.
+     * @param option The aggregation option: "mean", "sum", "min", "max", "count", "var", "std", "first" or "last".
+     * @return A new DataFrame with the aggregated values based on the grouping and aggregation option.
+     * @throws IllegalArgumentException If the option provided is not one of the above, or the label does not exist.
+     */
+    public DataFrame groupby(String label, String option) {
+        Aggregation aggregation = Aggregation.of(option);
+        int keyIndex = labels.indexOf(label);
+        if (keyIndex < 0) {
+            throw new IllegalArgumentException("Column " + label + " does not exist.");
+        }
+
+        LinkedHashMap<Object, Integer> groupOfKey = new LinkedHashMap<>();
+        GroupStats[] groupStats = newGroupStats(aggregation);
+        Stats[] stats = newStats();
+        long groupBytes = GroupStats.groupBytes(aggregation, labels.size());
+        // The first row of each group orders the groups merged from the spills
+        long[] firstRowOf = new long[16];
+        long rowsRead = 0;
+        ArrayList<Path[]> spills = new ArrayList<>();
+        while (hasNext()) {
+            DataFrame batch = next();
+            Column key = batch.getColumn(label);
+            // Groups the batch locally, then maps each local group to its global id
+            GroupIndex index = GroupIndex.of(key);
+            int[] firstRows = index.firstRows();
+            int[] globalOf = new int[firstRows.length];
+            for (int g = 0; g < firstRows.length; g++) {
+                Object value = key.get(firstRows[g]);
+                Integer id = groupOfKey.get(value);
+                if (id == null) {
+                    id = groupOfKey.size();
+                    groupOfKey.put(value, id);
+                    if (memoryLimit > 0) {
+                        if (id == firstRowOf.length) {
+                            firstRowOf = Arrays.copyOf(firstRowOf, id * 2);
+                        }
+                        firstRowOf[id] = rowsRead + firstRows[g];
+                    }
+                }
+                globalOf[g] = id;
+            }
+            int[] groupOf = index.groupOf;
+            for (int row = 0; row < groupOf.length; row++) {
+                groupOf[row] = globalOf[groupOf[row]];
+            }
+            for (int k = 0; k < groupStats.length; k++) {
+                Column column = batch.getColumn(labels.get(k));
+                stats[k].add(column);
+                if (k != keyIndex) {
+                    groupStats[k].add(column, groupOf, groupOfKey.size());
+                }
+            }
+            rowsRead += batch.getRowCount();
+            if (memoryLimit > 0 && groupOfKey.size() * groupBytes > memoryLimit) {
+                spills.add(spillGroups(groupOfKey, firstRowOf, groupStats, keyIndex));
+                groupOfKey.clear();
+                groupStats = newGroupStats(aggregation);
+            }
+        }
+
+        List<Object> groupKeys;
+        if (spills.isEmpty()) {
+            groupKeys = new ArrayList<>(groupOfKey.keySet());
+        } else {
+            if (!groupOfKey.isEmpty()) {
+                spills.add(spillGroups(groupOfKey, firstRowOf, groupStats, keyIndex));
+            }
+            groupKeys = new ArrayList<>();
+            groupStats = mergeGroups(spills, aggregation, keyIndex, groupKeys);
+        }
+        int groups = groupKeys.size();
+        ColumnBuilder keys = new ColumnBuilder(groups);
+        for (Object key : groupKeys) {
+            keys.append(key);
+        }
+        ArrayList<String> newlabels = new ArrayList<>();
+        ArrayList<Column> res = new ArrayList<>();
+        newlabels.add(label);
+        res.add(keys.build());
+        boolean anyColumn = aggregation == Aggregation.COUNT
+                || aggregation == Aggregation.FIRST || aggregation == Aggregation.LAST;
+        for (int k = 0; k < groupStats.length; k++) {
+            if (k == keyIndex || !(anyColumn || stats[k].isNumeric())) {
+                continue;
+            }
+            newlabels.add(labels.get(k));
+            res.add(groupStats[k].result(groups));
+        }
+        return new DataFrame(newlabels, res.toArray(new Column[0]));
+    }
+
+    /**
+     * Sorts the remaining batches in ascending order of the given columns, as {@link #sortBy(String[], boolean[])}.
+     *
+     * @param labels The columns to sort by, from the most significant to the least significant.
+     * @return The stream of the sorted rows.
+     * @throws IllegalArgumentException if no label is given or a column does not exist.
+     */
+    public DataFrameStream sortBy(String... labels) {
+        boolean[] ascending = new boolean[labels.length];
+        Arrays.fill(ascending, true);
+        return sortBy(labels, ascending);
+    }
+
+    /**
+     * Sorts the remaining batches by the given columns, in the order {@link DataFrame#sortBy(String[], boolean[])}
+     * gives the whole file, and returns the sorted rows as a new stream of batches of the batch size, with the
+     * memory limit and the spill listener of this stream. The remaining batches are read at once and gathered into
+     * runs sorted in memory. Without a memory limit, all the rows make a single run. Otherwise, each run that takes
+     * more than the limit is written to temporary files, and the sorted stream merges the runs as it is read,
+     * holding one batch of each run in memory; the files are deleted as they are read.
+     *
+     * @param labels    The columns to sort by, from the most significant to the least significant.
+     * @param ascending For each column, true for ascending order, false for descending order.
+     * @return The stream of the sorted rows.
+     * @throws IllegalArgumentException if no label is given, a column does not exist, or the arrays differ in length.
+     */
+    public DataFrameStream sortBy(String[] labels, boolean[] ascending) {
+        if (labels.length == 0 || labels.length != ascending.length) {
+            throw new IllegalArgumentException("Each sort column needs a direction.");
+        }
+        for (String label : labels) {
+            if (!this.labels.contains(label)) {
+                throw new IllegalArgumentException("Column " + label + " does not exist.");
+            }
+        }
+        ArrayList<Iterator<DataFrame>> runs = new ArrayList<>();
+        ArrayList<DataFrame> run = new ArrayList<>();
+        long runBytes = 0;
+        while (hasNext()) {
+            DataFrame batch = next();
+            // A run is only spilled once another batch follows it, so the last run is merged from memory
+            if (memoryLimit > 0 && runBytes > memoryLimit) {
+                runs.add(spillRun(sortRun(run, labels, ascending)));
+                run.clear();
+                runBytes = 0;
+            }
+            run.add(batch);
+            runBytes += memoryBytes(batch);
+        }
+        if (!run.isEmpty()) {
+            runs.add(batchesOf(sortRun(run, labels, ascending)));
+        }
+        Iterator<DataFrame> sorted = runs.isEmpty() ? Collections.emptyIterator()
+                : runs.size() == 1 ? runs.get(0) : new RunMerger(this.labels, runs, labels, ascending, batchSize);
+        return new DataFrameStream(this, sorted);
+    }
+
+    /**
+     * Sorts the rows of batches read in a row.
+     */
+    private DataFrame sortRun(ArrayList<DataFrame> run, String[] keys, boolean[] ascending) {
+        DataFrame rows = run.get(0);
+        if (run.size() > 1) {
+            int count = 0;
+            for (DataFrame batch : run) {
+                count += batch.getRowCount();
+            }
+            Column[] columns = new Column[labels.size()];
+            for (int c = 0; c < columns.length; c++) {
+                ColumnBuilder builder = new ColumnBuilder(count);
+                for (DataFrame batch : run) {
+                    builder.appendColumn(batch.getColumn(labels.get(c)));
+                }
+                columns[c] = builder.build();
+            }
+            rows = new DataFrame(new ArrayList<>(labels), columns);
+        }
+        return rows.sortBy(keys, ascending).toDataFrame();
+    }
+
+    /**
+     * Splits a DataFrame into batches of the batch size.
+     */
+    private Iterator<DataFrame> batchesOf(DataFrame rows) {
+        int count = (rows.getRowCount() + batchSize - 1) / batchSize;
+        return new Iterator<>() {
+            private int batch;
+
+            @Override
+            public boolean hasNext() {
+                return batch < count;
+            }
+
+            @Override
+            public DataFrame next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int from = batch++ * batchSize;
+                int[] range = new int[Math.min(batchSize, rows.getRowCount() - from)];
+                for (int i = 0; i < range.length; i++) {
+                    range[i] = from + i;
+                }
+                return rows.rows(range);
+            }
+        };
+    }
+
+    /**
+     * Writes a sorted run to temporary files, one per batch, and returns the batches read back from the files.
+     */
+    private Iterator<DataFrame> spillRun(DataFrame rows) {
+        Iterator<DataFrame> batches = batchesOf(rows);
+        DataFrame[] parts = new DataFrame[(rows.getRowCount() + batchSize - 1) / batchSize];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = batches.next();
+        }
+        Path[] files = spill("sortBy", parts);
+        return new Iterator<>() {
+            private int file;
+
+            @Override
+            public boolean hasNext() {
+                return file < files.length;
+            }
+
+            @Override
+            public DataFrame next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return readSpill(files[file++]);
+            }
+        };
+    }
+
+    /**
+     * Writes the groups of the aggregation table to temporary files, partitioned by the hash of their key: each
+     * file holds the key, the first row and the accumulators of the columns of its groups.
+     */
+    private Path[] spillGroups(LinkedHashMap<Object, Integer> groupOfKey, long[] firstRowOf, GroupStats[] groupStats,
+                               int keyIndex) {
+        int groups = groupOfKey.size();
+        ColumnBuilder keys = new ColumnBuilder(groups);
+        int[] partitionOf = new int[groups];
+        int[] sizes = new int[PARTITIONS];
+        int g = 0;
+        for (Object key : groupOfKey.keySet()) {
+            keys.append(key);
+            partitionOf[g] = partition(key);
+            sizes[partitionOf[g++]]++;
+        }
+        ArrayList<String> names = new ArrayList<>(List.of("key", "first"));
+        ArrayList<Column> columns = new ArrayList<>(List.of(keys.build(),
+                new LongColumn(Arrays.copyOf(firstRowOf, groups), groups, null)));
+        for (int k = 0; k < groupStats.length; k++) {
+            if (k != keyIndex) {
+                groupStats[k].partial(k, groups, names, columns);
+            }
+        }
+        DataFrame table = new DataFrame(names, columns.toArray(new Column[0]));
+
+        int[][] rows = new int[PARTITIONS][];
+        for (int p = 0; p < PARTITIONS; p++) {
+            rows[p] = new int[sizes[p]];
+            sizes[p] = 0;
+        }
+        for (g = 0; g < groups; g++) {
+            int p = partitionOf[g];
+            rows[p][sizes[p]++] = g;
+        }
+        DataFrame[] parts = new DataFrame[PARTITIONS];
+        for (int p = 0; p < PARTITIONS; p++) {
+            parts[p] = rows[p].length == 0 ? null : table.rows(rows[p]);
+        }
+        return spill("groupby", parts);
+    }
+
+    /**
+     * Merges the groups spilled to temporary files, one partition at a time, then orders the groups of all the
+     * partitions by their first row, which is the order of the groups of {@link DataFrame#groupby(String, String)}.
+     * The groups of each partition are merged into tables of their own, then appended to the result and dropped
+     * before the next partition is read, and the result is finally reordered in place. Besides the result, which
+     * holds every group, the merge thus only holds the tables of one partition, about a sixteenth of the groups
+     * when the keys hash evenly, and the first row and position of each group, 12 bytes per group.
+     *
+     * @param keys The list receiving the keys of the groups.
+     * @return The accumulators of the groups, in the order of the keys.
+     */
+    private GroupStats[] mergeGroups(ArrayList<Path[]> spills, Aggregation aggregation, int keyIndex,
+                                     List<Object> keys) {
+        GroupStats[] res = newGroupStats(aggregation);
+        Object[] resKeys = new Object[16];
+        long[] resFirstRows = new long[16];
+        int[] ends = new int[PARTITIONS];
+        int total = 0;
+        for (int p = 0; p < PARTITIONS; p++) {
+            // The spills are read in order, so the groups are numbered in order of their first row
+            LinkedHashMap<Object, Integer> groupOfKey = new LinkedHashMap<>();
+            GroupStats[] groupStats = newGroupStats(aggregation);
+            for (Path[] files : spills) {
+                if (files[p] == null) {
+                    continue;
+                }
+                DataFrame part = readSpill(files[p]);
+                Column key = part.getColumn("key");
+                Column firstRows = part.getColumn("first");
+                int[] groupOf = new int[part.getRowCount()];
+                for (int row = 0; row < groupOf.length; row++) {
+                    Object value = key.get(row);
+                    Integer id = groupOfKey.get(value);
+                    if (id == null) {
+                        id = groupOfKey.size();
+                        groupOfKey.put(value, id);
+                        // One more slot than the groups, for the reordering
+                        if (total + id + 1 >= resKeys.length) {
+                            resKeys = Arrays.copyOf(resKeys, (total + id + 1) * 2);
+                            resFirstRows = Arrays.copyOf(resFirstRows, resKeys.length);
+                        }
+                        resKeys[total + id] = value;
+                        resFirstRows[total + id] = firstRows.getLong(row);
+                    }
+                    groupOf[row] = id;
+                }
+                for (int k = 0; k < groupStats.length; k++) {
+                    if (k != keyIndex) {
+                        groupStats[k].merge(part, k, groupOf, groupOfKey.size());
+                    }
+                }
+            }
+            int groups = groupOfKey.size();
+            for (int k = 0; k < res.length; k++) {
+                if (k != keyIndex) {
+                    res[k].ensureCapacity(total + groups + 1);
+                    for (int g = 0; g < groups; g++) {
+                        res[k].copy(total + g, groupStats[k], g);
+                    }
+                }
+            }
+            total += groups;
+            ends[p] = total;
+        }
+
+        // Merges the partitions, each in order of first row, into the position of each group in the result
+        int[] groupAt = new int[total];
+        int[] next = new int[PARTITIONS];
+        for (int p = 1; p < PARTITIONS; p++) {
+            next[p] = ends[p - 1];
+        }
+        for (int g = 0; g < total; g++) {
+            int best = -1;
+            for (int p = 0; p < PARTITIONS; p++) {
+                if (next[p] < ends[p] && (best < 0 || resFirstRows[next[p]] < resFirstRows[next[best]])) {
+                    best = p;
+                }
+            }
+            groupAt[g] = next[best]++;
+        }
+        resFirstRows = null;
+        // Moves each group to its position, following the cycles of the permutation through the spare slot
+        BitSet placed = new BitSet(total);
+        for (int start = 0; start < total; start++) {
+            if (placed.get(start) || groupAt[start] == start) {
+                continue;
+            }
+            moveGroup(res, resKeys, keyIndex, total, start);
+            int g = start;
+            while (groupAt[g] != start) {
+                moveGroup(res, resKeys, keyIndex, g, groupAt[g]);
+                placed.set(g);
+                g = groupAt[g];
+            }
+            moveGroup(res, resKeys, keyIndex, g, total);
+            placed.set(g);
+        }
+        keys.addAll(Arrays.asList(resKeys).subList(0, total));
+        return res;
+    }
+
+    private static void moveGroup(GroupStats[] stats, Object[] keys, int keyIndex, int to, int from) {
+        keys[to] = keys[from];
+        for (int k = 0; k < stats.length; k++) {
+            if (k != keyIndex) {
+                stats[k].copy(to, stats[k], from);
+            }
+        }
+    }
+
+    private static int partition(Object key) {
+        return (Objects.hashCode(key) * 0x9E3779B9) >>> (32 - PARTITION_BITS);
+    }
+
+    /**
+     * Writes parts of a table to temporary files, deleted by {@link #readSpill(Path)}, and reports them as a
+     * single spill. If a part cannot be written, the files written so far are deleted.
+     *
+     * @return The file of each part, or null for a null part.
+     */
+    private Path[] spill(String operation, DataFrame[] parts) {
+        Path[] files = new Path[parts.length];
+        int count = 0;
+        long bytes = 0;
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                if (parts[i] != null) {
+                    files[i] = Files.createTempFile("dataframe-" + operation, ".dfj");
+                    parts[i].save(files[i]);
+                    bytes += Files.size(files[i]);
+                    count++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path file : files) {
+                try {
+                    if (file != null) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e instanceof RuntimeException runtime ? runtime : new RuntimeException(e);
+        }
+        spillCount++;
+        spilledBytes += bytes;
+        if (spillListener != null) {
+            spillListener.spilled(operation, count, bytes);
+        }
+        return files;
+    }
+
+    /**
+     * Reads a table spilled to a temporary file, then deletes the file.
+     */
+    private static DataFrame readSpill(Path file) {
+        DataFrame part = DataFrame.load(file);
+        for (String label : part.getColumnLabels()) {
+            part.getColumn(label);
+        }
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return part;
+    }
+
+    private static long memoryBytes(DataFrame batch) {
+        long bytes = 0;
+        for (String label : batch.getColumnLabels()) {
+            bytes += batch.getColumn(label).getMemoryBytes();
+        }
+        return bytes;
+    }
+
+    private GroupStats[] newGroupStats(Aggregation aggregation) {
+        GroupStats[] groupStats = new GroupStats[labels.size()];
+        for (int k = 0; k < groupStats.length; k++) {
+            groupStats[k] = new GroupStats(aggregation);
+        }
+        return groupStats;
+    }
+
+    private Stats[] newStats() {
+        Stats[] stats = new Stats[labels.size()];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new Stats();
+        }
+        return stats;
+    }
+
+    private Stats[] consume() {
+        Stats[] stats = newStats();
+        while (hasNext()) {
+            DataFrame batch = next();
+            for (int i = 0; i < stats.length; i++) {
+                stats[i].add(batch.getColumn(labels.get(i)));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * The running statistics of one column. A batch whose cells are all null does not tell whether the column
+     * is numerical; any non-null non-numerical cell makes it non-numerical.
+     */
+    private static final class Stats {
+        private int count;
+        private boolean numeric;
+        private boolean nonNumeric;
+        private double sum;
+        // Whether min and max hold a value other than NaN, as in DataFrame.minEtMax
+        private boolean found;
+        private double min;
+        private double max;
+        private double mean;
+        private long n;
+        private double m2;
+
+        private boolean isNumeric() {
+            return numeric && !nonNumeric;
+        }
+
+        private void add(Column column) {
+            int nonNull = column.size() - column.nullCount();
+            count += nonNull;
+            if (nonNull == 0 || nonNumeric) {
+                return;
+            }
+            if (!column.isNumeric()) {
+                nonNumeric = true;
+                return;
+            }
+            numeric = true;
+            for (int row = 0; row < column.size(); row++) {
+                if (column.isNull(row)) {
+                    continue;
+                }
+                double value = column.getDouble(row);
+                sum += value;
+                if (!Double.isNaN(value)) {
+                    if (!found || value < min) {
+                        min = value;
+                    }
+                    if (!found || value > max) {
+                        max = value;
+                    }
+                    found = true;
+                }
+                // Welford's update, so the standard deviation needs no second pass over the file
+                double delta = value - mean;
+                mean += delta / (++n);
+                m2 += delta * (value - mean);
+            }
+        }
+    }
+
+    /**
+     * The accumulators of one column for each group, grown as new groups appear.
+     * Numerical accumulators are only filled for batches where the column is numerical.
+     */
+    private static final class GroupStats {
+        private final Aggregation aggregation;
+        private int[] counts = new int[16];
+        private double[] values = new double[16];
+        private double[] means;
+        private Object[] picked;
+
+        private GroupStats(Aggregation aggregation) {
+            this.aggregation = aggregation;
+            if (aggregation == Aggregation.VAR || aggregation == Aggregation.STD) {
+                means = new double[16];
+            }
+            if (aggregation == Aggregation.FIRST || aggregation == Aggregation.LAST) {
+                picked = new Object[16];
+            }
+        }
+
+        /**
+         * Estimates the memory a group takes in the table of groupby: its key in the hash table, its first row and
+         * its accumulators in each column.
+         */
+        private static long groupBytes(Aggregation aggregation, int columns) {
+            long accumulators = 12;
+            if (aggregation == Aggregation.VAR || aggregation == Aggregation.STD) {
+                accumulators += 8;
+            }
+            if (aggregation == Aggregation.FIRST || aggregation == Aggregation.LAST) {
+                accumulators += 24;
+            }
+            return 96 + columns * accumulators;
+        }
+
+        private void ensureCapacity(int groups) {
+            if (groups > counts.length) {
+                int capacity = Math.max(groups, counts.length * 2);
+                counts = Arrays.copyOf(counts, capacity);
+                values = Arrays.copyOf(values, capacity);
+                means = means == null ? null : Arrays.copyOf(means, capacity);
+                picked = picked == null ? null : Arrays.copyOf(picked, capacity);
+            }
+        }
+
+        private void add(Column column, int[] groupOf, int groups) {
+            ensureCapacity(groups);
+            boolean numeric = column.isNumeric();
+            for (int row = 0; row < groupOf.length; row++) {
+                if (column.isNull(row)) {
+                    continue;
+                }
+                int g = groupOf[row];
+                switch (aggregation) {
+                    case COUNT -> counts[g]++;
+                    case FIRST, LAST -> {
+                        if (counts[g]++ == 0 || aggregation == Aggregation.LAST) {
+                            picked[g] = column.get(row);
+                        }
+                    }
+                    default -> {
+                        if (numeric) {
+                            accumulate(g, column.getDouble(row));
+                        }
+                    }
+                }
+            }
+        }
+
+        private void accumulate(int g, double value) {
+            switch (aggregation) {
+                case MIN -> values[g] = counts[g] == 0 || Double.compare(value, values[g]) < 0 ? value : values[g];
+                case MAX -> values[g] = counts[g] == 0 || Double.compare(value, values[g]) > 0 ? value : values[g];
+                case VAR, STD -> {
+                    // Welford's update, as Aggregation.VAR computes it
+                    double delta = value - means[g];
+                    means[g] += delta / (counts[g] + 1);
+                    values[g] += delta * (value - means[g]);
+                }
+                default -> values[g] += value;
+            }
+            counts[g]++;
+        }
+
+        /**
+         * Adds the accumulators of the first groups to the columns of a spilled table, labelled with the position
+         * of the column.
+         */
+        private void partial(int k, int groups, ArrayList<String> names, ArrayList<Column> columns) {
+            names.add("count " + k);
+            columns.add(new IntColumn(Arrays.copyOf(counts, groups), groups, null));
+            names.add("value " + k);
+            columns.add(new DoubleColumn(Arrays.copyOf(values, groups), groups, null));
+            if (means != null) {
+                names.add("mean " + k);
+                columns.add(new DoubleColumn(Arrays.copyOf(means, groups), groups, null));
+            }
+            if (picked != null) {
+                ColumnBuilder builder = new ColumnBuilder(groups);
+                for (int g = 0; g < groups; g++) {
+                    builder.append(picked[g]);
+                }
+                names.add("picked " + k);
+                columns.add(builder.build());
+            }
+        }
+
+        /**
+         * Merges the accumulators of a spilled table, read in the order the rows were, into the given groups.
+         * The variances are combined with the formula of Chan et al.
+         */
+        private void merge(DataFrame part, int k, int[] groupOf, int groups) {
+            ensureCapacity(groups);
+            Column count = part.getColumn("count " + k);
+            Column value = part.getColumn("value " + k);
+            Column mean = means == null ? null : part.getColumn("mean " + k);
+            Column pick = picked == null ? null : part.getColumn("picked " + k);
+            for (int row = 0; row < groupOf.length; row++) {
+                int c = count.getInt(row);
+                if (c == 0) {
+                    continue;
+                }
+                int g = groupOf[row];
+                double v = value.getDouble(row);
+                switch (aggregation) {
+                    case COUNT -> {
+                    }
+                    case FIRST -> picked[g] = counts[g] == 0 ? pick.get(row) : picked[g];
+                    case LAST -> picked[g] = pick.get(row);
+                    case MIN -> values[g] = counts[g] == 0 || Double.compare(v, values[g]) < 0 ? v : values[g];
+                    case MAX -> values[g] = counts[g] == 0 || Double.compare(v, values[g]) > 0 ? v : values[g];
+                    case VAR, STD -> {
+                        double delta = mean.getDouble(row) - means[g];
+                        double total = (double) counts[g] + c;
+                        means[g] += delta * c / total;
+                        values[g] += v + delta * delta * counts[g] * c / total;
+                    }
+                    default -> values[g] += v;
+                }
+                counts[g] += c;
+            }
+        }
+
+        /**
+         * Copies the accumulators of a group of another table.
+         */
+        private void copy(int g, GroupStats from, int group) {
+            counts[g] = from.counts[group];
+            values[g] = from.values[group];
+            if (means != null) {
+                means[g] = from.means[group];
+            }
+            if (picked != null) {
+                picked[g] = from.picked[group];
+            }
+        }
+
+        private Column result(int groups) {
+            BitSet empty = new BitSet();
+            for (int g = 0; g < groups; g++) {
+                if (counts[g] == 0) {
+                    empty.set(g);
+                }
+            }
+            switch (aggregation) {
+                case COUNT -> {
+                    return new IntColumn(Arrays.copyOf(counts, groups), groups, null);
+                }
+                case FIRST, LAST -> {
+                    ColumnBuilder builder = new ColumnBuilder(groups);
+                    for (int g = 0; g < groups; g++) {
+                        builder.append(picked[g]);
+                    }
+                    return builder.build();
+                }
+                case SUM -> {
+                    return new DoubleColumn(Arrays.copyOf(values, groups), groups, null);
+                }
+                default -> {
+                    double[] res = new double[groups];
+                    for (int g = 0; g < groups; g++) {
+                        if (counts[g] == 0) {
+                            continue;
+                        }
+                        res[g] = switch (aggregation) {
+                            case MEAN -> values[g] / counts[g];
+                            case VAR -> values[g] / counts[g];
+                            case STD -> Math.sqrt(values[g] / counts[g]);
+                            default -> values[g];
+                        };
+                    }
+                    return new DoubleColumn(res, groups, empty);
+                }
+            }
+        }
+    }
+}
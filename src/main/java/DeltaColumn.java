@@ -0,0 +1,142 @@
+import java.util.BitSet;
+
+/**
+ * A column of ints or longs stored as deltas: the rows are cut into blocks of 128, and each value is stored as its
+ * difference from the smallest value of its block, on as many bits as the largest difference of the block needs.
+ * Sorted identifiers, whose neighbours are close, take a few bits per cell, and any cell is still decoded in
+ * constant time. Missing cells are stored as the smallest value of their block.
+ */
+public class DeltaColumn extends EncodedColumn {
+    private static final int BLOCK_ROWS = 128;
+
+    private final ColumnType type;
+    private final long[] bases;
+    private final byte[] widths;
+    private final long[] offsets;
+    private final long[] words;
+
+    private DeltaColumn(ColumnType type, long[] bases, byte[] widths, long[] offsets, long[] words, int size,
+                        BitSet nulls) {
+        super(size, nulls);
+        this.type = type;
+        this.bases = bases;
+        this.widths = widths;
+        this.offsets = offsets;
+        this.words = words;
+    }
+
+    /**
+     * Delta-encodes an int or long column.
+     *
+     * @param column The column.
+     * @return The encoded column.
+     * @throws IllegalArgumentException if the column does not hold ints or longs.
+     */
+    public static DeltaColumn of(Column column) {
+        ColumnType type = column.getType();
+        if (type != ColumnType.INT && type != ColumnType.LONG) {
+            throw new IllegalArgumentException("Only int and long columns can be delta-encoded.");
+        }
+        int n = column.size();
+        int blocks = (n + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        long[] bases = new long[blocks];
+        byte[] widths = new byte[blocks];
+        long[] offsets = new long[blocks + 1];
+        for (int b = 0; b < blocks; b++) {
+            int from = b * BLOCK_ROWS;
+            int to = Math.min(n, from + BLOCK_ROWS);
+            long[] minMax = PackedColumn.minMax(column, from, to);
+            bases[b] = minMax[0];
+            widths[b] = (byte) PackedColumn.width(minMax[1] - minMax[0]);
+            offsets[b + 1] = offsets[b] + (long) (to - from) * widths[b];
+        }
+        long[] words = new long[(int) ((offsets[blocks] + 63) >>> 6)];
+        for (int row = 0; row < n; row++) {
+            if (!column.isNull(row)) {
+                int b = row / BLOCK_ROWS;
+                PackedColumn.write(words, offsets[b] + (long) (row % BLOCK_ROWS) * widths[b], widths[b],
+                        column.getLong(row) - bases[b]);
+            }
+        }
+        return new DeltaColumn(type, bases, widths, offsets, words, n, column.nulls);
+    }
+
+    /**
+     * Estimates the memory a delta-encoded copy of a column would take.
+     *
+     * @param column An int or long column.
+     * @return The estimated size, in bytes.
+     */
+    static long deltaBytes(Column column) {
+        int n = column.size();
+        long bits = 0;
+        long blocks = 0;
+        for (int from = 0; from < n; from += BLOCK_ROWS) {
+            int to = Math.min(n, from + BLOCK_ROWS);
+            long[] minMax = PackedColumn.minMax(column, from, to);
+            bits += (long) (to - from) * PackedColumn.width(minMax[1] - minMax[0]);
+            blocks++;
+        }
+        return (bits + 63) / 64 * 8 + 17 * blocks + column.nullBytes();
+    }
+
+    private long value(int row) {
+        int b = row / BLOCK_ROWS;
+        return bases[b] + PackedColumn.read(words, offsets[b] + (long) (row % BLOCK_ROWS) * widths[b], widths[b]);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return type;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return 8L * words.length + 8L * bases.length + widths.length + 8L * offsets.length + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return type == ColumnType.INT ? (Object) (int) value(row) : (Object) value(row);
+    }
+
+    @Override
+    public int getInt(int row) {
+        return (int) value(row);
+    }
+
+    @Override
+    public long getLong(int row) {
+        return value(row);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return value(row);
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        if (type == ColumnType.INT) {
+            int[] res = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                int row = rows[i];
+                if (row >= 0 && !isNull(row)) {
+                    res[i] = (int) value(row);
+                }
+            }
+            return new IntColumn(res, rows.length, takeNulls(rows));
+        }
+        long[] res = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (row >= 0 && !isNull(row)) {
+                res[i] = value(row);
+            }
+        }
+        return new LongColumn(res, rows.length, takeNulls(rows));
+    }
+}
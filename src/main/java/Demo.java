@@ -55,6 +55,9 @@ public class Demo {
         System.out.println("\nRow at indices 0, 1 and 3: ");
         df.iloc(new int[]{0, 1, 3}).printDataFrame();
 
+        System.out.println("\nChaining selections: rows 0, 2 and 3, then their columns 'Name' and 'Country', then the last two rows:");
+        df.iloc(new int[]{0, 2, 3}).loc(new String[]{"Name", "Country"}).iloc(new int[]{1, 2}).printDataFrame();
+
         System.out.println("\nFiltering the dataframe based on 'Country' column with value 'France' using the method .filter:");
         df.filter(new ArrayList<>(List.of("Country")), new ArrayList<>(List.of("France"))).printDataFrame();
 
@@ -0,0 +1,188 @@
+import java.util.ArrayList;
+
+/**
+ * The summary statistics of the columns of a DataFrame, as computed by {@link DataFrame#summary()}.
+ * Every column has a count of non-null cells. The other statistics are only defined for numeric columns
+ * holding at least one non-null cell, and are null otherwise. The standard deviation and the variance are
+ * those of the population; the quartiles are estimates, exact for columns of five values or less.
+ */
+public class Description {
+    private static final String[] ROWS = {"Count", "Mean", "Min", "25%", "50%", "75%", "Max", "Ecart-Type"};
+
+    private final ArrayList<String> labels;
+    private final int[] counts;
+    /**
+     * The statistics of each column, in the order of ROWS after Count, followed by the variance;
+     * null for the columns that have none.
+     */
+    private final double[][] statistics;
+
+    /**
+     * Constructs a Description.
+     *
+     * @param labels The column labels.
+     * @param stats  The statistics of each numeric column, null for the other columns.
+     * @param counts The number of non-null cells of each column.
+     */
+    Description(ArrayList<String> labels, RunningStats[] stats, int[] counts) {
+        this.labels = new ArrayList<>(labels);
+        this.counts = counts;
+        this.statistics = new double[stats.length][];
+        for (int i = 0; i < stats.length; i++) {
+            RunningStats s = stats[i];
+            if (s != null && s.count() > 0) {
+                double variance = s.variance();
+                statistics[i] = new double[]{s.mean(), s.min(), s.firstQuartile(), s.median(), s.thirdQuartile(),
+                        s.max(), Math.sqrt(variance), variance};
+            }
+        }
+    }
+
+    /**
+     * Returns the labels of the described columns.
+     *
+     * @return The column labels.
+     */
+    public ArrayList<String> getLabels() {
+        return new ArrayList<>(labels);
+    }
+
+    /**
+     * Returns the number of non-null cells of a column.
+     *
+     * @param label The label of the column.
+     * @return The count.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public int getCount(String label) {
+        return counts[indexOf(label)];
+    }
+
+    /**
+     * Returns the mean of a column.
+     *
+     * @param label The label of the column.
+     * @return The mean, or null.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public Double getMean(String label) {
+        return statistic(label, 0);
+    }
+
+    /**
+     * Returns the minimum of a column.
+     *
+     * @param label The label of the column.
+     * @return The minimum, or null.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public Double getMin(String label) {
+        return statistic(label, 1);
+    }
+
+    /**
+     * Returns the estimated first quartile (25th percentile) of a column.
+     *
+     * @param label The label of the column.
+     * @return The first quartile, or null.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public Double getFirstQuartile(String label) {
+        return statistic(label, 2);
+    }
+
+    /**
+     * Returns the estimated median of a column.
+     *
+     * @param label The label of the column.
+     * @return The median, or null.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public Double getMedian(String label) {
+        return statistic(label, 3);
+    }
+
+    /**
+     * Returns the estimated third quartile (75th percentile) of a column.
+     *
+     * @param label The label of the column.
+     * @return The third quartile, or null.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public Double getThirdQuartile(String label) {
+        return statistic(label, 4);
+    }
+
+    /**
+     * Returns the maximum of a column.
+     *
+     * @param label The label of the column.
+     * @return The maximum, or null.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public Double getMax(String label) {
+        return statistic(label, 5);
+    }
+
+    /**
+     * Returns the standard deviation of a column.
+     *
+     * @param label The label of the column.
+     * @return The standard deviation, or null.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public Double getStd(String label) {
+        return statistic(label, 6);
+    }
+
+    /**
+     * Returns the variance of a column.
+     *
+     * @param label The label of the column.
+     * @return The variance, or null.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public Double getVariance(String label) {
+        return statistic(label, 7);
+    }
+
+    private int indexOf(String label) {
+        int i = labels.indexOf(label);
+        if (i < 0) {
+            throw new IllegalArgumentException("Column with label " + label + " does not exist.");
+        }
+        return i;
+    }
+
+    private Double statistic(String label, int index) {
+        double[] column = statistics[indexOf(label)];
+        return column == null ? null : column[index];
+    }
+
+    /**
+     * Prints the statistics, one row per statistic and one column per column of the DataFrame.
+     */
+    public void print() {
+        System.out.printf("%-12s", "");
+        for (String label : labels) {
+            System.out.printf("%-10s", label);
+            System.out.printf("%-2s", "");
+        }
+        for (int r = 0; r < ROWS.length; r++) {
+            System.out.println();
+            System.out.printf("%-10s", ROWS[r]);
+            System.out.print("| ");
+            for (int i = 0; i < labels.size(); i++) {
+                Object value = null;
+                if (r == 0) {
+                    value = counts[i];
+                } else if (statistics[i] != null) {
+                    value = statistics[i][r - 1];
+                }
+                System.out.printf("%-10s", value);
+                System.out.printf("%-2s", "");
+            }
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.BitSet;
+
+/**
+ * A dictionary-encoded column: each distinct value is stored once in the dictionary, a plain column, and the cells
+ * only hold its code, packed on as many bits as the number of distinct values needs. A column of country or status
+ * codes takes a few bits per cell, and a predicate compares each distinct value once, then the codes.
+ */
+public class DictionaryColumn extends CodedColumn {
+    private final Column dictionary;
+    private final PackedColumn codes;
+
+    /**
+     * Constructs a dictionary-encoded column.
+     *
+     * @param dictionary The distinct values, without missing cells.
+     * @param codes      The code of each cell. Missing cells may hold any code.
+     * @param nulls      The bitmap of missing cells, or null if no cell is missing.
+     */
+    DictionaryColumn(Column dictionary, PackedColumn codes, BitSet nulls) {
+        super(codes.size(), nulls);
+        this.dictionary = dictionary;
+        this.codes = codes;
+    }
+
+    /**
+     * Returns the dictionary of the column.
+     *
+     * @return The distinct values of the column, indexed by code.
+     */
+    public Column getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return dictionary.getType();
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return dictionary.isNumeric();
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return dictionary.getMemoryBytes() + codes.getMemoryBytes() + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : dictionary.get(code(row));
+    }
+
+    @Override
+    public int getInt(int row) {
+        return dictionary.getInt(code(row));
+    }
+
+    @Override
+    public long getLong(int row) {
+        return dictionary.getLong(code(row));
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return dictionary.getDouble(code(row));
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        return dictionary.getBoolean(code(row));
+    }
+
+    @Override
+    int code(int row) {
+        return codes.code(row);
+    }
+
+    @Override
+    Column domain() {
+        return dictionary;
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        int[] res = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            res[i] = row < 0 || isNull(row) ? -1 : code(row);
+        }
+        return dictionary.take(res);
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.BitSet;
+
+/**
+ * A column of doubles backed by a primitive array.
+ */
+public class DoubleColumn extends Column {
+    double[] values;
+
+    /**
+     * Constructs a double column.
+     *
+     * @param values The values of the column. Missing cells should hold 0.
+     * @param size   The number of cells in use.
+     * @param nulls  The bitmap of missing cells, or null if no cell is missing.
+     */
+    public DoubleColumn(double[] values, int size, BitSet nulls) {
+        super(size, nulls);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.DOUBLE;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return 8L * values.length + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        double[] res = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                res[i] = values[row];
+            }
+        }
+        return new DoubleColumn(res, rows.length, takeNulls(rows));
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A column whose cells are not held in a plain array: stored in a compressed form, as chosen by
+ * {@link DataFrame#compress()}, or outside the heap, as {@link DataFrame#offHeap()} stores it.
+ * The cells are decoded on access, while {@link #take(int[])} and {@link #decompress()} return plain typed columns.
+ */
+public abstract class EncodedColumn extends Column {
+    private static final int CHUNK_ROWS = 4096;
+
+    /**
+     * Constructs an encoded column of the given size.
+     *
+     * @param size  The number of cells in the column.
+     * @param nulls The bitmap of missing cells, or null if no cell is missing.
+     */
+    protected EncodedColumn(int size, BitSet nulls) {
+        super(size, nulls);
+    }
+
+    /**
+     * Returns the cells of the column in a plain typed column.
+     *
+     * @return The decoded column.
+     */
+    public Column decompress() {
+        return take(identity(size));
+    }
+
+    /**
+     * A test of the cells of a plain column, as a predicate on a column runs it.
+     */
+    interface CellFilter {
+        /**
+         * Keeps, among the first count selected rows, those whose cell passes the test, compacted at the front of
+         * the selection in the same order.
+         *
+         * @param cells    A plain column.
+         * @param selected The selected rows of the column.
+         * @param count    The number of selected rows.
+         * @return The number of rows kept.
+         */
+        int retain(Column cells, int[] selected, int count);
+    }
+
+    /**
+     * Keeps, among the first count selected rows, those whose cell passes a test.
+     * This implementation decodes the selected cells into plain columns of at most {@link #CHUNK_ROWS} cells, which
+     * stay in cache while they are tested.
+     *
+     * @param filter   The test.
+     * @param selected The selected rows, in any order.
+     * @param count    The number of selected rows.
+     * @return The number of rows kept, compacted at the front of the selection in the same order.
+     */
+    int retain(CellFilter filter, int[] selected, int count) {
+        int kept = 0;
+        int[] positions = new int[Math.min(count, CHUNK_ROWS)];
+        for (int from = 0; from < count; from += CHUNK_ROWS) {
+            int to = Math.min(count, from + CHUNK_ROWS);
+            Column cells = take(Arrays.copyOfRange(selected, from, to));
+            for (int i = 0; i < to - from; i++) {
+                positions[i] = i;
+            }
+            int passed = filter.retain(cells, positions, to - from);
+            for (int i = 0; i < passed; i++) {
+                selected[kept++] = selected[from + positions[i]];
+            }
+        }
+        return kept;
+    }
+
+    static int[] identity(int n) {
+        int[] res = new int[n];
+        for (int i = 0; i < n; i++) {
+            res[i] = i;
+        }
+        return res;
+    }
+}
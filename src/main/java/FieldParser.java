@@ -0,0 +1,324 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recognizes and parses numbers directly from the raw bytes of a CSV field, without exceptions and
+ * without building a String for numeric fields.
+ * A field is typed exactly as {@link Integer#parseInt(String)} and {@link Double#parseDouble(String)} would
+ * type it: an int if the former accepts it, otherwise a double if the latter accepts it, otherwise a string.
+ * The parsed value of the last numeric field is kept in {@link #intValue}, {@link #longValue} or {@link #doubleValue}.
+ */
+final class FieldParser {
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    int intValue;
+    long longValue;
+    double doubleValue;
+
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Determines the type of the field stored in bytes[start, end) and parses its value.
+     *
+     * @param bytes The buffer holding the field.
+     * @param start The index of the first byte of the field.
+     * @param end   The index following the last byte of the field.
+     * @return INT or DOUBLE if the field is a number, whose value is then stored in this parser, otherwise STRING.
+     */
+    ColumnType classify(byte[] bytes, int start, int end) {
+        if (start == end) {
+            return ColumnType.STRING;
+        }
+        int i = start;
+        boolean negative = false;
+        if (bytes[i] == '-' || bytes[i] == '+') {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        // Integer.parseInt: a sign followed by digits only, within the int range
+        int digitsStart = i;
+        long value = 0;
+        boolean overflow = false;
+        while (i < end && isDigit(bytes[i])) {
+            if (!overflow) {
+                value = value * 10 + (bytes[i] - '0');
+                overflow = value > -(long) Integer.MIN_VALUE;
+            }
+            i++;
+        }
+        if (i == end && i > digitsStart && !overflow) {
+            long signed = negative ? -value : value;
+            if (signed >= Integer.MIN_VALUE && signed <= Integer.MAX_VALUE) {
+                intValue = (int) signed;
+                return ColumnType.INT;
+            }
+        }
+        return classifyDouble(bytes, start, end);
+    }
+
+    /**
+     * Determines the type of a field already held in a String, as {@link #classify(byte[], int, int)} does.
+     *
+     * @param field The field.
+     * @return INT or DOUBLE if the field is a number, whose value is then stored in this parser, otherwise STRING.
+     */
+    ColumnType classify(String field) {
+        if (parseInt(field)) {
+            return ColumnType.INT;
+        }
+        int length = field.length();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = field.charAt(i);
+            if (c > 127) {
+                // Double.parseDouble only accepts ASCII characters
+                return ColumnType.STRING;
+            }
+            scratch[i] = (byte) c;
+        }
+        return classifyDouble(scratch, 0, length);
+    }
+
+    /**
+     * Parses a field with the grammar of {@link Integer#parseInt(String)}, Unicode digits included.
+     *
+     * @param field The field.
+     * @return true if the field is an int, which is then stored in {@link #intValue}.
+     */
+    boolean parseInt(String field) {
+        if (!parseLong(field) || longValue < Integer.MIN_VALUE || longValue > Integer.MAX_VALUE) {
+            return false;
+        }
+        intValue = (int) longValue;
+        return true;
+    }
+
+    /**
+     * Parses a field with the grammar of {@link Long#parseLong(String)}, Unicode digits included.
+     *
+     * @param field The field.
+     * @return true if the field is a long, which is then stored in {@link #longValue}.
+     */
+    boolean parseLong(String field) {
+        int length = field.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (field.charAt(0) == '-' || field.charAt(0) == '+')) {
+            negative = field.charAt(0) == '-';
+            i++;
+        }
+        if (i == length) {
+            return false;
+        }
+        // Accumulates negatively, as Long.parseLong does, so that Long.MIN_VALUE fits
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(field.charAt(i), 10);
+            if (digit < 0 || result < multiplyMin) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        longValue = negative ? result : -result;
+        return true;
+    }
+
+    /**
+     * Parses a field with the grammar of {@link Double#parseDouble(String)}.
+     *
+     * @param field The field.
+     * @return true if the field is a number, which is then stored in {@link #doubleValue}.
+     */
+    boolean parseDouble(String field) {
+        switch (classify(field)) {
+            case INT -> {
+                // Integer.parseInt also accepts Unicode digits, which Double.parseDouble rejects
+                for (int i = 0; i < field.length(); i++) {
+                    if (field.charAt(i) > 127) {
+                        return false;
+                    }
+                }
+                doubleValue = intValue;
+                return true;
+            }
+            case DOUBLE -> {
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Recognizes the grammar accepted by {@link Double#parseDouble(String)}.
+     * Plain decimals with at most 15 significant digits and a small exponent are computed exactly here;
+     * the rarer forms (hexadecimal, NaN, Infinity, surrounding whitespace, long mantissas) are only
+     * handed to the JDK once they are known to be valid.
+     */
+    private ColumnType classifyDouble(byte[] bytes, int start, int end) {
+        int s = start;
+        int e = end;
+        while (s < e && (bytes[s] & 0xff) <= ' ') {
+            s++;
+        }
+        while (e > s && (bytes[e - 1] & 0xff) <= ' ') {
+            e--;
+        }
+        boolean trimmed = s != start || e != end;
+        int i = s;
+        boolean negative = false;
+        if (i < e && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        if (i == e) {
+            return ColumnType.STRING;
+        }
+        if (bytes[i] == 'N' || bytes[i] == 'I') {
+            if (matches(bytes, i, e, "NaN") || matches(bytes, i, e, "Infinity")) {
+                return parseWithJdk(bytes, s, e);
+            }
+            return ColumnType.STRING;
+        }
+        if (bytes[i] == '0' && i + 1 < e && (bytes[i + 1] == 'x' || bytes[i + 1] == 'X')) {
+            return isHexFloat(bytes, i + 2, e) ? parseWithJdk(bytes, s, e) : ColumnType.STRING;
+        }
+
+        long mantissa = 0;
+        int significant = 0;
+        int digits = 0;
+        int exponent = 0;
+        while (i < e && isDigit(bytes[i])) {
+            if (mantissa != 0 || bytes[i] != '0') {
+                if (significant < 19) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                } else {
+                    exponent++;
+                }
+                significant++;
+            }
+            digits++;
+            i++;
+        }
+        if (i < e && bytes[i] == '.') {
+            i++;
+            while (i < e && isDigit(bytes[i])) {
+                if (mantissa != 0 || bytes[i] != '0') {
+                    if (significant < 19) {
+                        mantissa = mantissa * 10 + (bytes[i] - '0');
+                        exponent--;
+                    }
+                    significant++;
+                } else {
+                    exponent--;
+                }
+                digits++;
+                i++;
+            }
+        }
+        if (digits == 0) {
+            return ColumnType.STRING;
+        }
+        boolean simple = !trimmed && significant <= 15;
+        if (i < e && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < e && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            int expStart = i;
+            int explicit = 0;
+            while (i < e && isDigit(bytes[i])) {
+                if (explicit < 100000) {
+                    explicit = explicit * 10 + (bytes[i] - '0');
+                }
+                i++;
+            }
+            if (i == expStart) {
+                return ColumnType.STRING;
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        if (i < e && (bytes[i] == 'f' || bytes[i] == 'F' || bytes[i] == 'd' || bytes[i] == 'D')) {
+            i++;
+            simple = false;
+        }
+        if (i != e) {
+            return ColumnType.STRING;
+        }
+        if (simple && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            // Both operands are exact doubles, so a single operation gives the correctly rounded result
+            double d = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+            doubleValue = negative ? -d : d;
+            return ColumnType.DOUBLE;
+        }
+        return parseWithJdk(bytes, s, e);
+    }
+
+    private ColumnType parseWithJdk(byte[] bytes, int start, int end) {
+        doubleValue = Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+        return ColumnType.DOUBLE;
+    }
+
+    private static boolean isHexFloat(byte[] bytes, int i, int e) {
+        int digits = 0;
+        while (i < e && Character.digit(bytes[i], 16) >= 0) {
+            digits++;
+            i++;
+        }
+        if (i < e && bytes[i] == '.') {
+            i++;
+            while (i < e && Character.digit(bytes[i], 16) >= 0) {
+                digits++;
+                i++;
+            }
+        }
+        if (digits == 0 || i == e || (bytes[i] != 'p' && bytes[i] != 'P')) {
+            return false;
+        }
+        i++;
+        if (i < e && (bytes[i] == '-' || bytes[i] == '+')) {
+            i++;
+        }
+        int expStart = i;
+        while (i < e && isDigit(bytes[i])) {
+            i++;
+        }
+        if (i == expStart) {
+            return false;
+        }
+        if (i < e && (bytes[i] == 'f' || bytes[i] == 'F' || bytes[i] == 'd' || bytes[i] == 'D')) {
+            i++;
+        }
+        return i == e;
+    }
+
+    private static boolean matches(byte[] bytes, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (bytes[start + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
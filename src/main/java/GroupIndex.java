@@ -0,0 +1,409 @@
+import java.util.Arrays;
+
+/**
+ * Assigns a group id to every row of a key column, in the order the keys first appear, in a single pass.
+ * Primitive keys are looked up in an open-addressing table of longs, without boxing; dictionary-encoded strings
+ * use their code directly, and other keys an open-addressing table of objects. The keys of a {@link CodedColumn}
+ * are grouped once per value of its domain, then by code. Null keys form their own group.
+ */
+final class GroupIndex {
+    private static final int EMPTY = -1;
+
+    /**
+     * The group id of each row, starting from the first grouped row.
+     */
+    final int[] groupOf;
+    private final int from;
+    private int[] firstRows = new int[16];
+    private int groups;
+    private int nullGroup = EMPTY;
+    private int limit = Integer.MAX_VALUE;
+
+    private Column key;
+    private int[] groupOfCode;
+    private GroupIndex inner;
+    private int[] groupOfInner;
+    private long[] longKeys;
+    private Object[] objectKeys;
+    private int[] ids;
+    private int mask;
+
+    private GroupIndex(int from, int to) {
+        this.groupOf = new int[to - from];
+        this.from = from;
+    }
+
+    /**
+     * Groups the rows of a column by value.
+     *
+     * @param key The key column.
+     * @return The group id of each row.
+     */
+    static GroupIndex of(Column key) {
+        return of(key, 0, key.size());
+    }
+
+    /**
+     * Groups the rows [from, to) of a column by value.
+     *
+     * @param key  The key column.
+     * @param from The first row to group.
+     * @param to   The row following the last row to group.
+     * @return The group id of each row of the range.
+     */
+    static GroupIndex of(Column key, int from, int to) {
+        GroupIndex index = new GroupIndex(from, to);
+        index.key = key;
+        ColumnType type = key.getType();
+        if (key instanceof StringColumn strings) {
+            index.groupCodes(strings);
+        } else if (key instanceof CodedColumn coded && coded.domain() != null) {
+            index.groupCoded(coded, coded.domain());
+        } else if (type == ColumnType.INT || type == ColumnType.LONG
+                || type == ColumnType.DOUBLE || type == ColumnType.BOOLEAN) {
+            index.groupLongs(key);
+        } else {
+            index.groupObjects(key);
+        }
+        return index;
+    }
+
+    /**
+     * Groups the rows of a plain column by value, unless they hold too many distinct values.
+     *
+     * @param key   The key column.
+     * @param limit The largest number of groups.
+     * @return The group id of each row, or null if there are more than limit groups.
+     */
+    static GroupIndex of(Column key, int limit) {
+        GroupIndex index = new GroupIndex(0, key.size());
+        index.key = key;
+        index.limit = limit;
+        if (key instanceof StringColumn strings) {
+            index.groupCodes(strings);
+        } else if (key instanceof IntColumn || key instanceof LongColumn
+                || key instanceof DoubleColumn || key instanceof BooleanColumn) {
+            index.groupLongs(key);
+        } else {
+            index.groupObjects(key);
+        }
+        return index.groups > limit ? null : index;
+    }
+
+    /**
+     * Returns the number of groups.
+     *
+     * @return The number of distinct keys.
+     */
+    int groups() {
+        return groups;
+    }
+
+    /**
+     * Returns the first row of each group, by group id.
+     *
+     * @return The row where each key first appears.
+     */
+    int[] firstRows() {
+        return Arrays.copyOf(firstRows, groups);
+    }
+
+    /**
+     * Finds the group of every row of another column, without adding groups, as the probe side of a hash join.
+     * Keys match when they are equal, as for grouping; null keys match nothing.
+     *
+     * @param probe The column to look up.
+     * @return The group id of each row of the probe column, or -1 if its key is not in this index.
+     */
+    int[] lookup(Column probe) {
+        int[] res = new int[probe.size()];
+        if (groupOfCode != null && probe instanceof StringColumn other) {
+            StringColumn strings = (StringColumn) key;
+            int[] translate = new int[other.dictionary.length];
+            for (int c = 0; c < translate.length; c++) {
+                int code = strings.codeOf(other.dictionary[c]);
+                translate[c] = code < 0 ? EMPTY : groupOfCode[code];
+            }
+            for (int row = 0; row < res.length; row++) {
+                res[row] = other.isNull(row) ? EMPTY : translate[other.codes[row]];
+            }
+            return res;
+        }
+        boolean sameLongs = longKeys != null && probe.getType() == key.getType();
+        for (int row = 0; row < res.length; row++) {
+            if (probe.isNull(row)) {
+                res[row] = EMPTY;
+            } else if (sameLongs) {
+                res[row] = find(longKey(probe, row));
+            } else {
+                res[row] = find(probe.get(row));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Finds the group of a value, without adding it.
+     *
+     * @param value The value.
+     * @return The group id of the value, or -1 if it is null or not in this index.
+     */
+    int find(Object value) {
+        if (value == null) {
+            return EMPTY;
+        }
+        if (groupOfCode != null) {
+            int code = value instanceof String s ? ((StringColumn) key).codeOf(s) : EMPTY;
+            return code < 0 ? EMPTY : groupOfCode[code];
+        }
+        if (inner != null) {
+            int group = inner.find(value);
+            return group == EMPTY ? EMPTY : groupOfInner[group];
+        }
+        if (longKeys != null) {
+            ColumnType type = key.getType();
+            if (value instanceof Integer i && type == ColumnType.INT) {
+                return find((long) i);
+            }
+            if (value instanceof Long l && type == ColumnType.LONG) {
+                return find(l.longValue());
+            }
+            if (value instanceof Double d && type == ColumnType.DOUBLE) {
+                return find(Double.doubleToLongBits(d));
+            }
+            if (value instanceof Boolean b && type == ColumnType.BOOLEAN) {
+                return find(b ? 1L : 0L);
+            }
+            return EMPTY;
+        }
+        int slot = (int) mix(value.hashCode()) & mask;
+        while (ids[slot] != EMPTY) {
+            if (objectKeys[slot].equals(value)) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    private int find(long value) {
+        int slot = (int) mix(value) & mask;
+        while (ids[slot] != EMPTY) {
+            if (longKeys[slot] == value) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Returns where the rows of each group start in {@link #rowsByGroup(int[])}.
+     *
+     * @return The offset of each group, followed by the number of grouped rows.
+     */
+    int[] starts() {
+        int[] start = new int[groups + 1];
+        for (int group : groupOf) {
+            start[group + 1]++;
+        }
+        for (int g = 0; g < groups; g++) {
+            start[g + 1] += start[g];
+        }
+        return start;
+    }
+
+    /**
+     * Lays the grouped rows out group after group, with a counting sort.
+     *
+     * @param starts The offsets returned by {@link #starts()}.
+     * @return The rows of each group, in increasing order, from the offset of the group.
+     */
+    int[] rowsByGroup(int[] starts) {
+        int[] next = Arrays.copyOf(starts, groups);
+        int[] rows = new int[groupOf.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[next[groupOf[i]]++] = from + i;
+        }
+        return rows;
+    }
+
+    /**
+     * Estimates the memory held by this index.
+     *
+     * @return The size of its arrays, in bytes.
+     */
+    long memoryBytes() {
+        long bytes = 4L * groupOf.length + 4L * firstRows.length;
+        bytes += ids == null ? 0 : 4L * ids.length;
+        bytes += longKeys == null ? 0 : 8L * longKeys.length;
+        bytes += objectKeys == null ? 0 : 8L * objectKeys.length;
+        bytes += groupOfCode == null ? 0 : 4L * groupOfCode.length;
+        bytes += inner == null ? 0 : inner.memoryBytes() + 4L * groupOfInner.length;
+        return bytes;
+    }
+
+    private int newGroup(int row) {
+        if (groups == firstRows.length) {
+            firstRows = Arrays.copyOf(firstRows, groups * 2);
+        }
+        firstRows[groups] = row;
+        return groups++;
+    }
+
+    private int nullGroup(int row) {
+        if (nullGroup == EMPTY) {
+            nullGroup = newGroup(row);
+        }
+        return nullGroup;
+    }
+
+    private void groupCodes(StringColumn strings) {
+        groupOfCode = new int[strings.dictionary.length];
+        Arrays.fill(groupOfCode, EMPTY);
+        for (int row = from; row < from + groupOf.length && groups <= limit; row++) {
+            if (strings.isNull(row)) {
+                groupOf[row - from] = nullGroup(row);
+                continue;
+            }
+            int code = strings.codes[row];
+            if (groupOfCode[code] == EMPTY) {
+                groupOfCode[code] = newGroup(row);
+            }
+            groupOf[row - from] = groupOfCode[code];
+        }
+    }
+
+    /**
+     * Groups the values of the domain, then gives each row the group of its code.
+     */
+    private void groupCoded(CodedColumn coded, Column domain) {
+        inner = GroupIndex.of(domain);
+        groupOfInner = new int[inner.groups];
+        Arrays.fill(groupOfInner, EMPTY);
+        int[] codes = new int[groupOf.length];
+        coded.codes(from, from + groupOf.length, codes);
+        for (int row = from; row < from + groupOf.length; row++) {
+            if (coded.isNull(row)) {
+                groupOf[row - from] = nullGroup(row);
+                continue;
+            }
+            int group = inner.groupOf[codes[row - from]];
+            if (groupOfInner[group] == EMPTY) {
+                groupOfInner[group] = newGroup(row);
+            }
+            groupOf[row - from] = groupOfInner[group];
+        }
+    }
+
+    private void groupLongs(Column key) {
+        allocate(16);
+        longKeys = new long[ids.length];
+        for (int row = from; row < from + groupOf.length && groups <= limit; row++) {
+            groupOf[row - from] = key.isNull(row) ? nullGroup(row) : findOrAdd(longKey(key, row), row);
+        }
+    }
+
+    /**
+     * Returns the bits identifying the value of a row. Doubles are compared by bit pattern, as Double.equals does.
+     */
+    private static long longKey(Column key, int row) {
+        if (key instanceof IntColumn ints) {
+            return ints.values[row];
+        }
+        if (key instanceof LongColumn longs) {
+            return longs.values[row];
+        }
+        if (key instanceof DoubleColumn doubles) {
+            return Double.doubleToLongBits(doubles.values[row]);
+        }
+        if (key.getType() == ColumnType.DOUBLE) {
+            return Double.doubleToLongBits(key.getDouble(row));
+        }
+        if (key.getType() == ColumnType.BOOLEAN) {
+            return key.getBoolean(row) ? 1 : 0;
+        }
+        return key.getLong(row);
+    }
+
+    private int findOrAdd(long value, int row) {
+        int slot = (int) mix(value) & mask;
+        while (ids[slot] != EMPTY) {
+            if (longKeys[slot] == value) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        longKeys[slot] = value;
+        ids[slot] = newGroup(row);
+        if (groups * 2 > ids.length) {
+            long[] oldKeys = longKeys;
+            int[] oldIds = ids;
+            allocate(ids.length * 2);
+            longKeys = new long[ids.length];
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != EMPTY) {
+                    int s = (int) mix(oldKeys[i]) & mask;
+                    while (ids[s] != EMPTY) {
+                        s = (s + 1) & mask;
+                    }
+                    longKeys[s] = oldKeys[i];
+                    ids[s] = oldIds[i];
+                }
+            }
+        }
+        return groups - 1;
+    }
+
+    private void groupObjects(Column key) {
+        allocate(16);
+        objectKeys = new Object[ids.length];
+        for (int row = from; row < from + groupOf.length && groups <= limit; row++) {
+            Object value = key.get(row);
+            groupOf[row - from] = value == null ? nullGroup(row) : findOrAdd(value, row);
+        }
+    }
+
+    private int findOrAdd(Object value, int row) {
+        int slot = (int) mix(value.hashCode()) & mask;
+        while (ids[slot] != EMPTY) {
+            if (objectKeys[slot].equals(value)) {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        objectKeys[slot] = value;
+        ids[slot] = newGroup(row);
+        if (groups * 2 > ids.length) {
+            Object[] oldKeys = objectKeys;
+            int[] oldIds = ids;
+            allocate(ids.length * 2);
+            objectKeys = new Object[ids.length];
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != EMPTY) {
+                    int s = (int) mix(oldKeys[i].hashCode()) & mask;
+                    while (ids[s] != EMPTY) {
+                        s = (s + 1) & mask;
+                    }
+                    objectKeys[s] = oldKeys[i];
+                    ids[s] = oldIds[i];
+                }
+            }
+        }
+        return groups - 1;
+    }
+
+    private void allocate(int capacity) {
+        ids = new int[capacity];
+        Arrays.fill(ids, EMPTY);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Spreads the bits of a key so that consecutive keys do not fill consecutive slots.
+     */
+    private static long mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
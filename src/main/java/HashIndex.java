@@ -0,0 +1,36 @@
+import java.util.Arrays;
+
+/**
+ * A hash index: the distinct values of the column are numbered by a {@link GroupIndex}, and the rows of each value
+ * are stored together, so a lookup costs one probe of the hash table plus a copy of the matching rows.
+ */
+final class HashIndex extends ColumnIndex {
+    private final GroupIndex groups;
+    private final int[] starts;
+    private final int[] rows;
+
+    HashIndex(String label, Column column) {
+        this(label, column, 0, column.size());
+    }
+
+    /**
+     * Indexes the rows [from, to) of a column.
+     */
+    HashIndex(String label, Column column, int from, int to) {
+        super(label, IndexType.HASH, from, to);
+        groups = GroupIndex.of(column, from, to);
+        starts = groups.starts();
+        rows = groups.rowsByGroup(starts);
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return groups.memoryBytes() + 4L * starts.length + 4L * rows.length;
+    }
+
+    @Override
+    int[] equal(Object value) {
+        int group = groups.find(value);
+        return group < 0 ? new int[0] : Arrays.copyOfRange(rows, starts[group], starts[group + 1]);
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * The kinds of secondary index of a column, as passed to {@link DataFrame#createIndex(String, IndexType)}.
+ * A HASH index maps each value to its rows and answers {@link Predicate#eq(String, Object)} and
+ * {@link Predicate#in(String, Object...)}; a SORTED index keeps the rows in the order of their values and also
+ * answers the range predicates, such as {@link Predicate#lt(String, Object)} or
+ * {@link Predicate#between(String, Object, Object)}.
+ */
+public enum IndexType {
+    HASH,
+    SORTED
+}
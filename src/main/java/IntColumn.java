@@ -0,0 +1,62 @@
+import java.util.BitSet;
+
+/**
+ * A column of ints backed by a primitive array.
+ */
+public class IntColumn extends Column {
+    int[] values;
+
+    /**
+     * Constructs an int column.
+     *
+     * @param values The values of the column. Missing cells should hold 0.
+     * @param size   The number of cells in use.
+     * @param nulls  The bitmap of missing cells, or null if no cell is missing.
+     */
+    public IntColumn(int[] values, int size, BitSet nulls) {
+        super(size, nulls);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.INT;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return 4L * values.length + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public int getInt(int row) {
+        return values[row];
+    }
+
+    @Override
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        int[] res = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                res[i] = values[row];
+            }
+        }
+        return new IntColumn(res, rows.length, takeNulls(rows));
+    }
+}
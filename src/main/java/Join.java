@@ -0,0 +1,355 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Joins two DataFrames on a key column of each. Both algorithms first produce the pairs of matching rows as two
+ * vectors of row indices, then gather every column once through {@link Column#take(int[])}, -1 standing for the
+ * missing side of an unmatched row.
+ * Keys match when they are equal, as for {@link DataFrame#groupby(String, Aggregator)}; null keys match nothing.
+ */
+final class Join {
+    private static final String SUFFIX = "_right";
+
+    private Join() {
+    }
+
+    /**
+     * Joins two frames with a hash join: the key column of the smaller frame is indexed by {@link GroupIndex},
+     * then the rows of the other frame look up their key in that index.
+     *
+     * @param left     The left frame.
+     * @param right    The right frame.
+     * @param leftKey  The key column of the left frame.
+     * @param rightKey The key column of the right frame.
+     * @param type     The join type.
+     * @return The joined frame.
+     */
+    static DataFrame hash(DataFrame left, DataFrame right, String leftKey, String rightKey, JoinType type) {
+        Column lk = left.getColumn(leftKey);
+        Column rk = right.getColumn(rightKey);
+        boolean buildLeft = left.getRowCount() < right.getRowCount();
+        Column build = buildLeft ? lk : rk;
+        Column probe = buildLeft ? rk : lk;
+        GroupIndex index = GroupIndex.of(build);
+        int[] ids = index.lookup(probe);
+
+        if (type == JoinType.SEMI || type == JoinType.ANTI) {
+            boolean[] matched = new boolean[left.getRowCount()];
+            if (buildLeft) {
+                boolean[] groupMatched = new boolean[index.groups()];
+                for (int id : ids) {
+                    if (id >= 0) {
+                        groupMatched[id] = true;
+                    }
+                }
+                for (int row = 0; row < matched.length; row++) {
+                    matched[row] = !lk.isNull(row) && groupMatched[index.groupOf[row]];
+                }
+            } else {
+                for (int row = 0; row < matched.length; row++) {
+                    matched[row] = ids[row] >= 0;
+                }
+            }
+            return left.rows(select(matched, type == JoinType.SEMI));
+        }
+
+        int[] start = index.starts();
+        int[] buildRows = index.rowsByGroup(start);
+
+        long total = 0;
+        for (int id : ids) {
+            if (id >= 0) {
+                total += start[id + 1] - start[id];
+            }
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The join produces too many rows.");
+        }
+        int[] probeSide = new int[(int) total];
+        int[] buildSide = new int[(int) total];
+        int k = 0;
+        for (int row = 0; row < ids.length; row++) {
+            int id = ids[row];
+            if (id < 0) {
+                continue;
+            }
+            for (int b = start[id]; b < start[id + 1]; b++) {
+                probeSide[k] = row;
+                buildSide[k++] = buildRows[b];
+            }
+        }
+        return assemble(left, right, leftKey, rightKey, type,
+                buildLeft ? buildSide : probeSide, buildLeft ? probeSide : buildSide, !buildLeft);
+    }
+
+    /**
+     * Joins two frames with a sort-merge join, which walks both key columns once without building an index.
+     * Both frames must already be sorted by key in ascending order; null keys may appear anywhere.
+     *
+     * @param left     The left frame.
+     * @param right    The right frame.
+     * @param leftKey  The key column of the left frame.
+     * @param rightKey The key column of the right frame.
+     * @param type     The join type.
+     * @return The joined frame.
+     * @throws IllegalArgumentException if a frame is not sorted by its key, or if its keys cannot be compared.
+     */
+    static DataFrame merge(DataFrame left, DataFrame right, String leftKey, String rightKey, JoinType type) {
+        Column lk = left.getColumn(leftKey);
+        Column rk = right.getColumn(rightKey);
+        checkSorted(lk, "left", leftKey);
+        checkSorted(rk, "right", rightKey);
+
+        Pairs pairs = new Pairs();
+        int i = nextKey(lk, 0);
+        int j = nextKey(rk, 0);
+        while (i < lk.size() && j < rk.size()) {
+            int c = KeyOrder.compare(lk, i, rk, j);
+            if (c < 0) {
+                i = nextKey(lk, i + 1);
+            } else if (c > 0) {
+                j = nextKey(rk, j + 1);
+            } else {
+                int iEnd = i + 1;
+                while (iEnd < lk.size() && (lk.isNull(iEnd) || KeyOrder.compare(lk, iEnd, rk, j) == 0)) {
+                    iEnd++;
+                }
+                int jEnd = j + 1;
+                while (jEnd < rk.size() && (rk.isNull(jEnd) || KeyOrder.compare(lk, i, rk, jEnd) == 0)) {
+                    jEnd++;
+                }
+                for (int a = i; a < iEnd; a++) {
+                    for (int b = j; b < jEnd; b++) {
+                        if (!lk.isNull(a) && !rk.isNull(b)) {
+                            pairs.add(a, b);
+                        }
+                    }
+                }
+                i = nextKey(lk, iEnd);
+                j = nextKey(rk, jEnd);
+            }
+        }
+
+        if (type == JoinType.SEMI || type == JoinType.ANTI) {
+            boolean[] matched = new boolean[left.getRowCount()];
+            for (int p = 0; p < pairs.size; p++) {
+                matched[pairs.left[p]] = true;
+            }
+            return left.rows(select(matched, type == JoinType.SEMI));
+        }
+        return assemble(left, right, leftKey, rightKey, type, Arrays.copyOf(pairs.left, pairs.size),
+                Arrays.copyOf(pairs.right, pairs.size), true);
+    }
+
+    /**
+     * Builds the joined frame from the matching pairs.
+     *
+     * @param leftRows   The left row of each pair.
+     * @param rightRows  The right row of each pair.
+     * @param leftSorted true if the pairs are sorted by left row then right row, false if they are sorted by right
+     *                   row then left row.
+     */
+    private static DataFrame assemble(DataFrame left, DataFrame right, String leftKey, String rightKey,
+                                      JoinType type, int[] leftRows, int[] rightRows, boolean leftSorted) {
+        if (type == JoinType.RIGHT) {
+            if (leftSorted) {
+                int[][] sorted = sortPairs(rightRows, leftRows, right.getRowCount());
+                rightRows = sorted[0];
+                leftRows = sorted[1];
+            }
+            int[][] rows = expand(rightRows, leftRows, right.getRowCount());
+            rightRows = rows[0];
+            leftRows = rows[1];
+        } else {
+            if (!leftSorted) {
+                int[][] sorted = sortPairs(leftRows, rightRows, left.getRowCount());
+                leftRows = sorted[0];
+                rightRows = sorted[1];
+            }
+            if (type != JoinType.INNER) {
+                int[][] rows = expand(leftRows, rightRows, left.getRowCount());
+                leftRows = rows[0];
+                rightRows = rows[1];
+            }
+            if (type == JoinType.OUTER) {
+                int[][] rows = appendUnmatched(leftRows, rightRows, right.getRowCount());
+                leftRows = rows[0];
+                rightRows = rows[1];
+            }
+        }
+
+        boolean sharedKey = leftKey.equals(rightKey);
+        ArrayList<String> labels = new ArrayList<>();
+        ArrayList<Column> columns = new ArrayList<>();
+        for (String label : left.getColumnLabels()) {
+            labels.add(label);
+            if (sharedKey && label.equals(leftKey) && type == JoinType.RIGHT) {
+                columns.add(right.getColumn(rightKey).take(rightRows));
+            } else if (sharedKey && label.equals(leftKey) && type == JoinType.OUTER) {
+                columns.add(coalesce(left.getColumn(leftKey), leftRows, right.getColumn(rightKey), rightRows));
+            } else {
+                columns.add(left.getColumn(label).take(leftRows));
+            }
+        }
+        for (String label : right.getColumnLabels()) {
+            if (sharedKey && label.equals(rightKey)) {
+                continue;
+            }
+            String name = label;
+            while (labels.contains(name)) {
+                name += SUFFIX;
+            }
+            labels.add(name);
+            columns.add(right.getColumn(label).take(rightRows));
+        }
+        return new DataFrame(labels, columns.toArray(new Column[0]));
+    }
+
+    /**
+     * Returns the rows whose flag has the given value, in ascending order.
+     */
+    private static int[] select(boolean[] matched, boolean value) {
+        int count = 0;
+        for (boolean m : matched) {
+            if (m == value) {
+                count++;
+            }
+        }
+        int[] rows = new int[count];
+        int k = 0;
+        for (int row = 0; row < matched.length; row++) {
+            if (matched[row] == value) {
+                rows[k++] = row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Stably sorts pairs by their first row, with a counting sort.
+     *
+     * @param by    The first row of each pair, in [0, n).
+     * @param other The second row of each pair.
+     * @param n     The number of rows of the first frame.
+     * @return The sorted first rows, then the second rows in the same order.
+     */
+    private static int[][] sortPairs(int[] by, int[] other, int n) {
+        int[] start = new int[n + 1];
+        for (int row : by) {
+            start[row + 1]++;
+        }
+        for (int r = 0; r < n; r++) {
+            start[r + 1] += start[r];
+        }
+        int[] sortedBy = new int[by.length];
+        int[] sortedOther = new int[by.length];
+        for (int p = 0; p < by.length; p++) {
+            int dest = start[by[p]]++;
+            sortedBy[dest] = by[p];
+            sortedOther[dest] = other[p];
+        }
+        return new int[][]{sortedBy, sortedOther};
+    }
+
+    /**
+     * Inserts every row of the first frame that has no pair, paired with -1, at its place.
+     *
+     * @param by    The first row of each pair, sorted.
+     * @param other The second row of each pair.
+     * @param n     The number of rows of the first frame.
+     * @return The first rows, then the second rows, of the completed pairs.
+     */
+    private static int[][] expand(int[] by, int[] other, int n) {
+        int distinct = 0;
+        for (int p = 0; p < by.length; p++) {
+            if (p == 0 || by[p] != by[p - 1]) {
+                distinct++;
+            }
+        }
+        int[] resBy = new int[by.length + n - distinct];
+        int[] resOther = new int[resBy.length];
+        int k = 0;
+        int p = 0;
+        for (int row = 0; row < n; row++) {
+            if (p < by.length && by[p] == row) {
+                while (p < by.length && by[p] == row) {
+                    resBy[k] = row;
+                    resOther[k++] = other[p++];
+                }
+            } else {
+                resBy[k] = row;
+                resOther[k++] = -1;
+            }
+        }
+        return new int[][]{resBy, resOther};
+    }
+
+    /**
+     * Appends the rows of the right frame that have no pair, paired with -1.
+     */
+    private static int[][] appendUnmatched(int[] leftRows, int[] rightRows, int n) {
+        boolean[] matched = new boolean[n];
+        for (int row : rightRows) {
+            if (row >= 0) {
+                matched[row] = true;
+            }
+        }
+        int[] unmatched = select(matched, false);
+        int[] resLeft = Arrays.copyOf(leftRows, leftRows.length + unmatched.length);
+        int[] resRight = Arrays.copyOf(rightRows, resLeft.length);
+        for (int u = 0; u < unmatched.length; u++) {
+            resLeft[leftRows.length + u] = -1;
+            resRight[leftRows.length + u] = unmatched[u];
+        }
+        return new int[][]{resLeft, resRight};
+    }
+
+    /**
+     * Gathers a key column of an outer join, taking the key of the right row where there is no left row.
+     */
+    private static Column coalesce(Column left, int[] leftRows, Column right, int[] rightRows) {
+        ColumnBuilder builder = new ColumnBuilder(leftRows.length);
+        for (int i = 0; i < leftRows.length; i++) {
+            builder.append(leftRows[i] >= 0 ? left.get(leftRows[i]) : right.get(rightRows[i]));
+        }
+        return builder.build();
+    }
+
+    private static int nextKey(Column key, int row) {
+        while (row < key.size() && key.isNull(row)) {
+            row++;
+        }
+        return row;
+    }
+
+    private static void checkSorted(Column key, String side, String label) {
+        int previous = -1;
+        for (int row = 0; row < key.size(); row++) {
+            if (key.isNull(row)) {
+                continue;
+            }
+            if (previous >= 0 && KeyOrder.compare(key, previous, key, row) > 0) {
+                throw new IllegalArgumentException("The " + side + " frame is not sorted on column " + label + ".");
+            }
+            previous = row;
+        }
+    }
+
+    /**
+     * A growable list of pairs of rows.
+     */
+    private static final class Pairs {
+        int[] left = new int[16];
+        int[] right = new int[16];
+        int size;
+
+        void add(int l, int r) {
+            if (size == left.length) {
+                left = Arrays.copyOf(left, size * 2);
+                right = Arrays.copyOf(right, size * 2);
+            }
+            left[size] = l;
+            right[size++] = r;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * The kinds of join between two DataFrames, as passed to {@link DataFrame#join(DataFrame, String, String, JoinType)}.
+ * INNER keeps the pairs of rows whose keys are equal; LEFT, RIGHT and OUTER also keep the rows of the left frame,
+ * of the right frame or of both that match nothing, with null cells on the other side. SEMI and ANTI keep the
+ * rows of the left frame that match at least one row, or none, of the right frame, and only its columns.
+ */
+public enum JoinType {
+    INNER,
+    LEFT,
+    RIGHT,
+    OUTER,
+    SEMI,
+    ANTI;
+
+    /**
+     * Returns the join type with the given name, in lower case.
+     *
+     * @param type The name of the join type, such as "inner" or "left".
+     * @return The join type.
+     * @throws IllegalArgumentException if no join type has this name.
+     */
+    public static JoinType of(String type) {
+        for (JoinType joinType : values()) {
+            if (joinType.name().toLowerCase().equals(type)) {
+                return joinType;
+            }
+        }
+        throw new IllegalArgumentException("Le type de jointure doit etre \"inner\", \"left\", \"right\", "
+                + "\"outer\", \"semi\" ou \"anti\".");
+    }
+}
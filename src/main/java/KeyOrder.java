@@ -0,0 +1,86 @@
+/**
+ * The order of the keys of joins and sorts. It is consistent with equals: numbers come first, by value, then
+ * booleans, then strings, then other comparable values, each group in its natural order. Numbers of different
+ * classes with the same value, which are not equal, are ordered by class name.
+ */
+final class KeyOrder {
+
+    private KeyOrder() {
+    }
+
+    /**
+     * Compares the non-null cells of two columns.
+     *
+     * @param a The first column.
+     * @param i The row of the first cell.
+     * @param b The second column.
+     * @param j The row of the second cell.
+     * @return A negative number, zero or a positive number if the first cell is lower, equal or greater.
+     * @throws IllegalArgumentException if the values cannot be compared.
+     */
+    static int compare(Column a, int i, Column b, int j) {
+        if (a instanceof IntColumn x && b instanceof IntColumn y) {
+            return Integer.compare(x.values[i], y.values[j]);
+        }
+        if (a instanceof LongColumn x && b instanceof LongColumn y) {
+            return Long.compare(x.values[i], y.values[j]);
+        }
+        if (a instanceof DoubleColumn x && b instanceof DoubleColumn y) {
+            return Double.compare(x.values[i], y.values[j]);
+        }
+        if (a instanceof StringColumn x && b instanceof StringColumn y) {
+            if (x.dictionary == y.dictionary && x.codes[i] == y.codes[j]) {
+                return 0;
+            }
+            return x.dictionary[x.codes[i]].compareTo(y.dictionary[y.codes[j]]);
+        }
+        return compareValues(a.get(i), b.get(j));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object x, Object y) {
+        int c = Integer.compare(rank(x), rank(y));
+        if (c != 0) {
+            return c;
+        }
+        if (x instanceof Number n && y instanceof Number m) {
+            c = isIntegral(x) && isIntegral(y) ? Long.compare(n.longValue(), m.longValue())
+                    : Double.compare(n.doubleValue(), m.doubleValue());
+            return c != 0 ? c : x.getClass().getName().compareTo(y.getClass().getName());
+        }
+        if (x instanceof Boolean p && y instanceof Boolean q) {
+            return Boolean.compare(p, q);
+        }
+        if (x instanceof String s && y instanceof String t) {
+            return s.compareTo(t);
+        }
+        c = x.getClass().getName().compareTo(y.getClass().getName());
+        if (c != 0) {
+            return c;
+        }
+        if (x instanceof Comparable) {
+            return ((Comparable<Object>) x).compareTo(y);
+        }
+        throw new IllegalArgumentException("The keys of type " + x.getClass().getName() + " cannot be compared.");
+    }
+
+    /**
+     * Tells whether a value is a boxed integer that a long holds exactly, so that it compares by its long value.
+     *
+     * @param value The value.
+     * @return True for an Integer, Long, Short or Byte.
+     */
+    static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    private static int rank(Object value) {
+        if (value instanceof Number) {
+            return 0;
+        }
+        if (value instanceof Boolean) {
+            return 1;
+        }
+        return value instanceof String ? 2 : 3;
+    }
+}
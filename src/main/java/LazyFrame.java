@@ -0,0 +1,447 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A query on a DataFrame or a CSV file, recorded as a plan instead of being run step by step.
+ * {@link #filter(Predicate)}, {@link #loc(String[])}, {@link #iloc(int[])} and {@link #groupby(String, String)}
+ * only add a step to the plan; {@link #collect()} optimizes the plan and runs it:
+ * <ul>
+ *     <li>the columns no step needs are pruned, down to the CSV scan, which parses only the remaining ones;</li>
+ *     <li>projections and row selections never copy a column: they relabel the columns and narrow a vector of
+ *     row indices, so predicates are evaluated on the scanned columns, below every projection;</li>
+ *     <li>the columns are copied once, at the end, or before a groupby, which only copies the columns it uses.</li>
+ * </ul>
+ * The result, and the exceptions thrown, are those of the same calls made on a DataFrame.
+ */
+public class LazyFrame {
+    private final LazyFrame input;
+    private final Step step;
+
+    /**
+     * Constructs a LazyFrame reading a csv file, which is only read by {@link #collect()}.
+     *
+     * @param filepath The path to the csv file.
+     */
+    public LazyFrame(String filepath) {
+        this(filepath, ",");
+    }
+
+    /**
+     * Constructs a LazyFrame reading a csv file and a delimiter, which is only read by {@link #collect()}.
+     * Only the columns the query needs are parsed, unless the delimiter contains regular expression
+     * metacharacters, in which case the whole file is read as {@link DataFrame#DataFrame(String, String)} reads it.
+     *
+     * @param filepath  The path to the csv file.
+     * @param delimiter The Delimiter to split the csv columns.
+     */
+    public LazyFrame(String filepath, String delimiter) {
+        this(null, new Scan(filepath, delimiter));
+    }
+
+    /**
+     * Constructs a LazyFrame querying a DataFrame.
+     *
+     * @param frame The DataFrame to query.
+     */
+    public LazyFrame(DataFrame frame) {
+        this(null, new Source(frame));
+    }
+
+    private LazyFrame(LazyFrame input, Step step) {
+        this.input = input;
+        this.step = step;
+    }
+
+    /**
+     * Adds a filter to the query, as {@link DataFrame#filter(Predicate)}.
+     *
+     * @param predicate The condition the rows must match.
+     * @return The query with the filter.
+     */
+    public LazyFrame filter(Predicate predicate) {
+        return new LazyFrame(this, new Filter(predicate));
+    }
+
+    /**
+     * Adds a selection of columns to the query, as {@link DataFrame#loc(String[])}.
+     *
+     * @param lab An array of labels indicating which columns to select.
+     * @return The query with the selection.
+     */
+    public LazyFrame loc(String[] lab) {
+        return new LazyFrame(this, new Project(lab.clone()));
+    }
+
+    /**
+     * Adds a selection of rows to the query, as {@link DataFrame#iloc(int[])}.
+     *
+     * @param indices An array of indices indicating which rows to select.
+     * @return The query with the selection.
+     */
+    public LazyFrame iloc(int[] indices) {
+        return new LazyFrame(this, new Rows(indices.clone()));
+    }
+
+    /**
+     * Adds a grouping to the query, as {@link DataFrame#groupby(String, String)}.
+     *
+     * @param label  The label column to group by.
+     * @param option The aggregation option: "mean", "sum", "min", "max", "count", "var", "std", "first" or "last".
+     * @return The query with the grouping.
+     * @throws IllegalArgumentException If the option provided is not one of the above.
+     */
+    public LazyFrame groupby(String label, String option) {
+        return groupby(label, Aggregation.of(option));
+    }
+
+    /**
+     * Adds a grouping to the query, as {@link DataFrame#groupby(String, Aggregator)}.
+     *
+     * @param label      The label column to group by.
+     * @param aggregator The aggregator applied to the other columns.
+     * @return The query with the grouping.
+     */
+    public LazyFrame groupby(String label, Aggregator aggregator) {
+        return new LazyFrame(this, new GroupBy(label, aggregator));
+    }
+
+    /**
+     * Runs the query.
+     *
+     * @return The DataFrame the same calls on a DataFrame would return.
+     * @throws IllegalArgumentException if a step uses a column that does not exist.
+     * @throws IndexOutOfBoundsException if a row selection is out of range.
+     */
+    public DataFrame collect() {
+        Step[] steps = steps();
+        List<Set<String>> needed = needed(steps);
+        State state = null;
+        for (int i = 0; i < steps.length; i++) {
+            state = steps[i].run(state, needed.get(i));
+        }
+        return state.materialize(state.labels);
+    }
+
+    /**
+     * Describes the optimized plan, one step per line from the source to the result.
+     * The source lists the columns it reads, or * when it reads them all.
+     *
+     * @return The description of the plan.
+     */
+    public String explain() {
+        Step[] steps = steps();
+        List<Set<String>> needed = needed(steps);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < steps.length; i++) {
+            sb.append(steps[i].describe(needed.get(i))).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the steps of the plan, from the source to this step.
+     */
+    private Step[] steps() {
+        ArrayList<Step> steps = new ArrayList<>();
+        for (LazyFrame frame = this; frame != null; frame = frame.input) {
+            steps.add(frame.step);
+        }
+        Collections.reverse(steps);
+        return steps.toArray(new Step[0]);
+    }
+
+    /**
+     * Computes, from the result down to the source, the columns each step needs from its input:
+     * null when it needs all of them.
+     */
+    private static List<Set<String>> needed(Step[] steps) {
+        ArrayList<Set<String>> needed = new ArrayList<>(Collections.nCopies(steps.length, null));
+        Set<String> above = null;
+        for (int i = steps.length - 1; i >= 0; i--) {
+            above = steps[i].needed(above);
+            needed.set(i, above);
+        }
+        return needed;
+    }
+
+    /**
+     * The state of a query between two steps: visible columns of a base DataFrame, restricted to some of its rows.
+     */
+    private static final class State {
+        final DataFrame base;
+        /**
+         * The rows of the base, or null for all of them.
+         */
+        final int[] rows;
+        /**
+         * The labels of the columns visible at this step. Every label that a later step uses is a column of the base.
+         */
+        final ArrayList<String> labels;
+
+        State(DataFrame base, int[] rows, ArrayList<String> labels) {
+            this.base = base;
+            this.rows = rows;
+            this.labels = labels;
+        }
+
+        int rowCount() {
+            return rows == null ? base.getRowCount() : rows.length;
+        }
+
+        /**
+         * Copies the selected rows of some visible columns into a new DataFrame.
+         */
+        DataFrame materialize(ArrayList<String> labels) {
+            Column[] columns = new Column[labels.size()];
+            for (int i = 0; i < columns.length; i++) {
+                Column column = base.getColumn(labels.get(i));
+                columns[i] = rows == null ? column : column.take(rows);
+            }
+            return new DataFrame(new ArrayList<>(labels), columns);
+        }
+    }
+
+    private abstract static class Step {
+        /**
+         * Returns the columns this step needs from its input.
+         *
+         * @param above The columns the following steps need from this one, or null for all of them.
+         * @return The columns needed from the input, or null for all of them.
+         */
+        abstract Set<String> needed(Set<String> above);
+
+        /**
+         * Runs this step.
+         *
+         * @param state  The state of the query before this step, null for a source.
+         * @param needed The columns this step needs from its input, or null for all of them.
+         * @return The state of the query after this step.
+         */
+        abstract State run(State state, Set<String> needed);
+
+        abstract String describe(Set<String> needed);
+    }
+
+    private static final class Scan extends Step {
+        private final String filepath;
+        private final String delimiter;
+
+        Scan(String filepath, String delimiter) {
+            this.filepath = filepath;
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        Set<String> needed(Set<String> above) {
+            return above;
+        }
+
+        @Override
+        State run(State state, Set<String> needed) {
+            if (needed == null || !MappedCSVReader.supports(delimiter)) {
+                DataFrame frame = new DataFrame(filepath, delimiter);
+                return new State(frame, null, frame.getColumnLabels());
+            }
+            ArrayList<String> header = new ArrayList<>(Arrays.asList(
+                    new MappedCSVReader(filepath, delimiter).readHeader()));
+            ArrayList<String> read = new ArrayList<>();
+            for (String label : header) {
+                if (needed.contains(label) && !read.contains(label)) {
+                    read.add(label);
+                }
+            }
+            if (read.isEmpty()) {
+                // The query fails on an unknown column, possibly after checking a row selection against the row count
+                read.add(header.get(0));
+            }
+            DataFrame frame = new ParallelCSVReader(filepath, delimiter).readColumns(read.toArray(new String[0]));
+            return new State(frame, null, header);
+        }
+
+        @Override
+        String describe(Set<String> needed) {
+            return "Scan " + filepath + " " + (needed == null ? "*" : needed);
+        }
+    }
+
+    private static final class Source extends Step {
+        private final DataFrame frame;
+
+        Source(DataFrame frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        Set<String> needed(Set<String> above) {
+            return above;
+        }
+
+        @Override
+        State run(State state, Set<String> needed) {
+            return new State(frame, null, frame.getColumnLabels());
+        }
+
+        @Override
+        String describe(Set<String> needed) {
+            return "DataFrame " + (needed == null ? "*" : needed);
+        }
+    }
+
+    private static final class Filter extends Step {
+        private final Predicate predicate;
+
+        Filter(Predicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        Set<String> needed(Set<String> above) {
+            if (above == null) {
+                return null;
+            }
+            Set<String> needed = new LinkedHashSet<>(above);
+            predicate.columns(needed);
+            return needed;
+        }
+
+        @Override
+        State run(State state, Set<String> needed) {
+            Set<String> used = new LinkedHashSet<>();
+            predicate.columns(used);
+            for (String label : used) {
+                if (!state.labels.contains(label)) {
+                    throw new IllegalArgumentException("Column with label " + label + " does not exist.");
+                }
+            }
+            int count = state.rowCount();
+            int[] selected = new int[count];
+            for (int i = 0; i < count; i++) {
+                selected[i] = state.rows == null ? i : state.rows[i];
+            }
+            count = predicate.retain(state.base, selected, count);
+            return new State(state.base, Arrays.copyOf(selected, count), state.labels);
+        }
+
+        @Override
+        String describe(Set<String> needed) {
+            Set<String> used = new LinkedHashSet<>();
+            predicate.columns(used);
+            return "Filter " + used;
+        }
+    }
+
+    private static final class Project extends Step {
+        private final String[] lab;
+
+        Project(String[] lab) {
+            this.lab = lab;
+        }
+
+        @Override
+        Set<String> needed(Set<String> above) {
+            Set<String> needed = new LinkedHashSet<>(Arrays.asList(lab));
+            if (above != null) {
+                needed.retainAll(above);
+            }
+            return needed;
+        }
+
+        @Override
+        State run(State state, Set<String> needed) {
+            if (lab.length == 0) {
+                throw new IllegalArgumentException("Input data is empty");
+            }
+            for (String l : lab) {
+                if (!state.labels.contains(l)) {
+                    throw new IllegalArgumentException("Invalid input data : column " + l + " is not in DataFrame");
+                }
+            }
+            return new State(state.base, state.rows, new ArrayList<>(Arrays.asList(lab)));
+        }
+
+        @Override
+        String describe(Set<String> needed) {
+            return "Project " + Arrays.toString(lab);
+        }
+    }
+
+    private static final class Rows extends Step {
+        private final int[] indices;
+
+        Rows(int[] indices) {
+            this.indices = indices;
+        }
+
+        @Override
+        Set<String> needed(Set<String> above) {
+            return above;
+        }
+
+        @Override
+        State run(State state, Set<String> needed) {
+            if (indices.length == 0) {
+                throw new IllegalArgumentException();
+            }
+            int rowCount = state.rowCount();
+            int[] rows = new int[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                int idx = indices[i];
+                if (idx < 0 || idx >= rowCount) {
+                    throw new IndexOutOfBoundsException("Index " + idx + " is out of range.");
+                }
+                rows[i] = state.rows == null ? idx : state.rows[idx];
+            }
+            return new State(state.base, rows, state.labels);
+        }
+
+        @Override
+        String describe(Set<String> needed) {
+            return "Rows " + indices.length;
+        }
+    }
+
+    private static final class GroupBy extends Step {
+        private final String label;
+        private final Aggregator aggregator;
+
+        GroupBy(String label, Aggregator aggregator) {
+            this.label = label;
+            this.aggregator = aggregator;
+        }
+
+        @Override
+        Set<String> needed(Set<String> above) {
+            if (above == null) {
+                return null;
+            }
+            Set<String> needed = new LinkedHashSet<>();
+            needed.add(label);
+            needed.addAll(above);
+            return needed;
+        }
+
+        @Override
+        State run(State state, Set<String> needed) {
+            if (!state.labels.contains(label)) {
+                throw new IllegalArgumentException("Column with label " + label + " does not exist.");
+            }
+            ArrayList<String> used = new ArrayList<>();
+            for (String l : state.labels) {
+                if (needed == null || needed.contains(l)) {
+                    used.add(l);
+                }
+            }
+            DataFrame frame = state.materialize(used).groupby(label, aggregator);
+            return new State(frame, null, frame.getColumnLabels());
+        }
+
+        @Override
+        String describe(Set<String> needed) {
+            return "GroupBy " + label + " " + (needed == null ? "*" : needed);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Reads a CSV file into typed columns by memory-mapping it and scanning its raw bytes.
+ * Unlike {@link CSVReader}, no regular expression is involved and numeric fields are parsed straight
+ * from the bytes, so only string fields ever become String objects.
+ * Fields are typed the same way as {@link CSVReader#nextLine()} types them. Trailing carriage returns
+ * and blank lines are ignored, and rows shorter than the header are completed with empty strings.
+ */
+public class MappedCSVReader {
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final String filename;
+    private final byte[] delimiter;
+    private final long windowSize;
+
+    private final FieldParser parser = new FieldParser();
+    private byte[] line = new byte[256];
+    /**
+     * The number of leading fields of a line to scan: the fields after the last read column are ignored.
+     */
+    private int width;
+
+    /**
+     * Constructs a MappedCSVReader object to read from the specified file with the default delimiter.
+     *
+     * @param filename The name of the CSV file to read from.
+     */
+    public MappedCSVReader(String filename) {
+        this(filename, ",");
+    }
+
+    /**
+     * Constructs a MappedCSVReader object to read from the specified file with a custom delimiter.
+     *
+     * @param filename  The name of the CSV file to read from.
+     * @param delimiter The delimiter used to separate fields in the CSV file, taken literally.
+     * @throws IllegalArgumentException if the delimiter is empty.
+     */
+    public MappedCSVReader(String filename, String delimiter) {
+        this(filename, delimiter, WINDOW_SIZE);
+    }
+
+    MappedCSVReader(String filename, String delimiter, long windowSize) {
+        if (delimiter.isEmpty()) {
+            throw new IllegalArgumentException("The delimiter must not be empty.");
+        }
+        this.filename = filename;
+        this.delimiter = delimiter.getBytes(StandardCharsets.UTF_8);
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Indicates whether a delimiter means the same thing to this reader and to {@link CSVReader},
+     * which interprets it as a regular expression.
+     *
+     * @param delimiter The delimiter to check.
+     * @return true if the delimiter contains no regular expression metacharacter.
+     */
+    public static boolean supports(String delimiter) {
+        if (delimiter.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(delimiter.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the whole file. The first line holds the column labels.
+     *
+     * @return A DataFrame holding the content of the file.
+     * @throws IllegalArgumentException if the file has no header line.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public DataFrame read() {
+        return read(null);
+    }
+
+    /**
+     * Reads some columns of the file. The fields of the other columns are skipped without being parsed,
+     * and the scan of a line stops after the last selected column.
+     *
+     * @param labels The labels of the columns to read, in the order they should appear.
+     * @return A DataFrame holding the selected columns.
+     * @throws IllegalArgumentException if the file has no header line, no label is given or a label does not exist.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public DataFrame readColumns(String... labels) {
+        if (labels.length == 0) {
+            throw new IllegalArgumentException("Input data is empty");
+        }
+        return read(labels);
+    }
+
+    /**
+     * Reads the first non-blank line of the file only.
+     *
+     * @return The column labels.
+     * @throws IllegalArgumentException if the file has no header line.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    String[] readHeader() {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            int limit = (int) Math.min(windowSize, channel.size());
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, limit);
+            int start = 0;
+            for (int i = 0; i <= limit; i++) {
+                if (i < limit && buffer.get(i) != '\n') {
+                    continue;
+                }
+                String[] labels = readLine(buffer, start, i, null, null);
+                if (labels != null) {
+                    return labels;
+                }
+                start = i + 1;
+            }
+            throw new IllegalArgumentException("Incorrect input data format.");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private DataFrame read(String[] selected) {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            String[] labels = null;
+            ColumnBuilder[] builders = null;
+
+            while (position < size) {
+                long length = Math.min(windowSize, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int start = 0;
+                int limit = (int) length;
+                for (int i = 0; i < limit; i++) {
+                    if (buffer.get(i) != '\n') {
+                        continue;
+                    }
+                    labels = readLine(buffer, start, i, labels, builders);
+                    if (builders == null && labels != null) {
+                        builders = newBuilders(labels, selected);
+                    }
+                    start = i + 1;
+                }
+                if (last) {
+                    labels = readLine(buffer, start, limit, labels, builders);
+                    if (builders == null && labels != null) {
+                        builders = newBuilders(labels, selected);
+                    }
+                    start = limit;
+                } else if (start == 0) {
+                    throw new IllegalStateException("Line longer than " + windowSize + " bytes in " + filename);
+                }
+                position += start;
+            }
+
+            if (labels == null) {
+                throw new IllegalArgumentException("Incorrect input data format.");
+            }
+            Column[] columns = new Column[builders.length];
+            for (int i = 0; i < builders.length; i++) {
+                if (builders[i] != null) {
+                    columns[i] = builders[i].build();
+                }
+            }
+            if (selected == null) {
+                return new DataFrame(new ArrayList<>(Arrays.asList(labels)), columns);
+            }
+            Column[] res = new Column[selected.length];
+            for (int i = 0; i < selected.length; i++) {
+                res[i] = columns[Arrays.asList(labels).indexOf(selected[i])];
+            }
+            return new DataFrame(new ArrayList<>(Arrays.asList(selected)), res);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a builder for every selected column, or for every column if selected is null, and none for the others.
+     */
+    private ColumnBuilder[] newBuilders(String[] labels, String[] selected) {
+        ColumnBuilder[] builders = new ColumnBuilder[labels.length];
+        if (selected == null) {
+            for (int i = 0; i < labels.length; i++) {
+                builders[i] = new ColumnBuilder();
+            }
+            width = labels.length;
+            return builders;
+        }
+        width = 0;
+        for (String label : selected) {
+            int i = Arrays.asList(labels).indexOf(label);
+            if (i < 0) {
+                throw new IllegalArgumentException("Column with label " + label + " does not exist.");
+            }
+            builders[i] = new ColumnBuilder();
+            width = Math.max(width, i + 1);
+        }
+        return builders;
+    }
+
+    /**
+     * Parses the line held in buffer[start, end). The first non-blank line gives the labels,
+     * the following ones are appended to the builders.
+     *
+     * @return The labels, read from this line if they were not known yet.
+     */
+    private String[] readLine(MappedByteBuffer buffer, int start, int end, String[] labels, ColumnBuilder[] builders) {
+        int length = end - start;
+        if (length > 0 && buffer.get(end - 1) == '\r') {
+            length--;
+        }
+        if (length == 0) {
+            return labels;
+        }
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        buffer.get(start, line, 0, length);
+
+        if (labels == null) {
+            return splitHeader(line, length, delimiter);
+        }
+
+        int fieldStart = 0;
+        int column = 0;
+        while (column < width && fieldStart <= length) {
+            int fieldEnd = nextDelimiter(line, fieldStart, length, delimiter);
+            if (builders[column] != null) {
+                appendField(builders[column], fieldStart, fieldEnd);
+            }
+            fieldStart = fieldEnd + delimiter.length;
+            column++;
+        }
+        for (; column < width; column++) {
+            if (builders[column] != null) {
+                builders[column].append("");
+            }
+        }
+        return labels;
+    }
+
+    private void appendField(ColumnBuilder builder, int start, int end) {
+        switch (parser.classify(line, start, end)) {
+            case INT -> builder.appendInt(parser.intValue);
+            case DOUBLE -> builder.appendDouble(parser.doubleValue);
+            default -> builder.append(new String(line, start, end - start, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Splits a header line into its labels.
+     *
+     * @param line      The buffer holding the line.
+     * @param length    The length of the line.
+     * @param delimiter The delimiter bytes.
+     * @return The labels.
+     */
+    static String[] splitHeader(byte[] line, int length, byte[] delimiter) {
+        ArrayList<String> header = new ArrayList<>();
+        int fieldStart = 0;
+        for (int i = nextDelimiter(line, 0, length, delimiter); ; i = nextDelimiter(line, fieldStart, length, delimiter)) {
+            header.add(new String(line, fieldStart, i - fieldStart, StandardCharsets.UTF_8));
+            if (i == length) {
+                break;
+            }
+            fieldStart = i + delimiter.length;
+        }
+        return header.toArray(new String[0]);
+    }
+
+    /**
+     * Finds the next occurrence of the delimiter in a line.
+     *
+     * @param line      The buffer holding the line.
+     * @param from      The index to start searching from.
+     * @param length    The length of the line.
+     * @param delimiter The delimiter bytes.
+     * @return The index of the delimiter, or length if there is none.
+     */
+    static int nextDelimiter(byte[] line, int from, int length, byte[] delimiter) {
+        byte first = delimiter[0];
+        for (int i = from; i <= length - delimiter.length; i++) {
+            if (line[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < delimiter.length && line[i + j] == delimiter[j]) {
+                j++;
+            }
+            if (j == delimiter.length) {
+                return i;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * The native memory holding the off-heap columns of a DataFrame, as {@link DataFrame#offHeap()} allocates it.
+ * Its only implementation, OffHeapMemory, uses the incubating Foreign Memory API of JDK 17 and is compiled from
+ * src/main/java17 by the jdk17 profile of the pom, so that the rest of the library builds on any JDK from 17 up.
+ */
+interface NativeMemory extends AutoCloseable {
+
+    /**
+     * Copies a column to native memory, if its type can be stored there.
+     *
+     * @param column The column.
+     * @return The off-heap column, or the column itself.
+     */
+    Column store(Column column);
+
+    /**
+     * Releases the native memory of the columns. Closing it again does nothing.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,97 @@
+import java.util.BitSet;
+
+/**
+ * A column of boxed values, used when the cells of a column do not share a single primitive type.
+ */
+public class ObjectColumn extends Column {
+    Object[] values;
+
+    /**
+     * Constructs an object column.
+     *
+     * @param values The values of the column. Missing cells hold null.
+     * @param size   The number of cells in use.
+     */
+    public ObjectColumn(Object[] values, int size) {
+        super(size, nullsOf(values, size));
+        this.values = values;
+    }
+
+    /**
+     * Constructs an object column whose null bitmap is already known.
+     *
+     * @param values The values of the column. Missing cells hold null.
+     * @param size   The number of cells in use.
+     * @param nulls  The bitmap of the missing cells.
+     */
+    ObjectColumn(Object[] values, int size, BitSet nulls) {
+        super(size, nulls);
+        this.values = values;
+    }
+
+    private static BitSet nullsOf(Object[] values, int size) {
+        BitSet nulls = new BitSet();
+        for (int i = 0; i < size; i++) {
+            if (values[i] == null) {
+                nulls.set(i);
+            }
+        }
+        return nulls;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.OBJECT;
+    }
+
+    /**
+     * An object column is numeric when it holds at least one value and all of its values are numbers.
+     *
+     * @return true if numerical operations apply to this column.
+     */
+    @Override
+    public boolean isNumeric() {
+        boolean found = false;
+        for (int i = 0; i < size; i++) {
+            if (values[i] != null) {
+                if (!(values[i] instanceof Number)) {
+                    return false;
+                }
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Estimates the memory of the references and of the values, counting 16 bytes per boxed value.
+     *
+     * @return The size of the column, in bytes.
+     */
+    @Override
+    public long getMemoryBytes() {
+        return 8L * values.length + 16L * (size - nullCount()) + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return ((Number) values[row]).doubleValue();
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        Object[] res = new Object[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                res[i] = values[row];
+            }
+        }
+        return new ObjectColumn(res, rows.length);
+    }
+}
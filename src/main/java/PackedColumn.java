@@ -0,0 +1,216 @@
+import java.util.BitSet;
+
+/**
+ * A column of ints or longs stored with bit packing: each value is stored as its difference from the minimum of
+ * the column, on as many bits as the largest difference needs, so a column of ages or of status codes takes a few
+ * bits per cell instead of 32 or 64. Missing cells are stored as the minimum.
+ */
+public class PackedColumn extends CodedColumn {
+    /**
+     * The largest range whose values are built as a domain.
+     */
+    private static final long DOMAIN_LIMIT = 1 << 16;
+
+    private final ColumnType type;
+    private final long base;
+    private final long range;
+    private final int bits;
+    private final long[] words;
+
+    private PackedColumn(ColumnType type, long base, long range, int size, BitSet nulls) {
+        super(size, nulls);
+        this.type = type;
+        this.base = base;
+        this.range = range;
+        this.bits = width(range);
+        this.words = new long[(int) (((long) size * bits + 63) >>> 6)];
+    }
+
+    /**
+     * Packs an int or long column.
+     *
+     * @param column The column.
+     * @return The packed column.
+     * @throws IllegalArgumentException if the column does not hold ints or longs.
+     */
+    public static PackedColumn of(Column column) {
+        ColumnType type = column.getType();
+        if (type != ColumnType.INT && type != ColumnType.LONG) {
+            throw new IllegalArgumentException("Only int and long columns can be packed.");
+        }
+        int n = column.size();
+        long[] minMax = minMax(column, 0, n);
+        PackedColumn res = new PackedColumn(type, minMax[0], minMax[1] - minMax[0], n, column.nulls);
+        for (int row = 0; row < n; row++) {
+            if (!column.isNull(row)) {
+                write(res.words, (long) row * res.bits, res.bits, column.getLong(row) - res.base);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Packs codes lower than a given bound.
+     *
+     * @param codes The codes.
+     * @param size  The number of codes.
+     * @param bound The bound of the codes.
+     * @return The packed codes, as an int column.
+     */
+    static PackedColumn codes(int[] codes, int size, int bound) {
+        PackedColumn res = new PackedColumn(ColumnType.INT, 0, Math.max(0, bound - 1), size, null);
+        for (int row = 0; row < size; row++) {
+            write(res.words, (long) row * res.bits, res.bits, codes[row]);
+        }
+        return res;
+    }
+
+    /**
+     * Estimates the memory a packed copy of a column would take.
+     *
+     * @param column An int or long column.
+     * @return The estimated size, in bytes.
+     */
+    static long packedBytes(Column column) {
+        long[] minMax = minMax(column, 0, column.size());
+        return ((long) column.size() * width(minMax[1] - minMax[0]) + 63) / 64 * 8 + column.nullBytes();
+    }
+
+    /**
+     * Returns the lowest and the highest non-null values of a range of rows, or zeros if they are all null.
+     */
+    static long[] minMax(Column column, int from, int to) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int row = from; row < to; row++) {
+            if (!column.isNull(row)) {
+                long v = column.getLong(row);
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+        }
+        return min > max ? new long[]{0, 0} : new long[]{min, max};
+    }
+
+    /**
+     * Returns the number of bits holding an unsigned value.
+     */
+    static int width(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Reads an unsigned value stored on the given number of bits from the given bit.
+     */
+    static long read(long[] words, long bit, int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        long value = words[word] >>> shift;
+        if (shift + bits > 64) {
+            value |= words[word + 1] << (64 - shift);
+        }
+        return bits == 64 ? value : value & ((1L << bits) - 1);
+    }
+
+    /**
+     * Writes an unsigned value on the given number of bits from the given bit, which must all be clear.
+     */
+    static void write(long[] words, long bit, int bits, long value) {
+        if (bits == 0) {
+            return;
+        }
+        int word = (int) (bit >>> 6);
+        int shift = (int) (bit & 63);
+        words[word] |= value << shift;
+        if (shift + bits > 64) {
+            words[word + 1] |= value >>> (64 - shift);
+        }
+    }
+
+    private long value(int row) {
+        return base + read(words, (long) row * bits, bits);
+    }
+
+    @Override
+    public ColumnType getType() {
+        return type;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return 8L * words.length + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return type == ColumnType.INT ? (Object) (int) value(row) : (Object) value(row);
+    }
+
+    @Override
+    public int getInt(int row) {
+        return (int) value(row);
+    }
+
+    @Override
+    public long getLong(int row) {
+        return value(row);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return value(row);
+    }
+
+    @Override
+    int code(int row) {
+        return (int) read(words, (long) row * bits, bits);
+    }
+
+    @Override
+    Column domain() {
+        if (Long.compareUnsigned(range, DOMAIN_LIMIT) >= 0) {
+            return null;
+        }
+        int n = (int) range + 1;
+        if (type == ColumnType.INT) {
+            int[] values = new int[n];
+            for (int code = 0; code < n; code++) {
+                values[code] = (int) (base + code);
+            }
+            return new IntColumn(values, n, null);
+        }
+        long[] values = new long[n];
+        for (int code = 0; code < n; code++) {
+            values[code] = base + code;
+        }
+        return new LongColumn(values, n, null);
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        if (type == ColumnType.INT) {
+            int[] res = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                int row = rows[i];
+                if (row >= 0 && !isNull(row)) {
+                    res[i] = (int) value(row);
+                }
+            }
+            return new IntColumn(res, rows.length, takeNulls(rows));
+        }
+        long[] res = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (row >= 0 && !isNull(row)) {
+                res[i] = value(row);
+            }
+        }
+        return new LongColumn(res, rows.length, takeNulls(rows));
+    }
+}
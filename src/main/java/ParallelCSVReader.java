@@ -0,0 +1,477 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads a CSV file into typed columns on all the workers of a ForkJoinPool.
+ * The file is split into byte ranges aligned on line boundaries. The rows of every range are first
+ * counted in parallel, which gives each range its offset in the final columns; every range is then
+ * parsed in parallel straight into its slice of the final primitive arrays, so no per-range column
+ * ever has to be copied into the result.
+ * The column types are guessed from the first rows of the file. A cell that does not match the guessed
+ * type of its column turns the column into an {@link ObjectColumn}, so the result is exactly the one
+ * {@link MappedCSVReader} would produce. Files smaller than a single range are read by
+ * {@link MappedCSVReader} directly.
+ */
+public class ParallelCSVReader {
+    private static final long CHUNK_SIZE = 8L << 20;
+    private static final int SAMPLE_ROWS = 1000;
+
+    private final String filename;
+    private final String delimiterString;
+    private final byte[] delimiter;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+
+    private ColumnType[] types;
+    /**
+     * The number of leading fields of a line to scan: the fields after the last read column are ignored.
+     */
+    private int width;
+    private int[][] ints;
+    private double[][] doubles;
+    private Object[][] objects;
+
+    /**
+     * Constructs a ParallelCSVReader object reading the specified file on the common ForkJoinPool.
+     *
+     * @param filename  The name of the CSV file to read from.
+     * @param delimiter The delimiter used to separate fields in the CSV file, taken literally.
+     */
+    public ParallelCSVReader(String filename, String delimiter) {
+        this(filename, delimiter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ParallelCSVReader object reading the specified file on the given pool.
+     *
+     * @param filename  The name of the CSV file to read from.
+     * @param delimiter The delimiter used to separate fields in the CSV file, taken literally.
+     * @param pool      The pool whose workers parse the file.
+     */
+    public ParallelCSVReader(String filename, String delimiter, ForkJoinPool pool) {
+        this(filename, delimiter, pool, CHUNK_SIZE);
+    }
+
+    ParallelCSVReader(String filename, String delimiter, ForkJoinPool pool, long chunkSize) {
+        if (delimiter.isEmpty()) {
+            throw new IllegalArgumentException("The delimiter must not be empty.");
+        }
+        this.filename = filename;
+        this.delimiterString = delimiter;
+        this.delimiter = delimiter.getBytes(StandardCharsets.UTF_8);
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the whole file. The first line holds the column labels.
+     *
+     * @return A DataFrame holding the content of the file.
+     * @throws IllegalArgumentException if the file has no header line.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public DataFrame read() {
+        return read(null);
+    }
+
+    /**
+     * Reads some columns of the file. The fields of the other columns are skipped without being parsed,
+     * and the scan of a line stops after the last selected column.
+     *
+     * @param labels The labels of the columns to read, in the order they should appear.
+     * @return A DataFrame holding the selected columns.
+     * @throws IllegalArgumentException if the file has no header line, no label is given or a label does not exist.
+     * @throws RuntimeException if the file cannot be read.
+     */
+    public DataFrame readColumns(String... labels) {
+        if (labels.length == 0) {
+            throw new IllegalArgumentException("Input data is empty");
+        }
+        return read(labels);
+    }
+
+    private DataFrame read(String[] selected) {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= chunkSize) {
+                return readMapped(selected);
+            }
+            Chunk header = new Chunk(channel, 0, Math.min(size, Integer.MAX_VALUE));
+            String[] labels = header.readHeader();
+            if (labels == null) {
+                return readMapped(selected);
+            }
+            List<Chunk> chunks = split(channel, header.dataStart, size);
+            if (chunks.isEmpty()) {
+                return readMapped(selected);
+            }
+            boolean[] parsed = new boolean[labels.length];
+            width = 0;
+            for (int c = 0; c < labels.length; c++) {
+                parsed[c] = selected == null;
+            }
+            if (selected != null) {
+                for (String label : selected) {
+                    int c = Arrays.asList(labels).indexOf(label);
+                    if (c < 0) {
+                        throw new IllegalArgumentException("Column with label " + label + " does not exist.");
+                    }
+                    parsed[c] = true;
+                }
+            }
+            for (int c = 0; c < labels.length; c++) {
+                if (parsed[c]) {
+                    width = c + 1;
+                }
+            }
+            guessTypes(chunks.get(0), parsed);
+
+            ParallelTasks.invokeAll(pool, tasks(chunks, Chunk::countRows));
+            int rowCount = 0;
+            for (Chunk chunk : chunks) {
+                chunk.rowOffset = rowCount;
+                rowCount = Math.addExact(rowCount, chunk.rows);
+            }
+            allocate(rowCount);
+            ParallelTasks.invokeAll(pool, tasks(chunks, Chunk::parse));
+
+            Column[] columns = new Column[labels.length];
+            for (int c = 0; c < labels.length; c++) {
+                if (parsed[c]) {
+                    columns[c] = finish(c, chunks, rowCount);
+                }
+            }
+            if (selected == null) {
+                return new DataFrame(new ArrayList<>(Arrays.asList(labels)), columns);
+            }
+            Column[] res = new Column[selected.length];
+            for (int i = 0; i < selected.length; i++) {
+                res[i] = columns[Arrays.asList(labels).indexOf(selected[i])];
+            }
+            return new DataFrame(new ArrayList<>(Arrays.asList(selected)), res);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private DataFrame readMapped(String[] selected) {
+        MappedCSVReader reader = new MappedCSVReader(filename, delimiterString);
+        return selected == null ? reader.read() : reader.readColumns(selected);
+    }
+
+    private List<ForkJoinTask<?>> tasks(List<Chunk> chunks, ChunkAction action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                try {
+                    action.run(chunk);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        return tasks;
+    }
+
+    /**
+     * Splits [start, size) into ranges of about chunkSize bytes, each ending just after a newline.
+     */
+    private List<Chunk> split(FileChannel channel, long start, long size) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(64 * 1024);
+        while (start < size) {
+            long end = start + chunkSize;
+            if (end >= size) {
+                end = size;
+            } else {
+                end = nextLineStart(channel, end, size, probe);
+            }
+            chunks.add(new Chunk(channel, start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Guesses the type of every parsed column from the first rows of the file: INT, DOUBLE or STRING when
+     * all the sampled cells agree, OBJECT otherwise. The type of a skipped column stays null.
+     */
+    private void guessTypes(Chunk first, boolean[] parsed) throws IOException {
+        types = new ColumnType[parsed.length];
+        ColumnType[] sampled = new ColumnType[parsed.length];
+        first.forEachLine(SAMPLE_ROWS, (line, length) -> {
+            int fieldStart = 0;
+            for (int c = 0; c < width; c++) {
+                ColumnType type = ColumnType.STRING;
+                if (fieldStart <= length) {
+                    int fieldEnd = MappedCSVReader.nextDelimiter(line, fieldStart, length, delimiter);
+                    if (parsed[c]) {
+                        type = first.parser.classify(line, fieldStart, fieldEnd);
+                    }
+                    fieldStart = fieldEnd + delimiter.length;
+                }
+                if (sampled[c] == null) {
+                    sampled[c] = type;
+                } else if (sampled[c] != type) {
+                    sampled[c] = ColumnType.OBJECT;
+                }
+            }
+        });
+        for (int c = 0; c < parsed.length; c++) {
+            if (parsed[c]) {
+                types[c] = sampled[c] == null ? ColumnType.OBJECT : sampled[c];
+            }
+        }
+    }
+
+    private void allocate(int rowCount) {
+        ints = new int[types.length][];
+        doubles = new double[types.length][];
+        objects = new Object[types.length][];
+        for (int c = 0; c < types.length; c++) {
+            if (types[c] == null) {
+                continue;
+            }
+            switch (types[c]) {
+                case INT, STRING -> ints[c] = new int[rowCount];
+                case DOUBLE -> doubles[c] = new double[rowCount];
+                default -> objects[c] = new Object[rowCount];
+            }
+        }
+    }
+
+    /**
+     * Builds the final column c once every chunk has written its slice.
+     */
+    private Column finish(int c, List<Chunk> chunks, int rowCount) {
+        Column column = switch (types[c]) {
+            case INT -> new IntColumn(ints[c], rowCount, null);
+            case DOUBLE -> new DoubleColumn(doubles[c], rowCount, null);
+            case STRING -> new StringColumn(ints[c], rowCount, mergeDictionaries(c, chunks), null);
+            default -> new ObjectColumn(objects[c], rowCount);
+        };
+
+        BitSet conflicts = new BitSet();
+        for (Chunk chunk : chunks) {
+            for (int row : chunk.conflictRows.get(c)) {
+                conflicts.set(row);
+            }
+        }
+        if (conflicts.isEmpty()) {
+            return column;
+        }
+        Object[] boxed = new Object[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            if (!conflicts.get(i)) {
+                boxed[i] = column.get(i);
+            }
+        }
+        for (Chunk chunk : chunks) {
+            ArrayList<Integer> rows = chunk.conflictRows.get(c);
+            ArrayList<Object> values = chunk.conflictValues.get(c);
+            for (int i = 0; i < rows.size(); i++) {
+                boxed[rows.get(i)] = values.get(i);
+            }
+        }
+        return new ObjectColumn(boxed, rowCount);
+    }
+
+    /**
+     * Merges the dictionaries built by the chunks for the string column c, in file order,
+     * and rewrites the codes of every chunk in parallel.
+     */
+    private String[] mergeDictionaries(int c, List<Chunk> chunks) {
+        HashMap<String, Integer> global = new HashMap<>();
+        ArrayList<String> dictionary = new ArrayList<>();
+        List<ForkJoinTask<?>> remaps = new ArrayList<>();
+        int[] codes = ints[c];
+        for (Chunk chunk : chunks) {
+            ArrayList<String> local = chunk.dictionaries.get(c);
+            int[] toGlobal = new int[local.size()];
+            for (int i = 0; i < local.size(); i++) {
+                Integer code = global.get(local.get(i));
+                if (code == null) {
+                    code = dictionary.size();
+                    global.put(local.get(i), code);
+                    dictionary.add(local.get(i));
+                }
+                toGlobal[i] = code;
+            }
+            if (toGlobal.length == 0) {
+                continue;
+            }
+            remaps.add(ForkJoinTask.adapt(() -> {
+                for (int row = chunk.rowOffset; row < chunk.rowOffset + chunk.rows; row++) {
+                    codes[row] = toGlobal[codes[row]];
+                }
+            }));
+        }
+        ParallelTasks.invokeAll(pool, remaps);
+        return dictionary.toArray(new String[0]);
+    }
+
+    private interface ChunkAction {
+        void run(Chunk chunk) throws IOException;
+    }
+
+    private interface LineConsumer {
+        void accept(byte[] line, int length);
+    }
+
+    /**
+     * A byte range of the file, holding the state of the worker that parses it.
+     */
+    private class Chunk {
+        final FileChannel channel;
+        final long start;
+        final long end;
+        final FieldParser parser = new FieldParser();
+        byte[] line = new byte[256];
+        long dataStart;
+        int rows;
+        int rowOffset;
+        final ArrayList<HashMap<String, Integer>> codes = new ArrayList<>();
+        final ArrayList<ArrayList<String>> dictionaries = new ArrayList<>();
+        final ArrayList<ArrayList<Integer>> conflictRows = new ArrayList<>();
+        final ArrayList<ArrayList<Object>> conflictValues = new ArrayList<>();
+
+        Chunk(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Reads the first non-blank line of the range as the header and remembers where the data starts.
+         */
+        String[] readHeader() throws IOException {
+            String[][] header = new String[1][];
+            long[] consumed = new long[1];
+            forEachLine(1, consumed, (bytes, length) -> header[0] = MappedCSVReader.splitHeader(bytes, length, delimiter));
+            dataStart = start + consumed[0];
+            return header[0];
+        }
+
+        void countRows() throws IOException {
+            forEachLine(Integer.MAX_VALUE, (bytes, length) -> rows++);
+        }
+
+        void parse() throws IOException {
+            for (int c = 0; c < types.length; c++) {
+                codes.add(new HashMap<>());
+                dictionaries.add(new ArrayList<>());
+                conflictRows.add(new ArrayList<>());
+                conflictValues.add(new ArrayList<>());
+            }
+            int[] row = {rowOffset};
+            forEachLine(Integer.MAX_VALUE, (bytes, length) -> {
+                int fieldStart = 0;
+                for (int c = 0; c < width; c++) {
+                    if (fieldStart <= length) {
+                        int fieldEnd = MappedCSVReader.nextDelimiter(bytes, fieldStart, length, delimiter);
+                        if (types[c] != null) {
+                            write(c, row[0], bytes, fieldStart, fieldEnd);
+                        }
+                        fieldStart = fieldEnd + delimiter.length;
+                    } else if (types[c] != null) {
+                        write(c, row[0], bytes, 0, 0);
+                    }
+                }
+                row[0]++;
+            });
+        }
+
+        private void write(int c, int row, byte[] bytes, int fieldStart, int fieldEnd) {
+            ColumnType type = parser.classify(bytes, fieldStart, fieldEnd);
+            if (type == types[c]) {
+                switch (type) {
+                    case INT -> ints[c][row] = parser.intValue;
+                    case DOUBLE -> doubles[c][row] = parser.doubleValue;
+                    default -> ints[c][row] = encode(c, new String(bytes, fieldStart, fieldEnd - fieldStart, StandardCharsets.UTF_8));
+                }
+                return;
+            }
+            Object value = switch (type) {
+                case INT -> parser.intValue;
+                case DOUBLE -> parser.doubleValue;
+                default -> new String(bytes, fieldStart, fieldEnd - fieldStart, StandardCharsets.UTF_8);
+            };
+            if (types[c] == ColumnType.OBJECT) {
+                objects[c][row] = value;
+            } else {
+                conflictRows.get(c).add(row);
+                conflictValues.get(c).add(value);
+            }
+        }
+
+        private int encode(int c, String value) {
+            Integer code = codes.get(c).get(value);
+            if (code == null) {
+                code = dictionaries.get(c).size();
+                codes.get(c).put(value, code);
+                dictionaries.get(c).add(value);
+            }
+            return code;
+        }
+
+        void forEachLine(int maxLines, LineConsumer consumer) throws IOException {
+            forEachLine(maxLines, new long[1], consumer);
+        }
+
+        /**
+         * Feeds the non-blank lines of the range, without their line terminator, to the consumer.
+         * A range always starts at the beginning of a line and ends after a newline or at the end of the file.
+         */
+        void forEachLine(int maxLines, long[] consumed, LineConsumer consumer) throws IOException {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            int limit = (int) (end - start);
+            int lineStart = 0;
+            int lines = 0;
+            for (int i = 0; i <= limit && lines < maxLines; i++) {
+                if (i < limit && buffer.get(i) != '\n') {
+                    continue;
+                }
+                int length = i - lineStart;
+                if (length > 0 && buffer.get(i - 1) == '\r') {
+                    length--;
+                }
+                if (length > 0) {
+                    if (line.length < length) {
+                        line = new byte[Math.max(length, line.length * 2)];
+                    }
+                    buffer.get(lineStart, line, 0, length);
+                    consumer.accept(line, length);
+                    lines++;
+                }
+                lineStart = i + 1;
+            }
+            consumed[0] = Math.min(lineStart, limit);
+        }
+    }
+}
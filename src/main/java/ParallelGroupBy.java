@@ -0,0 +1,199 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Groups a DataFrame on all the workers of a ForkJoinPool.
+ * The rows are split into ranges. Every range builds its own hash table of keys in parallel; the tables are
+ * then merged in row order, so the groups keep the order in which their key first appears, exactly as
+ * {@link DataFrame#groupby(String, Aggregator)} orders them.
+ * The built-in {@link Aggregation}s are computed into one partial table per range, merged at the end. When there
+ * are too many groups for every range to hold a table of all of them, and for other aggregators, the groups are
+ * instead partitioned between the workers by group id, each worker aggregating the rows of its own groups; such
+ * aggregators must compute every group independently of the others.
+ * Small frames, and pools of a single worker, are grouped sequentially.
+ * The result does not depend on the scheduling of the tasks, only on the number of ranges; partial sums may
+ * however round differently from a sequential sum.
+ */
+public class ParallelGroupBy {
+    private static final int CHUNK_ROWS = 1 << 16;
+
+    private final ForkJoinPool pool;
+    private final int chunkRows;
+
+    /**
+     * Constructs a ParallelGroupBy running on the common ForkJoinPool.
+     */
+    public ParallelGroupBy() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ParallelGroupBy running on the given pool.
+     *
+     * @param pool The pool whose workers group the rows.
+     */
+    public ParallelGroupBy(ForkJoinPool pool) {
+        this(pool, CHUNK_ROWS);
+    }
+
+    ParallelGroupBy(ForkJoinPool pool, int chunkRows) {
+        this.pool = pool;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Groups a DataFrame by the specified label column and aggregates the other columns based on the given option.
+     *
+     * @param frame  The DataFrame to group.
+     * @param label  The label column to group by.
+     * @param option The aggregation option: "mean", "sum", "min", "max", "count", "var", "std", "first" or "last".
+     * @return The same DataFrame as {@link DataFrame#groupby(String, String)}.
+     * @throws IllegalArgumentException If the option provided is not one of the above, or the label does not exist.
+     */
+    public DataFrame groupby(DataFrame frame, String label, String option) {
+        return groupby(frame, label, Aggregation.of(option));
+    }
+
+    /**
+     * Groups a DataFrame by the specified label column and aggregates each other column the aggregator accepts.
+     *
+     * @param frame      The DataFrame to group.
+     * @param label      The label column to group by.
+     * @param aggregator The aggregator applied to the other columns.
+     * @return The same DataFrame as {@link DataFrame#groupby(String, Aggregator)}.
+     * @throws IllegalArgumentException If the label does not exist.
+     */
+    public DataFrame groupby(DataFrame frame, String label, Aggregator aggregator) {
+        Column key = frame.getColumn(label);
+        int rows = key.size();
+        int chunks = Math.min((rows + chunkRows - 1) / chunkRows, pool.getParallelism() * 4);
+        if (chunks <= 1 || pool.getParallelism() == 1) {
+            return frame.groupby(label, aggregator);
+        }
+        int[] bounds = new int[chunks + 1];
+        for (int c = 0; c <= chunks; c++) {
+            bounds[c] = (int) ((long) rows * c / chunks);
+        }
+
+        // Every range groups its own rows
+        GroupIndex[] local = new GroupIndex[chunks];
+        ParallelTasks.runAll(pool, chunks, c -> local[c] = GroupIndex.of(key, bounds[c], bounds[c + 1]));
+
+        // The first rows of the local groups, in row order, are grouped again to give the global ids
+        int[] offsets = new int[chunks + 1];
+        for (int c = 0; c < chunks; c++) {
+            offsets[c + 1] = offsets[c] + local[c].groups();
+        }
+        int[] candidates = new int[offsets[chunks]];
+        for (int c = 0; c < chunks; c++) {
+            System.arraycopy(local[c].firstRows(), 0, candidates, offsets[c], local[c].groups());
+        }
+        GroupIndex global = GroupIndex.of(key.take(candidates));
+        int groups = global.groups();
+        int[] firstRows = global.firstRows();
+        for (int g = 0; g < groups; g++) {
+            firstRows[g] = candidates[firstRows[g]];
+        }
+        int[] groupOf = new int[rows];
+        ParallelTasks.runAll(pool, chunks, c -> {
+            int[] localGroupOf = local[c].groupOf;
+            for (int row = bounds[c]; row < bounds[c + 1]; row++) {
+                groupOf[row] = global.groupOf[offsets[c] + localGroupOf[row - bounds[c]]];
+            }
+        });
+
+        ArrayList<String> labels = frame.getColumnLabels();
+        ArrayList<String> newlabels = new ArrayList<>();
+        ArrayList<Column> res = new ArrayList<>();
+        newlabels.add(label);
+        res.add(key.take(firstRows));
+        boolean partials = aggregator instanceof Aggregation && (long) groups * chunks <= rows;
+        int[][] partitions = partials ? null : partition(groupOf, groups, bounds);
+        for (String lab : labels) {
+            Column column = frame.getColumn(lab);
+            if (lab.equals(label) || !aggregator.accepts(column)) {
+                continue;
+            }
+            newlabels.add(lab);
+            res.add(partials
+                    ? mergePartials((Aggregation) aggregator, column, groupOf, groups, bounds)
+                    : aggregatePartitions(aggregator, column, groupOf, groups, partitions));
+        }
+        return new DataFrame(newlabels, res.toArray(new Column[0]));
+    }
+
+    /**
+     * Aggregates every range of rows into its own partial table, then merges the tables in row order.
+     */
+    private Column mergePartials(Aggregation aggregation, Column column, int[] groupOf, int groups, int[] bounds) {
+        int chunks = bounds.length - 1;
+        Aggregation.Partial[] partials = new Aggregation.Partial[chunks];
+        ParallelTasks.runAll(pool, chunks, c -> {
+            partials[c] = new Aggregation.Partial(groups);
+            aggregation.accumulate(partials[c], column, groupOf, bounds[c], bounds[c + 1]);
+        });
+        for (int c = 1; c < chunks; c++) {
+            aggregation.merge(partials[0], partials[c]);
+        }
+        return aggregation.finish(column, partials[0]);
+    }
+
+    /**
+     * Splits the rows by group between the partitions: group g belongs to partition g % partitions.
+     * The rows of each partition stay in increasing order.
+     *
+     * @return The rows of each partition.
+     */
+    private int[][] partition(int[] groupOf, int groups, int[] bounds) {
+        int count = Math.min(pool.getParallelism() * 4, groups);
+        int chunks = bounds.length - 1;
+        // counts[c][p]: the number of rows of range c belonging to partition p
+        int[][] counts = new int[chunks][count];
+        ParallelTasks.runAll(pool, chunks, c -> {
+            for (int row = bounds[c]; row < bounds[c + 1]; row++) {
+                counts[c][groupOf[row] % count]++;
+            }
+        });
+        int[][] partitions = new int[count][];
+        int[][] starts = new int[chunks][count];
+        for (int p = 0; p < count; p++) {
+            int size = 0;
+            for (int c = 0; c < chunks; c++) {
+                starts[c][p] = size;
+                size += counts[c][p];
+            }
+            partitions[p] = new int[size];
+        }
+        ParallelTasks.runAll(pool, chunks, c -> {
+            int[] next = starts[c];
+            for (int row = bounds[c]; row < bounds[c + 1]; row++) {
+                int p = groupOf[row] % count;
+                partitions[p][next[p]++] = row;
+            }
+        });
+        return partitions;
+    }
+
+    /**
+     * Aggregates the rows of every partition on its own, then gathers the results by group id.
+     */
+    private Column aggregatePartitions(Aggregator aggregator, Column column, int[] groupOf, int groups,
+                                       int[][] partitions) {
+        int count = partitions.length;
+        Column[] results = new Column[count];
+        ParallelTasks.runAll(pool, count, p -> {
+            int[] rows = partitions[p];
+            int[] localGroupOf = new int[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                localGroupOf[i] = groupOf[rows[i]] / count;
+            }
+            int localGroups = (groups - p + count - 1) / count;
+            results[p] = aggregator.aggregate(column.take(rows), localGroupOf, localGroups);
+        });
+        ColumnBuilder builder = new ColumnBuilder(results[0].getType(), groups);
+        for (int g = 0; g < groups; g++) {
+            builder.append(results[g % count].get(g / count));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes the statistics of the columns of a DataFrame on all the workers of a ForkJoinPool, the columns
+ * being independent of each other. This suits wide frames, such as monitoring data of thousands of columns.
+ * When the jdk.incubator.vector module is enabled ({@code --add-modules jdk.incubator.vector}), the mean,
+ * minimum, maximum and standard deviation of the int, long and double columns without null cells are reduced
+ * with SIMD instructions by {@link VectorStatistics}; the other columns, and every column when the module is
+ * missing, go through the scalar loops of {@link DataFrame}.
+ * The results are those of the sequential methods, except that vectorized sums of doubles may round differently.
+ */
+public class ParallelStatistics {
+    private static final boolean VECTOR_MODULE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final ForkJoinPool pool;
+    private final boolean vectorized;
+
+    /**
+     * Constructs a ParallelStatistics running on the common ForkJoinPool.
+     */
+    public ParallelStatistics() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ParallelStatistics running on the given pool.
+     *
+     * @param pool The pool whose workers process the columns.
+     */
+    public ParallelStatistics(ForkJoinPool pool) {
+        this(pool, VECTOR_MODULE);
+    }
+
+    ParallelStatistics(ForkJoinPool pool, boolean vectorized) {
+        this.pool = pool;
+        this.vectorized = vectorized && VECTOR_MODULE;
+    }
+
+    /**
+     * Indicates whether the reductions use the Vector API.
+     *
+     * @return true if the jdk.incubator.vector module is enabled.
+     */
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    /**
+     * Calculates the mean of each column, as {@link DataFrame#moyenne()}.
+     *
+     * @param frame The DataFrame.
+     * @return An array containing the mean values for each column in the DataFrame.
+     */
+    public Object[] moyenne(DataFrame frame) {
+        Column[] columns = columnsOf(frame);
+        Object[] tab = new Object[columns.length];
+        ParallelTasks.runAll(pool, columns.length, i -> {
+            Column column = columns[i];
+            tab[i] = vectorized && column.size() > 0 && VectorStatistics.supports(column)
+                    ? VectorStatistics.sum(column) / column.size()
+                    : DataFrame.meanOf(column);
+        });
+        return tab;
+    }
+
+    /**
+     * Finds the minimum and maximum values of each column, as {@link DataFrame#minEtMax()}.
+     *
+     * @param frame The DataFrame.
+     * @return A 2D array where the first row contains the minimum values and the second row contains the maximum values.
+     */
+    public Object[][] minEtMax(DataFrame frame) {
+        Column[] columns = columnsOf(frame);
+        Object[] min = new Object[columns.length];
+        Object[] max = new Object[columns.length];
+        ParallelTasks.runAll(pool, columns.length, i -> {
+            if (vectorized && VectorStatistics.supports(columns[i])) {
+                double[] minMax = VectorStatistics.minMax(columns[i]);
+                min[i] = minMax == null ? null : minMax[0];
+                max[i] = minMax == null ? null : minMax[1];
+            } else {
+                Object[] minMax = DataFrame.minMaxOf(columns[i]);
+                min[i] = minMax[0];
+                max[i] = minMax[1];
+            }
+        });
+        return new Object[][]{min, max};
+    }
+
+    /**
+     * Calculates the standard deviation of each column based on the provided means, as {@link DataFrame#sd(Object[])}.
+     *
+     * @param frame The DataFrame.
+     * @param mean  An array containing the mean values for each column in the DataFrame.
+     * @return An array containing the standard deviation values for each column in the DataFrame.
+     */
+    public Object[] sd(DataFrame frame, Object[] mean) {
+        Column[] columns = columnsOf(frame);
+        Object[] sd = new Object[columns.length];
+        ParallelTasks.runAll(pool, columns.length, i -> {
+            Column column = columns[i];
+            if (vectorized && column.size() > 0 && VectorStatistics.supports(column)) {
+                double res = VectorStatistics.squaredDeviations(column, ((Number) mean[i]).doubleValue());
+                sd[i] = Math.sqrt((double) 1 / column.size() * res);
+            } else {
+                sd[i] = DataFrame.sdOf(column, mean[i]);
+            }
+        });
+        return sd;
+    }
+
+    /**
+     * Computes the summary statistics of every column, as {@link DataFrame#summary()}.
+     *
+     * @param frame The DataFrame.
+     * @return The statistics of the columns.
+     */
+    public Description summary(DataFrame frame) {
+        Column[] columns = columnsOf(frame);
+        RunningStats[] stats = new RunningStats[columns.length];
+        int[] counts = new int[columns.length];
+        ParallelTasks.runAll(pool, columns.length, i -> {
+            counts[i] = columns[i].size() - columns[i].nullCount();
+            if (columns[i].isNumeric()) {
+                stats[i] = RunningStats.of(columns[i]);
+            }
+        });
+        return new Description(frame.getColumnLabels(), stats, counts);
+    }
+
+    private static Column[] columnsOf(DataFrame frame) {
+        ArrayList<String> labels = frame.getColumnLabels();
+        Column[] columns = new Column[labels.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = frame.getColumn(labels.get(i));
+        }
+        return columns;
+    }
+}
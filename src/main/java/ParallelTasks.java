@@ -0,0 +1,48 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs independent tasks on the workers of a ForkJoinPool and waits for all of them, as every parallel part of the
+ * library does. The tasks are forked from a task running inside the pool, so they spread over its workers instead
+ * of queuing on its submission queue; an exception thrown by a task is rethrown once they are done.
+ */
+final class ParallelTasks {
+
+    /**
+     * A task run once for each index of a range.
+     */
+    interface Task {
+        void run(int index);
+    }
+
+    private ParallelTasks() {
+    }
+
+    /**
+     * Runs a task for each index from 0 to count, excluded, on the pool.
+     *
+     * @param pool  The pool whose workers run the tasks.
+     * @param count The number of indexes.
+     * @param task  The task.
+     */
+    static void runAll(ForkJoinPool pool, int count, Task task) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(ForkJoinTask.adapt(() -> task.run(index)));
+        }
+        invokeAll(pool, tasks);
+    }
+
+    /**
+     * Runs tasks on the pool.
+     *
+     * @param pool  The pool whose workers run the tasks.
+     * @param tasks The tasks.
+     */
+    static void invokeAll(ForkJoinPool pool, List<ForkJoinTask<?>> tasks) {
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+}
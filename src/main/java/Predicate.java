@@ -0,0 +1,680 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A condition on the rows of a DataFrame, evaluated by {@link DataFrame#where(Predicate)}.
+ * Each condition on a column looks the column up once, then tests the selected rows column at a time,
+ * directly on the primitive arrays (or on the dictionary of a string column) whenever the value allows it.
+ * On a {@link CodedColumn}, the condition is tested once per value of the domain, then the rows are kept by code.
+ * Conditions never match a null cell, except {@link #isNull(String)} and the negation {@link #not(Predicate)},
+ * which keeps exactly the rows its operand rejects.
+ */
+public abstract class Predicate {
+
+    /**
+     * Keeps, among the first count selected rows, those matching this predicate.
+     * The kept rows are compacted at the front of the selection, in the same order.
+     *
+     * @param frame    The DataFrame the rows belong to.
+     * @param selected The selected rows, in any order. A row may be selected more than once.
+     * @param count    The number of selected rows.
+     * @return The number of rows kept.
+     * @throws IllegalArgumentException if a column does not exist.
+     */
+    abstract int retain(DataFrame frame, int[] selected, int count);
+
+    /**
+     * Adds the labels of the columns this predicate reads to a set.
+     *
+     * @param labels The set to fill.
+     */
+    abstract void columns(Set<String> labels);
+
+    /**
+     * Finds the rows matching this predicate with the indexes of the DataFrame, without scanning its columns.
+     *
+     * @param frame The DataFrame the rows belong to.
+     * @return The matching rows in increasing order, as {@link DataFrame#where(Predicate)} returns them, or null
+     * if no index applies.
+     */
+    int[] indexed(DataFrame frame) {
+        return null;
+    }
+
+    /**
+     * Returns the index of a column answering equality, preferring a hash index.
+     */
+    private static ColumnIndex equalityIndex(DataFrame frame, String column) {
+        ColumnIndex index = frame.index(column, IndexType.HASH);
+        return index != null ? index : frame.index(column, IndexType.SORTED);
+    }
+
+    /**
+     * Matches the cells equal to a value, as {@link Object#equals(Object)} compares them: an int column only
+     * matches Integer values, a double column matches NaN but tells 0.0 and -0.0 apart.
+     *
+     * @param column The label of the column.
+     * @param value  The value.
+     * @return The predicate.
+     */
+    public static Predicate eq(String column, Object value) {
+        return new Equal(column, value);
+    }
+
+    /**
+     * Matches the non-null cells different from a value.
+     *
+     * @param column The label of the column.
+     * @param value  The value.
+     * @return The predicate.
+     */
+    public static Predicate ne(String column, Object value) {
+        return and(isNotNull(column), not(eq(column, value)));
+    }
+
+    /**
+     * Matches the cells lower than a value. Numbers are compared by value whatever their type,
+     * strings in lexicographic order; cells that cannot be compared with the value never match.
+     *
+     * @param column The label of the column.
+     * @param value  The value.
+     * @return The predicate.
+     */
+    public static Predicate lt(String column, Object value) {
+        return new Compare(column, value, true, false, false);
+    }
+
+    /**
+     * Matches the cells lower than or equal to a value, compared as {@link #lt(String, Object)} does.
+     *
+     * @param column The label of the column.
+     * @param value  The value.
+     * @return The predicate.
+     */
+    public static Predicate le(String column, Object value) {
+        return new Compare(column, value, true, true, false);
+    }
+
+    /**
+     * Matches the cells greater than a value, compared as {@link #lt(String, Object)} does.
+     *
+     * @param column The label of the column.
+     * @param value  The value.
+     * @return The predicate.
+     */
+    public static Predicate gt(String column, Object value) {
+        return new Compare(column, value, false, false, true);
+    }
+
+    /**
+     * Matches the cells greater than or equal to a value, compared as {@link #lt(String, Object)} does.
+     *
+     * @param column The label of the column.
+     * @param value  The value.
+     * @return The predicate.
+     */
+    public static Predicate ge(String column, Object value) {
+        return new Compare(column, value, false, true, true);
+    }
+
+    /**
+     * Matches the cells between two values, both included.
+     *
+     * @param column The label of the column.
+     * @param low    The lowest value.
+     * @param high   The highest value.
+     * @return The predicate.
+     */
+    public static Predicate between(String column, Object low, Object high) {
+        return and(ge(column, low), le(column, high));
+    }
+
+    /**
+     * Matches the cells equal to one of the values, as {@link #eq(String, Object)} compares them.
+     *
+     * @param column The label of the column.
+     * @param values The values.
+     * @return The predicate.
+     */
+    public static Predicate in(String column, Object... values) {
+        return new In(column, values);
+    }
+
+    /**
+     * Matches the null cells.
+     *
+     * @param column The label of the column.
+     * @return The predicate.
+     */
+    public static Predicate isNull(String column) {
+        return new Null(column, true);
+    }
+
+    /**
+     * Matches the non-null cells.
+     *
+     * @param column The label of the column.
+     * @return The predicate.
+     */
+    public static Predicate isNotNull(String column) {
+        return new Null(column, false);
+    }
+
+    /**
+     * Matches the rows matching every predicate. Each predicate only tests the rows kept by the previous ones.
+     *
+     * @param predicates The predicates.
+     * @return The predicate.
+     */
+    public static Predicate and(Predicate... predicates) {
+        return new And(predicates.clone());
+    }
+
+    /**
+     * Matches the rows matching at least one predicate. Each predicate only tests the rows the previous ones rejected.
+     *
+     * @param predicates The predicates.
+     * @return The predicate.
+     */
+    public static Predicate or(Predicate... predicates) {
+        return new Or(predicates.clone());
+    }
+
+    /**
+     * Matches the rows a predicate rejects.
+     *
+     * @param predicate The predicate.
+     * @return The predicate.
+     */
+    public static Predicate not(Predicate predicate) {
+        return new Not(predicate);
+    }
+
+    /**
+     * Matches the rows matching both this predicate and another one.
+     *
+     * @param other The other predicate.
+     * @return The predicate.
+     */
+    public Predicate and(Predicate other) {
+        return and(this, other);
+    }
+
+    /**
+     * Matches the rows matching this predicate or another one.
+     *
+     * @param other The other predicate.
+     * @return The predicate.
+     */
+    public Predicate or(Predicate other) {
+        return or(this, other);
+    }
+
+    /**
+     * Copies into out the rows of the selection that are not in the kept rows, which are a subsequence of it.
+     *
+     * @return The number of rows copied.
+     */
+    private static int complement(int[] selected, int count, int[] kept, int keptCount, int[] out) {
+        int n = 0;
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            if (k < keptCount && kept[k] == selected[i]) {
+                k++;
+            } else {
+                out[n++] = selected[i];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * A condition on the cells of a single column.
+     */
+    private abstract static class CellPredicate extends Predicate implements EncodedColumn.CellFilter {
+        final String column;
+
+        CellPredicate(String column) {
+            this.column = column;
+        }
+
+        @Override
+        void columns(Set<String> labels) {
+            labels.add(column);
+        }
+
+        @Override
+        int retain(DataFrame frame, int[] selected, int count) {
+            Column c = frame.getColumn(column);
+            if (c instanceof EncodedColumn encoded) {
+                return encoded.retain(this, selected, count);
+            }
+            return retain(c, selected, count);
+        }
+    }
+
+    private static final class Equal extends CellPredicate {
+        private final Object value;
+
+        private Equal(String column, Object value) {
+            super(column);
+            this.value = value;
+        }
+
+        @Override
+        int[] indexed(DataFrame frame) {
+            ColumnIndex index = equalityIndex(frame, column);
+            return index == null ? null : index.equal(value);
+        }
+
+        @Override
+        public int retain(Column c, int[] selected, int count) {
+            int kept = 0;
+            if (value == null) {
+                return 0;
+            } else if (c instanceof IntColumn ints && value instanceof Integer) {
+                int v = (Integer) value;
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (ints.values[row] == v && !ints.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else if (c instanceof LongColumn longs && value instanceof Long) {
+                long v = (Long) value;
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (longs.values[row] == v && !longs.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else if (c instanceof DoubleColumn doubles && value instanceof Double) {
+                // Double.equals compares the bit patterns, so NaN matches NaN and 0.0 does not match -0.0
+                long bits = Double.doubleToLongBits((Double) value);
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (Double.doubleToLongBits(doubles.values[row]) == bits && !doubles.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else if (c instanceof StringColumn strings && value instanceof String) {
+                int code = strings.codeOf((String) value);
+                if (code < 0) {
+                    return 0;
+                }
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (strings.codes[row] == code && !strings.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (value.equals(c.get(row))) {
+                        selected[kept++] = row;
+                    }
+                }
+            }
+            return kept;
+        }
+    }
+
+    private static final class Compare extends CellPredicate {
+        private final Object value;
+        // Whether a cell lower than, equal to or greater than the value matches
+        private final boolean lower;
+        private final boolean equal;
+        private final boolean greater;
+
+        private Compare(String column, Object value, boolean lower, boolean equal, boolean greater) {
+            super(column);
+            this.value = value;
+            this.lower = lower;
+            this.equal = equal;
+            this.greater = greater;
+        }
+
+        private boolean accepts(int comparison) {
+            return comparison < 0 ? lower : comparison > 0 ? greater : equal;
+        }
+
+        @Override
+        int[] indexed(DataFrame frame) {
+            ColumnIndex index = frame.index(column, IndexType.SORTED);
+            return index == null ? null : index.range(value, lower, equal, greater);
+        }
+
+        @Override
+        public int retain(Column c, int[] selected, int count) {
+            int kept = 0;
+            if (value == null) {
+                return 0;
+            } else if (c instanceof IntColumn ints && KeyOrder.isIntegral(value)) {
+                // The bounds of the matching ints, so each row costs two comparisons; clamping the value
+                // to just outside the int range keeps v - 1 and v + 1 from overflowing
+                long v = Math.max(Math.min(((Number) value).longValue(), Integer.MAX_VALUE + 1L), Integer.MIN_VALUE - 1L);
+                long min = lower ? Long.MIN_VALUE : equal ? v : v + 1;
+                long max = greater ? Long.MAX_VALUE : equal ? v : v - 1;
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    int x = ints.values[row];
+                    if (x >= min && x <= max && !ints.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else if (c instanceof LongColumn longs && KeyOrder.isIntegral(value)) {
+                long v = ((Number) value).longValue();
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (accepts(Long.compare(longs.values[row], v)) && !longs.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else if ((c instanceof IntColumn || c instanceof LongColumn || c instanceof DoubleColumn)
+                    && value instanceof Number) {
+                double v = ((Number) value).doubleValue();
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    double x = c.getDouble(row);
+                    // NaN is neither lower, equal nor greater than anything
+                    if ((x < v ? lower : x > v ? greater : x == v && equal) && !c.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else if (c instanceof StringColumn strings && value instanceof String) {
+                // Each dictionary entry is compared once
+                String[] dictionary = strings.dictionary;
+                boolean[] matching = new boolean[dictionary.length];
+                for (int code = 0; code < dictionary.length; code++) {
+                    matching[code] = accepts(dictionary[code].compareTo((String) value));
+                }
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (matching[strings.codes[row]] && !strings.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    Object x = c.get(row);
+                    if (x != null && comparable(x, value) && accepts(compare(x, value))) {
+                        selected[kept++] = row;
+                    }
+                }
+            }
+            return kept;
+        }
+    }
+
+    private static boolean comparable(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return !(a instanceof Double d && d.isNaN()) && !(b instanceof Double e && e.isNaN());
+        }
+        return a instanceof Comparable && a.getClass() == b.getClass();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object a, Object b) {
+        if (a instanceof Number x && b instanceof Number y) {
+            if (KeyOrder.isIntegral(x) && KeyOrder.isIntegral(y)) {
+                return Long.compare(x.longValue(), y.longValue());
+            }
+            return Double.compare(x.doubleValue(), y.doubleValue());
+        }
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private static final class In extends CellPredicate {
+        private final Object[] values;
+
+        private In(String column, Object[] values) {
+            super(column);
+            this.values = values.clone();
+        }
+
+        @Override
+        int[] indexed(DataFrame frame) {
+            ColumnIndex index = equalityIndex(frame, column);
+            return index == null ? null : index.in(values);
+        }
+
+        @Override
+        public int retain(Column c, int[] selected, int count) {
+            int kept = 0;
+            if (c instanceof StringColumn strings) {
+                boolean[] matching = new boolean[strings.dictionary.length];
+                for (Object value : values) {
+                    int code = value instanceof String s ? strings.codeOf(s) : -1;
+                    if (code >= 0) {
+                        matching[code] = true;
+                    }
+                }
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (matching[strings.codes[row]] && !strings.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else if (c instanceof IntColumn ints) {
+                int[] sorted = Arrays.stream(values).filter(v -> v instanceof Integer)
+                        .mapToInt(v -> (Integer) v).sorted().toArray();
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    if (Arrays.binarySearch(sorted, ints.values[row]) >= 0 && !ints.isNull(row)) {
+                        selected[kept++] = row;
+                    }
+                }
+            } else {
+                HashSet<Object> set = new HashSet<>(Arrays.asList(values));
+                set.remove(null);
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    Object x = c.get(row);
+                    if (x != null && set.contains(x)) {
+                        selected[kept++] = row;
+                    }
+                }
+            }
+            return kept;
+        }
+    }
+
+    private static final class Null extends Predicate {
+        private final String column;
+        private final boolean nulls;
+
+        private Null(String column, boolean nulls) {
+            this.column = column;
+            this.nulls = nulls;
+        }
+
+        @Override
+        void columns(Set<String> labels) {
+            labels.add(column);
+        }
+
+        @Override
+        int retain(DataFrame frame, int[] selected, int count) {
+            Column c = frame.getColumn(column);
+            if (!nulls && c.nullCount() == 0) {
+                return count;
+            }
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                int row = selected[i];
+                if (c.isNull(row) == nulls) {
+                    selected[kept++] = row;
+                }
+            }
+            return kept;
+        }
+    }
+
+    private static final class And extends Predicate {
+        private final Predicate[] predicates;
+
+        private And(Predicate[] predicates) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        void columns(Set<String> labels) {
+            for (Predicate predicate : predicates) {
+                predicate.columns(labels);
+            }
+        }
+
+        @Override
+        int retain(DataFrame frame, int[] selected, int count) {
+            for (Predicate predicate : predicates) {
+                count = predicate.retain(frame, selected, count);
+            }
+            return count;
+        }
+
+        /**
+         * Finds the rows of the narrowest interval of a sorted index, intersecting the range operands on a same
+         * column, or else of the first operand an index answers, then tests the other operands on them only.
+         */
+        @Override
+        int[] indexed(DataFrame frame) {
+            HashMap<String, int[]> intervals = new HashMap<>();
+            String[] narrowing = new String[predicates.length];
+            for (int i = 0; i < predicates.length; i++) {
+                if (predicates[i] instanceof Compare compare
+                        && frame.index(compare.column, IndexType.SORTED) instanceof SortedIndex index) {
+                    int[] bounds = index.bounds(compare.value, compare.lower, compare.equal, compare.greater);
+                    if (bounds != null) {
+                        narrowing[i] = compare.column;
+                        intervals.merge(compare.column, bounds,
+                                (a, b) -> new int[]{Math.max(a[0], b[0]), Math.min(a[1], b[1])});
+                    }
+                }
+            }
+            String narrowest = null;
+            int width = Integer.MAX_VALUE;
+            for (Map.Entry<String, int[]> entry : intervals.entrySet()) {
+                int[] bounds = entry.getValue();
+                if (bounds[1] - bounds[0] < width) {
+                    narrowest = entry.getKey();
+                    width = bounds[1] - bounds[0];
+                }
+            }
+            if (narrowest != null) {
+                int[] bounds = intervals.get(narrowest);
+                int[] rows = ((SortedIndex) frame.index(narrowest, IndexType.SORTED)).rows(bounds[0], bounds[1]);
+                int count = rows.length;
+                for (int j = 0; j < predicates.length; j++) {
+                    if (!narrowest.equals(narrowing[j])) {
+                        count = predicates[j].retain(frame, rows, count);
+                    }
+                }
+                return Arrays.copyOf(rows, count);
+            }
+            for (int i = 0; i < predicates.length; i++) {
+                int[] rows = predicates[i].indexed(frame);
+                if (rows == null) {
+                    continue;
+                }
+                int count = rows.length;
+                for (int j = 0; j < predicates.length; j++) {
+                    if (j != i) {
+                        count = predicates[j].retain(frame, rows, count);
+                    }
+                }
+                return Arrays.copyOf(rows, count);
+            }
+            return null;
+        }
+    }
+
+    private static final class Or extends Predicate {
+        private final Predicate[] predicates;
+
+        private Or(Predicate[] predicates) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        void columns(Set<String> labels) {
+            for (Predicate predicate : predicates) {
+                predicate.columns(labels);
+            }
+        }
+
+        @Override
+        int retain(DataFrame frame, int[] selected, int count) {
+            // The positions in the selection still to test, and whether each position matched
+            int[] rest = new int[count];
+            for (int i = 0; i < count; i++) {
+                rest[i] = i;
+            }
+            int restCount = count;
+            boolean[] matched = new boolean[count];
+            int[] tested = new int[count];
+            for (Predicate predicate : predicates) {
+                for (int i = 0; i < restCount; i++) {
+                    tested[i] = selected[rest[i]];
+                }
+                int kept = predicate.retain(frame, tested, restCount);
+                int left = 0;
+                int k = 0;
+                for (int i = 0; i < restCount; i++) {
+                    if (k < kept && tested[k] == selected[rest[i]]) {
+                        matched[rest[i]] = true;
+                        k++;
+                    } else {
+                        rest[left++] = rest[i];
+                    }
+                }
+                restCount = left;
+            }
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                if (matched[i]) {
+                    selected[n++] = selected[i];
+                }
+            }
+            return n;
+        }
+
+        @Override
+        int[] indexed(DataFrame frame) {
+            ArrayList<int[]> parts = new ArrayList<>();
+            for (Predicate predicate : predicates) {
+                int[] rows = predicate.indexed(frame);
+                if (rows == null) {
+                    return null;
+                }
+                parts.add(rows);
+            }
+            return ColumnIndex.union(parts);
+        }
+    }
+
+    private static final class Not extends Predicate {
+        private final Predicate predicate;
+
+        private Not(Predicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        void columns(Set<String> labels) {
+            predicate.columns(labels);
+        }
+
+        @Override
+        int retain(DataFrame frame, int[] selected, int count) {
+            int[] tested = Arrays.copyOf(selected, count);
+            int kept = predicate.retain(frame, tested, count);
+            return complement(selected, count, tested, kept, selected);
+        }
+    }
+}
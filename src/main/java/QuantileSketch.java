@@ -0,0 +1,122 @@
+import java.util.Arrays;
+
+/**
+ * Estimates a quantile of a stream of values in constant memory, with the P-square algorithm of Jain and Chlamtac:
+ * five markers track the minimum, the quantile, the maximum and two intermediate quantiles, and are moved along
+ * a piecewise-parabolic approximation of the distribution as the values arrive.
+ * The quantile of five values or less is exact, with linear interpolation between the closest ranks.
+ * NaN values are ignored.
+ */
+final class QuantileSketch {
+    private final double p;
+    /**
+     * The heights of the markers, which are the estimates of the quantiles 0, p/2, p, (1+p)/2 and 1.
+     */
+    private final double[] heights = new double[5];
+    /**
+     * The positions of the markers, from 0.
+     */
+    private final double[] positions = {0, 1, 2, 3, 4};
+    private final double[] desired;
+    private final double[] increments;
+    private int count;
+
+    /**
+     * Constructs a sketch of a quantile.
+     *
+     * @param p The quantile to estimate, between 0 and 1.
+     */
+    QuantileSketch(double p) {
+        this.p = p;
+        this.desired = new double[]{0, 2 * p, 4 * p, 2 + 2 * p, 4};
+        this.increments = new double[]{0, p / 2, p, (1 + p) / 2, 1};
+    }
+
+    /**
+     * Adds a value to the stream.
+     *
+     * @param value The value.
+     */
+    void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count < 5) {
+            heights[count++] = value;
+            if (count == 5) {
+                Arrays.sort(heights);
+            }
+            return;
+        }
+        count++;
+        int k;
+        if (value < heights[0]) {
+            heights[0] = value;
+            k = 0;
+        } else if (value >= heights[4]) {
+            heights[4] = value;
+            k = 3;
+        } else {
+            k = 0;
+            while (value >= heights[k + 1]) {
+                k++;
+            }
+        }
+        for (int i = k + 1; i < 5; i++) {
+            positions[i]++;
+        }
+        for (int i = 0; i < 5; i++) {
+            desired[i] += increments[i];
+        }
+        for (int i = 1; i < 4; i++) {
+            double d = desired[i] - positions[i];
+            if (d >= 1 && positions[i + 1] - positions[i] > 1 || d <= -1 && positions[i - 1] - positions[i] < -1) {
+                int sign = d > 0 ? 1 : -1;
+                double height = parabolic(i, sign);
+                if (heights[i - 1] < height && height < heights[i + 1]) {
+                    heights[i] = height;
+                } else {
+                    heights[i] += sign * (heights[i + sign] - heights[i]) / (positions[i + sign] - positions[i]);
+                }
+                positions[i] += sign;
+            }
+        }
+    }
+
+    private double parabolic(int i, int sign) {
+        double below = positions[i] - positions[i - 1];
+        double above = positions[i + 1] - positions[i];
+        return heights[i] + sign / (positions[i + 1] - positions[i - 1])
+                * ((below + sign) * (heights[i + 1] - heights[i]) / above
+                + (above - sign) * (heights[i] - heights[i - 1]) / below);
+    }
+
+    /**
+     * Returns the number of values added, NaN values excluded.
+     *
+     * @return The number of values.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the estimate of the quantile.
+     *
+     * @return The quantile, or NaN if no value was added.
+     */
+    double quantile() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (count > 5) {
+            return heights[2];
+        }
+        double[] sorted = Arrays.copyOf(heights, count);
+        Arrays.sort(sorted);
+        double rank = p * (count - 1);
+        int below = (int) Math.floor(rank);
+        int above = Math.min(below + 1, count - 1);
+        return sorted[below] + (rank - below) * (sorted[above] - sorted[below]);
+    }
+}
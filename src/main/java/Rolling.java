@@ -0,0 +1,304 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Aggregations over a window sliding along the rows of numeric columns, as returned by
+ * {@link DataFrame#rolling(String[], int)} and {@link DataFrame#expanding(String...)}: the cell of each row
+ * aggregates the non-null cells of the window ending at that row, the last rows of a rolling window or every row
+ * since the first for an expanding one. It is null when the window holds fewer non-null cells than the minimum
+ * number of periods, which defaults to the size of a rolling window and to one for an expanding window.
+ * Each column is aggregated in a single pass over its cells, each step adding the entering row and removing the
+ * leaving one in constant amortized time: sums are compensated (Kahan-Babuska-Neumaier), variances are merged
+ * from two stacks of Welford statistics, and minimums and maximums are read from a monotonic deque of rows.
+ * The columns are aggregated in parallel on the common ForkJoinPool, or on the pool given to
+ * {@link #pool(ForkJoinPool)}.
+ */
+public class Rolling {
+    private final String[] labels;
+    private final Column[] columns;
+    private final int window;
+    private final int minPeriods;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs the windows of some columns.
+     *
+     * @param labels     The labels of the columns.
+     * @param columns    The numeric columns, all of the same size.
+     * @param window     The number of rows of the window, Integer.MAX_VALUE for an expanding window.
+     * @param minPeriods The number of non-null cells the window needs for an aggregate.
+     * @param pool       The pool whose workers aggregate the columns.
+     */
+    Rolling(String[] labels, Column[] columns, int window, int minPeriods, ForkJoinPool pool) {
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].isNumeric()) {
+                throw new IllegalArgumentException("The column " + labels[i] + " is not numeric.");
+            }
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("A window must hold at least one row.");
+        }
+        if (minPeriods < 1 || minPeriods > window) {
+            throw new IllegalArgumentException("The minimum number of periods must be between 1 and the window size.");
+        }
+        this.labels = labels;
+        this.columns = columns;
+        this.window = window;
+        this.minPeriods = minPeriods;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the same windows with another minimum number of periods.
+     *
+     * @param minPeriods The number of non-null cells a window needs for an aggregate.
+     * @return The windows.
+     * @throws IllegalArgumentException if minPeriods is not positive or exceeds the size of the window.
+     */
+    public Rolling minPeriods(int minPeriods) {
+        return new Rolling(labels, columns, window, minPeriods, pool);
+    }
+
+    /**
+     * Returns the same windows, aggregated on the given pool instead of the common ForkJoinPool.
+     *
+     * @param pool The pool whose workers aggregate the columns.
+     * @return The windows.
+     */
+    public Rolling pool(ForkJoinPool pool) {
+        return new Rolling(labels, columns, window, minPeriods, pool);
+    }
+
+    /**
+     * Sums the cells of each window.
+     *
+     * @return A DataFrame holding a double column of the sums for each column.
+     */
+    public DataFrame sum() {
+        return aggregate(column -> sums(column, false));
+    }
+
+    /**
+     * Averages the cells of each window.
+     *
+     * @return A DataFrame holding a double column of the means for each column.
+     */
+    public DataFrame mean() {
+        return aggregate(column -> sums(column, true));
+    }
+
+    /**
+     * Computes the population standard deviation of the cells of each window, as {@link DataFrame#sd(Object[])}.
+     *
+     * @return A DataFrame holding a double column of the standard deviations for each column.
+     */
+    public DataFrame std() {
+        return aggregate(this::std);
+    }
+
+    /**
+     * Finds the minimum of each window. NaN cells count as cells of the window but are never the minimum.
+     *
+     * @return A DataFrame holding, for each column, a column of the same type holding the minimums.
+     */
+    public DataFrame min() {
+        return aggregate(column -> extremes(column, false));
+    }
+
+    /**
+     * Finds the maximum of each window. NaN cells count as cells of the window but are never the maximum.
+     *
+     * @return A DataFrame holding, for each column, a column of the same type holding the maximums.
+     */
+    public DataFrame max() {
+        return aggregate(column -> extremes(column, true));
+    }
+
+    private DataFrame aggregate(Function<Column, Column> function) {
+        Column[] res = new Column[columns.length];
+        ParallelTasks.runAll(pool, columns.length, i -> res[i] = function.apply(Compression.plain(columns[i])));
+        return new DataFrame(new ArrayList<>(Arrays.asList(labels)), res);
+    }
+
+    /**
+     * Computes the sum or the mean of each window. The finite cells enter and leave a compensated running sum,
+     * while NaN and infinite cells are only counted, so that they leave the window without spoiling the sum.
+     */
+    private Column sums(Column column, boolean mean) {
+        int n = column.size();
+        double[] res = new double[n];
+        BitSet nulls = new BitSet();
+        int count = 0;
+        int nan = 0;
+        int positive = 0;
+        int negative = 0;
+        double sum = 0;
+        double compensation = 0;
+        for (int row = 0; row < n; row++) {
+            for (int step = 0; step < 2; step++) {
+                // The entering row, then the leaving one
+                int r = step == 0 ? row : row - window;
+                if (r < 0 || column.isNull(r)) {
+                    continue;
+                }
+                double value = column.getDouble(r);
+                int sign = step == 0 ? 1 : -1;
+                count += sign;
+                if (Double.isNaN(value)) {
+                    nan += sign;
+                } else if (value == Double.POSITIVE_INFINITY) {
+                    positive += sign;
+                } else if (value == Double.NEGATIVE_INFINITY) {
+                    negative += sign;
+                } else {
+                    double added = sign * value;
+                    double t = sum + added;
+                    compensation += Math.abs(sum) >= Math.abs(added) ? (sum - t) + added : (added - t) + sum;
+                    sum = t;
+                }
+            }
+            if (count - nan - positive - negative == 0) {
+                sum = 0;
+                compensation = 0;
+            }
+            if (count < minPeriods) {
+                nulls.set(row);
+            } else if (nan > 0 || positive > 0 && negative > 0) {
+                res[row] = Double.NaN;
+            } else if (positive > 0 || negative > 0) {
+                res[row] = positive > 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+            } else {
+                res[row] = mean ? (sum + compensation) / count : sum + compensation;
+            }
+        }
+        return new DoubleColumn(res, n, nulls);
+    }
+
+    /**
+     * Computes the population standard deviation of each window. Removing a cell from a running variance cancels
+     * catastrophically when the cells are large, so the window is kept as two stacks instead: the newest rows
+     * fold into a running count, mean and sum of squared deviations with Welford's algorithm, and when the oldest
+     * row must leave while the front stack is empty, the rows of the back stack move to it, each storing the
+     * statistics of the rows from itself to the end of the stack. The statistics of the window merge the front
+     * of the front stack with the back stack (Chan et al.), and each row moves once, in constant amortized time.
+     * A window holding a NaN or infinite cell gives NaN.
+     */
+    private Column std(Column column) {
+        int n = column.size();
+        double[] res = new double[n];
+        BitSet nulls = new BitSet();
+        // The statistics of the rows [r, middle) of the front stack, for each of its rows r modulo the window
+        int capacity = window < n ? window : 1;
+        int[] counts = new int[capacity];
+        double[] means = new double[capacity];
+        double[] squares = new double[capacity];
+        int low = 0;
+        int middle = 0;
+        int backCount = 0;
+        double backMean = 0;
+        double backSquares = 0;
+        int count = 0;
+        int nonFinite = 0;
+        for (int row = 0; row < n; row++) {
+            int leaving = row - window;
+            if (leaving >= 0) {
+                if (low == middle) {
+                    int frontCount = 0;
+                    double frontMean = 0;
+                    double frontSquares = 0;
+                    for (int r = row - 1; r >= middle; r--) {
+                        double value = column.isNull(r) ? Double.NaN : column.getDouble(r);
+                        if (Double.isFinite(value)) {
+                            frontCount++;
+                            double delta = value - frontMean;
+                            frontMean += delta / frontCount;
+                            frontSquares += delta * (value - frontMean);
+                        }
+                        counts[r % capacity] = frontCount;
+                        means[r % capacity] = frontMean;
+                        squares[r % capacity] = frontSquares;
+                    }
+                    middle = row;
+                    backCount = 0;
+                    backMean = 0;
+                    backSquares = 0;
+                }
+                low++;
+                if (!column.isNull(leaving)) {
+                    count--;
+                    nonFinite -= Double.isFinite(column.getDouble(leaving)) ? 0 : 1;
+                }
+            }
+            if (!column.isNull(row)) {
+                count++;
+                double value = column.getDouble(row);
+                if (Double.isFinite(value)) {
+                    backCount++;
+                    double delta = value - backMean;
+                    backMean += delta / backCount;
+                    backSquares += delta * (value - backMean);
+                } else {
+                    nonFinite++;
+                }
+            }
+            if (count < minPeriods) {
+                nulls.set(row);
+            } else if (nonFinite > 0) {
+                res[row] = Double.NaN;
+            } else if (low == middle) {
+                res[row] = Math.sqrt(backSquares / backCount);
+            } else {
+                int frontCount = counts[low % capacity];
+                int total = frontCount + backCount;
+                double delta = backMean - means[low % capacity];
+                double merged = squares[low % capacity] + backSquares
+                        + delta * delta * ((double) frontCount * backCount / total);
+                res[row] = Math.sqrt(merged / total);
+            }
+        }
+        return new DoubleColumn(res, n, nulls);
+    }
+
+    /**
+     * Finds the minimum or maximum of each window with a deque of the rows of the window that can still become
+     * its extreme: their values are strictly monotonic, so the extreme is the first row of the deque, and each row
+     * enters and leaves the deque at most once.
+     */
+    private Column extremes(Column column, boolean max) {
+        int n = column.size();
+        int[] rows = new int[n];
+        int[] deque = new int[Math.min(window, n) + 1];
+        int head = 0;
+        int size = 0;
+        int count = 0;
+        for (int row = 0; row < n; row++) {
+            if (!column.isNull(row)) {
+                count++;
+                double value = column.getDouble(row);
+                if (!Double.isNaN(value)) {
+                    while (size > 0) {
+                        double last = column.getDouble(deque[(head + size - 1) % deque.length]);
+                        if (max ? last > value : last < value) {
+                            break;
+                        }
+                        size--;
+                    }
+                    deque[(head + size++) % deque.length] = row;
+                }
+            }
+            int leaving = row - window;
+            if (leaving >= 0 && !column.isNull(leaving)) {
+                count--;
+                if (size > 0 && deque[head] == leaving) {
+                    head = (head + 1) % deque.length;
+                    size--;
+                }
+            }
+            rows[row] = count < minPeriods || size == 0 ? -1 : deque[head];
+        }
+        return column.take(rows);
+    }
+}
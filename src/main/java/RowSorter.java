@@ -0,0 +1,375 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes the permutation that sorts the rows of a DataFrame by several key columns, without moving any data.
+ * The keys are sorted from the least significant to the most significant one, each pass being stable, so rows
+ * with equal keys keep their order. Null cells come last, whatever the direction.
+ * Int, long, double and boolean keys are mapped to longs whose unsigned order is the order of the keys, then
+ * sorted with an LSD radix sort, one byte per pass, skipping the bytes all keys share. The rows are split into
+ * ranges counted and scattered on the workers of a ForkJoinPool. Dictionary-encoded strings sort their
+ * dictionary with a parallel merge sort, then radix sort the rank of each code; other keys are sorted with a
+ * stable parallel merge sort using {@link KeyOrder}.
+ * {@link #top(Column, int, boolean)} selects the first rows of such a sort without sorting the others.
+ */
+final class RowSorter {
+    private static final int CHUNK_ROWS = 1 << 16;
+    private static final int RADIX = 256;
+
+    private final ForkJoinPool pool;
+    private final int chunkRows;
+
+    RowSorter(ForkJoinPool pool) {
+        this(pool, CHUNK_ROWS);
+    }
+
+    RowSorter(ForkJoinPool pool, int chunkRows) {
+        this.pool = pool;
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Sorts the rows by the given keys.
+     *
+     * @param keys      The key columns, from the most significant to the least significant, all of the same size.
+     * @param ascending The direction of each key.
+     * @return The rows in sorted order.
+     */
+    int[] sort(Column[] keys, boolean[] ascending) {
+        int[] rows = new int[keys[0].size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        for (int k = keys.length - 1; k >= 0; k--) {
+            rows = sortPass(keys[k], ascending[k], rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Stably sorts rows by a single key, the null cells last.
+     */
+    private int[] sortPass(Column column, boolean ascending, int[] rows) {
+        Column key = Compression.plain(column);
+        int[] present = rows;
+        int[] missing = new int[0];
+        if (key.nullCount() > 0) {
+            present = new int[rows.length - key.nullCount()];
+            missing = new int[key.nullCount()];
+            int p = 0;
+            int m = 0;
+            for (int row : rows) {
+                if (key.isNull(row)) {
+                    missing[m++] = row;
+                } else {
+                    present[p++] = row;
+                }
+            }
+        } else {
+            present = rows.clone();
+        }
+
+        if (encodes(key)) {
+            long[] sortable = encode(key, ascending, present);
+            radixSort(sortable, present);
+        } else {
+            Integer[] boxed = new Integer[present.length];
+            for (int i = 0; i < boxed.length; i++) {
+                boxed[i] = present[i];
+            }
+            Comparator<Integer> order = (x, y) -> KeyOrder.compare(key, x, key, y);
+            Arrays.parallelSort(boxed, ascending ? order : order.reversed());
+            for (int i = 0; i < boxed.length; i++) {
+                present[i] = boxed[i];
+            }
+        }
+
+        if (missing.length == 0) {
+            return present;
+        }
+        int[] res = Arrays.copyOf(present, rows.length);
+        System.arraycopy(missing, 0, res, present.length, missing.length);
+        return res;
+    }
+
+    /**
+     * Selects the first k non-null rows of the stable sort of a key column. Every range of rows keeps its k best
+     * rows in a bounded heap, on the workers of the pool, then the heaps are merged, so the cost grows with
+     * log(k) instead of log(n).
+     *
+     * @param column    The key column.
+     * @param k         The maximum number of rows to select.
+     * @param ascending true for the lowest keys, false for the greatest ones.
+     * @return The selected rows, in sorted order.
+     */
+    int[] top(Column column, int k, boolean ascending) {
+        Column key = Compression.plain(column);
+        int n = key.size();
+        if (!encodes(key)) {
+            int[] sorted = sort(new Column[]{key}, new boolean[]{ascending});
+            return Arrays.copyOf(sorted, Math.min(k, n - key.nullCount()));
+        }
+        long flip = ascending ? 0 : -1L;
+        int[] ranks = key instanceof StringColumn strings ? ranks(strings) : null;
+        boolean nulls = key.nullCount() > 0;
+        int chunks = chunks(n);
+        Heap[] heaps = new Heap[chunks];
+        runChunks(n, chunks, (c, from, to) -> {
+            Heap heap = new Heap(Math.min(k, to - from));
+            for (int row = from; row < to; row++) {
+                if (!nulls || !key.isNull(row)) {
+                    heap.offer(sortable(key, ranks, row) ^ flip, row);
+                }
+            }
+            heaps[c] = heap;
+        });
+        Heap res = heaps[0];
+        if (chunks > 1) {
+            res = new Heap(Math.min(k, n));
+            for (Heap heap : heaps) {
+                for (int i = 0; i < heap.size; i++) {
+                    res.offer(heap.keys[i], heap.rows[i]);
+                }
+            }
+        }
+        return res.sortedRows();
+    }
+
+    private static boolean encodes(Column key) {
+        return key instanceof IntColumn || key instanceof LongColumn || key instanceof DoubleColumn
+                || key instanceof BooleanColumn || key instanceof StringColumn;
+    }
+
+    /**
+     * Maps the keys of the rows to longs whose unsigned order is the requested order of the keys.
+     */
+    private long[] encode(Column key, boolean ascending, int[] rows) {
+        long[] sortable = new long[rows.length];
+        long flip = ascending ? 0 : -1L;
+        int[] ranks = key instanceof StringColumn strings ? ranks(strings) : null;
+        runChunks(rows.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                sortable[i] = sortable(key, ranks, rows[i]) ^ flip;
+            }
+        });
+        return sortable;
+    }
+
+    private static long sortable(Column key, int[] ranks, int row) {
+        if (key instanceof IntColumn ints) {
+            return (ints.values[row] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        }
+        if (key instanceof LongColumn longs) {
+            return longs.values[row] ^ Long.MIN_VALUE;
+        }
+        if (key instanceof DoubleColumn doubles) {
+            long bits = Double.doubleToLongBits(doubles.values[row]);
+            return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+        }
+        if (key instanceof BooleanColumn booleans) {
+            return booleans.values[row] ? 1 : 0;
+        }
+        return ranks[((StringColumn) key).codes[row]];
+    }
+
+    /**
+     * Returns the rank of every code of a string column in the sorted dictionary.
+     */
+    private static int[] ranks(StringColumn strings) {
+        String[] sorted = strings.dictionary.clone();
+        Arrays.parallelSort(sorted);
+        int[] ranks = new int[strings.dictionary.length];
+        for (int code = 0; code < ranks.length; code++) {
+            ranks[code] = Arrays.binarySearch(sorted, strings.dictionary[code]);
+        }
+        return ranks;
+    }
+
+    /**
+     * Stably sorts keys as unsigned longs, moving the rows along.
+     */
+    private void radixSort(long[] keys, int[] rows) {
+        int n = keys.length;
+        int chunks = chunks(n);
+        int[][] counts = new int[chunks][RADIX];
+        long[] keyBuffer = new long[n];
+        int[] rowBuffer = new int[n];
+        long[][] keyArrays = {keys, keyBuffer};
+        int[][] rowArrays = {rows, rowBuffer};
+        int current = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            long[] source = keyArrays[current];
+            long[] keyTarget = keyArrays[1 - current];
+            int[] rowSource = rowArrays[current];
+            int[] rowTarget = rowArrays[1 - current];
+            int byteShift = shift;
+
+            runChunks(n, chunks, (c, from, to) -> {
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                for (int i = from; i < to; i++) {
+                    count[(int) (source[i] >>> byteShift) & 0xFF]++;
+                }
+            });
+            if (sameByte(counts, n)) {
+                continue;
+            }
+            int offset = 0;
+            for (int b = 0; b < RADIX; b++) {
+                for (int[] count : counts) {
+                    int size = count[b];
+                    count[b] = offset;
+                    offset += size;
+                }
+            }
+            runChunks(n, chunks, (c, from, to) -> {
+                int[] next = counts[c];
+                for (int i = from; i < to; i++) {
+                    int dest = next[(int) (source[i] >>> byteShift) & 0xFF]++;
+                    keyTarget[dest] = source[i];
+                    rowTarget[dest] = rowSource[i];
+                }
+            });
+            current = 1 - current;
+        }
+        if (current == 1) {
+            System.arraycopy(rowBuffer, 0, rows, 0, n);
+        }
+    }
+
+    /**
+     * Indicates whether all the keys fall in the same bucket, which makes the pass useless.
+     */
+    private static boolean sameByte(int[][] counts, int n) {
+        for (int b = 0; b < RADIX; b++) {
+            int total = 0;
+            for (int[] count : counts) {
+                total += count[b];
+            }
+            if (total == n) {
+                return true;
+            }
+            if (total > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int chunks(int rows) {
+        if (pool.getParallelism() == 1) {
+            return 1;
+        }
+        return Math.max(1, Math.min((rows + chunkRows - 1) / chunkRows, pool.getParallelism() * 4));
+    }
+
+    private interface Range {
+        void run(int from, int to);
+    }
+
+    private interface ChunkRange {
+        void run(int chunk, int from, int to);
+    }
+
+    private void runChunks(int rows, Range range) {
+        runChunks(rows, chunks(rows), (c, from, to) -> range.run(from, to));
+    }
+
+    /**
+     * Runs a task on each of the given number of consecutive ranges of rows, on the pool if there are several.
+     */
+    private void runChunks(int rows, int chunks, ChunkRange range) {
+        if (chunks == 1) {
+            range.run(0, 0, rows);
+            return;
+        }
+        ParallelTasks.runAll(pool, chunks,
+                c -> range.run(c, (int) ((long) rows * c / chunks), (int) ((long) rows * (c + 1) / chunks)));
+    }
+
+    /**
+     * A max-heap of at most capacity (key, row) pairs, ordered by unsigned key then by row, which keeps the lowest
+     * pairs offered.
+     */
+    private static final class Heap {
+        final long[] keys;
+        final int[] rows;
+        int size;
+
+        Heap(int capacity) {
+            keys = new long[capacity];
+            rows = new int[capacity];
+        }
+
+        void offer(long key, int row) {
+            if (size < keys.length) {
+                keys[size] = key;
+                rows[size] = row;
+                siftUp(size++);
+            } else if (size > 0 && less(key, row, keys[0], rows[0])) {
+                keys[0] = key;
+                rows[0] = row;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Empties the heap.
+         *
+         * @return The rows of the heap, from the lowest pair to the greatest.
+         */
+        int[] sortedRows() {
+            int[] res = new int[size];
+            while (size > 0) {
+                res[size - 1] = rows[0];
+                size--;
+                keys[0] = keys[size];
+                rows[0] = rows[size];
+                siftDown(0);
+            }
+            return res;
+        }
+
+        private static boolean less(long key, int row, long otherKey, int otherRow) {
+            int c = Long.compareUnsigned(key, otherKey);
+            return c < 0 || c == 0 && row < otherRow;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!less(keys[parent], rows[parent], keys[i], rows[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (less(keys[largest], rows[largest], keys[child], rows[child])) {
+                        largest = child;
+                    }
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A run-length encoded column: each run of equal consecutive cells is stored once, in a plain column of values,
+ * along with the row where it ends. A sorted or clustered column takes a few bytes per run, and a predicate is
+ * evaluated once per run.
+ */
+public class RunLengthColumn extends CodedColumn {
+    private final Column values;
+    private final int[] ends;
+
+    /**
+     * Constructs a run-length encoded column.
+     *
+     * @param values The value of each run, null for a run of missing cells.
+     * @param ends   The row following the last row of each run, in increasing order.
+     * @param nulls  The bitmap of missing cells, or null if no cell is missing.
+     */
+    RunLengthColumn(Column values, int[] ends, BitSet nulls) {
+        super(ends.length == 0 ? 0 : ends[ends.length - 1], nulls);
+        this.values = values;
+        this.ends = ends;
+    }
+
+    /**
+     * Returns the number of runs.
+     *
+     * @return The number of runs of equal cells.
+     */
+    public int runs() {
+        return ends.length;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return values.getType();
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return values.isNumeric();
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return values.getMemoryBytes() + 4L * ends.length + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        return values.get(code(row));
+    }
+
+    @Override
+    public int getInt(int row) {
+        return values.getInt(code(row));
+    }
+
+    @Override
+    public long getLong(int row) {
+        return values.getLong(code(row));
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return values.getDouble(code(row));
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        return values.getBoolean(code(row));
+    }
+
+    /**
+     * Finds the run holding a row with a binary search.
+     */
+    @Override
+    int code(int row) {
+        int run = Arrays.binarySearch(ends, row);
+        return run >= 0 ? run + 1 : -run - 1;
+    }
+
+    @Override
+    void codes(int from, int to, int[] out) {
+        int run = from < to ? code(from) : 0;
+        for (int row = from; row < to; row++) {
+            if (row == ends[run]) {
+                run++;
+            }
+            out[row - from] = run;
+        }
+    }
+
+    @Override
+    Column domain() {
+        return values;
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        int[] runs = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            runs[i] = rows[i] < 0 ? -1 : code(rows[i]);
+        }
+        return values.take(runs);
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Merges runs of batches, each run sorted by the same keys, into batches in the order of the keys: the k-way merge
+ * of an external sort. Only the current batch of each run is held in memory, and the runs are ordered by their
+ * current row in a heap. Rows with equal keys come in the order of their runs, so merging the consecutive runs of
+ * a stable sort gives a stable sort. Null cells come last, whatever the direction, as in {@link RowSorter}.
+ */
+final class RunMerger implements Iterator<DataFrame> {
+    private final ArrayList<String> labels;
+    private final List<Iterator<DataFrame>> runs;
+    private final String[] keys;
+    private final boolean[] ascending;
+    private final int batchSize;
+    private final Column[][] columns;
+    private final Column[][] keyColumns;
+    private final int[] rowCounts;
+    private final int[] positions;
+    private final PriorityQueue<Integer> heap;
+
+    /**
+     * Constructs a merger of runs.
+     *
+     * @param labels    The labels of the columns of every batch.
+     * @param runs      The runs, in the order of the rows they were sorted from.
+     * @param keys      The key columns, from the most significant to the least significant.
+     * @param ascending The direction of each key.
+     * @param batchSize The number of rows of each merged batch, except the last one.
+     */
+    RunMerger(ArrayList<String> labels, List<Iterator<DataFrame>> runs, String[] keys, boolean[] ascending,
+              int batchSize) {
+        this.labels = labels;
+        this.runs = runs;
+        this.keys = keys;
+        this.ascending = ascending;
+        this.batchSize = batchSize;
+        this.columns = new Column[runs.size()][];
+        this.keyColumns = new Column[runs.size()][];
+        this.rowCounts = new int[runs.size()];
+        this.positions = new int[runs.size()];
+        this.heap = new PriorityQueue<>(this::compareRuns);
+        for (int r = 0; r < runs.size(); r++) {
+            if (load(r)) {
+                heap.add(r);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    @Override
+    public DataFrame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ColumnBuilder[] builders = new ColumnBuilder[labels.size()];
+        for (int c = 0; c < builders.length; c++) {
+            builders[c] = new ColumnBuilder(batchSize);
+        }
+        for (int rows = 0; rows < batchSize && !heap.isEmpty(); rows++) {
+            int r = heap.poll();
+            int row = positions[r];
+            for (int c = 0; c < builders.length; c++) {
+                builders[c].append(columns[r][c].get(row));
+            }
+            if (++positions[r] < rowCounts[r] || load(r)) {
+                heap.add(r);
+            }
+        }
+        Column[] res = new Column[builders.length];
+        for (int c = 0; c < res.length; c++) {
+            res[c] = builders[c].build();
+        }
+        return new DataFrame(new ArrayList<>(labels), res);
+    }
+
+    /**
+     * Moves a run to its next non-empty batch.
+     *
+     * @return false if the run has no row left.
+     */
+    private boolean load(int r) {
+        Iterator<DataFrame> run = runs.get(r);
+        while (run.hasNext()) {
+            DataFrame batch = run.next();
+            if (batch.getRowCount() > 0) {
+                columns[r] = new Column[labels.size()];
+                for (int c = 0; c < columns[r].length; c++) {
+                    columns[r][c] = batch.getColumn(labels.get(c));
+                }
+                keyColumns[r] = new Column[keys.length];
+                for (int k = 0; k < keys.length; k++) {
+                    keyColumns[r][k] = batch.getColumn(keys[k]);
+                }
+                rowCounts[r] = batch.getRowCount();
+                positions[r] = 0;
+                return true;
+            }
+        }
+        columns[r] = null;
+        keyColumns[r] = null;
+        return false;
+    }
+
+    /**
+     * Compares the current rows of two runs, the first run coming first when the keys are equal.
+     */
+    private int compareRuns(int a, int b) {
+        for (int k = 0; k < keys.length; k++) {
+            Column x = keyColumns[a][k];
+            Column y = keyColumns[b][k];
+            int i = positions[a];
+            int j = positions[b];
+            boolean xNull = x.isNull(i);
+            boolean yNull = y.isNull(j);
+            if (xNull || yNull) {
+                if (xNull != yNull) {
+                    return xNull ? 1 : -1;
+                }
+                continue;
+            }
+            int c = KeyOrder.compare(x, i, y, j);
+            if (c != 0) {
+                return ascending[k] ? c : -c;
+            }
+        }
+        return Integer.compare(a, b);
+    }
+}
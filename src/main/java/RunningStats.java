@@ -0,0 +1,121 @@
+/**
+ * Accumulates the statistics of a numeric column in a single pass: count, mean, minimum, maximum, variance and
+ * quartiles. The sum is compensated (Kahan-Babuska-Neumaier), so that the mean does not drift on long columns,
+ * and the variance is updated with Welford's algorithm, which avoids the cancellation of the sum of squares.
+ * The quartiles are estimated by {@link QuantileSketch}es.
+ */
+final class RunningStats {
+    private int count;
+    private double sum;
+    private double compensation;
+    private double mean;
+    private double m2;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private final QuantileSketch q25 = new QuantileSketch(0.25);
+    private final QuantileSketch q50 = new QuantileSketch(0.5);
+    private final QuantileSketch q75 = new QuantileSketch(0.75);
+
+    /**
+     * Accumulates the non-null cells of a numeric column, reading the primitive arrays of the typed columns directly.
+     *
+     * @param column The column.
+     * @return The statistics of the column.
+     */
+    static RunningStats of(Column column) {
+        RunningStats stats = new RunningStats();
+        int size = column.size();
+        boolean nulls = column.nullCount() > 0;
+        if (column instanceof IntColumn ints) {
+            int[] values = ints.values;
+            for (int row = 0; row < size; row++) {
+                if (!nulls || !column.isNull(row)) {
+                    stats.add(values[row]);
+                }
+            }
+        } else if (column instanceof LongColumn longs) {
+            long[] values = longs.values;
+            for (int row = 0; row < size; row++) {
+                if (!nulls || !column.isNull(row)) {
+                    stats.add(values[row]);
+                }
+            }
+        } else if (column instanceof DoubleColumn doubles) {
+            double[] values = doubles.values;
+            for (int row = 0; row < size; row++) {
+                if (!nulls || !column.isNull(row)) {
+                    stats.add(values[row]);
+                }
+            }
+        } else {
+            for (int row = 0; row < size; row++) {
+                if (!column.isNull(row)) {
+                    stats.add(column.getDouble(row));
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value The value.
+     */
+    void add(double value) {
+        if (count++ == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double t = sum + value;
+        compensation += Math.abs(sum) >= Math.abs(value) ? (sum - t) + value : (value - t) + sum;
+        sum = t;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        q25.add(value);
+        q50.add(value);
+        q75.add(value);
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the compensated sum divided by the count.
+     */
+    double mean() {
+        return (sum + compensation) / count;
+    }
+
+    double min() {
+        return min;
+    }
+
+    double max() {
+        return max;
+    }
+
+    /**
+     * Returns the population variance, as {@link DataFrame#sd(Object[])} computes it.
+     */
+    double variance() {
+        return m2 / count;
+    }
+
+    double firstQuartile() {
+        return q25.quantile();
+    }
+
+    double median() {
+        return q50.quantile();
+    }
+
+    double thirdQuartile() {
+        return q75.quantile();
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An index of a column that grew by appending rows, made of the indexes of consecutive ranges of its rows, as
+ * {@link ColumnIndex#append(Column)} builds it. The rows found in each segment are in increasing order and come
+ * before those of the next segment, so the rows of the whole index are found by concatenating them.
+ */
+final class SegmentedIndex extends ColumnIndex {
+    private final ColumnIndex[] segments;
+
+    /**
+     * Constructs an index of segments.
+     *
+     * @param segments The indexes of consecutive ranges of rows, from the first one, all of the same kind.
+     */
+    SegmentedIndex(ColumnIndex[] segments) {
+        super(segments[0].getLabel(), segments[0].getType(), segments[0].from, segments[segments.length - 1].to);
+        this.segments = segments;
+    }
+
+    @Override
+    List<ColumnIndex> segments() {
+        return List.of(segments);
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        long bytes = 0;
+        for (ColumnIndex segment : segments) {
+            bytes += segment.getMemoryBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    int[] equal(Object value) {
+        ArrayList<int[]> parts = new ArrayList<>(segments.length);
+        for (ColumnIndex segment : segments) {
+            parts.add(segment.equal(value));
+        }
+        return concat(parts);
+    }
+
+    @Override
+    int[] range(Object value, boolean lower, boolean equal, boolean greater) {
+        ArrayList<int[]> parts = new ArrayList<>(segments.length);
+        for (ColumnIndex segment : segments) {
+            int[] rows = segment.range(value, lower, equal, greater);
+            if (rows == null) {
+                return null;
+            }
+            parts.add(rows);
+        }
+        return concat(parts);
+    }
+
+    private static int[] concat(ArrayList<int[]> parts) {
+        int total = 0;
+        for (int[] part : parts) {
+            total += part.length;
+        }
+        int[] rows = new int[total];
+        int k = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, rows, k, part.length);
+            k += part.length;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The rows of a DataFrame matching a predicate, or sorted by {@link DataFrame#sortBy(String[], boolean[])}, kept
+ * as a vector of row indices instead of a copy of the data.
+ * Refining a selection with {@link #where(Predicate)} only tests the rows already selected, keeping their order,
+ * and no column is copied until {@link #toDataFrame()} is called.
+ */
+public class Selection {
+    private final DataFrame frame;
+    private final int[] rows;
+
+    /**
+     * Constructs a selection.
+     *
+     * @param frame The DataFrame the rows belong to.
+     * @param rows  The selected rows, in the order they should appear.
+     */
+    Selection(DataFrame frame, int[] rows) {
+        this.frame = frame;
+        this.rows = rows;
+    }
+
+    /**
+     * Keeps the selected rows matching another predicate.
+     *
+     * @param predicate The condition the rows must match.
+     * @return The refined selection.
+     * @throws IllegalArgumentException if the predicate uses a column that does not exist.
+     */
+    public Selection where(Predicate predicate) {
+        int[] selected = rows.clone();
+        int count = predicate.retain(frame, selected, selected.length);
+        return new Selection(frame, Arrays.copyOf(selected, count));
+    }
+
+    /**
+     * Returns the number of selected rows.
+     *
+     * @return The number of selected rows.
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * Returns the indices of the selected rows.
+     *
+     * @return The selected rows, in order.
+     */
+    public int[] getRows() {
+        return rows.clone();
+    }
+
+    /**
+     * Returns the selected rows as a bitmap.
+     *
+     * @return A BitSet holding the index of every selected row.
+     */
+    public BitSet toBitSet() {
+        BitSet bits = new BitSet(frame.getRowCount());
+        for (int row : rows) {
+            bits.set(row);
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the values of a column for the selected rows.
+     *
+     * @param columnName The label of the column.
+     * @return An ArrayList containing the values of the selected rows.
+     * @throws IllegalArgumentException if the column does not exist.
+     */
+    public ArrayList<Object> getColumnValues(String columnName) {
+        Column column = frame.getColumn(columnName);
+        ArrayList<Object> values = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            values.add(column.get(row));
+        }
+        return values;
+    }
+
+    /**
+     * Prints the first selected rows, including column labels.
+     *
+     * @param numberOfRows The number of rows to display from the beginning of the selection.
+     */
+    public void head(int numberOfRows) {
+        frame.printRows(Arrays.copyOf(rows, Math.max(0, Math.min(numberOfRows, rows.length))));
+    }
+
+    /**
+     * Prints the last selected rows, including column labels.
+     *
+     * @param numberOfRows The number of rows to display from the end of the selection.
+     */
+    public void tail(int numberOfRows) {
+        frame.printRows(Arrays.copyOfRange(rows, Math.max(rows.length - numberOfRows, 0), rows.length));
+    }
+
+    /**
+     * Copies the selected rows into a new DataFrame.
+     *
+     * @return A new DataFrame holding the selected rows, possibly none.
+     */
+    public DataFrame toDataFrame() {
+        return frame.rows(rows);
+    }
+}
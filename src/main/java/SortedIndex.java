@@ -0,0 +1,183 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A sorted index: the rows holding a value, sorted by value with {@link RowSorter}, so the rows of a range of
+ * values are found by two binary searches. It applies to int, long, double and string columns.
+ * NaN values are sorted after the others, where no range reaches them.
+ */
+final class SortedIndex extends ColumnIndex {
+    private final Column column;
+    private final int[] rows;
+    /**
+     * The number of sorted rows that are not NaN.
+     */
+    private final int ordered;
+
+    SortedIndex(String label, Column indexed) {
+        this(label, indexed, 0, indexed.size());
+    }
+
+    /**
+     * Indexes the rows [from, to) of a column.
+     */
+    SortedIndex(String label, Column indexed, int from, int to) {
+        super(label, IndexType.SORTED, from, to);
+        Column column = Compression.plain(indexed);
+        if (!(column instanceof IntColumn || column instanceof LongColumn || column instanceof DoubleColumn
+                || column instanceof StringColumn)) {
+            throw new IllegalArgumentException("A sorted index needs a numeric or string column.");
+        }
+        this.column = column;
+        Column range = column;
+        if (from > 0 || to < column.size()) {
+            int[] rangeRows = new int[to - from];
+            for (int i = 0; i < rangeRows.length; i++) {
+                rangeRows[i] = from + i;
+            }
+            range = column.take(rangeRows);
+        }
+        int[] sorted = new RowSorter(ForkJoinPool.commonPool()).sort(new Column[]{range}, new boolean[]{true});
+        this.rows = Arrays.copyOf(sorted, range.size() - range.nullCount());
+        for (int i = 0; from > 0 && i < rows.length; i++) {
+            rows[i] += from;
+        }
+        int end = rows.length;
+        if (column instanceof DoubleColumn doubles) {
+            while (end > 0 && Double.isNaN(doubles.values[rows[end - 1]])) {
+                end--;
+            }
+        }
+        this.ordered = end;
+    }
+
+    @Override
+    public long getMemoryBytes() {
+        return 4L * rows.length;
+    }
+
+    @Override
+    int[] equal(Object value) {
+        boolean sameType = column instanceof IntColumn && value instanceof Integer
+                || column instanceof LongColumn && value instanceof Long
+                || column instanceof DoubleColumn && value instanceof Double
+                || column instanceof StringColumn && value instanceof String;
+        if (!sameType) {
+            return new int[0];
+        }
+        // The order of the rows is that of KeyOrder, consistent with equals
+        Column single = Column.of(new Object[]{value});
+        int from = search(rows.length, row -> KeyOrder.compare(column, row, single, 0) >= 0);
+        int to = search(rows.length, row -> KeyOrder.compare(column, row, single, 0) > 0);
+        return rows(from, to);
+    }
+
+    @Override
+    int[] range(Object value, boolean lower, boolean equal, boolean greater) {
+        int[] bounds = bounds(value, lower, equal, greater);
+        if (bounds != null) {
+            return rows(bounds[0], bounds[1]);
+        }
+        int[] below = bounds(value, true, false, false);
+        if (below == null) {
+            return null;
+        }
+        int[] above = bounds(value, false, false, true);
+        ArrayList<int[]> parts = new ArrayList<>();
+        parts.add(rows(below[0], below[1]));
+        parts.add(rows(above[0], above[1]));
+        return union(parts);
+    }
+
+    /**
+     * Finds the positions, in the sorted rows, of the cells compared to a value as a range predicate selects them.
+     *
+     * @param value   The value.
+     * @param lower   Whether the cells lower than the value match.
+     * @param equal   Whether the cells equal to the value match.
+     * @param greater Whether the cells greater than the value match.
+     * @return The first position and the position after the last, or null if the index cannot answer or if the
+     * matching cells are not contiguous.
+     */
+    int[] bounds(Object value, boolean lower, boolean equal, boolean greater) {
+        if (lower && greater && !equal) {
+            return null;
+        }
+        RowTest notLower;
+        RowTest higher;
+        if (column instanceof StringColumn strings && value instanceof String s) {
+            notLower = row -> strings.dictionary[strings.codes[row]].compareTo(s) >= 0;
+            higher = row -> strings.dictionary[strings.codes[row]].compareTo(s) > 0;
+        } else if (column instanceof StringColumn || !(value instanceof Number)) {
+            return null;
+        } else if (!(column instanceof DoubleColumn) && KeyOrder.isIntegral(value)) {
+            long v = ((Number) value).longValue();
+            notLower = row -> column.getLong(row) >= v;
+            higher = row -> column.getLong(row) > v;
+        } else {
+            double v = ((Number) value).doubleValue();
+            if (Double.isNaN(v)) {
+                return new int[]{0, 0};
+            }
+            notLower = row -> column.getDouble(row) >= v;
+            higher = row -> column.getDouble(row) > v;
+        }
+        int firstNotLower = search(ordered, notLower);
+        int firstHigher = search(ordered, higher);
+        int from = lower ? 0 : equal ? firstNotLower : firstHigher;
+        int to = greater ? ordered : equal ? firstHigher : firstNotLower;
+        return new int[]{from, to};
+    }
+
+    /**
+     * Returns the rows at the given positions of the sorted rows, in increasing order.
+     *
+     * @param from The first position.
+     * @param to   The position after the last.
+     * @return The rows.
+     */
+    int[] rows(int from, int to) {
+        if (from >= to) {
+            return new int[0];
+        }
+        if ((to - from) * 8L < column.size()) {
+            int[] res = Arrays.copyOfRange(rows, from, to);
+            Arrays.sort(res);
+            return res;
+        }
+        // A wide range is cheaper to order through a bitmap of the rows than by sorting them
+        BitSet matching = new BitSet(column.size());
+        for (int i = from; i < to; i++) {
+            matching.set(rows[i]);
+        }
+        int[] res = new int[to - from];
+        int k = 0;
+        for (int row = matching.nextSetBit(0); row >= 0; row = matching.nextSetBit(row + 1)) {
+            res[k++] = row;
+        }
+        return res;
+    }
+
+    private interface RowTest {
+        boolean test(int row);
+    }
+
+    /**
+     * Finds the first of the first n sorted rows passing a test that is false then true along the sorted rows.
+     */
+    private int search(int n, RowTest test) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (test.test(rows[mid])) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
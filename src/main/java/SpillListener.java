@@ -0,0 +1,15 @@
+/**
+ * Receives the spills of the memory-bounded operations of a {@link DataFrameStream}, for instance to log them or to
+ * export them as metrics. It is called on the thread running the operation, after the files are written.
+ */
+@FunctionalInterface
+public interface SpillListener {
+    /**
+     * Called each time an operation writes part of its data to temporary files.
+     *
+     * @param operation The spilling operation: "groupby" or "sortBy".
+     * @param files     The number of files written.
+     * @param bytes     The number of bytes written.
+     */
+    void spilled(String operation, int files, long bytes);
+}
@@ -0,0 +1,109 @@
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * A dictionary-encoded column of strings.
+ * Each distinct string is stored once in the dictionary and the cells only hold its code.
+ */
+public class StringColumn extends Column {
+    int[] codes;
+    String[] dictionary;
+    private HashMap<String, Integer> lookup;
+
+    /**
+     * Constructs a string column.
+     *
+     * @param codes      The dictionary code of each cell. Missing cells should hold 0.
+     * @param size       The number of cells in use.
+     * @param dictionary The distinct strings of the column, indexed by code.
+     * @param nulls      The bitmap of missing cells, or null if no cell is missing.
+     */
+    public StringColumn(int[] codes, int size, String[] dictionary, BitSet nulls) {
+        super(size, nulls);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    /**
+     * Estimates the memory of the codes and of the dictionary, counting 48 bytes of overhead per string.
+     *
+     * @return The size of the column, in bytes.
+     */
+    @Override
+    public long getMemoryBytes() {
+        long bytes = 4L * codes.length + 8L * dictionary.length + nullBytes();
+        for (String s : dictionary) {
+            bytes += 48 + s.length();
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : dictionary[codes[row]];
+    }
+
+    /**
+     * Returns the string at the given row.
+     *
+     * @param row The row index.
+     * @return The string, or null if the cell is missing.
+     */
+    public String getString(int row) {
+        return isNull(row) ? null : dictionary[codes[row]];
+    }
+
+    /**
+     * Returns the dictionary code of the cell at the given row.
+     *
+     * @param row The row index.
+     * @return The code of the cell.
+     */
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    /**
+     * Returns the dictionary of the column.
+     *
+     * @return The distinct strings of the column, indexed by code.
+     */
+    public String[] getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the dictionary code of the given string.
+     *
+     * @param value The string to look up.
+     * @return Its code, or -1 if the string does not appear in the dictionary.
+     */
+    public int codeOf(String value) {
+        if (lookup == null) {
+            HashMap<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < dictionary.length; i++) {
+                map.put(dictionary[i], i);
+            }
+            lookup = map;
+        }
+        Integer code = lookup.get(value);
+        return code == null ? -1 : code;
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        int[] res = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (row >= 0) {
+                res[i] = codes[row];
+            }
+        }
+        return new StringColumn(res, rows.length, dictionary, takeNulls(rows));
+    }
+}
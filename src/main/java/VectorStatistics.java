@@ -0,0 +1,127 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Reductions of a numeric column without null cells, computed with the incubating Vector API on the primitive
+ * array of the column. Int and long values are converted to doubles lane by lane, so every reduction
+ * accumulates doubles, as the scalar loops of {@link DataFrame} do; only the order of the additions differs.
+ * This class must only be loaded when the jdk.incubator.vector module is present, see
+ * {@link ParallelStatistics#isVectorized()}.
+ */
+final class VectorStatistics {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = VectorSpecies.of(long.class, DOUBLES.vectorShape());
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    private VectorStatistics() {
+    }
+
+    /**
+     * Indicates whether a column can be reduced by this class.
+     *
+     * @param column The column.
+     * @return true if the column is an int, long or double column without null cells.
+     */
+    static boolean supports(Column column) {
+        return (column instanceof IntColumn || column instanceof LongColumn || column instanceof DoubleColumn)
+                && column.nullCount() == 0;
+    }
+
+    /**
+     * Loads DOUBLES.length() values of the column, from row i, as doubles.
+     */
+    private static DoubleVector load(Column column, int i) {
+        if (column instanceof DoubleColumn doubles) {
+            return DoubleVector.fromArray(DOUBLES, doubles.values, i);
+        }
+        if (column instanceof LongColumn longs) {
+            return (DoubleVector) LongVector.fromArray(LONGS, longs.values, i)
+                    .convertShape(VectorOperators.L2D, DOUBLES, 0);
+        }
+        return (DoubleVector) IntVector.fromArray(INTS, ((IntColumn) column).values, i)
+                .convertShape(VectorOperators.I2D, DOUBLES, 0);
+    }
+
+    /**
+     * Sums the values of a column.
+     *
+     * @param column A column accepted by {@link #supports(Column)}.
+     * @return The sum.
+     */
+    static double sum(Column column) {
+        int size = column.size();
+        int bound = DOUBLES.loopBound(size);
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            acc = acc.add(load(column, i));
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < size; i++) {
+            sum += column.getDouble(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the minimum and maximum values of a column, ignoring NaN values, as {@link DataFrame#minEtMax()} does.
+     * The lanes start from the infinities, so the minimum only exceeds the maximum when there is no other value.
+     *
+     * @param column A column accepted by {@link #supports(Column)}.
+     * @return The minimum and the maximum, or null if the column holds no value other than NaN.
+     */
+    static double[] minMax(Column column) {
+        int size = column.size();
+        int bound = DOUBLES.loopBound(size);
+        DoubleVector min = DoubleVector.broadcast(DOUBLES, Double.POSITIVE_INFINITY);
+        DoubleVector max = DoubleVector.broadcast(DOUBLES, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector v = load(column, i);
+            min = min.blend(v, v.compare(VectorOperators.LT, min));
+            max = max.blend(v, v.compare(VectorOperators.GT, max));
+        }
+        double minVal = min.reduceLanes(VectorOperators.MIN);
+        double maxVal = max.reduceLanes(VectorOperators.MAX);
+        for (; i < size; i++) {
+            double value = column.getDouble(i);
+            if (value > maxVal) {
+                maxVal = value;
+            }
+            if (value < minVal) {
+                minVal = value;
+            }
+        }
+        return minVal > maxVal ? null : new double[]{minVal, maxVal};
+    }
+
+    /**
+     * Sums the squared deviations of the values of a column from a mean.
+     *
+     * @param column A column accepted by {@link #supports(Column)}.
+     * @param mean   The mean.
+     * @return The sum of the squared deviations.
+     */
+    static double squaredDeviations(Column column, double mean) {
+        int size = column.size();
+        int bound = DOUBLES.loopBound(size);
+        DoubleVector m = DoubleVector.broadcast(DOUBLES, mean);
+        DoubleVector acc = DoubleVector.zero(DOUBLES);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            DoubleVector d = load(column, i).sub(m);
+            acc = d.fma(d, acc);
+        }
+        double res = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < size; i++) {
+            double cal = column.getDouble(i) - mean;
+            res = res + cal * cal;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,141 @@
+import java.util.IdentityHashMap;
+
+/**
+ * A view of the rows of another column, its parent, selected by a vector of row indices, as
+ * {@link DataFrame#iloc(int[])} returns it: no cell is copied, only the null bitmap of the selected rows is built.
+ * The columns of a view share the same index vector, and a view of a view selects from the original parent, so
+ * chained selections never stack up. The cells of a string or coded parent keep their codes, so predicates and
+ * groupby work on the codes of the parent's domain.
+ */
+public class ViewColumn extends CodedColumn {
+    private final Column parent;
+    private final int[] rows;
+    private Column domain;
+
+    private ViewColumn(Column parent, int[] rows) {
+        super(rows.length, parent.takeNulls(rows));
+        this.parent = parent;
+        this.rows = rows;
+    }
+
+    /**
+     * Selects the same rows of several columns, the columns that are already views sharing a single composed
+     * index vector per parent vector.
+     *
+     * @param columns The columns, all of the same size.
+     * @param rows    The rows to select, which must be valid rows of the columns. The array is not copied.
+     * @return The views of the rows of each column.
+     */
+    static Column[] of(Column[] columns, int[] rows) {
+        IdentityHashMap<int[], int[]> composed = new IdentityHashMap<>();
+        Column[] res = new Column[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] instanceof ViewColumn view) {
+                int[] parentRows = composed.computeIfAbsent(view.rows, r -> compose(r, rows));
+                res[i] = new ViewColumn(view.parent, parentRows);
+            } else {
+                res[i] = new ViewColumn(columns[i], rows);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Maps rows of a view to rows of its parent, a negative row giving -1.
+     */
+    private static int[] compose(int[] parentRows, int[] rows) {
+        int[] res = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            res[i] = rows[i] < 0 ? -1 : parentRows[rows[i]];
+        }
+        return res;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return parent.getType();
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return parent.isNumeric();
+    }
+
+    /**
+     * Returns the heap memory held by the view alone: the index vector, shared by the columns of the view,
+     * and the null bitmap. The parent is not counted.
+     *
+     * @return The size of the view, in bytes.
+     */
+    @Override
+    public long getMemoryBytes() {
+        return 4L * rows.length + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : parent.get(rows[row]);
+    }
+
+    @Override
+    public int getInt(int row) {
+        return parent.getInt(rows[row]);
+    }
+
+    @Override
+    public long getLong(int row) {
+        return parent.getLong(rows[row]);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        return parent.getDouble(rows[row]);
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        return parent.getBoolean(rows[row]);
+    }
+
+    /**
+     * Returns the code of the cell in the dictionary of a string parent or in the domain of a coded parent, and
+     * otherwise the row of the cell in the parent.
+     */
+    @Override
+    int code(int row) {
+        if (parent instanceof StringColumn strings) {
+            return strings.codes[rows[row]];
+        }
+        if (parent instanceof CodedColumn coded) {
+            return coded.code(rows[row]);
+        }
+        return rows[row];
+    }
+
+    /**
+     * Returns the dictionary of a string parent or the domain of a coded parent. The domain of other parents
+     * would be the whole parent, which is not worth testing or grouping for a selection of its rows.
+     */
+    @Override
+    Column domain() {
+        if (domain == null) {
+            if (parent instanceof StringColumn strings) {
+                domain = new StringColumn(identity(strings.dictionary.length), strings.dictionary.length,
+                        strings.dictionary, null);
+            } else if (parent instanceof CodedColumn coded) {
+                domain = coded.domain();
+            }
+        }
+        return domain;
+    }
+
+    @Override
+    public Column decompress() {
+        return parent.take(rows);
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        return parent.take(compose(this.rows, rows));
+    }
+}
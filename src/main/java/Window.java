@@ -0,0 +1,237 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * SQL-style window functions over the partitions of a DataFrame, as returned by
+ * {@link DataFrame#over(String, String, boolean)}: unlike groupby, which collapses each group to a row, each
+ * function computes a new column holding a value for every row, from the rows of its partition taken in the
+ * order of the order column. The rows are partitioned in a single pass over the partition column with a
+ * {@link GroupIndex}, null keys forming their own partition. They are sorted once by the order column with the
+ * parallel radix sort of {@link RowSorter}, on the common ForkJoinPool or the pool given to
+ * {@link DataFrame#over(String, String, boolean, ForkJoinPool)}. The sort is stable, and the rows are then
+ * scattered to their partitions in that order, so each partition ends up sorted, ties in the order of the rows
+ * and null order keys last.
+ * Each function returns a new Window holding one more column, and {@link #toDataFrame()} gives the columns of the
+ * DataFrame followed by the computed ones.
+ */
+public class Window {
+    private final DataFrame frame;
+    private final Column order;
+    /**
+     * The rows, partition after partition, each partition sorted by the order column.
+     */
+    private final int[] rows;
+    /**
+     * Where the rows of each partition start in rows, followed by the number of rows.
+     */
+    private final int[] starts;
+    private final ArrayList<String> labels;
+    private final ArrayList<Column> columns;
+
+    /**
+     * Partitions and sorts the rows of a DataFrame.
+     *
+     * @param frame       The DataFrame.
+     * @param partitionBy The label of the partition column.
+     * @param orderBy     The label of the order column.
+     * @param ascending   The direction of the order.
+     * @param pool        The pool whose workers sort the rows.
+     * @throws IllegalArgumentException if a column does not exist.
+     */
+    Window(DataFrame frame, String partitionBy, String orderBy, boolean ascending, ForkJoinPool pool) {
+        Column partition = frame.getColumn(partitionBy);
+        this.frame = frame;
+        this.order = Compression.plain(frame.getColumn(orderBy));
+        this.labels = new ArrayList<>();
+        this.columns = new ArrayList<>();
+        GroupIndex partitions = GroupIndex.of(partition);
+        this.starts = partitions.starts();
+        this.rows = new int[frame.getRowCount()];
+        if (rows.length == 0) {
+            return;
+        }
+        int[] sorted = new RowSorter(pool).sort(new Column[]{order}, new boolean[]{ascending});
+        int[] next = Arrays.copyOf(starts, partitions.groups());
+        for (int row : sorted) {
+            rows[next[partitions.groupOf[row]]++] = row;
+        }
+    }
+
+    private Window(Window window, String label, Column column) {
+        if (window.frame.getColumnLabels().contains(label) || window.labels.contains(label)) {
+            throw new IllegalArgumentException("Column with label " + label + " already exists.");
+        }
+        this.frame = window.frame;
+        this.order = window.order;
+        this.rows = window.rows;
+        this.starts = window.starts;
+        this.labels = new ArrayList<>(window.labels);
+        this.columns = new ArrayList<>(window.columns);
+        labels.add(label);
+        columns.add(column);
+    }
+
+    /**
+     * Numbers the rows of each partition from 1, in order (ROW_NUMBER).
+     *
+     * @param label The label of the new int column.
+     * @return The window holding the new column.
+     * @throws IllegalArgumentException if the label is already used.
+     */
+    public Window rowNumber(String label) {
+        int[] res = new int[rows.length];
+        for (int p = 0; p + 1 < starts.length; p++) {
+            for (int i = starts[p]; i < starts[p + 1]; i++) {
+                res[rows[i]] = i - starts[p] + 1;
+            }
+        }
+        return new Window(this, label, new IntColumn(res, res.length, null));
+    }
+
+    /**
+     * Ranks the rows of each partition from 1, rows with equal order keys sharing the rank of the first of them,
+     * so that the ranks have gaps after ties (RANK).
+     *
+     * @param label The label of the new int column.
+     * @return The window holding the new column.
+     * @throws IllegalArgumentException if the label is already used.
+     */
+    public Window rank(String label) {
+        return new Window(this, label, ranks(false));
+    }
+
+    /**
+     * Ranks the rows of each partition from 1, rows with equal order keys sharing a rank, without gaps after
+     * ties (DENSE_RANK).
+     *
+     * @param label The label of the new int column.
+     * @return The window holding the new column.
+     * @throws IllegalArgumentException if the label is already used.
+     */
+    public Window denseRank(String label) {
+        return new Window(this, label, ranks(true));
+    }
+
+    private Column ranks(boolean dense) {
+        int[] res = new int[rows.length];
+        for (int p = 0; p + 1 < starts.length; p++) {
+            int rank = 0;
+            for (int i = starts[p]; i < starts[p + 1]; i++) {
+                if (i == starts[p] || !sameKey(rows[i - 1], rows[i])) {
+                    rank = dense ? rank + 1 : i - starts[p] + 1;
+                }
+                res[rows[i]] = rank;
+            }
+        }
+        return new IntColumn(res, res.length, null);
+    }
+
+    private boolean sameKey(int a, int b) {
+        boolean aNull = order.isNull(a);
+        boolean bNull = order.isNull(b);
+        return aNull || bNull ? aNull == bNull : KeyOrder.compare(order, a, order, b) == 0;
+    }
+
+    /**
+     * Gives each row the cell of a column at the row coming some rows before it in its partition (LAG).
+     *
+     * @param column The label of the column to read.
+     * @param offset The number of rows to look back.
+     * @param label  The label of the new column, of the type of the column read.
+     * @return The window holding the new column, null where the partition has no such row.
+     * @throws IllegalArgumentException if the column does not exist, the offset is negative or the label is
+     *                                  already used.
+     */
+    public Window lag(String column, int offset, String label) {
+        return shift(column, -offset, offset, label);
+    }
+
+    /**
+     * Gives each row the cell of a column at the row coming some rows after it in its partition (LEAD).
+     *
+     * @param column The label of the column to read.
+     * @param offset The number of rows to look ahead.
+     * @param label  The label of the new column, of the type of the column read.
+     * @return The window holding the new column, null where the partition has no such row.
+     * @throws IllegalArgumentException if the column does not exist, the offset is negative or the label is
+     *                                  already used.
+     */
+    public Window lead(String column, int offset, String label) {
+        return shift(column, offset, offset, label);
+    }
+
+    private Window shift(String column, int shift, int offset, String label) {
+        Column values = frame.getColumn(column);
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset must not be negative.");
+        }
+        int[] taken = new int[rows.length];
+        for (int p = 0; p + 1 < starts.length; p++) {
+            for (int i = starts[p]; i < starts[p + 1]; i++) {
+                long j = (long) i + shift;
+                taken[rows[i]] = j >= starts[p] && j < starts[p + 1] ? rows[(int) j] : -1;
+            }
+        }
+        return new Window(this, label, values.take(taken));
+    }
+
+    /**
+     * Sums the cells of a numeric column over each partition, up to each row in order (cumulative sum). Null
+     * cells give a null result and are skipped by the following sums. The sums of int and long columns are
+     * longs, those of other columns doubles.
+     *
+     * @param column The label of the numeric column to sum.
+     * @param label  The label of the new column.
+     * @return The window holding the new column.
+     * @throws IllegalArgumentException if the column does not exist or is not numeric, or the label is already
+     *                                  used.
+     */
+    public Window cumsum(String column, String label) {
+        Column values = frame.getColumn(column);
+        if (!values.isNumeric()) {
+            throw new IllegalArgumentException("The column " + column + " is not numeric.");
+        }
+        BitSet nulls = new BitSet();
+        boolean integral = values.getType() == ColumnType.INT || values.getType() == ColumnType.LONG;
+        long[] longs = integral ? new long[rows.length] : null;
+        double[] doubles = integral ? null : new double[rows.length];
+        for (int p = 0; p + 1 < starts.length; p++) {
+            long longSum = 0;
+            double doubleSum = 0;
+            for (int i = starts[p]; i < starts[p + 1]; i++) {
+                int row = rows[i];
+                if (values.isNull(row)) {
+                    nulls.set(row);
+                } else if (integral) {
+                    longSum += values.getLong(row);
+                    longs[row] = longSum;
+                } else {
+                    doubleSum += values.getDouble(row);
+                    doubles[row] = doubleSum;
+                }
+            }
+        }
+        Column sums = integral
+                ? new LongColumn(longs, rows.length, nulls)
+                : new DoubleColumn(doubles, rows.length, nulls);
+        return new Window(this, label, sums);
+    }
+
+    /**
+     * Returns the columns of the DataFrame, shared, followed by the columns computed by the window functions.
+     *
+     * @return A DataFrame with the same rows, in the same order.
+     */
+    public DataFrame toDataFrame() {
+        ArrayList<String> resLabels = new ArrayList<>(frame.getColumnLabels());
+        ArrayList<Column> res = new ArrayList<>();
+        for (String label : resLabels) {
+            res.add(frame.getColumn(label));
+        }
+        resLabels.addAll(labels);
+        res.addAll(columns);
+        return new DataFrame(resLabels, res.toArray(new Column[0]));
+    }
+}
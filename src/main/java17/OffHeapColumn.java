@@ -0,0 +1,200 @@
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+import java.util.BitSet;
+
+/**
+ * A column of ints, longs, doubles or booleans whose values are stored outside the Java heap, in a native
+ * {@link MemorySegment} of the incubating Foreign Memory API, as {@link DataFrame#offHeap()} builds it. Only the
+ * null bitmap stays on the heap, and the values are released when the scope of the segment is closed.
+ * This class must only be loaded when the jdk.incubator.foreign module is present.
+ */
+public class OffHeapColumn extends EncodedColumn {
+    private final ColumnType type;
+    private final MemorySegment values;
+
+    private OffHeapColumn(ColumnType type, MemorySegment values, int size, BitSet nulls) {
+        super(size, nulls);
+        this.type = type;
+        this.values = values;
+    }
+
+    /**
+     * Copies an int, long, double or boolean column to native memory.
+     *
+     * @param column The column.
+     * @param scope  The scope owning the native memory.
+     * @return The off-heap column.
+     * @throws IllegalArgumentException if the column does not hold ints, longs, doubles or booleans.
+     */
+    static OffHeapColumn of(Column column, ResourceScope scope) {
+        int n = column.size();
+        MemorySegment heap;
+        if (column instanceof IntColumn ints) {
+            heap = MemorySegment.ofArray(ints.values).asSlice(0, 4L * n);
+        } else if (column instanceof LongColumn longs) {
+            heap = MemorySegment.ofArray(longs.values).asSlice(0, 8L * n);
+        } else if (column instanceof DoubleColumn doubles) {
+            heap = MemorySegment.ofArray(doubles.values).asSlice(0, 8L * n);
+        } else if (column instanceof BooleanColumn booleans) {
+            MemorySegment values = MemorySegment.allocateNative(Math.max(1, n), scope);
+            for (int row = 0; row < n; row++) {
+                MemoryAccess.setByteAtOffset(values, row, booleans.values[row] ? (byte) 1 : 0);
+            }
+            return new OffHeapColumn(ColumnType.BOOLEAN, values, n, column.nulls);
+        } else {
+            throw new IllegalArgumentException("Only int, long, double and boolean columns can be stored off heap.");
+        }
+        MemorySegment values = MemorySegment.allocateNative(Math.max(8, heap.byteSize()), 8, scope);
+        values.copyFrom(heap);
+        return new OffHeapColumn(column.getType(), values, n, column.nulls);
+    }
+
+    /**
+     * Returns the native memory holding the values.
+     *
+     * @return The size of the segment, in bytes.
+     */
+    public long getOffHeapBytes() {
+        return values.byteSize();
+    }
+
+    @Override
+    public ColumnType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the heap memory of the column, which only holds its null bitmap.
+     *
+     * @return The size of the null bitmap, in bytes.
+     */
+    @Override
+    public long getMemoryBytes() {
+        return nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        switch (type) {
+            case INT:
+                return getInt(row);
+            case LONG:
+                return getLong(row);
+            case DOUBLE:
+                return getDouble(row);
+            default:
+                return getBoolean(row);
+        }
+    }
+
+    @Override
+    public int getInt(int row) {
+        if (type != ColumnType.INT) {
+            return super.getInt(row);
+        }
+        return MemoryAccess.getIntAtIndex(values, row);
+    }
+
+    @Override
+    public long getLong(int row) {
+        if (type == ColumnType.INT) {
+            return MemoryAccess.getIntAtIndex(values, row);
+        }
+        if (type != ColumnType.LONG) {
+            return super.getLong(row);
+        }
+        return MemoryAccess.getLongAtIndex(values, row);
+    }
+
+    @Override
+    public double getDouble(int row) {
+        switch (type) {
+            case INT:
+                return MemoryAccess.getIntAtIndex(values, row);
+            case LONG:
+                return MemoryAccess.getLongAtIndex(values, row);
+            case DOUBLE:
+                return MemoryAccess.getDoubleAtIndex(values, row);
+            default:
+                return super.getDouble(row);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(int row) {
+        if (type != ColumnType.BOOLEAN) {
+            return super.getBoolean(row);
+        }
+        return MemoryAccess.getByteAtOffset(values, row) != 0;
+    }
+
+    /**
+     * Copies the values back to the heap in a single bulk copy.
+     *
+     * @return The decoded column.
+     */
+    @Override
+    public Column decompress() {
+        switch (type) {
+            case INT:
+                int[] ints = new int[size];
+                MemorySegment.ofArray(ints).copyFrom(values.asSlice(0, 4L * size));
+                return new IntColumn(ints, size, nulls);
+            case LONG:
+                long[] longs = new long[size];
+                MemorySegment.ofArray(longs).copyFrom(values.asSlice(0, 8L * size));
+                return new LongColumn(longs, size, nulls);
+            case DOUBLE:
+                double[] doubles = new double[size];
+                MemorySegment.ofArray(doubles).copyFrom(values.asSlice(0, 8L * size));
+                return new DoubleColumn(doubles, size, nulls);
+            default:
+                return super.decompress();
+        }
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        int n = rows.length;
+        BitSet res = takeNulls(rows);
+        switch (type) {
+            case INT:
+                int[] ints = new int[n];
+                for (int i = 0; i < n; i++) {
+                    if (rows[i] >= 0) {
+                        ints[i] = MemoryAccess.getIntAtIndex(values, rows[i]);
+                    }
+                }
+                return new IntColumn(ints, n, res);
+            case LONG:
+                long[] longs = new long[n];
+                for (int i = 0; i < n; i++) {
+                    if (rows[i] >= 0) {
+                        longs[i] = MemoryAccess.getLongAtIndex(values, rows[i]);
+                    }
+                }
+                return new LongColumn(longs, n, res);
+            case DOUBLE:
+                double[] doubles = new double[n];
+                for (int i = 0; i < n; i++) {
+                    if (rows[i] >= 0) {
+                        doubles[i] = MemoryAccess.getDoubleAtIndex(values, rows[i]);
+                    }
+                }
+                return new DoubleColumn(doubles, n, res);
+            default:
+                boolean[] booleans = new boolean[n];
+                for (int i = 0; i < n; i++) {
+                    if (rows[i] >= 0) {
+                        booleans[i] = MemoryAccess.getByteAtOffset(values, rows[i]) != 0;
+                    }
+                }
+                return new BooleanColumn(booleans, n, res);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+import jdk.incubator.foreign.ResourceScope;
+
+/**
+ * The native memory holding the off-heap columns of a DataFrame, allocated from a shared {@link ResourceScope} of
+ * the incubating Foreign Memory API, so that any thread may read the columns, and released at once by
+ * {@link #close()}. Reading a column after that throws an IllegalStateException instead of reading freed memory.
+ * This class must only be loaded when the jdk.incubator.foreign module is present, see
+ * {@link DataFrame#offHeap()}.
+ */
+final class OffHeapMemory implements NativeMemory {
+    private final ResourceScope scope = ResourceScope.newSharedScope();
+
+    /**
+     * Copies a column to native memory, if its type can be stored there.
+     * Object columns, and columns that are already encoded or off heap, are returned as they are.
+     *
+     * @param column The column.
+     * @return The off-heap column, or the column itself.
+     */
+    @Override
+    public Column store(Column column) {
+        if (column instanceof StringColumn strings) {
+            return OffHeapStringColumn.of(strings, scope);
+        }
+        if (column instanceof IntColumn || column instanceof LongColumn || column instanceof DoubleColumn
+                || column instanceof BooleanColumn) {
+            return OffHeapColumn.of(column, scope);
+        }
+        return column;
+    }
+
+    /**
+     * Releases the native memory of the columns. Closing it again does nothing.
+     *
+     * @throws IllegalStateException if another thread is reading a column.
+     */
+    @Override
+    public void close() {
+        if (scope.isAlive()) {
+            scope.close();
+        }
+    }
+}
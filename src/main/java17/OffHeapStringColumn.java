@@ -0,0 +1,100 @@
+import jdk.incubator.foreign.MemoryAccess;
+import jdk.incubator.foreign.MemorySegment;
+import jdk.incubator.foreign.ResourceScope;
+
+import java.util.BitSet;
+
+/**
+ * A column of strings whose dictionary codes are stored outside the Java heap, in a native {@link MemorySegment}
+ * of the incubating Foreign Memory API, as {@link DataFrame#offHeap()} builds it. The dictionary and the null
+ * bitmap stay on the heap, and the dictionary is the domain of the codes, so predicates and groupby work on the
+ * codes as they do on a {@link DictionaryColumn}.
+ * This class must only be loaded when the jdk.incubator.foreign module is present.
+ */
+public class OffHeapStringColumn extends CodedColumn {
+    private final StringColumn dictionary;
+    private final MemorySegment codes;
+
+    private OffHeapStringColumn(StringColumn dictionary, MemorySegment codes, int size, BitSet nulls) {
+        super(size, nulls);
+        this.dictionary = dictionary;
+        this.codes = codes;
+    }
+
+    /**
+     * Copies the codes of a string column to native memory.
+     *
+     * @param column The column.
+     * @param scope  The scope owning the native memory.
+     * @return The off-heap column.
+     */
+    static OffHeapStringColumn of(StringColumn column, ResourceScope scope) {
+        int n = column.size();
+        MemorySegment codes = MemorySegment.allocateNative(Math.max(4, 4L * n), 4, scope);
+        codes.copyFrom(MemorySegment.ofArray(column.codes).asSlice(0, 4L * n));
+        String[] strings = column.dictionary;
+        StringColumn dictionary = new StringColumn(identity(strings.length), strings.length, strings, null);
+        return new OffHeapStringColumn(dictionary, codes, n, column.nulls);
+    }
+
+    /**
+     * Returns the native memory holding the codes.
+     *
+     * @return The size of the segment, in bytes.
+     */
+    public long getOffHeapBytes() {
+        return codes.byteSize();
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    /**
+     * Returns the heap memory of the column, which holds its dictionary and its null bitmap.
+     *
+     * @return The size of the dictionary and of the null bitmap, in bytes.
+     */
+    @Override
+    public long getMemoryBytes() {
+        return dictionary.getMemoryBytes() + nullBytes();
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : dictionary.get(code(row));
+    }
+
+    @Override
+    int code(int row) {
+        return MemoryAccess.getIntAtIndex(codes, row);
+    }
+
+    @Override
+    Column domain() {
+        return dictionary;
+    }
+
+    /**
+     * Copies the codes back to the heap in a single bulk copy.
+     *
+     * @return The decoded column, sharing the dictionary.
+     */
+    @Override
+    public Column decompress() {
+        int[] res = new int[size];
+        MemorySegment.ofArray(res).copyFrom(codes.asSlice(0, 4L * size));
+        return new StringColumn(res, size, dictionary.dictionary, nulls);
+    }
+
+    @Override
+    public Column take(int[] rows) {
+        int[] res = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            res[i] = row < 0 || isNull(row) ? -1 : code(row);
+        }
+        return dictionary.take(res);
+    }
+}
@@ -0,0 +1,130 @@
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AggregationTest {
+
+    private final DataFrame df = new DataFrame(new String[]{"Country", "Age", "Salary", "Name"}, new Object[][]{
+            {"France", 20, 1000.0, "Ali"},
+            {"Italy", 30, null, "Serge"},
+            {"France", 40, 3000.5, null},
+            {null, 50, 10L, "Noemie"},
+            {"Italy", 60, null, "Jorane"}
+    });
+
+    @Test
+    public void testSumHandlesEveryNumericType() {
+        DataFrame grouped = df.groupby("Country", Aggregation.SUM);
+        assertEquals(3, grouped.getColumnLabels().size());
+        assertEquals("France", grouped.getRowValues(0).get(0));
+        assertEquals(60.0, grouped.getRowValues(0).get(1));
+        assertEquals(4000.5, grouped.getRowValues(0).get(2));
+        assertEquals(0.0, grouped.getRowValues(1).get(2));
+        // Null keys form their own group
+        assertNull(grouped.getRowValues(2).get(0));
+        assertEquals(10.0, grouped.getRowValues(2).get(2));
+    }
+
+    @Test
+    public void testMeanMinMaxSkipNulls() {
+        assertEquals(2000.25, df.groupby("Country", "mean").getRowValues(0).get(2));
+        assertNull(df.groupby("Country", "mean").getRowValues(1).get(2));
+        assertEquals(1000.0, df.groupby("Country", "min").getRowValues(0).get(2));
+        assertEquals(60.0, df.groupby("Country", "max").getRowValues(1).get(1));
+        assertNull(df.groupby("Country", "max").getRowValues(1).get(2));
+    }
+
+    @Test
+    public void testVarAndStd() {
+        assertEquals(100.0, df.groupby("Country", "var").getRowValues(0).get(1));
+        assertEquals(15.0, df.groupby("Country", "std").getRowValues(1).get(1));
+        assertEquals(0.0, df.groupby("Country", "std").getRowValues(2).get(1));
+    }
+
+    @Test
+    public void testCountFirstAndLastApplyToEveryColumn() {
+        DataFrame count = df.groupby("Country", "count");
+        assertEquals(4, count.getColumnLabels().size());
+        assertEquals(1, count.getRowValues(0).get(3));
+        assertEquals(0, count.getRowValues(1).get(2));
+
+        DataFrame first = df.groupby("Country", Aggregation.FIRST);
+        assertEquals("Ali", first.getRowValues(0).get(3));
+        assertEquals(1000.0, first.getRowValues(0).get(2));
+        assertNull(first.getRowValues(1).get(2));
+        DataFrame last = df.groupby("Country", Aggregation.LAST);
+        // The last non-null value of the group
+        assertEquals("Ali", last.getRowValues(0).get(3));
+        assertEquals("Jorane", last.getRowValues(1).get(3));
+    }
+
+    @Test
+    public void testCustomAggregator() {
+        Aggregator rows = (column, groupOf, groups) -> {
+            int[] res = new int[groups];
+            for (int g : groupOf) {
+                res[g]++;
+            }
+            return new IntColumn(res, groups, null);
+        };
+        DataFrame grouped = df.groupby("Country", rows);
+        assertEquals(2, grouped.getRowValues(1).get(2));
+    }
+
+    @Test
+    public void testGroupByTypedKeys() {
+        DataFrame typed = new DataFrame(new String[]{"Int", "Long", "Double", "Bool", "Value"}, new Object[][]{
+                {1, 1L, 0.0, true, 1},
+                {2, 2L, -0.0, false, 2},
+                {1, 1L, Double.NaN, true, 3},
+                {null, null, Double.NaN, null, 4}
+        });
+        assertEquals(3, typed.groupby("Int", "sum").getRowCount());
+        assertEquals(4.0, typed.groupby("Long", "sum").getRowValues(0).get(3));
+        // Double keys are compared like Double.equals: NaN matches NaN, 0.0 differs from -0.0
+        assertEquals(3, typed.groupby("Double", "sum").getRowCount());
+        assertEquals(7.0, typed.groupby("Double", "sum").getRowValues(2).get(3));
+        assertEquals(4.0, typed.groupby("Bool", "sum").getRowValues(0).get(4));
+        assertNull(typed.groupby("Bool", "sum").getRowValues(2).get(0));
+    }
+
+    @Test
+    public void testManyGroups() {
+        Random random = new Random(7);
+        int rows = 20000;
+        Object[][] data = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            int key = random.nextInt(5000);
+            data[i] = new Object[]{key, i % 3 == 0 ? "k" + key : (Object) (long) key, 1};
+        }
+        DataFrame frame = new DataFrame(new String[]{"Int", "Mixed", "One"}, data);
+        DataFrame byInt = frame.groupby("Int", "count");
+        DataFrame byMixed = frame.groupby("Mixed", "sum");
+        long total = 0;
+        java.util.HashSet<Object> keys = new java.util.HashSet<>();
+        java.util.HashSet<Object> mixed = new java.util.HashSet<>();
+        for (int i = 0; i < byInt.getRowCount(); i++) {
+            total += (Integer) byInt.getRowValues(i).get(2);
+            keys.add(byInt.getRowValues(i).get(0));
+        }
+        for (Object[] row : data) {
+            mixed.add(row[1]);
+        }
+        assertEquals(rows, total);
+        assertEquals(keys.size(), byInt.getRowCount());
+        assertEquals(mixed.size(), byMixed.getRowCount());
+        assertEquals(data[0][0], byInt.getRowValues(0).get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownOption() {
+        Aggregation.of("median");
+    }
+
+    @Test
+    public void testSumForGroupByAddsEveryNumber() {
+        assertEquals(6.5, DataFrame.sumForGroupBy(new Object[]{1, 2L, 3.5, "x"}), 0);
+    }
+}
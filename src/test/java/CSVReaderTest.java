@@ -1,3 +1,8 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.junit.Test;
 import static org.junit.Assert.*;
 import org.junit.Before;
@@ -57,4 +62,80 @@ public class CSVReaderTest {
                 assertEquals(data[i][j], read[i][j]);
         assertTrue(csvReader.EOF());
     }
-}
\ No newline at end of file
+
+    private CSVReader readerOf(String content) throws IOException {
+        Path file = Files.createTempFile("reader", ".csv");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return new CSVReader(file.toString());
+    }
+
+    @Test
+    public void testNextLineTypesLikeParseIntAndParseDouble() throws IOException {
+        CSVReader reader = readerOf("7,-2147483648,2147483648,1e3, 4 ,0x1p3,NaN,abc,1.5f");
+        assertArrayEquals(new Object[]{7, Integer.MIN_VALUE, 2147483648.0, 1000.0, 4.0, 8.0, Double.NaN, "abc", 1.5},
+                reader.nextLine());
+    }
+
+    @Test
+    public void testInferSchemaKeepsSampledLines() throws IOException {
+        CSVReader reader = readerOf("id,big,score,flag,name,empty\n"
+                + "1,3000000000,1,true,a,\n"
+                + "2,4,2.5,FALSE,b,\n"
+                + "3,5,3,true,4,");
+        assertArrayEquals(new ColumnType[]{ColumnType.INT, ColumnType.LONG, ColumnType.DOUBLE,
+                        ColumnType.BOOLEAN, ColumnType.STRING, ColumnType.STRING},
+                reader.inferSchema(10));
+
+        assertArrayEquals(new Object[]{"id", "big", "score", "flag", "name", "empty"}, reader.nextLine());
+        assertArrayEquals(new Object[]{1, 3000000000L, 1.0, true, "a", null}, reader.nextLine());
+        assertArrayEquals(new Object[]{2, 4L, 2.5, false, "b", null}, reader.nextLine());
+        assertFalse(reader.EOF());
+        assertArrayEquals(new Object[]{3, 5L, 3.0, true, "4", null}, reader.nextLine());
+        assertTrue(reader.EOF());
+    }
+
+    @Test
+    public void testInferSchemaOnlySamplesTheRequestedRows() throws IOException {
+        CSVReader reader = readerOf("a,b\n1,x\n2.5,y\nz,true");
+        assertArrayEquals(new ColumnType[]{ColumnType.INT, ColumnType.STRING}, reader.inferSchema(1));
+        Object[][] lines = reader.allLines();
+        assertEquals(4, lines.length);
+        assertEquals(1, lines[1][0]);
+        // Promotions happen as the lines are read
+        assertEquals(2.5, lines[2][0]);
+        assertEquals("z", lines[3][0]);
+        assertArrayEquals(new ColumnType[]{ColumnType.STRING, ColumnType.STRING}, reader.getSchema());
+    }
+
+    @Test
+    public void testSetSchemaOverridesInference() throws IOException {
+        CSVReader reader = readerOf("code,value,rest\n007,1\n010,2,x");
+        assertNull(reader.getSchema());
+        reader.setSchema(ColumnType.STRING, ColumnType.DOUBLE);
+        assertArrayEquals(new Object[]{"code", "value", "rest"}, reader.nextLine());
+        // Missing fields are null, fields past the schema are typed one by one
+        assertArrayEquals(new Object[]{"007", 1.0}, reader.nextLine());
+        assertArrayEquals(new Object[]{"010", 2.0, "x"}, reader.nextLine());
+    }
+
+    @Test
+    public void testDataFrameFromReaderWithSchema() throws IOException {
+        CSVReader reader = readerOf("id,score\n1,2\n2,\n3,4.5");
+        reader.inferSchema(1);
+        DataFrame df = new DataFrame(reader);
+        assertEquals(3, df.getRowCount());
+        assertEquals(ColumnType.INT, df.getColumn("id").getType());
+        // The score column was locked to INT from the sample, then widened to DOUBLE
+        assertEquals(ColumnType.DOUBLE, df.getColumn("score").getType());
+        assertEquals(2.0, df.getColumn("score").get(0));
+        assertNull(df.getColumn("score").get(1));
+        assertEquals(4.5, df.getColumn("score").get(2));
+    }
+
+    @Test
+    public void testDataFrameFromReaderWithoutSchema() {
+        String path = "src/test/sample/test.csv";
+        assertEquals(new DataFrame(new CSVReader(path).allLines()), new DataFrame(new CSVReader(path)));
+    }
+}
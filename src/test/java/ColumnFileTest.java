@@ -0,0 +1,197 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ColumnFileTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("frame", ".dfj");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static DataFrame frame() {
+        return new DataFrame(new String[]{"Int", "Long", "Double", "Bool", "String", "Mixed"}, new Object[][]{
+                {-50, -50L << 40, -50 / 3.0, true, "s-50é€", "o-50"},
+                {0, 0L, -0.0, true, "s0é€", null},
+                {1, 1L << 40, Double.NaN, false, "s1", "o1"},
+                {null, 7L << 40, 7 / 3.0, false, null, 3.5f},
+                {23, null, 23 / 3.0, null, "s23", -1.0f},
+                {-8, -8L << 40, null, true, "s-8", "o-8"},
+                {49, 49L << 40, 49 / 3.0, false, "s49", null},
+                {12, 12L << 40, 4.0, true, "", 6.0f},
+                {-35, -35L << 40, -35 / 3.0, null, "s-35é€", "o-35"},
+                {6, 6L << 40, 2.0, true, "s6", null},
+                {null, null, null, null, null, 0.5f},
+                {-2, -2L << 40, Double.NEGATIVE_INFINITY, true, "s-2", "o-2"}
+        });
+    }
+
+    private static void assertSameTypes(DataFrame expected, DataFrame actual) {
+        assertEquals(expected.getColumnLabels(), actual.getColumnLabels());
+        for (String label : expected.getColumnLabels()) {
+            assertEquals(label, expected.getColumn(label).getType(), actual.getColumn(label).getType());
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        DataFrame df = frame();
+        df.save(file);
+        DataFrame loaded = DataFrame.load(file);
+        assertEquals(df.getRowCount(), loaded.getRowCount());
+        assertEquals(df, loaded);
+        assertSameTypes(df, loaded);
+        assertEquals(df.getColumn("String").nullCount(), loaded.getColumn("String").nullCount());
+        assertEquals(Double.doubleToRawLongBits(-0.0),
+                Double.doubleToRawLongBits(loaded.getColumn("Double").getDouble(findRow(df, "Int", 0))));
+    }
+
+    private static int findRow(DataFrame df, String label, Object value) {
+        int row = df.getColumnValues(label).indexOf(value);
+        assertTrue(row >= 0);
+        return row;
+    }
+
+    @Test
+    public void testColumnsDecodedOnDemand() {
+        DataFrame df = frame();
+        df.save(file);
+        DataFrame loaded = DataFrame.load(file);
+        assertEquals(df.loc(new String[]{"String"}), loaded.loc(new String[]{"String"}));
+        assertSame(loaded.getColumn("String"), loaded.getColumn("String"));
+        assertEquals(df.groupby("Bool", Aggregation.SUM), loaded.groupby("Bool", Aggregation.SUM));
+        assertEquals(df.iloc(new int[]{3, 1, 4}), loaded.iloc(new int[]{3, 1, 4}));
+        assertEquals(df.getRowValues(7), loaded.getRowValues(7));
+    }
+
+    @Test
+    public void testValuesAcrossSegments() {
+        DataFrame df = frame();
+        df.save(file);
+        for (int segmentBytes : new int[]{3, 5, 8, 13, 64}) {
+            ColumnFile columns = ColumnFile.open(file, segmentBytes);
+            assertEquals(df.getColumnLabels(), columns.labels());
+            for (int i = 0; i < columns.labels().size(); i++) {
+                String label = columns.labels().get(i);
+                assertEquals(label + " " + segmentBytes, df.getColumnValues(label),
+                        new ArrayList<>(Arrays.asList(columnValues(columns.column(i)))));
+            }
+        }
+    }
+
+    private static Object[] columnValues(Column column) {
+        Object[] values = new Object[column.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = column.get(i);
+        }
+        return values;
+    }
+
+    @Test
+    public void testLoadedFrameSavesAgain() throws IOException {
+        DataFrame df = frame();
+        df.save(file);
+        Path copy = Files.createTempFile("copy", ".dfj");
+        try {
+            DataFrame.load(file).save(copy);
+            assertEquals(df, DataFrame.load(copy));
+            assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(copy));
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Test
+    public void testEmptyFrames() {
+        DataFrame df = frame().where(Predicate.gt("Int", 1000)).toDataFrame();
+        assertEquals(0, df.getRowCount());
+        df.save(file);
+        DataFrame loaded = DataFrame.load(file);
+        assertEquals(df, loaded);
+        assertSameTypes(df, loaded);
+
+        DataFrame none = new DataFrame(new ArrayList<>(), new Column[0]);
+        none.save(file);
+        assertEquals(none, DataFrame.load(file));
+    }
+
+    @Test
+    public void testColumnsFromCsv() {
+        DataFrame df = new DataFrame("src/test/sample/test.csv");
+        df.save(file);
+        assertEquals(df, DataFrame.load(file));
+    }
+
+    @Test
+    public void testObjectColumnsOnlyHoldValues() throws IOException {
+        DataFrame df = new DataFrame(new String[]{"Mixed"}, new Object[][]{{new Date(0)}, {1}});
+        assertThrows(IllegalArgumentException.class, () -> df.save(file));
+
+        // Swaps the serialized cells of a saved column for a Date, keeping the length of the block
+        byte[] forbidden = serialize(new Object[]{new Date(0), 1});
+        String padding = "";
+        while (serialize(new Object[]{padding, 1}).length < forbidden.length) {
+            padding += "x";
+        }
+        byte[] allowed = serialize(new Object[]{padding, 1});
+        assertEquals(forbidden.length, allowed.length);
+        new DataFrame(new String[]{"Mixed"}, new Object[][]{{padding}, {1}}).save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        int at = indexOf(bytes, allowed);
+        System.arraycopy(forbidden, 0, bytes, at, forbidden.length);
+        Files.write(file, bytes);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> DataFrame.load(file).getColumn("Mixed"));
+        assertTrue(e.getCause() instanceof InvalidClassException);
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            if (Arrays.equals(bytes, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("The serialized cells are not in the file.");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotADataFrameFile() throws IOException {
+        Files.writeString(file, "Name,Age\nAli,22\nSerge,23\n");
+        DataFrame.load(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedVersion() throws IOException {
+        frame().save(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[4] = 9;
+        Files.write(file, bytes);
+        DataFrame.load(file);
+    }
+}
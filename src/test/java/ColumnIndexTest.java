@@ -0,0 +1,209 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ColumnIndexTest {
+
+    private static final String[] LABELS = {"Int", "Long", "Double", "String", "Bool", "Mixed"};
+    private static final Object[][] ROWS = {
+            {-5, -5_000_000_000L, -1.25, "k15", false, -5},
+            {3, 3_000_000_000L, 0.75, "k23", false, "o3"},
+            {7, null, 1.75, "k27", false, 7},
+            {null, 0L, -0.0, "k20", true, "o0"},
+            {0, 0L, 0.0, null, true, "o0"},
+            {1, 1_000_000_000L, Double.NaN, "k21", false, 1},
+            {-20, -20_000_000_000L, -5.0, "k0", true, 2},
+            {19, 19_000_000_000L, 4.75, "k39", false, "o-3"},
+            {10, 10_000_000_000L, 2.5, "k30", true, 3},
+            {2, null, 0.5, "k22", true, "o6"},
+            {-3, -3_000_000_000L, null, "k17", false, 3},
+            {6, 6_000_000_000L, 1.5, "k26", true, "o6"},
+            {7, 7_000_000_000L, 1.75, null, false, 7},
+            {15, 15_000_000_000L, 3.75, "k35", false, -1},
+            {null, 2_000_000_000L, 1.0, "k21", false, 5},
+            {12, 12_000_000_000L, 3.0, "k32", true, "o12"},
+            {-8, null, -2.0, "k12", true, "o-9"},
+            {4, 4_000_000_000L, Double.NaN, "k5", true, 4},
+            {16, 16_000_000_000L, 4.0, "k36", true, 16},
+            {-1, -1_000_000_000L, -0.25, "k19", false, -1},
+            {9, 9_000_000_000L, null, "k29", false, "o9"},
+            {3, 3_000_000_000L, 0.75, "k23", false, "o3"},
+            {-5, -5_000_000_000L, -1.25, "k5", true, 3},
+            {-12, -12_000_000_000L, -3.0, "k8", true, -11}
+    };
+
+    private static DataFrame frame() {
+        return new DataFrame(LABELS, ROWS);
+    }
+
+    private static Predicate[] predicates(String column, Object[] values) {
+        ArrayList<Predicate> predicates = new ArrayList<>();
+        for (Object value : values) {
+            predicates.add(Predicate.eq(column, value));
+            predicates.add(Predicate.ne(column, value));
+            predicates.add(Predicate.lt(column, value));
+            predicates.add(Predicate.le(column, value));
+            predicates.add(Predicate.gt(column, value));
+            predicates.add(Predicate.ge(column, value));
+        }
+        predicates.add(Predicate.in(column, values));
+        predicates.add(Predicate.between(column, values[0], values[values.length - 1]));
+        predicates.add(Predicate.or(Predicate.eq(column, values[0]), Predicate.lt(column, values[1])));
+        predicates.add(Predicate.and(Predicate.isNotNull("Bool"), Predicate.eq(column, values[1])));
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    @Test
+    public void testIndexesMatchScans() {
+        DataFrame plain = frame();
+        DataFrame indexed = frame();
+        Object[][] values = {
+                {-5, 3, 7L, 2.5, null, "x", 40},
+                {-5L * 1_000_000_000L, 0L, 2, 1.5e9, Double.NaN},
+                {-2.5, 0.0, -0.0, Double.NaN, 1, 2L, 4.75},
+                {"k0", "k17", "k5", "zz", 3},
+                {true, false}
+        };
+        String[] labels = {"Int", "Long", "Double", "String", "Bool"};
+        for (int c = 0; c < labels.length; c++) {
+            indexed.createIndex(labels[c]);
+            if (c < 4) {
+                indexed.createIndex(labels[c], IndexType.SORTED);
+            }
+            for (Predicate predicate : predicates(labels[c], values[c])) {
+                assertArrayEquals(labels[c], plain.where(predicate).getRows(), indexed.where(predicate).getRows());
+            }
+            if (c < 4) {
+                indexed.dropIndex(labels[c]);
+                indexed.createIndex(labels[c], IndexType.SORTED);
+                for (Predicate predicate : predicates(labels[c], values[c])) {
+                    assertArrayEquals(labels[c], plain.where(predicate).getRows(), indexed.where(predicate).getRows());
+                }
+            }
+        }
+        indexed.createIndex("Mixed");
+        for (Predicate predicate : predicates("Mixed", new Object[]{3, "o6", 3L})) {
+            assertArrayEquals(plain.where(predicate).getRows(), indexed.where(predicate).getRows());
+        }
+    }
+
+    @Test
+    public void testRangesOnSeveralColumns() {
+        DataFrame plain = frame();
+        DataFrame indexed = frame();
+        indexed.createIndex("Int", IndexType.SORTED);
+        indexed.createIndex("String", IndexType.SORTED);
+        Predicate[] predicates = {
+                Predicate.and(Predicate.between("Int", -3, 9), Predicate.lt("String", "k30"),
+                        Predicate.ge("String", "k15")),
+                Predicate.and(Predicate.gt("Int", 15), Predicate.lt("String", "k5"), Predicate.gt("Int", "x")),
+                Predicate.and(Predicate.ge("Int", 10), Predicate.le("Int", 2)),
+                Predicate.and(Predicate.eq("Bool", true), Predicate.gt("Double", 0.5))
+        };
+        for (Predicate predicate : predicates) {
+            assertArrayEquals(plain.where(predicate).getRows(), indexed.where(predicate).getRows());
+        }
+    }
+
+    @Test
+    public void testFilterUsesIndex() {
+        DataFrame df = frame();
+        ArrayList<String> columns = new ArrayList<>(Arrays.asList("String", "Bool"));
+        ArrayList<Object> values = new ArrayList<>(Arrays.asList("k21", false));
+        DataFrame expected = df.filter(columns, values);
+        df.createIndex("String");
+        assertEquals(expected, df.filter(columns, values));
+        assertEquals(expected, df.filter(Predicate.eq("String", "k21").and(Predicate.eq("Bool", false))));
+    }
+
+    @Test
+    public void testReport() {
+        DataFrame df = frame();
+        ColumnIndex hash = df.createIndex("Int");
+        assertSame(hash, df.createIndex("Int", IndexType.HASH));
+        ColumnIndex sorted = df.createIndex("Int", IndexType.SORTED);
+        assertEquals(Arrays.asList(hash, sorted), df.getIndexes());
+        assertEquals("Int", hash.getLabel());
+        assertEquals(IndexType.SORTED, sorted.getType());
+        assertTrue(hash.getBuildTimeNanos() > 0);
+        assertTrue(hash.getMemoryBytes() >= 4L * df.getRowCount());
+        assertTrue(sorted.getMemoryBytes() >= 4L * (df.getRowCount() - df.getColumn("Int").nullCount()));
+        assertTrue(sorted.toString().startsWith("SORTED index on Int"));
+        df.dropIndex("Int");
+        assertTrue(df.getIndexes().isEmpty());
+        assertTrue(df.iloc(new int[]{0, 1}).getIndexes().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortedIndexOnBooleans() {
+        frame().createIndex("Bool", IndexType.SORTED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIndexOnUnknownColumn() {
+        frame().createIndex("Unknown");
+    }
+
+    @Test
+    public void testIndexesFollowAppends() {
+        DataFrame all = frame();
+        DataFrame indexed = all.iloc(IntStream.range(0, 12).toArray()).lazy().collect();
+        for (String label : LABELS) {
+            indexed.createIndex(label);
+            if (!label.equals("Bool") && !label.equals("Mixed")) {
+                indexed.createIndex(label, IndexType.SORTED);
+            }
+        }
+        long buildNanos = indexed.getIndexes().get(0).getBuildTimeNanos();
+        Object[][] values = {
+                {-5, 3, 7L, null, 40},
+                {-5L * 1_000_000_000L, 0L, 1.5e9},
+                {-2.5, 0.0, -0.0, Double.NaN, 4.75},
+                {"k0", "k17", "zz"},
+                {true, false},
+                {3, "o6", 3L}
+        };
+        int rows = 12;
+        for (int batch : new int[]{1, 2, 1, 4, 1, 2, 1}) {
+            indexed.appendFrame(all.iloc(IntStream.range(rows, rows + batch).toArray()));
+            rows += batch;
+            assertEquals(10, indexed.getIndexes().size());
+            DataFrame scanned = indexed.lazy().collect();
+            for (int c = 0; c < LABELS.length; c++) {
+                for (Predicate predicate : predicates(LABELS[c], values[c])) {
+                    assertArrayEquals(LABELS[c], scanned.where(predicate).getRows(), indexed.where(predicate).getRows());
+                }
+            }
+        }
+        assertEquals(all, indexed);
+        ColumnIndex appended = indexed.getIndexes().get(0);
+        assertTrue(appended.getBuildTimeNanos() > buildNanos);
+        assertTrue(appended.getMemoryBytes() >= 4L * all.getRowCount());
+        // Segments of 20, 3 and 1 rows
+        assertEquals(3, appended.segments().size());
+        for (int i = 1; i < appended.segments().size(); i++) {
+            assertEquals(appended.segments().get(i - 1).to, appended.segments().get(i).from);
+        }
+    }
+
+    @Test
+    public void testIndexesOfAColumnChangingType() {
+        DataFrame df = frame();
+        df.createIndex("Int");
+        df.createIndex("Int", IndexType.SORTED);
+        df.createIndex("String", IndexType.SORTED);
+        df.appendRows(new Object[][]{{7L, 1L, 1.0, 5, true, 1}});
+        assertEquals(ColumnType.OBJECT, df.getColumn("Int").getType());
+        assertEquals(ColumnType.OBJECT, df.getColumn("String").getType());
+        assertEquals(1, df.getIndexes().size());
+        DataFrame scanned = df.lazy().collect();
+        for (Object value : new Object[]{7L, 7, 5}) {
+            assertArrayEquals(scanned.where(Predicate.eq("Int", value)).getRows(),
+                    df.where(Predicate.eq("Int", value)).getRows());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+import java.util.BitSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ColumnTest {
+
+    @Test
+    public void testOfInfersPrimitiveTypes() {
+        assertEquals(ColumnType.INT, Column.of(new Object[]{1, 2, null}).getType());
+        assertEquals(ColumnType.LONG, Column.of(new Object[]{1L, 2L}).getType());
+        assertEquals(ColumnType.DOUBLE, Column.of(new Object[]{null, 1.5}).getType());
+        assertEquals(ColumnType.BOOLEAN, Column.of(new Object[]{true, false}).getType());
+        assertEquals(ColumnType.STRING, Column.of(new Object[]{"a", "b", "a"}).getType());
+    }
+
+    @Test
+    public void testOfFallsBackToObjectsOnMixedTypes() {
+        Column column = Column.of(new Object[]{10, 1.6, "", null});
+        assertEquals(ColumnType.OBJECT, column.getType());
+        assertEquals(10, column.get(0));
+        assertEquals(1.6, column.get(1));
+        assertEquals("", column.get(2));
+        assertNull(column.get(3));
+        assertFalse(column.isNumeric());
+        assertTrue(Column.of(new Object[]{1, 2.5, null}).isNumeric());
+    }
+
+    @Test
+    public void testAllNullColumn() {
+        Column column = Column.of(new Object[]{null, null});
+        assertEquals(ColumnType.OBJECT, column.getType());
+        assertEquals(2, column.nullCount());
+        assertFalse(column.isNumeric());
+    }
+
+    @Test
+    public void testNullBitmap() {
+        Column column = Column.of(new Object[]{1, null, 3});
+        assertFalse(column.isNull(0));
+        assertTrue(column.isNull(1));
+        assertNull(column.get(1));
+        assertEquals(1, column.nullCount());
+        assertEquals(3, column.getInt(2));
+        assertEquals(3L, column.getLong(2));
+        assertEquals(3.0, column.getDouble(2), 0);
+    }
+
+    @Test
+    public void testStringDictionary() {
+        StringColumn column = (StringColumn) Column.of(new Object[]{"France", "Italy", "France", null});
+        assertEquals(2, column.getDictionary().length);
+        assertEquals(column.getCode(0), column.getCode(2));
+        assertEquals(1, column.codeOf("Italy"));
+        assertEquals(-1, column.codeOf("Spain"));
+        assertEquals("France", column.getString(2));
+        assertNull(column.getString(3));
+    }
+
+    @Test
+    public void testTake() {
+        int[] rows = {2, 0};
+        assertEquals(3, Column.of(new Object[]{1, 2, 3}).take(rows).get(0));
+        assertEquals(3L, Column.of(new Object[]{1L, 2L, 3L}).take(rows).get(0));
+        assertEquals(3.0, Column.of(new Object[]{1.0, 2.0, 3.0}).take(rows).get(0));
+        assertEquals(true, Column.of(new Object[]{false, false, true}).take(rows).get(0));
+        assertEquals("c", Column.of(new Object[]{"a", "b", "c"}).take(rows).get(0));
+        assertEquals('c', Column.of(new Object[]{'a', 'b', 'c'}).take(rows).get(0));
+        assertNull(Column.of(new Object[]{null, 2, 3}).take(rows).get(1));
+    }
+
+    @Test
+    public void testTakeMissingRows() {
+        int[] rows = {1, -1};
+        Object[][] columns = {{1, 2}, {1L, 2L}, {1.0, 2.0}, {false, true}, {"a", "b"}, {'a', 'b'}};
+        for (Object[] values : columns) {
+            Column column = Column.of(values).take(rows);
+            assertEquals(values[1], column.get(0));
+            assertTrue(column.isNull(1));
+            assertNull(column.get(1));
+            assertEquals(1, column.nullCount());
+        }
+    }
+
+    @Test
+    public void testBuilderTypedAppends() {
+        ColumnBuilder builder = new ColumnBuilder(1);
+        builder.appendInt(1);
+        builder.appendInt(2);
+        builder.appendNull();
+        assertEquals(3, builder.size());
+        Column column = builder.build();
+        assertEquals(ColumnType.INT, column.getType());
+        assertTrue(column.isNull(2));
+
+        builder = new ColumnBuilder();
+        builder.appendLong(1L);
+        builder.appendLong(2L);
+        builder.appendDouble(3.0);
+        column = builder.build();
+        assertEquals(ColumnType.OBJECT, column.getType());
+        assertEquals(3.0, column.get(2));
+
+        builder = new ColumnBuilder();
+        builder.appendDouble(1.0);
+        builder.appendDouble(2.0);
+        assertEquals(2.0, builder.build().getDouble(1), 0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testStringColumnIsNotNumeric() {
+        Column.of(new Object[]{"a"}).getDouble(0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDoubleColumnHasNoInts() {
+        new DoubleColumn(new double[]{1.0}, 1, new BitSet()).getInt(0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIntColumnHasNoBooleans() {
+        Column.of(new Object[]{1}).getBoolean(0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBooleanColumnHasNoLongs() {
+        Column.of(new Object[]{true}).getLong(0);
+    }
+
+    @Test
+    public void testWideningBuilder() {
+        ColumnBuilder builder = new ColumnBuilder(ColumnType.INT, 2);
+        builder.append(1);
+        builder.append(null);
+        builder.append(3000000000L);
+        builder.append(0.5);
+        Column column = builder.build();
+        assertEquals(ColumnType.DOUBLE, column.getType());
+        assertEquals(1.0, column.get(0));
+        assertTrue(column.isNull(1));
+        assertEquals(3.0E9, column.get(2));
+        assertEquals(0.5, column.get(3));
+
+        builder = new ColumnBuilder(ColumnType.INT, 1);
+        builder.append(1);
+        builder.append(true);
+        column = builder.build();
+        assertEquals(ColumnType.STRING, column.getType());
+        assertEquals("1", column.get(0));
+        assertEquals("true", column.get(1));
+    }
+
+    @Test
+    public void testNarrowerValuesAreConvertedInPlace() {
+        int n = 100_000;
+        ColumnBuilder doubles = new ColumnBuilder(ColumnType.DOUBLE, n + 1);
+        doubles.append(0.5);
+        double[] storage = ((DoubleColumn) doubles.build()).values;
+        ColumnBuilder strings = new ColumnBuilder(ColumnType.STRING, n);
+        for (int i = 0; i < n; i++) {
+            doubles.append(i);
+            strings.append(i % 10);
+        }
+        Column column = doubles.build();
+        assertEquals(ColumnType.DOUBLE, column.getType());
+        assertSame(storage, ((DoubleColumn) column).values);
+        assertEquals(n + 1, column.size());
+        assertEquals(0.5, column.get(0));
+        assertEquals((double) (n - 1), column.get(n));
+        StringColumn keys = (StringColumn) strings.build();
+        assertEquals("7", keys.get(n - 3));
+        assertEquals(10, keys.dictionary.length);
+    }
+
+    @Test
+    public void testWiden() {
+        assertEquals(ColumnType.LONG, ColumnType.INT.widen(ColumnType.LONG));
+        assertEquals(ColumnType.DOUBLE, ColumnType.LONG.widen(ColumnType.DOUBLE));
+        assertEquals(ColumnType.STRING, ColumnType.BOOLEAN.widen(ColumnType.INT));
+        assertEquals(ColumnType.OBJECT, ColumnType.STRING.widen(ColumnType.OBJECT));
+        assertEquals(ColumnType.BOOLEAN, ColumnType.BOOLEAN.widen(ColumnType.BOOLEAN));
+    }
+
+    @Test
+    public void testBuilderKeepsAppendingAfterBuild() {
+        ColumnBuilder builder = ColumnBuilder.of(Column.of(new Object[]{"a", null, "b"}), 3);
+        Column first = builder.build();
+        builder.appendColumn(Column.of(new Object[]{"c", "a", null}));
+        builder.append("d");
+        Column second = builder.build();
+        assertEquals(3, first.size());
+        assertEquals(1, first.nullCount());
+        assertEquals(2, ((StringColumn) first).dictionary.length);
+        assertEquals(ColumnType.STRING, second.getType());
+        assertEquals(2, second.nullCount());
+        assertArrayEquals(new Object[]{"a", null, "b", "c", "a", null, "d"},
+                new Object[]{second.get(0), second.get(1), second.get(2), second.get(3), second.get(4),
+                        second.get(5), second.get(6)});
+        assertEquals(((StringColumn) second).codes[0], ((StringColumn) second).codes[4]);
+
+        builder = ColumnBuilder.of(Column.of(new Object[]{null, null}), 0);
+        builder.appendColumn(Column.of(new Object[]{1L, null}));
+        builder.appendColumn(new IntColumn(new int[]{4}, 1, null));
+        Column mixed = builder.build();
+        assertEquals(ColumnType.OBJECT, mixed.getType());
+        assertEquals(3, mixed.nullCount());
+        assertEquals(4, mixed.get(4));
+
+        Column doubles = Column.of(new Object[]{1.5, null, 2.5});
+        builder = ColumnBuilder.of(doubles, 0);
+        builder.appendColumn(doubles);
+        builder.appendColumn(Column.of(new Object[]{true}));
+        assertEquals(ColumnType.OBJECT, builder.build().getType());
+        builder = ColumnBuilder.of(Column.of(new Object[]{true, null}), 0);
+        builder.appendColumn(Column.of(new Object[]{false}));
+        assertEquals(false, builder.build().get(2));
+    }
+}
@@ -0,0 +1,282 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompressionTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final String[] LABELS = {"Id", "Age", "Country", "Status", "Score", "Flag", "Mixed"};
+
+    /**
+     * A frame whose cells follow from the row index, like the CSV of testFrameFromCSVReaderIsCompressed: sorted
+     * ids, small ints, a few strings, runs, and a null cell every 20 rows in Age, Country and Flag.
+     */
+    private static DataFrame frame(int rows) {
+        String[] countries = {"France", "Italy", "Spain", "Germany"};
+        Object[][] data = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            data[i] = new Object[]{
+                    1_000_000_000_000L + 3L * i + i % 3,
+                    i % 20 == 7 ? null : 18 + i * 37 % 60,
+                    i % 20 == 11 ? null : countries[i * 7 / 3 % countries.length],
+                    i < rows / 3 ? "open" : i < rows / 2 ? null : "closed",
+                    (double) (i / 100) / 4,
+                    i % 20 == 3 ? null : i * 13 % 7 < 3,
+                    i % 50 < 25 ? (Object) (i / 50) : (Object) ("m" + i / 50)
+            };
+        }
+        return new DataFrame(LABELS, data);
+    }
+
+    /**
+     * Encodes every column of a frame in every possible way.
+     */
+    private static ArrayList<Column[]> encodings(DataFrame df) {
+        ArrayList<Column[]> res = new ArrayList<>();
+        Column[] runs = new Column[LABELS.length];
+        Column[] dictionaries = new Column[LABELS.length];
+        Column[] packed = new Column[LABELS.length];
+        Column[] deltas = new Column[LABELS.length];
+        for (int i = 0; i < LABELS.length; i++) {
+            Column column = df.getColumn(LABELS[i]);
+            runs[i] = Compression.runLength(column);
+            dictionaries[i] = Compression.dictionary(column);
+            boolean integral = column.getType() == ColumnType.INT || column.getType() == ColumnType.LONG;
+            packed[i] = integral ? PackedColumn.of(column) : column;
+            deltas[i] = integral ? DeltaColumn.of(column) : column;
+        }
+        res.add(runs);
+        res.add(dictionaries);
+        res.add(packed);
+        res.add(deltas);
+        return res;
+    }
+
+    private static DataFrame frameOf(Column[] columns) {
+        return new DataFrame(new ArrayList<>(Arrays.asList(LABELS)), columns);
+    }
+
+    @Test
+    public void testChoosesEncodings() {
+        DataFrame df = frame(10_000);
+        DataFrame compressed = df.compress();
+        assertEquals(df, compressed);
+        assertTrue(compressed.getColumn("Id") instanceof DeltaColumn);
+        assertTrue(compressed.getColumn("Age") instanceof PackedColumn);
+        assertTrue(compressed.getColumn("Country") instanceof DictionaryColumn);
+        assertTrue(compressed.getColumn("Status") instanceof RunLengthColumn);
+        assertTrue(compressed.getColumn("Score") instanceof RunLengthColumn);
+        assertTrue(compressed.getColumn("Flag") instanceof DictionaryColumn);
+        assertTrue(compressed.getColumn("Mixed") instanceof RunLengthColumn);
+        assertEquals(3, ((RunLengthColumn) compressed.getColumn("Status")).runs());
+        String[] dictionary = ((StringColumn) ((DictionaryColumn) compressed.getColumn("Country")).getDictionary())
+                .getDictionary().clone();
+        Arrays.sort(dictionary);
+        assertArrayEquals(new String[]{"France", "Germany", "Italy", "Spain"}, dictionary);
+        for (String label : LABELS) {
+            Column column = compressed.getColumn(label);
+            assertEquals(label, df.getColumn(label).getType(), column.getType());
+            assertEquals(label, df.getColumn(label).nullCount(), column.nullCount());
+            assertTrue(label, column.getMemoryBytes() * 2 <= df.getColumn(label).getMemoryBytes());
+            assertEquals(label, df.getColumn(label).getClass(), ((EncodedColumn) column).decompress().getClass());
+        }
+        assertSame(compressed.getColumn("Id"), compressed.compress().getColumn("Id"));
+    }
+
+    @Test
+    public void testKeepsIncompressibleColumns() {
+        Random random = new Random(1);
+        Object[][] data = new Object[1000][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new Object[]{random.nextInt(), random.nextDouble(), "s" + random.nextLong()};
+        }
+        DataFrame df = new DataFrame(new String[]{"Int", "Double", "String"}, data);
+        DataFrame compressed = df.compress();
+        for (String label : new String[]{"Int", "Double", "String"}) {
+            assertSame(df.getColumn(label), compressed.getColumn(label));
+        }
+    }
+
+    @Test
+    public void testCellsAndTake() {
+        DataFrame df = frame(700);
+        int[] rows = {5, -1, 699, 0, 128, 127, 256, 350, 5};
+        for (Column[] columns : encodings(df)) {
+            DataFrame encoded = frameOf(columns);
+            assertEquals(df, encoded);
+            for (int i = 0; i < LABELS.length; i++) {
+                Column plain = df.getColumn(LABELS[i]);
+                Column column = columns[i];
+                assertEquals(LABELS[i], plain.isNumeric(), column.isNumeric());
+                assertEquals(LABELS[i], Arrays.asList(valuesOf(plain.take(rows))),
+                        Arrays.asList(valuesOf(column.take(rows))));
+                for (int row = 0; row < plain.size(); row += 7) {
+                    if (plain.isNull(row)) {
+                        continue;
+                    }
+                    if (plain.getType().isNumeric()) {
+                        assertEquals(plain.getDouble(row), column.getDouble(row), 0.0);
+                    }
+                    if (plain.getType() == ColumnType.INT) {
+                        assertEquals(plain.getInt(row), column.getInt(row));
+                    }
+                    if (plain.getType() == ColumnType.INT || plain.getType() == ColumnType.LONG) {
+                        assertEquals(plain.getLong(row), column.getLong(row));
+                    }
+                    if (plain.getType() == ColumnType.BOOLEAN) {
+                        assertEquals(plain.getBoolean(row), column.getBoolean(row));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object[] valuesOf(Column column) {
+        Object[] values = new Object[column.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = column.get(i);
+        }
+        return values;
+    }
+
+    @Test
+    public void testPredicatesOnEncodedColumns() {
+        DataFrame df = frame(500);
+        Predicate[] predicates = {
+                Predicate.eq("Age", 30), Predicate.between("Age", 20, 25), Predicate.gt("Age", 2.5),
+                Predicate.in("Age", 19, 77, 100, "x"), Predicate.ne("Age", 40), Predicate.isNull("Age"),
+                Predicate.eq("Id", 1_000_000_000_300L), Predicate.lt("Id", 1_000_000_000_100L),
+                Predicate.eq("Id", 5), Predicate.ge("Id", 1e12 + 5000),
+                Predicate.eq("Country", "Spain"), Predicate.in("Country", "Italy", "Peru"),
+                Predicate.lt("Country", "G"), Predicate.eq("Status", "open"), Predicate.isNull("Status"),
+                Predicate.eq("Score", 2.25), Predicate.le("Score", 1), Predicate.eq("Flag", true),
+                Predicate.not(Predicate.eq("Flag", false)), Predicate.eq("Mixed", 3), Predicate.eq("Mixed", "m7"),
+                Predicate.gt("Mixed", 10), Predicate.and(Predicate.eq("Country", "France"), Predicate.gt("Age", 50)),
+                Predicate.or(Predicate.eq("Status", "closed"), Predicate.lt("Age", 20))
+        };
+        for (Column[] columns : encodings(df)) {
+            DataFrame encoded = frameOf(columns);
+            for (Predicate predicate : predicates) {
+                assertArrayEquals(df.where(predicate).getRows(), encoded.where(predicate).getRows());
+            }
+            // A small selection decodes its cells instead of testing the whole domain
+            Selection few = encoded.where(Predicate.lt("Id", 1_000_000_000_020L));
+            assertArrayEquals(df.where(Predicate.lt("Id", 1_000_000_000_020L)).where(Predicate.eq("Country", "Italy"))
+                    .getRows(), few.where(Predicate.eq("Country", "Italy")).getRows());
+            ArrayList<String> filterColumns = new ArrayList<>(Arrays.asList("Country", "Flag"));
+            ArrayList<Object> filterValues = new ArrayList<>(Arrays.asList("Spain", false));
+            assertEquals(df.filter(filterColumns, filterValues), encoded.filter(filterColumns, filterValues));
+        }
+    }
+
+    @Test
+    public void testGroupByOnEncodedColumns() {
+        DataFrame df = frame(600);
+        for (Column[] columns : encodings(df)) {
+            DataFrame encoded = frameOf(columns);
+            for (String key : LABELS) {
+                for (Aggregation aggregation : new Aggregation[]{Aggregation.SUM, Aggregation.COUNT,
+                        Aggregation.FIRST}) {
+                    assertEquals(key + " " + aggregation, df.groupby(key, aggregation),
+                            encoded.groupby(key, aggregation));
+                }
+                ParallelGroupBy parallel = new ParallelGroupBy(POOL, 64);
+                assertEquals(key, parallel.groupby(df, key, Aggregation.MAX),
+                        parallel.groupby(encoded, key, Aggregation.MAX));
+            }
+        }
+    }
+
+    @Test
+    public void testOtherOperationsOnEncodedColumns() throws IOException {
+        DataFrame df = frame(300);
+        DataFrame other = new DataFrame(new String[]{"Country", "Capital"}, new Object[][]{
+                {"France", "Paris"}, {"Spain", "Madrid"}, {"Peru", "Lima"}});
+        Path file = Files.createTempFile("compressed", ".dfj");
+        try {
+            for (Column[] columns : encodings(df)) {
+                DataFrame encoded = frameOf(columns);
+                assertEquals(df.join(other, "Country", "Country", JoinType.LEFT),
+                        encoded.join(other, "Country", "Country", JoinType.LEFT));
+                assertEquals(other.join(df, "Country", "Country", JoinType.INNER),
+                        other.join(encoded, "Country", "Country", JoinType.INNER));
+                assertArrayEquals(df.sortBy("Status", "Age", "Id").getRows(),
+                        encoded.sortBy("Status", "Age", "Id").getRows());
+                assertArrayEquals(df.nlargest(10, "Age").getRows(), encoded.nlargest(10, "Age").getRows());
+                Description expected = df.summary();
+                Description actual = encoded.summary();
+                for (String label : LABELS) {
+                    assertEquals(expected.getCount(label), actual.getCount(label));
+                    assertEquals(expected.getMean(label), actual.getMean(label));
+                    assertEquals(expected.getMedian(label), actual.getMedian(label));
+                }
+                assertArrayEquals(df.moyenne(), encoded.moyenne());
+
+                encoded.createIndex("Age");
+                encoded.createIndex("Country", IndexType.SORTED);
+                assertArrayEquals(df.where(Predicate.eq("Age", 33)).getRows(),
+                        encoded.where(Predicate.eq("Age", 33)).getRows());
+                assertArrayEquals(df.where(Predicate.ge("Country", "Italy")).getRows(),
+                        encoded.where(Predicate.ge("Country", "Italy")).getRows());
+
+                encoded.save(file);
+                assertEquals(df, DataFrame.load(file));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testExtremeValues() {
+        Object[][] data = {{Long.MIN_VALUE, Integer.MAX_VALUE}, {null, null}, {Long.MAX_VALUE, Integer.MIN_VALUE},
+                {0L, 0}};
+        DataFrame df = new DataFrame(new String[]{"Long", "Int"}, data);
+        for (String label : new String[]{"Long", "Int"}) {
+            Column column = df.getColumn(label);
+            for (Column encoded : new Column[]{PackedColumn.of(column), DeltaColumn.of(column)}) {
+                assertEquals(Arrays.asList(valuesOf(column)), Arrays.asList(valuesOf(encoded)));
+                assertEquals(Arrays.asList(valuesOf(column)), Arrays.asList(valuesOf(((EncodedColumn) encoded)
+                        .decompress())));
+            }
+        }
+        Column nulls = Column.of(new Object[]{null, null, 5});
+        assertEquals(Arrays.asList(null, null, 5), Arrays.asList(valuesOf(PackedColumn.of(nulls))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPackingStrings() {
+        PackedColumn.of(Column.of(new Object[]{"a", "b"}));
+    }
+
+    @Test
+    public void testFrameFromCSVReaderIsCompressed() throws IOException {
+        StringBuilder content = new StringBuilder("id,country,age\n");
+        for (int i = 0; i < 5000; i++) {
+            content.append(i).append(',').append(i % 3 == 0 ? "FR" : "IT").append(',').append(20 + i % 40)
+                    .append('\n');
+        }
+        Path file = Files.createTempFile("compressed", ".csv");
+        try {
+            Files.writeString(file, content.toString(), StandardCharsets.UTF_8);
+            DataFrame df = new DataFrame(new CSVReader(file.toString()));
+            assertEquals(new DataFrame(file.toString()), df);
+            assertTrue(df.getColumn("id") instanceof EncodedColumn);
+            assertTrue(df.getColumn("country") instanceof DictionaryColumn);
+            assertTrue(df.getColumn("age") instanceof PackedColumn);
+            assertEquals(1667, df.where(Predicate.eq("country", "FR")).size());
+            assertEquals(2, df.groupby("country", Aggregation.COUNT).getRowCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
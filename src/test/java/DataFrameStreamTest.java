@@ -0,0 +1,255 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DataFrameStreamTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("stream", ".csv");
+        StringBuilder content = new StringBuilder("city,country,temperature,rank\n");
+        String[] countries = {"france", "italy", "japan"};
+        for (int i = 0; i < 50; i++) {
+            // Some batches only hold ints, others mix ints and doubles
+            String temperature = i % 5 == 0 ? (i + 0.5) + "" : String.valueOf(i - 20);
+            content.append("c").append(i).append(',').append(countries[i % 3]).append(',')
+                    .append(temperature).append(',').append(i % 4).append('\n');
+        }
+        Files.writeString(file, content.toString(), StandardCharsets.UTF_8);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private DataFrame whole() {
+        return new DataFrame(new CSVReader(file.toString()).allLines());
+    }
+
+    private DataFrameStream stream(int batchSize) {
+        return new DataFrameStream(file.toString(), ",", batchSize);
+    }
+
+    @Test
+    public void testBatches() {
+        DataFrameStream stream = stream(16);
+        assertEquals(Arrays.asList("city", "country", "temperature", "rank"), stream.getColumnLabels());
+        int[] sizes = new int[4];
+        int batches = 0;
+        while (stream.hasNext()) {
+            sizes[batches++] = stream.next().getRowCount();
+        }
+        assertArrayEquals(new int[]{16, 16, 16, 2}, sizes);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextAfterTheEnd() {
+        DataFrameStream stream = stream(100);
+        stream.next();
+        stream.next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchSizeMustBePositive() {
+        stream(0);
+    }
+
+    @Test
+    public void testStatisticsMatchTheWholeDataFrame() {
+        DataFrame df = whole();
+        for (int batchSize : new int[]{1, 7, 16, 1000}) {
+            assertArrayEquals(df.count(), stream(batchSize).count());
+            assertArrayEquals(df.moyenne(), stream(batchSize).moyenne());
+            assertArrayEquals(df.minEtMax()[0], stream(batchSize).minEtMax()[0]);
+            assertArrayEquals(df.minEtMax()[1], stream(batchSize).minEtMax()[1]);
+            Object[] expected = df.sd(df.moyenne());
+            Object[] sd = stream(batchSize).sd();
+            for (int i = 0; i < expected.length; i++) {
+                if (expected[i] == null) {
+                    assertNull(sd[i]);
+                } else {
+                    assertEquals((Double) expected[i], (Double) sd[i], 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGroupByMatchesTheWholeDataFrame() {
+        DataFrame df = whole();
+        for (int batchSize : new int[]{1, 7, 1000}) {
+            assertEquals(df.groupby("country", "sum"), stream(batchSize).groupby("country", "sum"));
+            assertEquals(df.groupby("country", "mean"), stream(batchSize).groupby("country", "mean"));
+            assertEquals(df.groupby("rank", "sum"), stream(batchSize).groupby("rank", "sum"));
+            for (Aggregation aggregation : Aggregation.values()) {
+                String option = aggregation.name().toLowerCase();
+                assertEquals(option, df.groupby("rank", option), stream(batchSize).groupby("rank", option));
+            }
+        }
+    }
+
+    private static long spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(f -> f.getFileName().toString().startsWith("dataframe-")).count();
+        }
+    }
+
+    private static void assertSameRows(DataFrame expected, DataFrame actual) {
+        assertEquals(expected.getColumnLabels(), actual.getColumnLabels());
+        assertEquals(expected.getRowCount(), actual.getRowCount());
+        for (int row = 0; row < expected.getRowCount(); row++) {
+            ArrayList<Object> x = expected.getRowValues(row);
+            ArrayList<Object> y = actual.getRowValues(row);
+            for (int i = 0; i < x.size(); i++) {
+                if (x.get(i) instanceof Double d && y.get(i) instanceof Double e) {
+                    assertEquals(d, e, 1e-9 * Math.max(1, Math.abs(d)));
+                } else {
+                    assertEquals(x.get(i), y.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGroupBySpillsToDisk() throws IOException {
+        DataFrame df = whole();
+        long files = spillFiles();
+        for (int batchSize : new int[]{5, 16}) {
+            for (String label : new String[]{"country", "rank", "city", "temperature"}) {
+                for (Aggregation aggregation : Aggregation.values()) {
+                    String option = aggregation.name().toLowerCase();
+                    long[] reported = new long[2];
+                    DataFrameStream stream = stream(batchSize).memoryLimit(1).onSpill((operation, count, bytes) -> {
+                        assertEquals("groupby", operation);
+                        assertTrue(count > 0);
+                        reported[0]++;
+                        reported[1] += bytes;
+                    });
+                    assertSameRows(df.groupby(label, option), stream.groupby(label, option));
+                    assertEquals(50 / batchSize + (50 % batchSize == 0 ? 0 : 1), stream.getSpillCount());
+                    assertEquals(reported[0], stream.getSpillCount());
+                    assertEquals(reported[1], stream.getSpilledBytes());
+                    assertTrue(stream.getSpilledBytes() > 0);
+                }
+            }
+        }
+        // A limit the groups stay under does not spill
+        DataFrameStream stream = stream(7).memoryLimit(1 << 20);
+        assertEquals(df.groupby("city", "max"), stream.groupby("city", "max"));
+        assertEquals(0, stream.getSpillCount());
+        assertEquals(files, spillFiles());
+    }
+
+    @Test
+    public void testSortBy() throws IOException {
+        long files = spillFiles();
+        String[][] keys = {{"country", "temperature"}, {"rank"}, {"temperature"}, {"rank", "city"}};
+        boolean[][] ascending = {{true, false}, {false}, {true}, {true, false}};
+        for (int k = 0; k < keys.length; k++) {
+            DataFrame expected = whole().sortBy(keys[k], ascending[k]).toDataFrame();
+            for (long limit : new long[]{0, 1, 2000}) {
+                for (int batchSize : new int[]{1, 7, 1000}) {
+                    List<String> operations = new ArrayList<>();
+                    DataFrameStream source = stream(batchSize).memoryLimit(limit)
+                            .onSpill((operation, count, bytes) -> operations.add(operation));
+                    DataFrameStream sorted = source.sortBy(keys[k], ascending[k]);
+                    assertEquals(source.getSpillCount(), operations.size());
+                    assertTrue(operations.stream().allMatch("sortBy"::equals));
+                    assertEquals(limit == 0 || batchSize == 1000, source.getSpillCount() == 0);
+                    int rows = 0;
+                    while (sorted.hasNext()) {
+                        DataFrame batch = sorted.next();
+                        assertTrue(batch.getRowCount() <= batchSize);
+                        for (int i = 0; i < batch.getRowCount(); i++) {
+                            assertEquals(expected.getRowValues(rows++), batch.getRowValues(i));
+                        }
+                    }
+                    assertEquals(50, rows);
+                }
+            }
+        }
+        assertEquals(files, spillFiles());
+
+        DataFrameStream sorted = stream(5).memoryLimit(1).sortBy("rank");
+        assertEquals(whole().groupby("rank", "sum"), sorted.groupby("rank", "sum"));
+        assertFalse(stream(5).filter(new ArrayList<>(List.of("rank")), new ArrayList<>(List.of(9)))
+                .sortBy("city").hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortByRejectsUnknownLabel() {
+        stream(10).sortBy("continent");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortByNeedsDirections() {
+        stream(10).sortBy(new String[]{"city"}, new boolean[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMemoryLimitMustNotBeNegative() {
+        stream(10).memoryLimit(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupByRejectsUnknownOption() {
+        stream(10).groupby("country", "median");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGroupByRejectsUnknownLabel() {
+        stream(10).groupby("continent", "sum");
+    }
+
+    @Test
+    public void testFilter() {
+        ArrayList<String> columns = new ArrayList<>(Arrays.asList("country", "rank"));
+        ArrayList<Object> values = new ArrayList<>(Arrays.asList("japan", 1));
+        DataFrame expected = whole().filter(columns, values);
+
+        DataFrameStream stream = stream(4).filter(columns, values);
+        int rows = 0;
+        while (stream.hasNext()) {
+            DataFrame batch = stream.next();
+            for (int i = 0; i < batch.getRowCount(); i++) {
+                assertEquals(expected.getRowValues(rows++), batch.getRowValues(i));
+            }
+        }
+        assertEquals(expected.getRowCount(), rows);
+        assertArrayEquals(expected.count(), stream(4).filter(columns, values).count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFilterOnUnknownColumn() {
+        stream(10).filter(new ArrayList<>(Arrays.asList("continent")), new ArrayList<>(Arrays.asList("asia")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFilterWithMismatchedValues() {
+        stream(10).filter(new ArrayList<>(Arrays.asList("country")), new ArrayList<>());
+    }
+
+    @Test
+    public void testReaderWithSchema() throws IOException {
+        CSVReader reader = new CSVReader(file.toString());
+        reader.inferSchema(3);
+        DataFrameStream stream = new DataFrameStream(reader, 10);
+        assertEquals(ColumnType.INT, stream.next().getColumn("rank").getType());
+        assertEquals(40, (int) stream.count()[0]);
+    }
+}
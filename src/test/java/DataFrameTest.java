@@ -1,6 +1,9 @@
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -584,6 +587,118 @@ public class DataFrameTest {
         dfOneParam.groupby("Country", "test");
     }
 
+    @Test
+    public void testMinEtMaxAndSdSkipNullValues(){
+        String[] lab = {"Age", "Salary"};
+        Object[][] data = {
+                {20, 1000.0},
+                {null, 2000.0},
+                {30, null}
+        };
+        DataFrame df = new DataFrame(lab, data);
+        Object[][] minMaxExcepted = {
+                {20.0, 1000.0},
+                {30.0, 2000.0}
+        };
+        assertArrayEquals(minMaxExcepted, df.minEtMax());
+        Object[] sdExcepted = {5.0, 500.0};
+        assertArrayEquals(sdExcepted, df.sd(df.moyenne()));
+    }
+
+    @Test
+    public void testMinEtMaxOfEmptyAndLargeColumns(){
+        String[] lab = {"Age", "Big", "Small", "Ratio"};
+        Object[][] data = {
+                {null, 5_000_000_000L, -3e12, Double.NaN},
+                {null, 4_000_000_000L, -4e12, Double.NaN},
+                {1, 6_000_000_000L, -5e12, 0.5}
+        };
+        DataFrame df = new DataFrame(lab, data).where(Predicate.isNull("Age")).toDataFrame();
+        Object[][] minMaxExcepted = {
+                {null, 4e9, -4e12, null},
+                {null, 5e9, -3e12, null}
+        };
+        assertEquals(ColumnType.INT, df.getColumn("Age").getType());
+        assertArrayEquals(minMaxExcepted, df.minEtMax());
+        assertArrayEquals(minMaxExcepted, new ParallelStatistics().minEtMax(df));
+        df.appendRows(new Object[][]{{null, 7_000_000_000L, -1e13, Double.NaN}});
+        assertArrayEquals(new Object[][]{{null, 4e9, -1e13, null}, {null, 7e9, -3e12, null}}, df.minEtMax());
+        assertNull(df.summary().getMin("Age"));
+    }
+
+    @Test
+    public void testGroupBySkipsNonNumericColumns(){
+        DataFrame grouped = dfOneParam.groupby("Country", "sum");
+        assertEquals(2, grouped.getColumnLabels().size());
+        assertEquals("Country", grouped.getColumnLabels().get(0));
+        assertEquals("Age", grouped.getColumnLabels().get(1));
+        assertEquals(46.0, grouped.getRowValues(2).get(1));
+    }
+
+    @Test
+    public void testGroupByOnIntegerKey(){
+        String[] lab = {"Age", "Kids"};
+        Object[][] data = {
+                {20, 1},
+                {30, 2},
+                {20, 3}
+        };
+        DataFrame grouped = new DataFrame(lab, data).groupby("Age", "mean");
+        assertEquals(2, grouped.getRowCount());
+        assertEquals(20, grouped.getRowValues(0).get(0));
+        assertEquals(2.0, grouped.getRowValues(0).get(1));
+    }
+
+    @Test
+    public void testEqualsComparesTypedValues(){
+        String[] lab = {"Name", "Age"};
+        DataFrame df1 = new DataFrame(lab, new Object[][]{{"Ali", 21}, {null, 22}});
+        DataFrame df2 = new DataFrame(lab, new Object[][]{{"Ali", 21}, {null, 22}});
+        DataFrame df3 = new DataFrame(lab, new Object[][]{{"Ali", 21L}, {null, 22L}});
+        assertEquals(df1, df2);
+        assertNotEquals(df1, df3);
+    }
+
+    @Test
+    public void testGetRowsBuildsRowsFromColumns(){
+        assertEquals(4, dfTwoParams.getRows().size());
+        assertArrayEquals(new Object[]{"Serge", 24, "Armenia"}, dfTwoParams.getRows().get(1));
+        assertEquals(ColumnType.INT, dfTwoParams.getColumn("Age").getType());
+        assertEquals(ColumnType.STRING, dfTwoParams.getColumn("Name").getType());
+    }
+
+    @Test
+    public void testFilterOnTypedColumns(){
+        String[] lab = {"Id", "Score", "Active", "City"};
+        Object[][] data = {
+                {1L, 1.5, true, "Paris"},
+                {2L, 2.5, false, null},
+                {3L, 1.5, true, "Lyon"}
+        };
+        DataFrame df = new DataFrame(lab, data);
+
+        ArrayList<String> columnNames = new ArrayList<>();
+        ArrayList<Object> filterValues = new ArrayList<>();
+        columnNames.add("Score");
+        filterValues.add(1.5);
+        columnNames.add("Active");
+        filterValues.add(true);
+        columnNames.add("Id");
+        filterValues.add(3L);
+        DataFrame filtered = df.filter(columnNames, filterValues);
+        assertEquals(1, filtered.getRowCount());
+        assertEquals("Lyon", filtered.getRowValues(0).get(3));
+
+        columnNames.clear();
+        filterValues.clear();
+        columnNames.add("City");
+        filterValues.add("Marseille");
+        assertNull(df.filter(columnNames, filterValues).getRowValues(0).get(0));
+
+        filterValues.set(0, "Paris");
+        assertEquals(1L, df.filter(columnNames, filterValues).getRowValues(0).get(0));
+    }
+
     @Test
     public void testDescribe() {
         dfOneParam.describe();
@@ -598,4 +713,342 @@ public class DataFrameTest {
     public void testTail() {
         dfOneParam.tail(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSortBy() {
+        DataFrame df = new DataFrame(new String[]{"Name", "City", "Age"}, new Object[][]{
+                {"Ali", "Paris", 21},
+                {"Serge", "Lyon", 24},
+                {"Jorane", null, 22},
+                {"Noemie", "Lyon", null},
+                {"Eve", "Paris", 23},
+                {"Bob", "Lyon", 24}
+        });
+        assertArrayEquals(new int[]{1, 3, 5, 0, 4, 2}, df.sortBy("City").getRows());
+        assertArrayEquals(new int[]{1, 5, 4, 2, 0, 3}, df.sortBy(new String[]{"Age"}, new boolean[]{false}).getRows());
+        assertArrayEquals(new int[]{1, 5, 3, 4, 0, 2},
+                df.sortBy(new String[]{"City", "Age"}, new boolean[]{true, false}).getRows());
+
+        Selection sorted = df.sortBy("Name");
+        DataFrame expected = df.iloc(new int[]{0, 5, 4, 2, 3, 1});
+        assertEquals(expected, sorted.toDataFrame());
+        assertArrayEquals(new int[]{5, 4, 1}, sorted.where(Predicate.gt("Age", 22)).getRows());
+        sorted.head(2);
+        sorted.tail(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortByWithoutDirection() {
+        dfOneParam.sortBy(new String[]{"Name"}, new boolean[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortByUnknownColumn() {
+        dfOneParam.sortBy("Unknown");
+    }
+
+    @Test
+    public void testNlargestAndNsmallest() {
+        DataFrame df = new DataFrame(new String[]{"Name", "Salary"}, new Object[][]{
+                {"Ali", 1000.0},
+                {"Serge", null},
+                {"Jorane", 3000.5},
+                {"Noemie", 2500.0},
+                {"Bob", 1000.0},
+                {"Eve", 900.0}
+        });
+        assertArrayEquals(new int[]{2, 3}, df.nlargest(2, "Salary").getRows());
+        assertArrayEquals(new int[]{5, 0, 4}, df.nsmallest(3, "Salary").getRows());
+        assertEquals(5, df.nlargest(10, "Salary").size());
+        assertEquals(0, df.nsmallest(0, "Salary").size());
+        assertEquals(df.iloc(new int[]{2, 3, 0}), df.nlargest(3, "Salary").toDataFrame());
+        df.nlargest(3, "Salary").head(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNlargestNegative() {
+        dfOneParam.nlargest(-1, "Name");
+    }
+
+    @Test
+    public void testIlocReturnsAView() {
+        DataFrame df = new DataFrame(new String[]{"Name", "Age", "Salary", "Bonus", "Tag"}, new Object[][]{
+                {"Ali", 21, 1000L, 1.5, true},
+                {"Serge", null, 2000L, null, false},
+                {"Jorane", 23, null, 2.5, null},
+                {null, 23, 4000L, 0.5, true},
+                {"Bob", 30, 5000L, 3.5, false}
+        });
+        int[] rows = {4, 1, 3, 1};
+        DataFrame view = df.iloc(rows);
+        rows[0] = 0;
+        assertEquals(df.lazy().iloc(new int[]{4, 1, 3, 1}).collect(), view);
+        for (String label : df.getColumnLabels()) {
+            Column column = view.getColumn(label);
+            assertTrue(column instanceof ViewColumn);
+            assertEquals(df.getColumn(label).getType(), column.getType());
+            assertEquals(16 + column.nullBytes(), column.getMemoryBytes());
+        }
+        assertEquals(2, view.getColumn("Age").nullCount());
+        assertEquals(30, view.getColumn("Age").getInt(0));
+        assertEquals(2000L, view.getColumn("Salary").getLong(1));
+        assertEquals(0.5, view.getColumn("Bonus").getDouble(2), 0);
+        assertTrue(view.getColumn("Tag").getBoolean(2));
+        assertArrayEquals(new Object[]{"Bob", "Serge", null, "Serge"}, view.getColumnValues("Name").toArray());
+
+        // Chained selections read the original columns
+        DataFrame chained = view.loc(new String[]{"Name", "Age"}).iloc(new int[]{3, 0});
+        assertEquals(df.lazy().loc(new String[]{"Name", "Age"}).iloc(new int[]{1, 4}).collect(), chained);
+        assertEquals(df.getColumn("Name").take(new int[]{1, 4}).getClass(),
+                chained.getColumn("Name").take(new int[]{0, 1}).getClass());
+
+        // Every operation reads the cells of the view
+        DataFrame copy = view.lazy().collect();
+        assertEquals(copy.groupby("Name", "sum"), view.groupby("Name", "sum"));
+        assertEquals(copy.groupby("Age", "count"), view.groupby("Age", "count"));
+        assertArrayEquals(copy.moyenne(), view.moyenne());
+        assertArrayEquals(copy.where(Predicate.eq("Name", "Serge")).getRows(),
+                view.where(Predicate.eq("Name", "Serge")).getRows());
+        assertArrayEquals(copy.where(Predicate.gt("Salary", 2500)).getRows(),
+                view.where(Predicate.gt("Salary", 2500)).getRows());
+        assertArrayEquals(copy.sortBy("Bonus").getRows(), view.sortBy("Bonus").getRows());
+        assertEquals(copy.join(df, "Name", "Name", JoinType.INNER), view.join(df, "Name", "Name", JoinType.INNER));
+    }
+
+    @Test
+    public void testIlocOfEncodedColumns() {
+        Object[][] data = new Object[300][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new Object[]{i % 7 == 0 ? null : "c" + i % 3, i / 100, (long) i * 1_000_000_007L};
+        }
+        DataFrame df = new DataFrame(new String[]{"Code", "Block", "Id"}, data).compress();
+        int[] rows = {299, 0, 150, 151, 7, 100};
+        DataFrame view = df.iloc(rows);
+        DataFrame copy = view.lazy().collect();
+        assertEquals(copy, view);
+        for (String label : new String[]{"Code", "Block", "Id"}) {
+            assertEquals(copy.groupby(label, "count"), view.groupby(label, "count"));
+        }
+        assertArrayEquals(copy.where(Predicate.in("Code", "c1", "c2")).getRows(),
+                view.where(Predicate.in("Code", "c1", "c2")).getRows());
+        assertArrayEquals(copy.where(Predicate.eq("Block", 1)).getRows(),
+                view.where(Predicate.eq("Block", 1)).getRows());
+        assertArrayEquals(copy.where(Predicate.lt("Id", 100_000_000_000L)).getRows(),
+                view.where(Predicate.lt("Id", 100_000_000_000L)).getRows());
+    }
+
+    @Test
+    public void testAppendRows() {
+        String[] labels = {"Name", "Age", "Salary", "Bonus", "Tag"};
+        Object[][] rows = {
+                {"Ali", 21, 1000L, 1.5, true},
+                {"Serge", null, 2000L, null, false},
+                {"Jorane", 23, null, 2.5, null},
+                {null, 23, 4000L, 0.5, true},
+                {"Bob", 30, 5000L, 3.5, false},
+                {"Ali", 25, 6000L, -1.0, true}
+        };
+        DataFrame df = new DataFrame(labels, new Object[][]{rows[0], rows[1]});
+        DataFrame shared = df.loc(new String[]{"Name", "Age"});
+        DataFrame view = df.iloc(new int[]{1, 0});
+        Object[] mean = df.moyenne();
+        df.summary();
+        df.appendRows(new Object[][]{rows[2]});
+        df.appendRows(new Object[0][]);
+        df.appendRows(new Object[][]{rows[3], rows[4], rows[5]});
+
+        DataFrame expected = new DataFrame(labels, rows);
+        assertEquals(expected, df);
+        assertEquals(6, df.getRowCount());
+        assertEquals(ColumnType.INT, df.getColumn("Age").getType());
+        assertEquals(ColumnType.STRING, df.getColumn("Name").getType());
+        assertEquals(2, shared.getRowCount());
+        assertEquals(new DataFrame(new String[]{"Name", "Age"}, new Object[][]{{"Ali", 21}, {"Serge", null}}), shared);
+        assertEquals(new DataFrame(labels, new Object[][]{rows[1], rows[0]}), view);
+        assertArrayEquals(mean, new DataFrame(labels, new Object[][]{rows[0], rows[1]}).moyenne());
+
+        assertArrayEquals(expected.moyenne(), df.moyenne());
+        assertArrayEquals(expected.count(), df.count());
+        assertArrayEquals(expected.minEtMax(), df.minEtMax());
+        assertArrayEquals(expected.sd(expected.moyenne()), df.sd(df.moyenne()));
+        assertDescriptionEquals(expected.summary(), df.summary());
+        assertEquals(expected.groupby("Name", "sum"), df.groupby("Name", "sum"));
+
+        // A value of another type turns the column into an object column
+        df.appendRows(new Object[][]{{"Zoe", "unknown", 7000L, 2.0, false}});
+        assertEquals(ColumnType.OBJECT, df.getColumn("Age").getType());
+        assertNull(df.moyenne()[1]);
+        assertEquals(6, (int) df.count()[1]);
+        assertNull(df.summary().getMean("Age"));
+        assertEquals(25000 / 6.0, df.summary().getMean("Salary"), 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> df.appendRows(new Object[][]{{"Eve", 1}}));
+    }
+
+    @Test
+    public void testStatisticsAreUpdatedByAppends() {
+        DataFrame df = new DataFrame(new String[]{"Name", "Value", "Ratio"}, new Object[][]{
+                {"a", 4, 0.5},
+                {"b", null, Double.NaN}
+        });
+        assertArrayEquals(new Object[]{null, 4.0, Double.NaN}, df.moyenne());
+        ColumnStats value = df.stats(1);
+        ColumnStats ratio = df.stats(2);
+
+        // The first append copies the columns to buffers, the next ones outgrow them
+        df.appendRows(new Object[][]{{"c", 1, 1.5}});
+        for (int i = 0; i < 100; i++) {
+            df.appendRows(new Object[][]{{"d", i % 10, (double) i}});
+        }
+        assertSame(value, df.stats(1));
+        assertSame(ratio, df.stats(2));
+        assertEquals(102, value.count());
+        assertArrayEquals(new Object[]{0.0, 9.0}, value.minMax());
+        assertArrayEquals(new Object[]{0.0, 99.0}, ratio.minMax());
+        DataFrame expected = df.lazy().collect();
+        assertArrayEquals(expected.moyenne(), df.moyenne());
+        assertArrayEquals(expected.count(), df.count());
+        assertArrayEquals(expected.minEtMax(), df.minEtMax());
+
+        // A column becoming an object column drops its statistics
+        df.appendRows(new Object[][]{{"e", "x", 2.0}});
+        assertNull(df.stats(1));
+        assertSame(ratio, df.stats(2));
+        assertEquals(104, ratio.count());
+    }
+
+    @Test
+    public void testAppendFrame() {
+        DataFrame df = new DataFrame(new String[]{"Key", "Value", "Ratio"}, new Object[][]{{"a", 1, 0.5}});
+        Object[][] rows = new Object[500][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{i % 9 == 0 ? null : "k" + i % 5, i % 7 == 0 ? null : i, i / 8.0};
+        }
+        DataFrame batch = new DataFrame(new String[]{"Key", "Value", "Ratio"}, rows);
+        DataFrame reordered = batch.loc(new String[]{"Ratio", "Key", "Value"});
+        df.appendFrame(reordered);
+        df.appendFrame(batch.compress());
+        df.appendFrame(batch.iloc(new int[]{3, 1, 4}));
+        df.appendFrame(batch.where(Predicate.eq("Key", "none")).toDataFrame());
+
+        Object[][] all = new Object[1004][];
+        all[0] = new Object[]{"a", 1, 0.5};
+        System.arraycopy(rows, 0, all, 1, 500);
+        System.arraycopy(rows, 0, all, 501, 500);
+        all[1001] = rows[3];
+        all[1002] = rows[1];
+        all[1003] = rows[4];
+        DataFrame expected = new DataFrame(new String[]{"Key", "Value", "Ratio"}, all);
+        assertEquals(expected, df);
+        assertArrayEquals(expected.moyenne(), df.moyenne());
+
+        df.appendFrame(df);
+        assertEquals(2008, df.getRowCount());
+        assertEquals(df.iloc(IntStream.range(0, 1004).toArray()), df.iloc(IntStream.range(1004, 2008).toArray()));
+        assertThrows(IllegalArgumentException.class,
+                () -> df.appendFrame(new DataFrame(new String[]{"Key", "Value"}, new Object[][]{{"a", 1}})));
+        assertThrows(IllegalArgumentException.class,
+                () -> df.appendFrame(new DataFrame(new String[]{"Key", "Value", "Other"}, new Object[][]{{"a", 1, 2}})));
+    }
+
+    @Test
+    public void testPivot() {
+        DataFrame metrics = new DataFrame(new String[]{"Host", "Metric", "Value"}, new Object[][]{
+                {"web", "cpu", 10},
+                {"db", "cpu", 30},
+                {"web", "mem", 4},
+                {"web", "cpu", 20},
+                {null, "mem", 1},
+                {"db", null, 7},
+                {"db", "cpu", null}
+        });
+        DataFrame sums = metrics.pivot("Host", "Metric", "Value", Aggregation.SUM);
+        assertEquals(List.of("Host", "cpu", "mem", "null"), sums.getColumnLabels());
+        assertEquals(Arrays.asList("web", "db", null), sums.getColumnValues("Host"));
+        assertEquals(Arrays.asList(30.0, 30.0, null), sums.getColumnValues("cpu"));
+        assertEquals(Arrays.asList(4.0, null, 1.0), sums.getColumnValues("mem"));
+        assertEquals(Arrays.asList(null, 7.0, null), sums.getColumnValues("null"));
+
+        DataFrame counts = metrics.compress().pivot("Metric", "Host", "Value", Aggregation.COUNT);
+        assertEquals(List.of("Metric", "web", "db", "null"), counts.getColumnLabels());
+        assertEquals(Arrays.asList(2, 1, null), counts.getColumnValues("web"));
+        assertEquals(Arrays.asList(1, null, 1), counts.getColumnValues("db"));
+        DataFrame firsts = metrics.pivot("Host", "Metric", "Value", Aggregation.FIRST);
+        assertEquals(ColumnType.INT, firsts.getColumn("cpu").getType());
+        assertEquals(Arrays.asList(10, 30, null), firsts.getColumnValues("cpu"));
+
+        Object[][] rows = new Object[3000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{"h" + i % 17, "m" + i % 5, (double) i};
+        }
+        DataFrame large = new DataFrame(new String[]{"Host", "Metric", "Value"}, rows);
+        DataFrame means = large.pivot("Host", "Metric", "Value", Aggregation.MEAN);
+        DataFrame grouped = large.where(Predicate.eq("Metric", "m3")).toDataFrame().groupby("Host", Aggregation.MEAN);
+        assertEquals(17, means.getRowCount());
+        for (int i = 0; i < 17; i++) {
+            int row = means.getColumnValues("Host").indexOf(grouped.getColumnValues("Host").get(i));
+            assertEquals(grouped.getColumnValues("Value").get(i), means.getColumnValues("m3").get(row));
+        }
+    }
+
+    @Test
+    public void testPivotValidation() {
+        DataFrame df = new DataFrame(new String[]{"Key", "Name", "Value"}, new Object[][]{{"a", "Key", 1}});
+        assertThrows(IllegalArgumentException.class, () -> df.pivot("Key", "Name", "Value", Aggregation.SUM));
+        assertThrows(IllegalArgumentException.class, () -> df.pivot("Name", "Key", "Key", Aggregation.SUM));
+        assertThrows(IllegalArgumentException.class, () -> df.pivot("Name", "Unknown", "Value", Aggregation.SUM));
+        DataFrame empty = df.where(Predicate.isNull("Key")).toDataFrame();
+        assertEquals(List.of("Name"), empty.pivot("Name", "Key", "Value", Aggregation.MAX).getColumnLabels());
+    }
+
+    @Test
+    public void testMelt() {
+        DataFrame wide = new DataFrame(new String[]{"Host", "Zone", "cpu", "mem", "disk"}, new Object[][]{
+                {"web", "eu", 10, 4L, 0.5},
+                {"db", null, null, 8L, 1.5}
+        });
+        DataFrame melted = wide.melt(new String[]{"Host", "Zone"}, new String[]{"cpu", "mem"});
+        assertEquals(List.of("Host", "Zone", "variable", "value"), melted.getColumnLabels());
+        assertEquals(List.of("web", "db", "web", "db"), melted.getColumnValues("Host"));
+        assertEquals(Arrays.asList("eu", null, "eu", null), melted.getColumnValues("Zone"));
+        assertEquals(List.of("cpu", "cpu", "mem", "mem"), melted.getColumnValues("variable"));
+        assertEquals(ColumnType.LONG, melted.getColumn("value").getType());
+        assertEquals(Arrays.asList(10L, null, 4L, 8L), melted.getColumnValues("value"));
+
+        DataFrame all = wide.compress().melt(new String[0], new String[]{"disk", "cpu", "Host"});
+        assertEquals(List.of("variable", "value"), all.getColumnLabels());
+        assertEquals(ColumnType.OBJECT, all.getColumn("value").getType());
+        assertEquals(Arrays.asList(0.5, 1.5, 10, null, "web", "db"), all.getColumnValues("value"));
+        DataFrame doubles = wide.melt(new String[]{"Host"}, new String[]{"disk", "cpu"});
+        assertEquals(Arrays.asList(0.5, 1.5, 10.0, null), doubles.getColumnValues("value"));
+        DataFrame back = doubles.where(Predicate.eq("variable", "disk")).toDataFrame();
+        assertEquals(wide.getColumnValues("disk"), back.getColumnValues("value"));
+
+        assertThrows(IllegalArgumentException.class, () -> wide.melt(new String[]{"Host"}, new String[]{"cpu", "cpu"}));
+        assertThrows(IllegalArgumentException.class, () -> wide.melt(new String[]{"Unknown"}, new String[]{"cpu"}));
+        DataFrame renamed = new DataFrame(new String[]{"value", "cpu"}, new Object[][]{{1, 2}});
+        assertThrows(IllegalArgumentException.class, () -> renamed.melt(new String[]{"value"}, new String[]{"cpu"}));
+
+        // 65536 rows times 32768 columns sharing one column would overflow an int
+        ArrayList<String> labels = new ArrayList<>();
+        Column[] columns = new Column[1 << 15];
+        IntColumn shared = new IntColumn(new int[1 << 16], 1 << 16, null);
+        for (int i = 0; i < columns.length; i++) {
+            labels.add("c" + i);
+            columns[i] = shared;
+        }
+        DataFrame huge = new DataFrame(labels, columns);
+        assertThrows(IllegalArgumentException.class, () -> huge.melt(new String[0], labels.toArray(new String[0])));
+    }
+
+    private static void assertDescriptionEquals(Description expected, Description actual) {
+        for (String label : expected.getLabels()) {
+            assertEquals(expected.getCount(label), actual.getCount(label));
+            assertEquals(expected.getMean(label), actual.getMean(label));
+            assertEquals(expected.getMin(label), actual.getMin(label));
+            assertEquals(expected.getMedian(label), actual.getMedian(label));
+            assertEquals(expected.getMax(label), actual.getMax(label));
+            assertEquals(expected.getStd(label), actual.getStd(label));
+        }
+    }
+}
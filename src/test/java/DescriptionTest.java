@@ -0,0 +1,83 @@
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DescriptionTest {
+
+    private final DataFrame df = new DataFrame(new String[]{"Name", "Age", "Salary", "Id", "Empty"}, new Object[][]{
+            {"Ali", 21, 1000.0, 1L, null},
+            {"Serge", 24, null, 2L, null},
+            {null, null, 3000.5, 3L, null},
+            {"Noemie", 23, 2500.0, 4L, null}
+    });
+
+    @Test
+    public void testMatchesTheSeparateStatistics() {
+        Description description = df.summary();
+        Object[] mean = df.moyenne();
+        Object[][] minMax = df.minEtMax();
+        Object[] sd = df.sd(mean);
+        String[] numeric = {"Age", "Salary", "Id"};
+        for (String label : numeric) {
+            int i = df.getColumnLabels().indexOf(label);
+            assertEquals(df.count()[i].intValue(), description.getCount(label));
+            assertEquals((Double) mean[i], description.getMean(label), 1e-9);
+            assertEquals(minMax[0][i], description.getMin(label));
+            assertEquals(minMax[1][i], description.getMax(label));
+            assertEquals((Double) sd[i], description.getStd(label), 1e-9);
+            assertEquals(description.getStd(label) * description.getStd(label), description.getVariance(label), 1e-6);
+        }
+        assertEquals(3, description.getCount("Name"));
+        assertNull(description.getMean("Name"));
+        assertNull(description.getMedian("Name"));
+        assertEquals(0, description.getCount("Empty"));
+        assertNull(description.getMax("Empty"));
+        assertEquals(df.getColumnLabels(), description.getLabels());
+    }
+
+    @Test
+    public void testQuartilesOfSmallColumnsAreExact() {
+        Description description = df.summary();
+        assertEquals(22.0, description.getFirstQuartile("Age"), 0.0);
+        assertEquals(23.0, description.getMedian("Age"), 0.0);
+        assertEquals(23.5, description.getThirdQuartile("Age"), 0.0);
+        assertEquals(2.5, description.getMedian("Id"), 0.0);
+    }
+
+    @Test
+    public void testCompensatedMean() {
+        DataFrame values = new DataFrame(new String[]{"x"}, new Object[][]{{1e16}, {1.0}, {-1e16}, {1.0}});
+        assertEquals(0.5, values.summary().getMean("x"), 0.0);
+        assertEquals(0.25, (Double) values.moyenne()[0], 0.0);
+    }
+
+    @Test
+    public void testQuartilesOfLargeColumns() {
+        Random random = new Random(3);
+        Object[][] rows = new Object[20000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{random.nextInt(1000), random.nextGaussian()};
+        }
+        Description description = new DataFrame(new String[]{"uniform", "normal"}, rows).summary();
+        assertEquals(250, description.getFirstQuartile("uniform"), 10);
+        assertEquals(500, description.getMedian("uniform"), 10);
+        assertEquals(750, description.getThirdQuartile("uniform"), 10);
+        assertEquals(-0.674, description.getFirstQuartile("normal"), 0.03);
+        assertEquals(0, description.getMedian("normal"), 0.03);
+        assertEquals(0.674, description.getThirdQuartile("normal"), 0.03);
+        assertEquals(1, description.getStd("normal"), 0.03);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownColumn() {
+        df.summary().getMean("Country");
+    }
+
+    @Test
+    public void testPrint() {
+        df.summary().print();
+        df.describe();
+    }
+}
@@ -0,0 +1,106 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FieldParserTest {
+
+    private final FieldParser parser = new FieldParser();
+
+    /**
+     * Types a field the way CSVReader.nextLine always did, with Integer.parseInt then Double.parseDouble.
+     */
+    private static Object reference(String field) {
+        try {
+            return Integer.parseInt(field);
+        } catch (NumberFormatException e1) {
+            try {
+                return Double.parseDouble(field);
+            } catch (NumberFormatException e2) {
+                return field;
+            }
+        }
+    }
+
+    private Object parse(String field) {
+        byte[] bytes = ("#" + field + "#").getBytes(StandardCharsets.ISO_8859_1);
+        return switch (parser.classify(bytes, 1, bytes.length - 1)) {
+            case INT -> parser.intValue;
+            case DOUBLE -> parser.doubleValue;
+            default -> field;
+        };
+    }
+
+    private void check(String field) {
+        assertEquals("field \"" + field + "\"", reference(field), parse(field));
+    }
+
+    @Test
+    public void testIntegers() {
+        for (String field : new String[]{"0", "-0", "+5", "21", "-2147483648", "2147483647", "00000000000042"}) {
+            check(field);
+        }
+    }
+
+    @Test
+    public void testIntegersOutOfRangeBecomeDoubles() {
+        for (String field : new String[]{"2147483648", "-2147483649", "12345678901234567", "123456789012345678901234"}) {
+            check(field);
+        }
+    }
+
+    @Test
+    public void testDoubles() {
+        String[] fields = {"1.6", "10.7", "-34.4", ".5", "5.", "1e5", "1E-5", "-1.5e+3", "0.1", "-0.0",
+                "3.141592653589793", "1.7976931348623157E308", "4.9e-324", "1e400", "1.5f", "2D",
+                "NaN", "-Infinity", "+Infinity", "0x1p3", "0X1.8P-1", " 10", "10\r", "\t1.5 "};
+        for (String field : fields) {
+            check(field);
+        }
+    }
+
+    @Test
+    public void testStrings() {
+        String[] fields = {"", "-", "+", ".", "e5", "1e", "1e+", "abc", "Noemie", "NaNa", "Inf", "0x", "0x1",
+                "0x1.p", "1.2.3", "12abc", "2024-01-01", "1_000", "- 5", "1ff", "new york"};
+        for (String field : fields) {
+            check(field);
+        }
+    }
+
+    @Test
+    public void testRandomDecimalsMatchTheJdk() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String field;
+            switch (i % 4) {
+                case 0 -> field = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+                case 1 -> field = Long.toString(random.nextLong() >> random.nextInt(64));
+                case 2 -> field = String.format("%." + random.nextInt(10) + "f", random.nextGaussian() * 1000);
+                default -> field = random.nextInt(1000) + "." + random.nextInt(1000000) + "e" + (random.nextInt(60) - 30);
+            }
+            check(field);
+        }
+    }
+
+    @Test
+    public void testStringFieldsMatchTheJdk() {
+        FieldParser parser = new FieldParser();
+        assertEquals(ColumnType.INT, parser.classify("\u0661\u0662"));
+        assertEquals(12, parser.intValue);
+        assertEquals(ColumnType.DOUBLE, parser.classify(" 1.5 "));
+        assertEquals(1.5, parser.doubleValue, 0);
+        assertEquals(ColumnType.STRING, parser.classify("1\u00e9"));
+
+        assertTrue(parser.parseLong("-9223372036854775808"));
+        assertEquals(Long.MIN_VALUE, parser.longValue);
+        assertFalse(parser.parseLong("9223372036854775808"));
+        assertFalse(parser.parseInt("3000000000"));
+        assertFalse(parser.parseLong("-"));
+        assertFalse(parser.parseDouble("\u0661"));
+        assertTrue(parser.parseDouble("3"));
+        assertEquals(3.0, parser.doubleValue, 0);
+    }
+}
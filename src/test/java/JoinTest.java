@@ -0,0 +1,314 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JoinTest {
+
+    private final DataFrame people = new DataFrame(new String[]{"Name", "City"}, new Object[][]{
+            {"Ali", "Paris"},
+            {"Serge", "Lyon"},
+            {"Jorane", null},
+            {"Noemie", "Nice"},
+            {"Eve", "Paris"}
+    });
+
+    private final DataFrame cities = new DataFrame(new String[]{"City", "Country"}, new Object[][]{
+            {"Paris", "France"},
+            {"Lyon", "France"},
+            {"Rome", "Italy"},
+            {"Paris", "FR"}
+    });
+
+    @Test
+    public void testInnerJoin() {
+        DataFrame expected = new DataFrame(new String[]{"Name", "City", "Country"}, new Object[][]{
+                {"Ali", "Paris", "France"},
+                {"Ali", "Paris", "FR"},
+                {"Serge", "Lyon", "France"},
+                {"Eve", "Paris", "France"},
+                {"Eve", "Paris", "FR"}
+        });
+        assertEquals(expected, people.join(cities, "City", "City", "inner"));
+        assertEquals(expected, people.join(cities, "City", "City", JoinType.INNER));
+    }
+
+    @Test
+    public void testLeftJoin() {
+        DataFrame expected = new DataFrame(new String[]{"Name", "City", "Country"}, new Object[][]{
+                {"Ali", "Paris", "France"},
+                {"Ali", "Paris", "FR"},
+                {"Serge", "Lyon", "France"},
+                {"Jorane", null, null},
+                {"Noemie", "Nice", null},
+                {"Eve", "Paris", "France"},
+                {"Eve", "Paris", "FR"}
+        });
+        assertEquals(expected, people.join(cities, "City", "City", "left"));
+    }
+
+    @Test
+    public void testRightJoin() {
+        DataFrame expected = new DataFrame(new String[]{"Name", "City", "Country"}, new Object[][]{
+                {"Ali", "Paris", "France"},
+                {"Eve", "Paris", "France"},
+                {"Serge", "Lyon", "France"},
+                {null, "Rome", "Italy"},
+                {"Ali", "Paris", "FR"},
+                {"Eve", "Paris", "FR"}
+        });
+        assertEquals(expected, people.join(cities, "City", "City", "right"));
+    }
+
+    @Test
+    public void testOuterJoin() {
+        DataFrame expected = new DataFrame(new String[]{"Name", "City", "Country"}, new Object[][]{
+                {"Ali", "Paris", "France"},
+                {"Ali", "Paris", "FR"},
+                {"Serge", "Lyon", "France"},
+                {"Jorane", null, null},
+                {"Noemie", "Nice", null},
+                {"Eve", "Paris", "France"},
+                {"Eve", "Paris", "FR"},
+                {null, "Rome", "Italy"}
+        });
+        assertEquals(expected, people.join(cities, "City", "City", "outer"));
+    }
+
+    @Test
+    public void testSemiAndAntiJoins() {
+        DataFrame semi = new DataFrame(new String[]{"Name", "City"}, new Object[][]{
+                {"Ali", "Paris"},
+                {"Serge", "Lyon"},
+                {"Eve", "Paris"}
+        });
+        DataFrame anti = new DataFrame(new String[]{"Name", "City"}, new Object[][]{
+                {"Jorane", null},
+                {"Noemie", "Nice"}
+        });
+        assertEquals(semi, people.join(cities, "City", "City", "semi"));
+        assertEquals(anti, people.join(cities, "City", "City", "anti"));
+        // The smaller side is indexed: the left frame when it has fewer rows.
+        DataFrame few = people.iloc(new int[]{0, 1, 2});
+        assertEquals(semi.iloc(new int[]{0, 1}), few.join(cities, "City", "City", "semi"));
+        assertEquals(anti.iloc(new int[]{0}), few.join(cities, "City", "City", "anti"));
+    }
+
+    @Test
+    public void testBuildSideDoesNotChangeResult() {
+        DataFrame few = people.iloc(new int[]{4, 0, 2});
+        for (JoinType type : JoinType.values()) {
+            DataFrame res = few.join(cities, "City", "City", type);
+            DataFrame swapped = cities.join(few, "City", "City", type);
+            assertEquals(type.toString(), naive(few, cities, "City", "City", type), res);
+            assertEquals(type.toString(), naive(cities, few, "City", "City", type), swapped);
+        }
+    }
+
+    @Test
+    public void testDistinctKeyLabelsAndSuffix() {
+        DataFrame orders = new DataFrame(new String[]{"Id", "Name", "Amount"}, new Object[][]{
+                {1, "Ali", 10.0},
+                {2, "Eve", 20.5},
+                {3, "Bob", 7.0}
+        });
+        DataFrame res = orders.join(people, "Name", "Name", "inner");
+        assertEquals(new ArrayList<>(Arrays.asList("Id", "Name", "Amount", "City")), res.getColumnLabels());
+
+        res = people.join(orders, "City", "Name", "left");
+        assertEquals(new ArrayList<>(Arrays.asList("Name", "City", "Id", "Name_right", "Amount")),
+                res.getColumnLabels());
+        assertEquals(5, res.getRowCount());
+        assertNull(res.getColumn("Id").get(0));
+    }
+
+    @Test
+    public void testNumericKeys() {
+        DataFrame left = new DataFrame(new String[]{"Id", "A"}, new Object[][]{
+                {1, "a"}, {2, "b"}, {null, "c"}, {4, "d"}
+        });
+        DataFrame right = new DataFrame(new String[]{"Id", "B"}, new Object[][]{
+                {4, 4.5}, {1, 1.5}, {null, 0.0}, {1, 1.25}
+        });
+        DataFrame expected = new DataFrame(new String[]{"Id", "A", "B"}, new Object[][]{
+                {1, "a", 1.5}, {1, "a", 1.25}, {4, "d", 4.5}
+        });
+        assertEquals(expected, left.join(right, "Id", "Id", "inner"));
+
+        // Keys of different types are never equal, as in groupby.
+        DataFrame longs = new DataFrame(new String[]{"Id", "C"}, new Object[][]{{1L, true}, {4L, false}});
+        assertEquals(0, left.join(longs, "Id", "Id", "inner").getRowCount());
+        DataFrame objects = new DataFrame(new String[]{"Id", "C"}, new Object[][]{{1, true}, {"x", false}});
+        assertEquals(1, left.join(objects, "Id", "Id", "inner").getRowCount());
+    }
+
+    @Test
+    public void testMergeJoinMatchesHashJoin() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            DataFrame left = sortedFrame(random, 1 + random.nextInt(30), "L");
+            DataFrame right = sortedFrame(random, 1 + random.nextInt(30), "R");
+            for (JoinType type : JoinType.values()) {
+                DataFrame expected = naive(left, right, "Key", "Key", type);
+                assertEquals(type.toString(), expected, left.join(right, "Key", "Key", type));
+                assertEquals(type.toString(), expected, left.mergeJoin(right, "Key", "Key", type));
+            }
+        }
+    }
+
+    @Test
+    public void testMergeJoinOnStrings() {
+        DataFrame sortedPeople = new DataFrame(new String[]{"Name", "City"}, new Object[][]{
+                {"Serge", "Lyon"}, {"Jorane", null}, {"Noemie", "Nice"}, {"Ali", "Paris"}, {"Eve", "Paris"}
+        });
+        DataFrame sortedCities = new DataFrame(new String[]{"City", "Country"}, new Object[][]{
+                {"Lyon", "France"}, {"Paris", "France"}, {"Paris", "FR"}, {"Rome", "Italy"}
+        });
+        for (JoinType type : JoinType.values()) {
+            assertEquals(type.toString(), sortedPeople.join(sortedCities, "City", "City", type),
+                    sortedPeople.mergeJoin(sortedCities, "City", "City", type));
+        }
+    }
+
+    @Test
+    public void testMergeJoinOnOtherKeyTypes() {
+        Object[][][] keys = {
+                {{-3L}, {5L}, {5L}, {9L}},
+                {{false}, {true}, {true}, {null}},
+                {{-0.5}, {Double.NaN}, {null}, {Double.NaN}},
+                {{1}, {2.5}, {false}, {"a"}},
+                {{2}, {2L}, {true}, {"b"}}
+        };
+        for (Object[][] left : keys) {
+            for (Object[][] right : keys) {
+                DataFrame l = new DataFrame(new String[]{"K"}, left);
+                DataFrame r = new DataFrame(new String[]{"K"}, right);
+                for (JoinType type : JoinType.values()) {
+                    DataFrame expected = naive(l, r, "K", "K", type);
+                    assertEquals(type.toString(), expected, l.join(r, "K", "K", type));
+                    assertEquals(type.toString(), expected, l.mergeJoin(r, "K", "K", type));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeJoinUnsorted() {
+        people.mergeJoin(cities, "City", "City", "inner");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownType() {
+        people.join(cities, "City", "City", "cross");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownKey() {
+        people.join(cities, "City", "Town", "inner");
+    }
+
+    private static DataFrame sortedFrame(Random random, int rows, String prefix) {
+        Object[][] values = new Object[rows][];
+        int key = 0;
+        for (int i = 0; i < rows; i++) {
+            key += random.nextInt(3);
+            values[i] = new Object[]{random.nextInt(8) == 0 ? null : key, prefix + i};
+        }
+        return new DataFrame(new String[]{"Key", prefix}, values);
+    }
+
+    /**
+     * Joins with nested loops, in the order documented by DataFrame.join.
+     */
+    private static DataFrame naive(DataFrame left, DataFrame right, String leftKey, String rightKey, JoinType type) {
+        Column lk = left.getColumn(leftKey);
+        Column rk = right.getColumn(rightKey);
+        ArrayList<int[]> pairs = new ArrayList<>();
+        boolean[] rightMatched = new boolean[right.getRowCount()];
+        if (type == JoinType.RIGHT) {
+            for (int r = 0; r < right.getRowCount(); r++) {
+                boolean any = false;
+                for (int l = 0; l < left.getRowCount(); l++) {
+                    if (rk.get(r) != null && rk.get(r).equals(lk.get(l))) {
+                        pairs.add(new int[]{l, r});
+                        any = true;
+                    }
+                }
+                if (!any) {
+                    pairs.add(new int[]{-1, r});
+                }
+            }
+        } else {
+            for (int l = 0; l < left.getRowCount(); l++) {
+                boolean any = false;
+                for (int r = 0; r < right.getRowCount(); r++) {
+                    if (lk.get(l) != null && lk.get(l).equals(rk.get(r))) {
+                        pairs.add(new int[]{l, r});
+                        rightMatched[r] = true;
+                        any = true;
+                    }
+                }
+                if (type == JoinType.SEMI && any || type == JoinType.ANTI && !any) {
+                    pairs.add(new int[]{l, -1});
+                } else if (!any && (type == JoinType.LEFT || type == JoinType.OUTER)) {
+                    pairs.add(new int[]{l, -1});
+                }
+            }
+            if (type == JoinType.OUTER) {
+                for (int r = 0; r < right.getRowCount(); r++) {
+                    if (!rightMatched[r]) {
+                        pairs.add(new int[]{-1, r});
+                    }
+                }
+            }
+        }
+
+        ArrayList<String> labels = new ArrayList<>();
+        ArrayList<Object[]> rows = new ArrayList<>();
+        for (int[] pair : pairs) {
+            if ((type == JoinType.SEMI || type == JoinType.ANTI) && pair[1] >= 0) {
+                continue;
+            }
+            ArrayList<Object> row = new ArrayList<>();
+            for (String label : left.getColumnLabels()) {
+                Object value = pair[0] >= 0 ? left.getColumn(label).get(pair[0]) : null;
+                if (value == null && label.equals(leftKey) && leftKey.equals(rightKey) && pair[1] >= 0) {
+                    value = rk.get(pair[1]);
+                }
+                row.add(value);
+            }
+            if (type != JoinType.SEMI && type != JoinType.ANTI) {
+                for (String label : right.getColumnLabels()) {
+                    if (!label.equals(rightKey) || !leftKey.equals(rightKey)) {
+                        row.add(pair[1] >= 0 ? right.getColumn(label).get(pair[1]) : null);
+                    }
+                }
+            }
+            rows.add(row.toArray());
+        }
+        labels.addAll(left.getColumnLabels());
+        if (type != JoinType.SEMI && type != JoinType.ANTI) {
+            for (String label : right.getColumnLabels()) {
+                if (!label.equals(rightKey) || !leftKey.equals(rightKey)) {
+                    String name = label;
+                    while (labels.contains(name)) {
+                        name += "_right";
+                    }
+                    labels.add(name);
+                }
+            }
+        }
+        Column[] columns = new Column[labels.size()];
+        for (int c = 0; c < columns.length; c++) {
+            Object[] values = new Object[rows.size()];
+            for (int r = 0; r < values.length; r++) {
+                values[r] = rows.get(r)[c];
+            }
+            columns[c] = Column.of(values);
+        }
+        return new DataFrame(labels, columns);
+    }
+}
@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LazyFrameTest {
+
+    private Path file;
+
+    private final DataFrame df = new DataFrame(new String[]{"Name", "Age", "City", "Salary"}, new Object[][]{
+            {"Ali", 21, "Paris", 1000.0},
+            {"Serge", 24, "Lyon", null},
+            {"Jorane", null, "Paris", 3000.5},
+            {"Noemie", 23, "Lyon", 2500.0},
+            {"Bob", 30, "Nice", 1200.0},
+            {"Eve", 23, "Paris", 900.0}
+    });
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("lazy", ".csv");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testSameResultAsEagerCalls() {
+        Predicate adults = Predicate.gt("Age", 21);
+        String[] lab = {"City", "Salary", "Age"};
+        DataFrame eager = df.filter(adults).loc(lab).iloc(new int[]{3, 0, 1}).groupby("City", "mean");
+        DataFrame lazy = df.lazy().filter(adults).loc(lab).iloc(new int[]{3, 0, 1}).groupby("City", "mean").collect();
+        assertEquals(eager, lazy);
+        assertEquals(eager.getColumnLabels(), lazy.getColumnLabels());
+
+        eager = df.iloc(new int[]{5, 2, 5, 0}).filter(Predicate.eq("City", "Paris").or(Predicate.isNull("Age")))
+                .loc(new String[]{"Name", "Name"});
+        lazy = df.lazy().iloc(new int[]{5, 2, 5, 0}).filter(Predicate.eq("City", "Paris").or(Predicate.isNull("Age")))
+                .loc(new String[]{"Name", "Name"}).collect();
+        assertEquals(eager, lazy);
+        assertEquals(4, lazy.getRowCount());
+
+        assertEquals(df, df.lazy().collect());
+        DataFrame grouped = df.lazy().groupby("City", "count").loc(new String[]{"Salary", "City"}).collect();
+        assertEquals(df.groupby("City", "count").loc(new String[]{"Salary", "City"}), grouped);
+    }
+
+    @Test
+    public void testProjectionIsPushedIntoTheScan() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int c = 0; c < 300; c++) {
+            content.append(c == 0 ? "" : ",").append("c").append(c);
+        }
+        content.append('\n');
+        for (int r = 0; r < 50; r++) {
+            for (int c = 0; c < 300; c++) {
+                content.append(c == 0 ? "" : ",").append(r * c);
+            }
+            content.append('\n');
+        }
+        Files.writeString(file, content.toString(), StandardCharsets.UTF_8);
+
+        LazyFrame query = new LazyFrame(file.toString()).filter(Predicate.lt("c7", 100)).loc(new String[]{"c250", "c3"});
+        assertEquals("Scan " + file + " [c250, c3, c7]", query.explain().split("\n")[0]);
+        DataFrame expected = new DataFrame(file.toString()).filter(Predicate.lt("c7", 100)).loc(new String[]{"c250", "c3"});
+        assertEquals(expected, query.collect());
+        assertEquals(15, query.collect().getRowCount());
+        assertEquals("Scan " + file + " *", new LazyFrame(file.toString()).explain().split("\n")[0]);
+    }
+
+    @Test
+    public void testRegexDelimiterReadsTheWholeFile() {
+        String path = "src/test/sample/delimiter1_with_spaces.csv";
+        DataFrame expected = new DataFrame(path, ";").iloc(new int[]{1, 0});
+        assertEquals(expected, new LazyFrame(path, ";").iloc(new int[]{1, 0}).collect());
+        assertEquals(new DataFrame("src/test/sample/test.csv"), new LazyFrame("src/test/sample/test.csv").collect());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFilterOnAColumnRemovedByLoc() {
+        df.lazy().loc(new String[]{"Name"}).filter(Predicate.eq("City", "Paris")).collect();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLocOnAColumnRemovedByAnEarlierLoc() throws IOException {
+        Files.writeString(file, "a,b,c\n1,2,3\n", StandardCharsets.UTF_8);
+        new LazyFrame(file.toString()).loc(new String[]{"a"}).loc(new String[]{"a", "b"}).collect();
+    }
+
+    @Test
+    public void testLocKeepsColumnsPrunedFromTheScan() throws IOException {
+        Files.writeString(file, "a,b,c\n1,2,3\n4,5,6\n", StandardCharsets.UTF_8);
+        LazyFrame query = new LazyFrame(file.toString()).loc(new String[]{"c", "a"}).loc(new String[]{"a"});
+        assertEquals("Scan " + file + " [a]", query.explain().split("\n")[0]);
+        assertEquals(new DataFrame(file.toString()).loc(new String[]{"a"}), query.collect());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIlocOutOfTheFilteredRows() {
+        df.lazy().filter(Predicate.eq("City", "Nice")).iloc(new int[]{1}).collect();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownGroupByLabel() {
+        df.lazy().groupby("Country", "sum").collect();
+    }
+}
@@ -0,0 +1,125 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MappedCSVReaderTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mapped", ".csv");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private DataFrame read(String content, String delimiter, long windowSize) throws IOException {
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return new MappedCSVReader(file.toString(), delimiter, windowSize).read();
+    }
+
+    @Test
+    public void testReadsLikeCSVReader() {
+        String path = "src/test/sample/test.csv";
+        assertEquals(new DataFrame(new CSVReader(path).allLines()), new MappedCSVReader(path).read());
+        assertEquals(ColumnType.INT, new MappedCSVReader(path).read().getColumn("Age").getType());
+    }
+
+    @Test
+    public void testCustomDelimiterAndShortRows() {
+        DataFrame df = new MappedCSVReader("src/test/sample/delimiter1_with_spaces.csv", ";").read();
+        assertEquals(8, df.getRowCount());
+        assertEquals("rio de janeiro", df.getRowValues(0).get(0));
+        assertEquals(10, df.getRowValues(0).get(2));
+        assertEquals(1.6, df.getRowValues(2).get(2));
+        assertEquals("", df.getRowValues(5).get(1));
+        assertEquals("", df.getRowValues(5).get(2));
+        assertEquals(3, df.getRowValues(7).get(2));
+    }
+
+    @Test
+    public void testLinesAcrossWindows() throws IOException {
+        StringBuilder content = new StringBuilder("id;name;score\r\n");
+        for (int i = 0; i < 100; i++) {
+            content.append(i).append(";name").append(i).append(";").append(i / 4.0).append("\r\n");
+        }
+        content.append("\n100;last;1e3");
+        DataFrame df = read(content.toString(), ";", 32);
+        assertEquals(101, df.getRowCount());
+        assertEquals("name42", df.getRowValues(42).get(1));
+        assertEquals(ColumnType.DOUBLE, df.getColumn("score").getType());
+        assertEquals(1000.0, df.getRowValues(100).get(2));
+        assertEquals(ColumnType.INT, df.getColumn("id").getType());
+    }
+
+    @Test
+    public void testMultiCharacterDelimiter() throws IOException {
+        DataFrame df = read("a::b\n1::x\n2::y::extra\n", "::", 1 << 20);
+        assertEquals(2, df.getRowCount());
+        assertEquals(2, df.getRowValues(1).get(0));
+        assertEquals("y", df.getRowValues(1).get(1));
+    }
+
+    @Test
+    public void testHeaderOnly() throws IOException {
+        DataFrame df = read("a,b\n", ",", 1 << 20);
+        assertEquals(0, df.getRowCount());
+        assertEquals("b", df.getColumnLabels().get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyFile() throws IOException {
+        read("", ",", 1 << 20);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLineLongerThanWindow() throws IOException {
+        read("a,b\n" + "x".repeat(64) + ",1\n2,3\n", ",", 16);
+    }
+
+    @Test
+    public void testReadColumns() throws IOException {
+        DataFrame all = read("a;b;c;d\n1;x;2.5;y\n\n3;z\n", ";", 1 << 20);
+        DataFrame some = new MappedCSVReader(file.toString(), ";").readColumns("c", "a");
+        assertEquals(all.loc(new String[]{"c", "a"}), some);
+        assertEquals(ColumnType.OBJECT, some.getColumn("c").getType());
+        assertEquals("", some.getRowValues(1).get(0));
+        assertArrayEquals(new String[]{"a", "b", "c", "d"}, new MappedCSVReader(file.toString(), ";").readHeader());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadUnknownColumn() throws IOException {
+        read("a,b\n1,2\n", ",", 1 << 20);
+        new MappedCSVReader(file.toString()).readColumns("a", "z");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMissingFile() {
+        new MappedCSVReader("src/test/sample/unknown.csv").read();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyDelimiter() {
+        new MappedCSVReader("src/test/sample/test.csv", "");
+    }
+
+    @Test
+    public void testSupports() {
+        assertTrue(MappedCSVReader.supports(","));
+        assertTrue(MappedCSVReader.supports(";"));
+        assertTrue(MappedCSVReader.supports("::"));
+        assertFalse(MappedCSVReader.supports("|"));
+        assertFalse(MappedCSVReader.supports("\\s*,"));
+        assertFalse(MappedCSVReader.supports(""));
+    }
+}
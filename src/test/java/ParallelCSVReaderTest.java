@@ -0,0 +1,149 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParallelCSVReaderTest {
+
+    private Path file;
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("parallel", ".csv");
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    private void write(String content) throws IOException {
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private DataFrame readParallel(long chunkSize) {
+        return new ParallelCSVReader(file.toString(), ",", pool, chunkSize).read();
+    }
+
+    private void assertSameFrame(DataFrame expected, DataFrame actual) {
+        assertEquals(expected, actual);
+        assertEquals(expected.getColumnLabels(), actual.getColumnLabels());
+        for (String label : expected.getColumnLabels()) {
+            assertEquals(expected.getColumn(label).getType(), actual.getColumn(label).getType());
+        }
+    }
+
+    @Test
+    public void testMatchesMappedReader() throws IOException {
+        StringBuilder content = new StringBuilder("id,city,score,comment\r\n");
+        String[] cities = {"Paris", "Lyon", "Grenoble"};
+        for (int i = 0; i < 5000; i++) {
+            content.append(i).append(',').append(cities[i % 3]).append(',').append(i / 8.0)
+                    .append(",comment ").append(i % 17).append("\r\n");
+            if (i % 700 == 0) {
+                content.append("\n");
+            }
+        }
+        write(content.toString());
+        DataFrame expected = new MappedCSVReader(file.toString()).read();
+        DataFrame actual = readParallel(1024);
+        assertSameFrame(expected, actual);
+        assertEquals(5000, actual.getRowCount());
+        assertArrayEquals(((StringColumn) expected.getColumn("city")).getDictionary(),
+                ((StringColumn) actual.getColumn("city")).getDictionary());
+    }
+
+    @Test
+    public void testCellsNotMatchingTheGuessedType() throws IOException {
+        StringBuilder content = new StringBuilder("a,b,c,d\n");
+        for (int i = 0; i < 3000; i++) {
+            if (i == 2500) {
+                content.append("x,1.5,7,\n");
+            } else if (i >= 2900) {
+                content.append(i).append(",2,").append("3,").append(i).append("\n");
+            } else {
+                content.append(i).append(",").append(i).append(",name,").append("\n");
+            }
+        }
+        content.append("9,9");
+        write(content.toString());
+        DataFrame expected = new MappedCSVReader(file.toString()).read();
+        DataFrame actual = readParallel(256);
+        assertSameFrame(expected, actual);
+        assertEquals(ColumnType.OBJECT, actual.getColumn("a").getType());
+        assertEquals("x", actual.getRowValues(2500).get(0));
+        assertEquals(1.5, actual.getRowValues(2500).get(1));
+        assertEquals(7, actual.getRowValues(2500).get(2));
+        assertEquals("", actual.getRowValues(3000).get(3));
+    }
+
+    @Test
+    public void testMixedColumnInSample() throws IOException {
+        StringBuilder content = new StringBuilder("a,b\n");
+        for (int i = 0; i < 200; i++) {
+            content.append(i % 2 == 0 ? "1" : "y").append(",").append(i).append("\n");
+        }
+        write(content.toString());
+        DataFrame actual = readParallel(64);
+        assertSameFrame(new MappedCSVReader(file.toString()).read(), actual);
+        assertEquals(ColumnType.OBJECT, actual.getColumn("a").getType());
+    }
+
+    @Test
+    public void testReadColumns() throws IOException {
+        StringBuilder content = new StringBuilder("id,city,score,comment\n");
+        for (int i = 0; i < 3000; i++) {
+            content.append(i).append(',').append(i % 5 == 0 ? "Paris" : "Lyon").append(',');
+            if (i == 2000) {
+                content.append("n/a\n");
+            } else {
+                content.append(i / 4.0).append(",c").append(i).append("\n");
+            }
+        }
+        write(content.toString());
+        DataFrame some = new ParallelCSVReader(file.toString(), ",", pool, 512).readColumns("score", "city");
+        assertSameFrame(readParallel(512).loc(new String[]{"score", "city"}), some);
+        assertEquals(ColumnType.OBJECT, some.getColumn("score").getType());
+        assertEquals(new MappedCSVReader(file.toString()).readColumns("comment"),
+                new ParallelCSVReader(file.toString(), ",", pool, 512).readColumns("comment"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadNoColumn() {
+        new ParallelCSVReader("src/test/sample/test.csv", ",").readColumns();
+    }
+
+    @Test
+    public void testSmallFileIsReadSequentially() {
+        String path = "src/test/sample/test.csv";
+        assertEquals(new MappedCSVReader(path).read(), new ParallelCSVReader(path, ",").read());
+    }
+
+    @Test
+    public void testHeaderOnly() throws IOException {
+        write("\n\nfirst,second\n\n\n");
+        DataFrame df = readParallel(4);
+        assertEquals(0, df.getRowCount());
+        assertEquals("second", df.getColumnLabels().get(1));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMissingFile() {
+        new ParallelCSVReader("src/test/sample/unknown.csv", ",").read();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyDelimiter() {
+        new ParallelCSVReader("src/test/sample/test.csv", "");
+    }
+}
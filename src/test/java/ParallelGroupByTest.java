@@ -0,0 +1,100 @@
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParallelGroupByTest {
+
+    private static ForkJoinPool pool;
+    private static DataFrame df;
+
+    @BeforeClass
+    public static void setUp() {
+        pool = new ForkJoinPool(4);
+        // Name has 4 groups and Key 12, for 16 rows
+        df = new DataFrame(new String[]{"Name", "Key", "Int", "Double", "Text"}, new Object[][]{
+                {"a", 1, 10, 1.5, "x"},
+                {"b", 2, null, 2.0, null},
+                {"a", 3, 7, 0.5, "y"},
+                {"c", 4, 3, 4.0, "x"},
+                {"b", 5, 8, -1.0, null},
+                {"d", 6, null, 2.5, "z"},
+                {"a", 7, 1, 3.0, "x"},
+                {"c", 8, 6, 0.25, null},
+                {"b", 9, 4, 1.0, "y"},
+                {"d", 10, 2, 5.5, "x"},
+                {"a", 11, null, 2.0, null},
+                {"c", 12, 9, -0.5, "z"},
+                {"b", 1, 5, 1.25, "y"},
+                {"d", 2, 0, 3.5, null},
+                {"a", 3, 12, 0.75, "x"},
+                {"c", 4, 11, 6.0, "z"}
+        });
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    private static void assertSameGroups(DataFrame expected, DataFrame actual) {
+        assertEquals(expected.getColumnLabels(), actual.getColumnLabels());
+        assertEquals(expected.getRowCount(), actual.getRowCount());
+        for (int i = 0; i < expected.getRowCount(); i++) {
+            for (int j = 0; j < expected.getColumnLabels().size(); j++) {
+                Object e = expected.getRowValues(i).get(j);
+                Object a = actual.getRowValues(i).get(j);
+                if (e instanceof Double d && a instanceof Double) {
+                    assertEquals(d, (Double) a, 1e-9 * Math.max(1, Math.abs(d)));
+                } else {
+                    assertEquals(e, a);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPartialTablesMatchSequentialGroupBy() {
+        // 4 ranges of 4 rows: Name is aggregated into partial tables, Key partitioned by group
+        ParallelGroupBy parallel = new ParallelGroupBy(pool, 4);
+        for (Aggregation aggregation : Aggregation.values()) {
+            assertSameGroups(df.groupby("Name", aggregation), parallel.groupby(df, "Name", aggregation));
+            assertSameGroups(df.groupby("Key", aggregation), parallel.groupby(df, "Key", aggregation));
+        }
+        // Integer values: the partial sums are exact
+        assertEquals(df.groupby("Name", "sum"), parallel.groupby(df, "Name", "sum"));
+    }
+
+    @Test
+    public void testHighCardinalityPartitionsByGroup() {
+        ParallelGroupBy parallel = new ParallelGroupBy(pool, 2);
+        for (Aggregation aggregation : Aggregation.values()) {
+            assertEquals(df.groupby("Key", aggregation), parallel.groupby(df, "Key", aggregation));
+        }
+    }
+
+    @Test
+    public void testCustomAggregator() {
+        Aggregator rows = (column, groupOf, groups) -> {
+            int[] res = new int[groups];
+            for (int g : groupOf) {
+                res[g]++;
+            }
+            return new IntColumn(res, groups, null);
+        };
+        assertEquals(df.groupby("Name", rows), new ParallelGroupBy(pool, 4).groupby(df, "Name", rows));
+    }
+
+    @Test
+    public void testSmallFramesAreGroupedSequentially() {
+        assertEquals(df.groupby("Name", "mean"), new ParallelGroupBy().groupby(df, "Name", "mean"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownLabel() {
+        new ParallelGroupBy(pool).groupby(df, "Country", "sum");
+    }
+}
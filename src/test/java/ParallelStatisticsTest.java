@@ -0,0 +1,122 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParallelStatisticsTest {
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static final String[] LABELS = {"int", "long", "double", "nulls", "string", "nan"};
+    /**
+     * More rows than the lanes of the widest vectors, so that the vectorized loops have a tail.
+     */
+    private static final Object[][] ROWS = {
+            {-500, 1_048_575L, 12.5, null, "s1", 0.25},
+            {37, 3L, 99.75, 4, "s2", -1.5},
+            {212, 700_000L, 0.125, 49, "s1", 2.0},
+            {-3, 65_536L, 41.0, 7, "s3", -0.75},
+            {499, 12L, 3.5, null, "s9", 1.125},
+            {0, 524_288L, 66.25, 0, "s0", -2.25},
+            {-128, 99_999L, 7.75, 23, "s4", 0.5},
+            {64, 1L, 58.5, null, "s2", 3.75},
+            {-77, 250_000L, 21.25, 31, "s5", -0.125},
+            {311, 8_192L, 84.0, 12, "s6", Double.NaN},
+            {-450, 777L, 0.5, 18, "s7", 1.5},
+            {5, 400_001L, 33.375, null, "s8", -3.0},
+            {150, 42L, 99.0, 2, "s1", 0.875},
+            {-256, 1_000_000L, 16.5, 44, "s3", -0.5},
+            {88, 17L, 72.25, null, "s2", 2.5},
+            {-19, 300_000L, 5.0, 9, "s0", -1.0},
+            {403, 123_456L, 47.5, 36, "s4", 0.0},
+            {-341, 6L, 28.75, 27, "s9", 4.25},
+            {270, 900_000L, 61.125, null, "s5", -2.0},
+            {-66, 55_555L, 9.25, 15, "s6", 1.75}
+    };
+
+    private static DataFrame frame(int rows) {
+        return new DataFrame(LABELS, Arrays.copyOf(ROWS, rows));
+    }
+
+    private static void assertClose(Object[] expected, Object[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            if (expected[i] == null || actual[i] == null) {
+                assertEquals(expected[i], actual[i]);
+            } else {
+                assertEquals((Double) expected[i], (Double) actual[i], 1e-9 * Math.max(1, Math.abs((Double) expected[i])));
+            }
+        }
+    }
+
+    private void assertSameStatistics(DataFrame df, ParallelStatistics statistics) {
+        Object[] mean = df.moyenne();
+        assertClose(mean, statistics.moyenne(df));
+        assertArrayEquals(df.minEtMax(), statistics.minEtMax(df));
+        assertClose(df.sd(mean), statistics.sd(df, mean));
+        Description expected = df.summary();
+        Description actual = statistics.summary(df);
+        for (String label : df.getColumnLabels()) {
+            assertEquals(expected.getCount(label), actual.getCount(label));
+            assertEquals(expected.getMean(label), actual.getMean(label));
+            assertEquals(expected.getMedian(label), actual.getMedian(label));
+        }
+    }
+
+    @Test
+    public void testVectorizedMatchesSequential() {
+        ParallelStatistics statistics = new ParallelStatistics(pool);
+        assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), statistics.isVectorized());
+        for (int rows : new int[]{1, 3, 17, ROWS.length}) {
+            assertSameStatistics(frame(rows), statistics);
+        }
+    }
+
+    @Test
+    public void testScalarFallbackMatchesSequential() {
+        ParallelStatistics statistics = new ParallelStatistics(pool, false);
+        assertFalse(statistics.isVectorized());
+        for (int rows : new int[]{1, 5, ROWS.length}) {
+            assertSameStatistics(frame(rows), statistics);
+        }
+    }
+
+    @Test
+    public void testIntegerSumsAreExact() {
+        Object[][] data = new Object[1001][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new Object[]{Integer.MAX_VALUE - i, Long.MAX_VALUE / (1L << 24) - i};
+        }
+        DataFrame df = new DataFrame(new String[]{"int", "long"}, data);
+        assertArrayEquals(df.moyenne(), new ParallelStatistics(pool).moyenne(df));
+    }
+
+    @Test
+    public void testWideFrame() {
+        int columns = 300;
+        String[] labels = new String[columns];
+        Object[][] data = new Object[50][columns];
+        for (int c = 0; c < columns; c++) {
+            labels[c] = "c" + c;
+            for (int r = 0; r < data.length; r++) {
+                data[r][c] = (double) (r * c % 13);
+            }
+        }
+        DataFrame df = new DataFrame(labels, data);
+        assertSameStatistics(df, new ParallelStatistics());
+    }
+}
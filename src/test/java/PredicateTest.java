@@ -0,0 +1,134 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PredicateTest {
+
+    private final DataFrame df = new DataFrame(new String[]{"Name", "Age", "Salary", "Id", "Mixed", "Active"}, new Object[][]{
+            {"Ali", 21, 1000.0, 1L, 1, true},
+            {"Serge", 24, null, 2L, 2.5, false},
+            {"Jorane", null, 3000.5, 3L, "x", null},
+            {"Noemie", 23, Double.NaN, null, null, true},
+            {null, 30, -0.0, 5L, 4L, false}
+    });
+
+    private int[] rows(Predicate predicate) {
+        return df.where(predicate).getRows();
+    }
+
+    @Test
+    public void testEquality() {
+        assertArrayEquals(new int[]{1}, rows(Predicate.eq("Name", "Serge")));
+        assertArrayEquals(new int[]{}, rows(Predicate.eq("Name", "Bob")));
+        assertArrayEquals(new int[]{0}, rows(Predicate.eq("Age", 21)));
+        // Like equals, an int column does not match a long value
+        assertArrayEquals(new int[]{}, rows(Predicate.eq("Age", 21L)));
+        assertArrayEquals(new int[]{3}, rows(Predicate.eq("Salary", Double.NaN)));
+        assertArrayEquals(new int[]{}, rows(Predicate.eq("Salary", 0.0)));
+        assertArrayEquals(new int[]{1}, rows(Predicate.eq("Id", 2L)));
+        assertArrayEquals(new int[]{2}, rows(Predicate.eq("Mixed", "x")));
+        assertArrayEquals(new int[]{1, 4}, rows(Predicate.eq("Active", false)));
+        assertArrayEquals(new int[]{}, rows(Predicate.eq("Age", null)));
+        assertArrayEquals(new int[]{0, 1, 3}, rows(Predicate.ne("Age", 30)));
+    }
+
+    @Test
+    public void testComparisons() {
+        assertArrayEquals(new int[]{0, 3}, rows(Predicate.lt("Age", 24)));
+        assertArrayEquals(new int[]{0, 1, 3}, rows(Predicate.le("Age", 24)));
+        assertArrayEquals(new int[]{4}, rows(Predicate.gt("Age", 24)));
+        assertArrayEquals(new int[]{1, 4}, rows(Predicate.ge("Age", 24L)));
+        assertArrayEquals(new int[]{1, 4}, rows(Predicate.gt("Age", 23.5)));
+        assertArrayEquals(new int[]{0, 1, 3, 4}, rows(Predicate.gt("Age", Long.MIN_VALUE)));
+        assertArrayEquals(new int[]{}, rows(Predicate.gt("Age", Long.MAX_VALUE)));
+        // NaN is never compared, -0.0 equals 0.0
+        assertArrayEquals(new int[]{0, 4}, rows(Predicate.lt("Salary", 2000)));
+        assertArrayEquals(new int[]{4}, rows(Predicate.ge("Salary", 0.0).and(Predicate.le("Salary", 0))));
+        assertArrayEquals(new int[]{0, 1}, rows(Predicate.between("Id", 1, 2)));
+        assertArrayEquals(new int[]{0, 2, 3}, rows(Predicate.lt("Name", "Serge").and(Predicate.gt("Name", "Al"))));
+        assertArrayEquals(new int[]{1, 4}, rows(Predicate.ge("Mixed", 2)));
+        assertArrayEquals(new int[]{}, rows(Predicate.lt("Name", 5)));
+        assertArrayEquals(new int[]{0, 3}, rows(Predicate.gt("Active", false)));
+    }
+
+    @Test
+    public void testInAndNulls() {
+        assertArrayEquals(new int[]{0, 3}, rows(Predicate.in("Name", "Noemie", "Ali", "Bob", 3)));
+        assertArrayEquals(new int[]{0, 4}, rows(Predicate.in("Age", 30, 21, 22L)));
+        assertArrayEquals(new int[]{2, 4}, rows(Predicate.in("Id", 3L, 5L, null)));
+        assertArrayEquals(new int[]{4}, rows(Predicate.isNull("Name")));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, rows(Predicate.isNotNull("Name")));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, rows(Predicate.isNotNull("Id").or(Predicate.isNull("Id"))));
+    }
+
+    @Test
+    public void testLogicalOperators() {
+        Predicate young = Predicate.lt("Age", 24);
+        Predicate rich = Predicate.gt("Salary", 2000);
+        assertArrayEquals(new int[]{0, 2, 3}, rows(Predicate.or(young, rich)));
+        assertArrayEquals(new int[]{}, rows(young.and(rich)));
+        // The negation keeps the null cells its operand rejected
+        assertArrayEquals(new int[]{1, 2, 4}, rows(Predicate.not(young)));
+        assertArrayEquals(new int[]{1, 4}, rows(Predicate.not(young.or(rich))));
+        assertArrayEquals(new int[]{}, rows(Predicate.or()));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, rows(Predicate.and()));
+    }
+
+    @Test
+    public void testChainedSelections() {
+        Selection adults = df.where(Predicate.gt("Age", 21));
+        assertEquals(3, adults.size());
+        Selection named = adults.where(Predicate.isNotNull("Name"));
+        assertArrayEquals(new int[]{1, 3}, named.getRows());
+        assertEquals(Arrays.asList("Serge", "Noemie"), named.getColumnValues("Name"));
+        BitSet bits = named.toBitSet();
+        assertTrue(bits.get(1) && bits.get(3) && bits.cardinality() == 2);
+
+        DataFrame filtered = named.toDataFrame();
+        assertEquals(2, filtered.getRowCount());
+        assertEquals(24, filtered.getRowValues(0).get(1));
+        assertEquals(0, df.filter(Predicate.eq("Name", "Bob")).getRowCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownColumn() {
+        df.where(Predicate.eq("Name", "Bob").and(Predicate.eq("Country", "France")));
+    }
+
+    @Test
+    public void testEqualityFilterStillUsesPredicates() {
+        ArrayList<String> columns = new ArrayList<>(Arrays.asList("Age", "Active"));
+        ArrayList<Object> values = new ArrayList<>(Arrays.asList(21, true));
+        assertEquals(df.where(Predicate.eq("Age", 21).and(Predicate.eq("Active", true))).toDataFrame(),
+                df.filter(columns, values));
+    }
+
+    @Test
+    public void testRandomComparisonsMatchBoxedEvaluation() {
+        Random random = new Random(11);
+        int rows = 2000;
+        Object[][] data = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            data[i] = new Object[]{
+                    random.nextInt(10) == 0 ? null : random.nextInt(200) - 100,
+                    random.nextInt(10) == 0 ? null : random.nextInt(200) - 100.5,
+                    random.nextInt(10) == 0 ? null : "s" + random.nextInt(50)
+            };
+        }
+        DataFrame frame = new DataFrame(new String[]{"I", "D", "S"}, data);
+        for (int t = 0; t < 50; t++) {
+            int v = random.nextInt(200) - 100;
+            String s = "s" + random.nextInt(50);
+            int[] expected = java.util.stream.IntStream.range(0, rows).filter(i ->
+                    (data[i][0] != null && (Integer) data[i][0] <= v || data[i][1] != null && (Double) data[i][1] > v)
+                            && !(data[i][2] != null && ((String) data[i][2]).compareTo(s) < 0)).toArray();
+            Predicate predicate = Predicate.le("I", v).or(Predicate.gt("D", v)).and(Predicate.not(Predicate.lt("S", s)));
+            assertArrayEquals(expected, frame.where(predicate).getRows());
+        }
+    }
+}
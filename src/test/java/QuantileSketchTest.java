@@ -0,0 +1,53 @@
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void testFewValuesAreExact() {
+        QuantileSketch sketch = new QuantileSketch(0.25);
+        assertTrue(Double.isNaN(sketch.quantile()));
+        sketch.add(4);
+        assertEquals(4, sketch.quantile(), 0.0);
+        sketch.add(1);
+        sketch.add(Double.NaN);
+        sketch.add(3);
+        assertEquals(3, sketch.count());
+        assertEquals(2, sketch.quantile(), 0.0);
+        sketch.add(2);
+        sketch.add(5);
+        assertEquals(2, sketch.quantile(), 0.0);
+    }
+
+    @Test
+    public void testEstimatesOfSortedAndShuffledStreams() {
+        double[] values = new double[10001];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        for (double p : new double[]{0.1, 0.25, 0.5, 0.75, 0.9}) {
+            QuantileSketch ascending = new QuantileSketch(p);
+            QuantileSketch descending = new QuantileSketch(p);
+            for (int i = 0; i < values.length; i++) {
+                ascending.add(values[i]);
+                descending.add(values[values.length - 1 - i]);
+            }
+            assertEquals(p * 10000, ascending.quantile(), 100);
+            assertEquals(p * 10000, descending.quantile(), 100);
+        }
+
+        Random random = new Random(7);
+        double[] exponential = new double[50000];
+        QuantileSketch median = new QuantileSketch(0.5);
+        for (int i = 0; i < exponential.length; i++) {
+            exponential[i] = -Math.log(1 - random.nextDouble());
+            median.add(exponential[i]);
+        }
+        Arrays.sort(exponential);
+        assertEquals(exponential[exponential.length / 2], median.quantile(), 0.02);
+    }
+}
@@ -0,0 +1,214 @@
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RollingTest {
+
+    private static DataFrame frame() {
+        return new DataFrame(new String[]{"Int", "Long", "Double", "String"}, new Object[][]{
+                {-37, -37_000_000L, -37e6 + 0.25, "a"},
+                {12, null, 12e6 + 0.5, "b"},
+                {null, 88_000_000L, 88e6 + 0.125, "c"},
+                {95, 95_000_000L, null, "d"},
+                {-100, -100_000_000L, -100e6 + 0.75, "e"},
+                {3, 3_000_000L, 3e6 + 0.375, "f"},
+                {3, 3_000_000L, 3e6 + 0.375, "g"},
+                {-64, null, -64e6 + 0.625, "h"},
+                {null, null, null, "i"},
+                {null, 41_000_000L, 41e6 + 0.875, "j"},
+                {70, 70_000_000L, 70e6 + 0.0625, "k"},
+                {-1, -1_000_000L, null, "l"},
+                {0, 0L, 0.5, "m"},
+                {99, 99_000_000L, 99e6 + 0.1, "n"},
+                {-58, -58_000_000L, -58e6 + 0.9, "o"},
+                {26, null, 26e6 + 0.3, "p"},
+                {-99, -99_000_000L, -99e6 + 0.7, "q"},
+                {47, 47_000_000L, 47e6 + 0.2, "r"},
+                {null, -13_000_000L, -13e6 + 0.6, "s"},
+                {8, 8_000_000L, 8e6 + 0.4, "t"},
+                {-25, -25_000_000L, -25e6 + 0.8, "u"},
+                {61, 61_000_000L, null, "v"},
+                {-80, -80_000_000L, -80e6 + 0.15, "w"},
+                {34, 34_000_000L, 34e6 + 0.85, "x"}
+        });
+    }
+
+    /**
+     * Aggregates the non-null cells of rows [from, to] of a column, the slow way.
+     */
+    private static Object expected(Column column, int from, int to, String statistic, int minPeriods) {
+        int count = 0;
+        double sum = 0;
+        Object min = null;
+        Object max = null;
+        for (int row = Math.max(from, 0); row <= to; row++) {
+            if (column.isNull(row)) {
+                continue;
+            }
+            count++;
+            double value = column.getDouble(row);
+            sum += value;
+            if (!Double.isNaN(value)) {
+                if (min == null || value < ((Number) min).doubleValue()) {
+                    min = column.get(row);
+                }
+                if (max == null || value > ((Number) max).doubleValue()) {
+                    max = column.get(row);
+                }
+            }
+        }
+        if (count < minPeriods) {
+            return null;
+        }
+        double mean = sum / count;
+        double squares = 0;
+        for (int row = Math.max(from, 0); row <= to; row++) {
+            if (!column.isNull(row)) {
+                squares += (column.getDouble(row) - mean) * (column.getDouble(row) - mean);
+            }
+        }
+        return switch (statistic) {
+            case "sum" -> sum;
+            case "mean" -> mean;
+            case "std" -> Math.sqrt(squares / count);
+            case "min" -> min;
+            default -> max;
+        };
+    }
+
+    private static DataFrame aggregate(Rolling rolling, String statistic) {
+        return switch (statistic) {
+            case "sum" -> rolling.sum();
+            case "mean" -> rolling.mean();
+            case "std" -> rolling.std();
+            case "min" -> rolling.min();
+            default -> rolling.max();
+        };
+    }
+
+    private static void assertCellEquals(String message, Object expected, Object actual) {
+        if (expected instanceof Double e && actual instanceof Double a) {
+            assertEquals(message, e, a, 1e-6 * Math.max(1, Math.abs(e)));
+        } else {
+            assertEquals(message, expected, actual);
+        }
+    }
+
+    @Test
+    public void testRollingMatchesNaiveWindows() {
+        DataFrame df = frame();
+        int rows = df.getRowCount();
+        String[] labels = {"Int", "Long", "Double"};
+        for (int window : new int[]{1, 3, 5, 17, rows, 1000}) {
+            for (int minPeriods : new int[]{1, Math.min(window, 3), window}) {
+                Rolling rolling = df.rolling(labels, window).minPeriods(minPeriods);
+                for (String statistic : new String[]{"sum", "mean", "std", "min", "max"}) {
+                    DataFrame res = aggregate(rolling, statistic);
+                    assertEquals(rows, res.getRowCount());
+                    assertEquals(df.loc(labels).getColumnLabels(), res.getColumnLabels());
+                    for (String label : labels) {
+                        Column column = df.getColumn(label);
+                        Column actual = res.getColumn(label);
+                        for (int row = 0; row < rows; row++) {
+                            assertCellEquals(label + " " + statistic + " " + window + " row " + row,
+                                    expected(column, row - window + 1, row, statistic, minPeriods), actual.get(row));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testExpanding() {
+        DataFrame df = frame().compress();
+        for (String statistic : new String[]{"sum", "mean", "std", "min", "max"}) {
+            DataFrame res = aggregate(df.expanding("Int", "Double"), statistic);
+            for (String label : new String[]{"Int", "Double"}) {
+                Column column = df.getColumn(label);
+                for (int row = 0; row < df.getRowCount(); row++) {
+                    assertCellEquals(label + " " + statistic + " row " + row,
+                            expected(column, 0, row, statistic, 1), res.getColumn(label).get(row));
+                }
+            }
+        }
+        assertEquals(ColumnType.INT, df.expanding("Int").max().getColumn("Int").getType());
+        assertEquals(ColumnType.DOUBLE, df.expanding("Int").mean().getColumn("Int").getType());
+        assertEquals(df.rolling("Int", df.getRowCount()).minPeriods(1).sum(), df.expanding("Int").sum());
+    }
+
+    @Test
+    public void testPool() {
+        DataFrame df = frame();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Rolling rolling = df.rolling(new String[]{"Int", "Long", "Double"}, 3).minPeriods(2);
+            assertEquals(rolling.std(), rolling.pool(pool).std());
+            assertEquals(df.expanding("Int").max(), df.expanding("Int").pool(pool).minPeriods(1).max());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testLongSeriesStayAccurate() {
+        int rows = 200_000;
+        Object[][] data = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            data[i] = new Object[]{i % 2 == 0 ? 1e9 + 0.1 : 1e-3 * i};
+        }
+        DataFrame df = new DataFrame(new String[]{"V"}, data);
+        DataFrame sums = df.rolling("V", 4).sum();
+        DataFrame std = df.rolling("V", 4).std();
+        Column values = df.getColumn("V");
+        for (int row = rows - 1000; row < rows; row++) {
+            double sum = 0;
+            for (int r = row - 3; r <= row; r++) {
+                sum += values.getDouble(r);
+            }
+            assertEquals(sum, sums.getColumn("V").getDouble(row), 1e-6);
+            double mean = sum / 4;
+            double squares = 0;
+            for (int r = row - 3; r <= row; r++) {
+                squares += (values.getDouble(r) - mean) * (values.getDouble(r) - mean);
+            }
+            assertEquals(Math.sqrt(squares / 4), std.getColumn("V").getDouble(row), 1e-4);
+        }
+    }
+
+    @Test
+    public void testNonFiniteCells() {
+        DataFrame df = new DataFrame(new String[]{"V"}, new Object[][]{
+                {1.0}, {Double.NaN}, {2.0}, {Double.POSITIVE_INFINITY}, {3.0}, {Double.NEGATIVE_INFINITY}, {4.0},
+                {5.0}, {null}, {6.0}
+        });
+        Rolling rolling = df.rolling("V", 2);
+        assertArrayEquals(new Object[]{null, Double.NaN, Double.NaN, Double.POSITIVE_INFINITY,
+                        Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, 9.0, null, null},
+                rolling.sum().getColumnValues("V").toArray());
+        assertArrayEquals(new Object[]{null, 1.0, 2.0, 2.0, 3.0, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, 4.0, null, null},
+                rolling.min().getColumnValues("V").toArray());
+        assertArrayEquals(new Object[]{null, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                        Double.NaN, 0.5, null, null},
+                rolling.std().getColumnValues("V").toArray());
+        assertArrayEquals(new Object[]{1.0, Double.NaN, Double.NaN, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                        Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, 4.5, 5.0, 6.0},
+                rolling.minPeriods(1).mean().getColumnValues("V").toArray());
+        DataFrame nan = new DataFrame(new String[]{"V"}, new Object[][]{{Double.NaN}, {Double.NaN}});
+        assertArrayEquals(new Object[]{null, null}, nan.expanding("V").max().getColumnValues("V").toArray());
+    }
+
+    @Test
+    public void testValidation() {
+        DataFrame df = frame();
+        assertThrows(IllegalArgumentException.class, () -> df.rolling("String", 3));
+        assertThrows(IllegalArgumentException.class, () -> df.rolling("Unknown", 3));
+        assertThrows(IllegalArgumentException.class, () -> df.rolling("Int", 0));
+        assertThrows(IllegalArgumentException.class, () -> df.rolling("Int", 3).minPeriods(4));
+        assertThrows(IllegalArgumentException.class, () -> df.expanding("Int").minPeriods(0));
+        DataFrame empty = df.where(Predicate.isNull("String")).toDataFrame();
+        assertEquals(0, empty.rolling("Int", 3).max().getRowCount());
+    }
+}
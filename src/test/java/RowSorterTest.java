@@ -0,0 +1,133 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RowSorterTest {
+
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    private static Column column(Random random, int rows, int kind) {
+        Object[] values = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            int v = random.nextInt(50) - 25;
+            switch (kind) {
+                case 0 -> values[i] = v * 100_000;
+                case 1 -> values[i] = (long) v << 40;
+                case 2 -> values[i] = v == 0 ? -0.0 : v == 1 ? Double.NaN : v / 3.0;
+                case 3 -> values[i] = v > 0;
+                case 4 -> values[i] = "s" + (v + 25);
+                default -> values[i] = v % 3 == 0 ? (Object) ("o" + v) : (Object) v;
+            }
+            if (random.nextInt(10) == 0) {
+                values[i] = null;
+            }
+        }
+        return Column.of(values);
+    }
+
+    /**
+     * Sorts with a stable comparison sort, nulls last.
+     */
+    private static int[] reference(Column[] keys, boolean[] ascending) {
+        Integer[] rows = new Integer[keys[0].size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        Comparator<Integer> order = (x, y) -> {
+            for (int k = 0; k < keys.length; k++) {
+                boolean nx = keys[k].isNull(x);
+                boolean ny = keys[k].isNull(y);
+                int c;
+                if (nx || ny) {
+                    c = Boolean.compare(nx, ny);
+                } else {
+                    c = KeyOrder.compare(keys[k], x, keys[k], y);
+                    c = ascending[k] ? c : -c;
+                }
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        };
+        Arrays.sort(rows, order);
+        return Arrays.stream(rows).mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    public void testSingleKeys() {
+        Random random = new Random(5);
+        for (int kind = 0; kind < 6; kind++) {
+            Column[] keys = {column(random, 5000, kind)};
+            for (boolean ascending : new boolean[]{true, false}) {
+                boolean[] directions = {ascending};
+                int[] expected = reference(keys, directions);
+                assertArrayEquals(expected, new RowSorter(pool, 300).sort(keys, directions));
+                assertArrayEquals(expected, new RowSorter(ForkJoinPool.commonPool()).sort(keys, directions));
+            }
+        }
+    }
+
+    @Test
+    public void testSeveralKeys() {
+        Random random = new Random(8);
+        for (int round = 0; round < 10; round++) {
+            Column[] keys = {column(random, 3000, random.nextInt(6)), column(random, 3000, random.nextInt(6)),
+                    column(random, 3000, random.nextInt(6))};
+            boolean[] ascending = {random.nextBoolean(), random.nextBoolean(), random.nextBoolean()};
+            assertArrayEquals(reference(keys, ascending), new RowSorter(pool, 250).sort(keys, ascending));
+        }
+    }
+
+    @Test
+    public void testExtremeValues() {
+        Column[] keys = {Column.of(new Object[]{Long.MAX_VALUE, Long.MIN_VALUE, 0L, -1L, 1L})};
+        assertArrayEquals(new int[]{1, 3, 2, 4, 0}, new RowSorter(pool, 2).sort(keys, new boolean[]{true}));
+        keys = new Column[]{Column.of(new Object[]{Double.POSITIVE_INFINITY, 0.0, -0.0, Double.NaN,
+                Double.NEGATIVE_INFINITY})};
+        assertArrayEquals(new int[]{4, 2, 1, 0, 3}, new RowSorter(pool, 2).sort(keys, new boolean[]{true}));
+    }
+
+    @Test
+    public void testMixedNumbersCompareByValue() {
+        // Only boxed integers compare by their long value, so 1.5 is not truncated to 1
+        Column[] keys = {Column.of(new Object[]{new BigDecimal("1.5"), BigInteger.ONE, 2, new BigDecimal("0.5")})};
+        assertArrayEquals(new int[]{3, 1, 0, 2}, new RowSorter(pool, 2).sort(keys, new boolean[]{true}));
+    }
+
+    @Test
+    public void testTopMatchesSort() {
+        Random random = new Random(13);
+        for (int kind = 0; kind < 6; kind++) {
+            Column[] keys = {column(random, 4000, kind)};
+            for (boolean ascending : new boolean[]{true, false}) {
+                int[] sorted = reference(keys, new boolean[]{ascending});
+                int present = keys[0].size() - keys[0].nullCount();
+                for (int k : new int[]{0, 1, 100, present, 5000}) {
+                    int[] expected = Arrays.copyOf(sorted, Math.min(k, present));
+                    assertArrayEquals(expected, new RowSorter(pool, 300).top(keys[0], k, ascending));
+                    assertArrayEquals(expected, new RowSorter(ForkJoinPool.commonPool()).top(keys[0], k, ascending));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WindowTest {
+
+    private static DataFrame sales() {
+        return new DataFrame(new String[]{"Shop", "Day", "Amount", "Price"}, new Object[][]{
+                {"Lyon", 3, 10, 1.5},
+                {"Paris", 1, 20, 2.0},
+                {"Lyon", 1, 5, null},
+                {"Paris", 2, null, 0.5},
+                {"Lyon", 3, 7, 1.0},
+                {null, 4, 1, 3.0},
+                {"Lyon", null, 2, 4.0},
+                {"Paris", 2, 8, 1.0},
+                {null, 2, 3, 0.25}
+        });
+    }
+
+    @Test
+    public void testWindowFunctions() {
+        DataFrame res = sales().over("Shop", "Day")
+                .rowNumber("RowNumber")
+                .rank("Rank")
+                .denseRank("DenseRank")
+                .lag("Amount", 1, "Previous")
+                .lead("Day", 2, "AfterNext")
+                .cumsum("Amount", "Total")
+                .cumsum("Price", "Spent")
+                .toDataFrame();
+        assertEquals(List.of("Shop", "Day", "Amount", "Price", "RowNumber", "Rank", "DenseRank", "Previous",
+                "AfterNext", "Total", "Spent"), res.getColumnLabels());
+        // Lyon: rows 2, 0, 4, 6 ; Paris: rows 1, 3, 7 ; null: rows 8, 5
+        assertEquals(List.of(2, 1, 1, 2, 3, 2, 4, 3, 1), res.getColumnValues("RowNumber"));
+        assertEquals(List.of(2, 1, 1, 2, 2, 2, 4, 2, 1), res.getColumnValues("Rank"));
+        assertEquals(List.of(2, 1, 1, 2, 2, 2, 3, 2, 1), res.getColumnValues("DenseRank"));
+        assertEquals(Arrays.asList(5, null, null, 20, 10, 3, 7, null, null), res.getColumnValues("Previous"));
+        assertEquals(Arrays.asList(null, 2, 3, null, null, null, null, null, null), res.getColumnValues("AfterNext"));
+        assertEquals(Arrays.asList(15L, 20L, 5L, null, 22L, 4L, 24L, 28L, 3L), res.getColumnValues("Total"));
+        assertEquals(Arrays.asList(1.5, 2.0, null, 2.5, 2.5, 3.25, 6.5, 3.5, 0.25), res.getColumnValues("Spent"));
+        assertEquals(ColumnType.INT, res.getColumn("Previous").getType());
+        assertEquals(ColumnType.LONG, res.getColumn("Total").getType());
+        assertEquals(ColumnType.DOUBLE, res.getColumn("Spent").getType());
+    }
+
+    @Test
+    public void testDescendingOrderKeepsNullsLast() {
+        DataFrame res = sales().over("Shop", "Day", false).rowNumber("N").rank("R").toDataFrame();
+        assertEquals(List.of(1, 3, 3, 1, 2, 1, 4, 2, 2), res.getColumnValues("N"));
+        assertEquals(List.of(1, 3, 3, 1, 1, 1, 4, 1, 2), res.getColumnValues("R"));
+    }
+
+    /**
+     * Checks that sorting the rows on a caller-supplied pool gives the same window as the common pool.
+     */
+    @Test
+    public void testCallerPool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            DataFrame expected = sales().over("Shop", "Day", false).rowNumber("N").cumsum("Amount", "Sum")
+                    .toDataFrame();
+            DataFrame res = sales().over("Shop", "Day", false, pool).rowNumber("N").cumsum("Amount", "Sum")
+                    .toDataFrame();
+            assertEquals(expected.getColumnValues("N"), res.getColumnValues("N"));
+            assertEquals(expected.getColumnValues("Sum"), res.getColumnValues("Sum"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks the window functions against the rows of each partition sorted the slow way.
+     */
+    @Test
+    public void testMatchesNaivePartitions() {
+        Random random = new Random(11);
+        int n = 5000;
+        Object[][] data = new Object[n][];
+        for (int i = 0; i < n; i++) {
+            data[i] = new Object[]{
+                    random.nextInt(20) == 0 ? null : "k" + random.nextInt(40),
+                    random.nextInt(20) == 0 ? null : (long) random.nextInt(30) - 15,
+                    random.nextInt(10) == 0 ? null : random.nextInt(1000)
+            };
+        }
+        DataFrame df = new DataFrame(new String[]{"Key", "Order", "Value"}, data).compress();
+        DataFrame res = df.over("Key", "Order").rowNumber("N").rank("R").denseRank("D")
+                .lag("Value", 3, "Lag").lead("Value", 1, "Lead").cumsum("Value", "Sum").toDataFrame();
+        Comparator<Integer> order = Comparator.comparing(row -> (Long) data[row][1],
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        for (Object key : new HashSet<>(df.getColumnValues("Key"))) {
+            List<Integer> rows = new ArrayList<>();
+            for (int row = 0; row < n; row++) {
+                if (Objects.equals(data[row][0], key)) {
+                    rows.add(row);
+                }
+            }
+            rows.sort(order);
+            int rank = 0;
+            int dense = 0;
+            long sum = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                int row = rows.get(i);
+                if (i == 0 || !Objects.equals(data[rows.get(i - 1)][1], data[row][1])) {
+                    rank = i + 1;
+                    dense++;
+                }
+                if (data[row][2] != null) {
+                    sum += (Integer) data[row][2];
+                }
+                assertEquals(i + 1, res.getColumn("N").get(row));
+                assertEquals(rank, res.getColumn("R").get(row));
+                assertEquals(dense, res.getColumn("D").get(row));
+                assertEquals(i >= 3 ? data[rows.get(i - 3)][2] : null, res.getColumn("Lag").get(row));
+                assertEquals(i + 1 < rows.size() ? data[rows.get(i + 1)][2] : null, res.getColumn("Lead").get(row));
+                assertEquals(data[row][2] == null ? null : sum, res.getColumn("Sum").get(row));
+            }
+        }
+    }
+
+    @Test
+    public void testValidation() {
+        DataFrame df = sales();
+        assertThrows(IllegalArgumentException.class, () -> df.over("Unknown", "Day"));
+        assertThrows(IllegalArgumentException.class, () -> df.over("Shop", "Unknown"));
+        Window window = df.over("Shop", "Day");
+        assertThrows(IllegalArgumentException.class, () -> window.cumsum("Shop", "Total"));
+        assertThrows(IllegalArgumentException.class, () -> window.lag("Amount", -1, "Previous"));
+        assertThrows(IllegalArgumentException.class, () -> window.rowNumber("Day"));
+        assertThrows(IllegalArgumentException.class, () -> window.rank("R").denseRank("R"));
+        assertEquals(df.getColumnLabels(), window.toDataFrame().getColumnLabels());
+        DataFrame empty = df.where(Predicate.isNull("Amount")).toDataFrame().where(Predicate.isNull("Day")).toDataFrame();
+        assertEquals(0, empty.over("Shop", "Day").rowNumber("N").cumsum("Price", "S").toDataFrame().getRowCount());
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OffHeapTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+    private static final String[] LABELS = {"Int", "Long", "Double", "Bool", "String", "Mixed"};
+
+    private static DataFrame frame() {
+        return new DataFrame(LABELS, new Object[][]{
+                {12, 12L << 35, 3.0, true, "k5", 12},
+                {-20, -20L << 35, -5.0, false, "k-6", 20},
+                {7, 7L << 35, 1.75, false, "k0", "m7"},
+                {null, 3L << 35, 0.75, true, "k3", "m3"},
+                {39, null, 9.75, true, "k4", "m39"},
+                {0, 0L, null, true, null, 0},
+                {-5, -5L << 35, -1.25, null, "k-5", "m-5"},
+                {16, 16L << 35, 4.0, false, "k2", 16},
+                {1, 1L << 35, 0.25, false, "k1", "m1"},
+                {-9, -9L << 35, -2.25, true, "k-2", "m-9"},
+                {null, null, null, null, null, 8},
+                {22, 22L << 35, 5.5, false, "k1", 22},
+                {7, 7L << 35, 1.75, false, "k0", "m7"},
+                {-14, -14L << 35, -3.5, false, "k0", -14},
+                {30, 30L << 35, 7.5, true, "k2", 30},
+                {3, 3L << 35, 0.75, true, "k3", "m3"}
+        });
+    }
+
+    /**
+     * Returns the literal frame appended to itself until it holds 2048 rows, enough for the heap memory of its
+     * columns to be dominated by their cells.
+     */
+    private static DataFrame largeFrame() {
+        DataFrame df = frame();
+        for (int i = 0; i < 7; i++) {
+            df.appendFrame(df);
+        }
+        return df;
+    }
+
+    @Test
+    public void testColumnsAreStoredOffHeap() {
+        DataFrame df = largeFrame();
+        try (DataFrame offHeap = df.offHeap()) {
+            assertEquals(df, offHeap);
+            for (String label : new String[]{"Int", "Long", "Double", "Bool"}) {
+                Column column = offHeap.getColumn(label);
+                assertTrue(label, column instanceof OffHeapColumn);
+                assertEquals(label, df.getColumn(label).getType(), column.getType());
+                assertEquals(label, df.getColumn(label).nullCount(), column.nullCount());
+                assertTrue(label, column.getMemoryBytes() < df.getColumn(label).getMemoryBytes() / 4);
+            }
+            assertEquals(4 * 2048, ((OffHeapColumn) offHeap.getColumn("Int")).getOffHeapBytes());
+            OffHeapStringColumn strings = (OffHeapStringColumn) offHeap.getColumn("String");
+            assertEquals(ColumnType.STRING, strings.getType());
+            assertEquals(4 * 2048, strings.getOffHeapBytes());
+            assertTrue(strings.getMemoryBytes() < df.getColumn("String").getMemoryBytes() / 4);
+            assertSame(df.getColumn("Mixed"), offHeap.getColumn("Mixed"));
+        }
+    }
+
+    @Test
+    public void testAccessors() {
+        DataFrame df = frame();
+        try (DataFrame offHeap = df.offHeap()) {
+            for (String label : LABELS) {
+                assertEquals(label, df.getColumnValues(label), offHeap.getColumnValues(label));
+            }
+            for (int row = 0; row < df.getRowCount(); row += 3) {
+                assertEquals(df.getRowValues(row), offHeap.getRowValues(row));
+            }
+            Column ints = offHeap.getColumn("Int");
+            Column longs = offHeap.getColumn("Long");
+            Column doubles = offHeap.getColumn("Double");
+            for (int row = 0; row < df.getRowCount(); row++) {
+                if (!ints.isNull(row)) {
+                    assertEquals(df.getColumn("Int").getInt(row), ints.getInt(row));
+                    assertEquals(df.getColumn("Int").getLong(row), ints.getLong(row));
+                }
+                if (!longs.isNull(row)) {
+                    assertEquals(df.getColumn("Long").getLong(row), longs.getLong(row));
+                    assertEquals(df.getColumn("Long").getDouble(row), longs.getDouble(row), 0);
+                }
+            }
+            assertThrows(UnsupportedOperationException.class, () -> longs.getInt(0));
+            assertThrows(UnsupportedOperationException.class, () -> doubles.getLong(0));
+            assertThrows(UnsupportedOperationException.class, () -> doubles.getBoolean(0));
+            assertThrows(UnsupportedOperationException.class, () -> offHeap.getColumn("Bool").getDouble(0));
+
+            int[] rows = {3, -1, 15, 0, 3};
+            for (String label : LABELS) {
+                Column expected = df.getColumn(label).take(rows);
+                Column actual = offHeap.getColumn(label).take(rows);
+                assertEquals(label, expected.getClass(), actual.getClass());
+                for (int i = 0; i < rows.length; i++) {
+                    assertEquals(label, expected.get(i), actual.get(i));
+                }
+            }
+            assertEquals(df.iloc(new int[]{4, 2, 9}), offHeap.iloc(new int[]{4, 2, 9}));
+        }
+    }
+
+    @Test
+    public void testStatisticsAndQueries() {
+        DataFrame df = frame();
+        try (DataFrame offHeap = df.offHeap()) {
+            assertArrayEquals(df.moyenne(), offHeap.moyenne());
+            assertArrayEquals(df.count(), offHeap.count());
+            assertArrayEquals(df.minEtMax()[0], offHeap.minEtMax()[0]);
+            assertArrayEquals(df.sd(df.moyenne()), offHeap.sd(offHeap.moyenne()));
+            Description expected = df.summary();
+            Description actual = offHeap.summary();
+            for (String label : LABELS) {
+                assertEquals(expected.getCount(label), actual.getCount(label));
+                assertEquals(expected.getMean(label), actual.getMean(label));
+                assertEquals(expected.getMax(label), actual.getMax(label));
+            }
+            ParallelStatistics parallel = new ParallelStatistics(POOL);
+            assertArrayEquals(df.moyenne(), parallel.moyenne(offHeap));
+
+            for (String key : LABELS) {
+                assertEquals(key, df.groupby(key, Aggregation.SUM), offHeap.groupby(key, Aggregation.SUM));
+                assertEquals(key, new ParallelGroupBy(POOL, 4).groupby(df, key, Aggregation.MEAN),
+                        new ParallelGroupBy(POOL, 4).groupby(offHeap, key, Aggregation.MEAN));
+            }
+            for (Predicate predicate : new Predicate[]{
+                    Predicate.eq("Int", 12), Predicate.between("Long", 0, 1L << 38), Predicate.gt("Double", 3.5),
+                    Predicate.eq("Bool", true), Predicate.in("String", "k3", "k-5"), Predicate.lt("String", "k2"),
+                    Predicate.isNull("Int"), Predicate.and(Predicate.eq("String", "k1"), Predicate.ge("Int", 0))}) {
+                assertArrayEquals(df.where(predicate).getRows(), offHeap.where(predicate).getRows());
+            }
+            assertArrayEquals(df.sortBy("String", "Double").getRows(), offHeap.sortBy("String", "Double").getRows());
+            assertArrayEquals(df.nsmallest(5, "Long").getRows(), offHeap.nsmallest(5, "Long").getRows());
+            offHeap.createIndex("Int");
+            assertArrayEquals(df.where(Predicate.eq("Int", 7)).getRows(),
+                    offHeap.where(Predicate.eq("Int", 7)).getRows());
+            DataFrame keys = new DataFrame(new String[]{"String", "Code"}, new Object[][]{{"k1", 1}, {"k2", 2}});
+            assertEquals(df.join(keys, "String", "String", JoinType.INNER),
+                    offHeap.join(keys, "String", "String", JoinType.INNER));
+            assertEquals(df, offHeap.compress());
+        }
+    }
+
+    @Test
+    public void testClose() {
+        DataFrame df = frame();
+        DataFrame offHeap = df.offHeap();
+        DataFrame copy = offHeap.filter(Predicate.ge("Int", 0));
+        DataFrame shared = offHeap.loc(new String[]{"Int"});
+        offHeap.close();
+        assertThrows(IllegalStateException.class, () -> offHeap.getColumnValues("Int"));
+        assertThrows(IllegalStateException.class, () -> offHeap.getColumn("String").get(0));
+        assertThrows(IllegalStateException.class, () -> shared.getRowValues(0));
+        assertEquals(df.filter(Predicate.ge("Int", 0)), copy);
+        assertEquals(df.getColumnValues("Mixed"), offHeap.getColumnValues("Mixed"));
+        offHeap.close();
+        df.close();
+        assertEquals(16, df.getRowCount());
+    }
+
+    @Test
+    public void testEmptyAndLoadedFrames() {
+        DataFrame empty = new DataFrame(new ArrayList<>(Arrays.asList("A", "B")),
+                new Column[]{new IntColumn(new int[0], 0, null), Column.of(new Object[0])});
+        try (DataFrame offHeap = empty.offHeap()) {
+            assertEquals(0, offHeap.getRowCount());
+            assertEquals(empty, offHeap);
+        }
+        DataFrame compressed = largeFrame().compress();
+        try (DataFrame offHeap = compressed.offHeap()) {
+            assertEquals(compressed, offHeap);
+            assertSame(compressed.getColumn("String"), offHeap.getColumn("String"));
+        }
+    }
+}